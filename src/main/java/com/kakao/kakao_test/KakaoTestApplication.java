@@ -2,16 +2,22 @@ package com.kakao.kakao_test;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableJpaAuditing
 @EnableAsync
+@EnableScheduling
 @SpringBootApplication
 public class KakaoTestApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(KakaoTestApplication.class, args);
+        SpringApplication app = new SpringApplication(KakaoTestApplication.class);
+        // 기동 단계별 소요 시간 기록 (StartupReport, /actuator/startup)
+        app.setApplicationStartup(new BufferingApplicationStartup(4096));
+        app.run(args);
     }
 
 }
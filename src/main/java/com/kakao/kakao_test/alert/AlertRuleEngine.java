@@ -0,0 +1,463 @@
+package com.kakao.kakao_test.alert;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.domain.AlertMetric;
+import com.kakao.kakao_test.domain.AlertRule;
+import com.kakao.kakao_test.domain.AlertRuleType;
+import com.kakao.kakao_test.domain.ServerMetric;
+import com.kakao.kakao_test.dto.AlertRuleDto;
+import com.kakao.kakao_test.dto.AlertRuleRequest;
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.exception.BadRequestException;
+import com.kakao.kakao_test.exception.NotFoundException;
+import com.kakao.kakao_test.ingest.LogLineClassifier;
+import com.kakao.kakao_test.repository.AlertRuleRepository;
+import com.kakao.kakao_test.repository.TargetServerRepository;
+import com.kakao.kakao_test.service.DiscordNotificationService;
+import com.kakao.kakao_test.snapshot.SnapshotParticipant;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 서버별 알림 규칙 평가
+ * - 규칙은 서버별로 한 번 읽어 종류별 평가기 배열로 바꿔 두고(refresh-seconds 마다 / 규칙 변경 시 다시 읽음), 수신 이벤트마다 해당 종류만 평가
+ * - 평가기는 슬라이딩 윈도우 카운터/연속 횟수만 들고 있어 규칙 1개당 이벤트 1건 O(1) (에러 비율은 배치당 1번)
+ * - 쿨타임은 규칙별 (서버 전체 10분 쿨타임 대신)
+ * - 규칙이 하나도 없는 서버는 alert.defaults.error-log 설정에 따라 "ERROR 가 오면 알림" 규칙 1개를 사용
+ * - 디스코드 전송은 서버별 락을 푼 뒤에 함
+ * - 규칙별 마지막 알림 시각(쿨타임)은 스냅샷에 서버 + 규칙 signature 로 저장 -> 재시작 직후 같은 알림이 다시 울리지 않음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertRuleEngine implements ServerScopedState, SnapshotParticipant {
+
+    private static final int MAX_WINDOW_SECONDS = 86_400;
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final TargetServerRepository targetServerRepository;
+    private final DiscordNotificationService discordNotificationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${alert.rules.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    @Value("${alert.defaults.error-log:true}")
+    private boolean defaultErrorLog;
+
+    @Value("${alert.defaults.cooldown-seconds:600}")
+    private int defaultCooldownSeconds;
+
+    @Value("${alert.defaults.cpu-percent:80}")
+    private double defaultCpuPercent;
+
+    @Value("${alert.defaults.memory-percent:90}")
+    private double defaultMemoryPercent;
+
+    private final Map<String, CompiledRules> servers = new ConcurrentHashMap<>();
+    // 스냅샷에서 복원했지만 아직 규칙을 읽지 않은 서버의 쿨타임 (서버 -> signature -> 마지막 알림 시각)
+    private final Map<String, Map<String, Long>> restoredCooldowns = new ConcurrentHashMap<>();
+
+    // ===================== 수신 시 평가 =====================
+
+    /**
+     * 메트릭 배치 평가 (샘플 시각 순서로 전달할 것)
+     * @return 보낸 알림 수
+     */
+    public int onMetrics(String serverName, String webhookUrl, List<ServerMetric> metrics) {
+        CompiledRules rules = rulesFor(serverName);
+        if (rules == null || rules.metric.length == 0 || metrics.isEmpty()) return 0;
+
+        long now = System.currentTimeMillis();
+        List<Firing> firings = new ArrayList<>();
+        synchronized (rules.lock) {
+            for (ServerMetric m : metrics) {
+                long ts = m.getCapturedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                double mem = m.getMemoryMaxMb() > 0 ? m.getMemoryUsedMb() / m.getMemoryMaxMb() * 100.0 : 0.0;
+                for (MetricThresholdEvaluator e : rules.metric) {
+                    collect(firings, e, e.onMetric(now, ts, m.getCpuUsage(), mem));
+                }
+            }
+        }
+        return send(serverName, webhookUrl, firings);
+    }
+
+    /**
+     * 로그 배치 평가 (샘플링 전 원본 기준 -> 비율이 샘플링에 흔들리지 않음)
+     * - 줄마다 에러 여부를 한 번만 판단하고, 에러 줄에만 패턴 규칙 적용
+     */
+    public int onLogs(String serverName, String webhookUrl, List<LogEventDto> events) {
+        CompiledRules rules = rulesFor(serverName);
+        if (rules == null || (rules.rate.length == 0 && rules.pattern.length == 0) || events.isEmpty()) return 0;
+
+        long now = System.currentTimeMillis();
+        List<Firing> firings = new ArrayList<>();
+        int errorLines = 0;
+        String firstError = null;
+        synchronized (rules.lock) {
+            for (LogEventDto e : events) {
+                boolean error = LogLineClassifier.isError(e.getLevel());
+                if (error) {
+                    errorLines++;
+                    if (firstError == null) firstError = e.getMessage();
+                }
+                if (rules.pattern.length == 0 || !(error || LogLineClassifier.isErrorLike(e.getLevel(), e.getMessage()))) {
+                    continue;
+                }
+                String message = e.getMessage() == null ? "" : e.getMessage();
+                for (ExceptionPatternEvaluator p : rules.pattern) {
+                    collect(firings, p, p.onErrorLine(now, message));
+                }
+            }
+            for (ErrorRateEvaluator r : rules.rate) {
+                collect(firings, r, r.onLogs(now, events.size(), errorLines, firstError));
+            }
+        }
+        return send(serverName, webhookUrl, firings);
+    }
+
+    /**
+     * health probe 1건 평가 (status 는 정규화된 UP/DOWN/UNKNOWN/OUT_OF_SERVICE)
+     */
+    public int onHealth(String serverName, String webhookUrl, String status) {
+        CompiledRules rules = rulesFor(serverName);
+        if (rules == null || rules.health.length == 0) return 0;
+
+        long now = System.currentTimeMillis();
+        List<Firing> firings = new ArrayList<>();
+        synchronized (rules.lock) {
+            for (HealthDownEvaluator h : rules.health) {
+                collect(firings, h, h.onHealth(now, status));
+            }
+        }
+        return send(serverName, webhookUrl, firings);
+    }
+
+    /**
+     * 트렌드/이상 구간 요약에서 "임계치 초과" 로 볼 기준값
+     * - 서버에 해당 메트릭 규칙이 있으면 그중 가장 낮은 값, 없으면 alert.defaults
+     */
+    public double thresholdFor(String serverName, AlertMetric metric) {
+        double fallback = metric == AlertMetric.CPU ? defaultCpuPercent : defaultMemoryPercent;
+        CompiledRules rules = rulesFor(serverName);
+        if (rules == null) return fallback;
+
+        double min = Double.MAX_VALUE;
+        for (MetricThresholdEvaluator e : rules.metric) {
+            if (e.metric() == metric) min = Math.min(min, e.threshold());
+        }
+        return min == Double.MAX_VALUE ? fallback : min;
+    }
+
+    // ===================== 규칙 관리 (AdminController) =====================
+
+    @Transactional(readOnly = true)
+    public List<AlertRuleDto> list(String serverName) {
+        targetServerRepository.getByServerName(serverName);
+        return alertRuleRepository.findByServerNameOrderById(serverName).stream().map(AlertRuleDto::from).toList();
+    }
+
+    @Transactional
+    public AlertRuleDto create(String serverName, AlertRuleRequest req) {
+        targetServerRepository.getByServerName(serverName);
+        AlertRule rule = AlertRule.builder().serverName(serverName).build();
+        apply(rule, req);
+        alertRuleRepository.save(rule);
+        invalidate(serverName);
+        log.info("🔔 {} 서버 알림 규칙 추가: {} ({})", serverName, rule.getName(), rule.getType());
+        return AlertRuleDto.from(rule);
+    }
+
+    @Transactional
+    public AlertRuleDto update(String serverName, Long id, AlertRuleRequest req) {
+        AlertRule rule = findRule(serverName, id);
+        apply(rule, req);
+        invalidate(serverName);
+        log.info("🔔 {} 서버 알림 규칙 변경: {} ({})", serverName, rule.getName(), rule.getType());
+        return AlertRuleDto.from(rule);
+    }
+
+    @Transactional
+    public void delete(String serverName, Long id) {
+        AlertRule rule = findRule(serverName, id);
+        alertRuleRepository.delete(rule);
+        invalidate(serverName);
+        log.info("🔕 {} 서버 알림 규칙 삭제: {}", serverName, rule.getName());
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(servers.keySet());
+    }
+
+    @Override
+    public void forget(String serverName) {
+        servers.remove(serverName);
+        restoredCooldowns.remove(serverName);
+    }
+
+    @Override
+    public String snapshotName() {
+        return "alert.cooldowns";
+    }
+
+    @Override
+    public int snapshotVersion() {
+        return 1;
+    }
+
+    @Override
+    public void writeSnapshot(DataOutputStream out) throws IOException {
+        Map<String, Map<String, Long>> cooldowns = new HashMap<>();
+        restoredCooldowns.forEach((server, fired) -> cooldowns.put(server, new HashMap<>(fired)));
+        for (Map.Entry<String, CompiledRules> e : Map.copyOf(servers).entrySet()) {
+            CompiledRules rules = e.getValue();
+            Map<String, Long> fired = cooldowns.computeIfAbsent(e.getKey(), k -> new HashMap<>());
+            synchronized (rules.lock) {
+                for (RuleEvaluator r : rules.byId.values()) {
+                    if (r.lastFiredAt() != Long.MIN_VALUE) fired.merge(r.signature(), r.lastFiredAt(), Math::max);
+                }
+            }
+        }
+        cooldowns.values().removeIf(Map::isEmpty);
+
+        out.writeInt(cooldowns.size());
+        for (Map.Entry<String, Map<String, Long>> e : cooldowns.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeInt(e.getValue().size());
+            for (Map.Entry<String, Long> f : e.getValue().entrySet()) {
+                out.writeUTF(f.getKey());
+                out.writeLong(f.getValue());
+            }
+        }
+    }
+
+    // 규칙은 아직 읽지 않았으므로 보관만 하고, 서버별로 처음 규칙을 읽을 때 같은 signature 의 평가기에 적용
+    @Override
+    public void restoreSnapshot(DataInputStream in, long savedAtMillis) throws IOException {
+        int servers = in.readInt();
+        for (int i = 0; i < servers; i++) {
+            String serverName = in.readUTF();
+            int n = in.readInt();
+            Map<String, Long> fired = new HashMap<>();
+            for (int j = 0; j < n; j++) {
+                fired.put(in.readUTF(), in.readLong());
+            }
+            restoredCooldowns.put(serverName, fired);
+        }
+    }
+
+    // ===================== 내부 =====================
+
+    private CompiledRules rulesFor(String serverName) {
+        CompiledRules current = servers.get(serverName);
+        long now = System.currentTimeMillis();
+        if (current != null && now - current.loadedAt < refreshSeconds * 1000) {
+            return current;
+        }
+        // 최초 1회 + refresh 주기 / 규칙 변경 시에만 DB 조회
+        List<AlertRule> rules = new ArrayList<>(alertRuleRepository.findByServerNameAndEnabledTrue(serverName));
+        if (rules.isEmpty() && defaultErrorLog) {
+            rules.add(defaultErrorRule(serverName));
+        }
+        CompiledRules compiled = compile(rules, current, now);
+        Map<String, Long> restored = restoredCooldowns.remove(serverName);
+        if (restored != null) {
+            synchronized (compiled.lock) {
+                for (RuleEvaluator e : compiled.byId.values()) {
+                    Long firedAt = restored.get(e.signature());
+                    if (firedAt != null) e.restoreLastFiredAt(firedAt);
+                }
+            }
+        }
+        servers.put(serverName, compiled);
+        return compiled;
+    }
+
+    // 평가 조건이 같은 규칙은 기존 평가기(윈도우 상태)를 그대로 이어서 씀
+    private CompiledRules compile(List<AlertRule> rules, CompiledRules previous, long now) {
+        Object lock = previous == null ? new Object() : previous.lock;
+        List<MetricThresholdEvaluator> metric = new ArrayList<>();
+        List<ErrorRateEvaluator> rate = new ArrayList<>();
+        List<ExceptionPatternEvaluator> pattern = new ArrayList<>();
+        List<HealthDownEvaluator> health = new ArrayList<>();
+
+        synchronized (lock) {
+            for (AlertRule rule : rules) {
+                RuleEvaluator reused = previous == null ? null : previous.byId.get(rule.getId() == null ? -1L : rule.getId());
+                RuleEvaluator e = (reused != null && reused.signature().equals(rule.signature())) ? reused : create(rule);
+                if (e == null) continue;
+                e.retune(rule);
+                if (e instanceof MetricThresholdEvaluator m) metric.add(m);
+                else if (e instanceof ErrorRateEvaluator r) rate.add(r);
+                else if (e instanceof ExceptionPatternEvaluator p) pattern.add(p);
+                else if (e instanceof HealthDownEvaluator h) health.add(h);
+            }
+        }
+        return new CompiledRules(lock, now,
+                metric.toArray(MetricThresholdEvaluator[]::new),
+                rate.toArray(ErrorRateEvaluator[]::new),
+                pattern.toArray(ExceptionPatternEvaluator[]::new),
+                health.toArray(HealthDownEvaluator[]::new));
+    }
+
+    private RuleEvaluator create(AlertRule rule) {
+        try {
+            return switch (rule.getType()) {
+                case METRIC_THRESHOLD -> new MetricThresholdEvaluator(rule);
+                case ERROR_RATE -> new ErrorRateEvaluator(rule);
+                case EXCEPTION_PATTERN -> new ExceptionPatternEvaluator(rule);
+                case HEALTH_DOWN -> new HealthDownEvaluator(rule);
+            };
+        } catch (RuntimeException e) {
+            // DB 에 직접 넣은 잘못된 규칙 1개 때문에 나머지 규칙까지 멈추지 않도록
+            log.warn("⚠️ 알림 규칙 무시 (id: {}, {}): {}", rule.getId(), rule.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private AlertRule defaultErrorRule(String serverName) {
+        return AlertRule.builder()
+                .serverName(serverName)
+                .name("기본: ERROR 로그")
+                .type(AlertRuleType.ERROR_RATE)
+                .threshold(0)
+                .windowSeconds(60)
+                .minCount(1)
+                .cooldownSeconds(defaultCooldownSeconds)
+                .enabled(true)
+                .build();
+    }
+
+    private void invalidate(String serverName) {
+        CompiledRules current = servers.get(serverName);
+        if (current != null) current.loadedAt = 0;
+    }
+
+    private void collect(List<Firing> firings, RuleEvaluator e, String message) {
+        if (message != null) firings.add(new Firing(e.name(), message));
+    }
+
+    private int send(String serverName, String webhookUrl, List<Firing> firings) {
+        for (Firing f : firings) {
+            discordNotificationService.sendRuleAlert(webhookUrl, serverName, f.ruleName(), f.message());
+            meterRegistry.counter("alert.rules.fired").increment();
+            log.info("🔔 알림 규칙 발동 (서버: {}, 규칙: {})", serverName, f.ruleName());
+        }
+        return firings.size();
+    }
+
+    private AlertRule findRule(String serverName, Long id) {
+        return alertRuleRepository.findByIdAndServerName(id, serverName)
+                .orElseThrow(() -> new NotFoundException("알림 규칙을 찾을 수 없습니다: " + serverName + " #" + id));
+    }
+
+    // 요청값 검증 + 종류별 기본값
+    private void apply(AlertRule rule, AlertRuleRequest req) {
+        AlertRuleType type = req.getType();
+        if (type == null) {
+            throw new BadRequestException("알림 규칙 종류(type)가 필요합니다: " + List.of(AlertRuleType.values()));
+        }
+        AlertMetric metric = null;
+        String pattern = null;
+        double threshold = 0;
+        int window = orDefault(req.getWindowSeconds(), 60);
+        int minCount = 0;
+
+        switch (type) {
+            case METRIC_THRESHOLD -> {
+                metric = req.getMetric();
+                if (metric == null) throw new BadRequestException("METRIC_THRESHOLD 규칙은 metric(CPU/MEMORY)이 필요합니다.");
+                threshold = req.getThreshold() != null ? req.getThreshold()
+                        : (metric == AlertMetric.CPU ? defaultCpuPercent : defaultMemoryPercent);
+                requirePercent(threshold);
+            }
+            case ERROR_RATE -> {
+                threshold = req.getThreshold() != null ? req.getThreshold() : 5.0;
+                requirePercent(threshold);
+                minCount = orDefault(req.getMinCount(), 20);
+            }
+            case EXCEPTION_PATTERN -> {
+                pattern = req.getPattern();
+                if (pattern == null || pattern.isBlank()) {
+                    throw new BadRequestException("EXCEPTION_PATTERN 규칙은 pattern(정규식)이 필요합니다.");
+                }
+                try {
+                    Pattern.compile(pattern);
+                } catch (PatternSyntaxException e) {
+                    throw new BadRequestException("pattern 이 올바른 정규식이 아닙니다: " + e.getDescription());
+                }
+                minCount = orDefault(req.getMinCount(), 1);
+            }
+            case HEALTH_DOWN -> minCount = orDefault(req.getMinCount(), 3);
+        }
+
+        int cooldown = orDefault(req.getCooldownSeconds(), defaultCooldownSeconds);
+        if (window < 0 || window > MAX_WINDOW_SECONDS || (type != AlertRuleType.METRIC_THRESHOLD && window == 0)) {
+            throw new BadRequestException("windowSeconds 는 1 ~ " + MAX_WINDOW_SECONDS + " 사이여야 합니다.");
+        }
+        if (minCount < 0 || cooldown < 0) {
+            throw new BadRequestException("minCount / cooldownSeconds 는 0 이상이어야 합니다.");
+        }
+        String name = (req.getName() == null || req.getName().isBlank()) ? type.name().toLowerCase() : req.getName().trim();
+        if (name.length() > 100) {
+            throw new BadRequestException("규칙 이름은 100자 이하여야 합니다.");
+        }
+
+        rule.update(name, type, metric, threshold, window, minCount, pattern, cooldown,
+                req.getEnabled() == null || req.getEnabled());
+    }
+
+    private static void requirePercent(double value) {
+        if (value < 0 || value > 100) throw new BadRequestException("threshold 는 0 ~ 100 (%) 사이여야 합니다.");
+    }
+
+    private static int orDefault(Integer value, int fallback) {
+        return value == null ? fallback : value;
+    }
+
+    private record Firing(String ruleName, String message) {}
+
+    /**
+     * 서버 1대의 컴파일된 규칙 (종류별 배열 -> 이벤트마다 해당 종류만 순회)
+     */
+    private static final class CompiledRules {
+        final Object lock;               // 다시 읽어도 같은 락을 이어서 씀 (평가기 재사용 때문)
+        volatile long loadedAt;
+        final MetricThresholdEvaluator[] metric;
+        final ErrorRateEvaluator[] rate;
+        final ExceptionPatternEvaluator[] pattern;
+        final HealthDownEvaluator[] health;
+        final Map<Long, RuleEvaluator> byId = new HashMap<>();
+
+        CompiledRules(Object lock, long loadedAt, MetricThresholdEvaluator[] metric, ErrorRateEvaluator[] rate,
+                      ExceptionPatternEvaluator[] pattern, HealthDownEvaluator[] health) {
+            this.lock = lock;
+            this.loadedAt = loadedAt;
+            this.metric = metric;
+            this.rate = rate;
+            this.pattern = pattern;
+            this.health = health;
+            for (RuleEvaluator[] group : new RuleEvaluator[][]{metric, rate, pattern, health}) {
+                for (RuleEvaluator e : group) byId.put(e.ruleId(), e);
+            }
+        }
+    }
+}
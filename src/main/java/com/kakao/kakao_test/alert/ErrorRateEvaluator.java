@@ -0,0 +1,45 @@
+package com.kakao.kakao_test.alert;
+
+import com.kakao.kakao_test.domain.AlertRule;
+
+/**
+ * ERROR_RATE: 최근 windowSeconds 동안 ERROR 줄 비율이 threshold(%) 를 넘으면
+ * - 전체 줄 수가 minCount 미만이면 평가하지 않음 (몇 줄 안 되는 구간의 100% 오탐 방지)
+ * - threshold 0 + minCount 1 이면 "ERROR 가 1줄이라도 오면" (규칙이 없는 서버의 기본 동작)
+ */
+final class ErrorRateEvaluator extends RuleEvaluator {
+
+    private final double thresholdPercent;
+    private final int minLines;
+    private final int windowSeconds;
+    private final SlidingWindowCounter total;
+    private final SlidingWindowCounter errors;
+
+    ErrorRateEvaluator(AlertRule rule) {
+        super(rule);
+        this.thresholdPercent = rule.getThreshold();
+        this.minLines = Math.max(1, rule.getMinCount());
+        this.windowSeconds = rule.getWindowSeconds();
+        this.total = new SlidingWindowCounter(windowSeconds);
+        this.errors = new SlidingWindowCounter(windowSeconds);
+    }
+
+    /**
+     * 배치 1개분 집계를 한 번에 반영 (줄 단위 루프는 엔진에서 1번만 돎)
+     */
+    String onLogs(long nowMillis, int lines, int errorLines, String firstError) {
+        total.add(nowMillis, lines);
+        errors.add(nowMillis, errorLines);
+        if (errorLines == 0) return null;
+
+        long t = total.sum(nowMillis);
+        long e = errors.sum(nowMillis);
+        double rate = e * 100.0 / t;
+        if (t < minLines || rate <= thresholdPercent) return null;
+
+        return fire(nowMillis, String.format("""
+                최근 %d초 ERROR %d건 / 전체 %d줄 (%.1f%%, 기준 %.1f%%)
+                📋 **내용 요약:**
+                `%s`""", windowSeconds, e, t, rate, thresholdPercent, summarize(firstError)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.kakao.kakao_test.alert;
+
+import com.kakao.kakao_test.domain.AlertRule;
+
+import java.util.regex.Pattern;
+
+/**
+ * EXCEPTION_PATTERN: pattern 에 맞는 에러 줄이 최근 windowSeconds 동안 minCount 번 이상이면
+ * - 정규식은 에러로 보이는 줄(ERROR 이상 또는 예외 흔적)에만 적용 -> 대부분인 INFO 줄에는 비용 없음
+ */
+final class ExceptionPatternEvaluator extends RuleEvaluator {
+
+    private final Pattern pattern;
+    private final int minCount;
+    private final int windowSeconds;
+    private final SlidingWindowCounter matches;
+
+    ExceptionPatternEvaluator(AlertRule rule) {
+        super(rule);
+        this.pattern = Pattern.compile(rule.getPattern());
+        this.minCount = Math.max(1, rule.getMinCount());
+        this.windowSeconds = rule.getWindowSeconds();
+        this.matches = new SlidingWindowCounter(windowSeconds);
+    }
+
+    String onErrorLine(long nowMillis, String message) {
+        if (!pattern.matcher(message).find()) return null;
+        matches.add(nowMillis, 1);
+        long n = matches.sum(nowMillis);
+        if (n < minCount) return null;
+        return fire(nowMillis, String.format("""
+                패턴 `%s` 최근 %d초 %d회 발생
+                📋 **내용 요약:**
+                `%s`""", pattern.pattern(), windowSeconds, n, summarize(message)));
+    }
+}
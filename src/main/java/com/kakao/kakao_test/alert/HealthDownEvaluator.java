@@ -0,0 +1,31 @@
+package com.kakao.kakao_test.alert;
+
+import com.kakao.kakao_test.domain.AlertRule;
+
+/**
+ * HEALTH_DOWN: health probe 가 minCount 번 연속 DOWN 이면
+ * - UP 이 오면 초기화, UNKNOWN/OUT_OF_SERVICE 는 연속 횟수에 영향 없음
+ * - 계속 DOWN 이면 쿨타임마다 다시 알림
+ */
+final class HealthDownEvaluator extends RuleEvaluator {
+
+    private final int probes;
+    private int consecutiveDown;
+
+    HealthDownEvaluator(AlertRule rule) {
+        super(rule);
+        this.probes = Math.max(1, rule.getMinCount());
+    }
+
+    String onHealth(long nowMillis, String status) {
+        if ("UP".equals(status)) {
+            consecutiveDown = 0;
+            return null;
+        }
+        if (!"DOWN".equals(status)) return null;
+
+        consecutiveDown++;
+        if (consecutiveDown < probes) return null;
+        return fire(nowMillis, String.format("🩺 health probe %d회 연속 DOWN", consecutiveDown));
+    }
+}
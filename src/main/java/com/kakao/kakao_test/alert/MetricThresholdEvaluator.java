@@ -0,0 +1,47 @@
+package com.kakao.kakao_test.alert;
+
+import com.kakao.kakao_test.domain.AlertMetric;
+import com.kakao.kakao_test.domain.AlertRule;
+
+/**
+ * METRIC_THRESHOLD: 값이 threshold 를 넘은 시점부터 windowSeconds 동안 계속 넘어 있으면
+ * - 넘기 시작한 샘플 시각만 기억 (한 번이라도 내려오면 초기화)
+ */
+final class MetricThresholdEvaluator extends RuleEvaluator {
+
+    private final AlertMetric metric;
+    private final double threshold;
+    private final long durationMs;
+    private long breachSince = -1;
+
+    MetricThresholdEvaluator(AlertRule rule) {
+        super(rule);
+        this.metric = rule.getMetric();
+        this.threshold = rule.getThreshold();
+        this.durationMs = rule.getWindowSeconds() * 1000L;
+    }
+
+    AlertMetric metric() {
+        return metric;
+    }
+
+    double threshold() {
+        return threshold;
+    }
+
+    String onMetric(long nowMillis, long ts, double cpuPercent, double memPercent) {
+        double value = metric == AlertMetric.CPU ? cpuPercent : memPercent;
+        if (value <= threshold) {
+            breachSince = -1;
+            return null;
+        }
+        if (breachSince < 0 || ts < breachSince) {
+            breachSince = ts;
+        }
+        if (ts - breachSince < durationMs) {
+            return null;
+        }
+        return fire(nowMillis, String.format("%s %.1f%% (기준 %.1f%%, %d초 이상 지속)",
+                metric == AlertMetric.CPU ? "🔥 CPU" : "💾 RAM", value, threshold, (ts - breachSince) / 1000));
+    }
+}
@@ -0,0 +1,72 @@
+package com.kakao.kakao_test.alert;
+
+import com.kakao.kakao_test.domain.AlertRule;
+import com.kakao.kakao_test.ingest.StackTrace;
+
+/**
+ * 규칙 1개의 증분 평가기
+ * - 이벤트마다 자기 종류의 on* 만 호출됨 (AlertRuleEngine 이 종류별 배열로 나눠 둠)
+ * - 조건을 만족하면 알림 문구를 돌려주고, 규칙별 쿨타임 안이면 null
+ * - 규칙을 다시 읽어도 평가 조건(signature)이 같으면 같은 인스턴스를 계속 씀 (이름/쿨타임만 갱신)
+ */
+abstract class RuleEvaluator {
+
+    private static final int MAX_SUMMARY = 200;
+
+    private final long ruleId;
+    private final String signature;
+    private String name;
+    private long cooldownMs;
+    private long lastFiredAt = Long.MIN_VALUE;
+
+    RuleEvaluator(AlertRule rule) {
+        this.ruleId = rule.getId() == null ? -1L : rule.getId();
+        this.signature = rule.signature();
+        retune(rule);
+    }
+
+    final void retune(AlertRule rule) {
+        this.name = rule.getName();
+        this.cooldownMs = rule.getCooldownSeconds() * 1000L;
+    }
+
+    long ruleId() {
+        return ruleId;
+    }
+
+    String signature() {
+        return signature;
+    }
+
+    String name() {
+        return name;
+    }
+
+    // 쿨타임 스냅샷용 (한 번도 울리지 않았으면 Long.MIN_VALUE)
+    long lastFiredAt() {
+        return lastFiredAt;
+    }
+
+    void restoreLastFiredAt(long firedAt) {
+        if (firedAt > lastFiredAt) lastFiredAt = firedAt;
+    }
+
+    /**
+     * 조건을 만족했을 때 호출 -> 쿨타임이 지났으면 문구, 아니면 null
+     */
+    protected final String fire(long nowMillis, String message) {
+        if (lastFiredAt != Long.MIN_VALUE && nowMillis - lastFiredAt < cooldownMs) {
+            return null;
+        }
+        lastFiredAt = nowMillis;
+        return message;
+    }
+
+    /**
+     * 알림에 넣을 에러 요약 (스택트레이스는 예외/가장 위 프레임만, 200자 제한)
+     */
+    static String summarize(String message) {
+        String compact = StackTrace.compact(message == null ? "" : message);
+        return compact.length() > MAX_SUMMARY ? compact.substring(0, MAX_SUMMARY) + "..." : compact;
+    }
+}
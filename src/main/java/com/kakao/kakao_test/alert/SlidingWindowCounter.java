@@ -0,0 +1,57 @@
+package com.kakao.kakao_test.alert;
+
+import java.util.Arrays;
+
+/**
+ * 최근 N초 합계를 O(1) 로 유지하는 링버퍼 카운터
+ * - 구간을 최대 60개 버킷으로 나눠 누적 (긴 구간은 버킷 폭이 넓어짐 -> 경계에서 버킷 1개만큼 오차)
+ * - 시간이 흐른 만큼만 오래된 버킷을 비우므로 add/sum 모두 상수 시간 (버킷 수가 상한)
+ * - 동기화는 호출자(AlertRuleEngine 의 서버별 락)가 담당
+ */
+final class SlidingWindowCounter {
+
+    private static final int MAX_BUCKETS = 60;
+
+    private final long[] counts;
+    private final long bucketMillis;
+    private long head = Long.MIN_VALUE;   // 가장 최근 버킷 번호 (ts / bucketMillis)
+    private long sum;
+
+    SlidingWindowCounter(int windowSeconds) {
+        int buckets = Math.max(1, Math.min(windowSeconds, MAX_BUCKETS));
+        this.counts = new long[buckets];
+        this.bucketMillis = Math.max(1, (Math.max(1, windowSeconds) * 1000L + buckets - 1) / buckets);
+    }
+
+    void add(long nowMillis, long n) {
+        advance(nowMillis);
+        counts[slot(head)] += n;
+        sum += n;
+    }
+
+    long sum(long nowMillis) {
+        advance(nowMillis);
+        return sum;
+    }
+
+    private void advance(long nowMillis) {
+        long bucket = nowMillis / bucketMillis;
+        if (head == Long.MIN_VALUE || bucket - head >= counts.length) {
+            Arrays.fill(counts, 0);
+            sum = 0;
+            head = bucket;
+            return;
+        }
+        // 시계가 뒤로 간 경우는 현재 버킷에 합산
+        while (head < bucket) {
+            head++;
+            int i = slot(head);
+            sum -= counts[i];
+            counts[i] = 0;
+        }
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) counts.length);
+    }
+}
@@ -0,0 +1,201 @@
+package com.kakao.kakao_test.cluster;
+
+import com.kakao.kakao_test.exception.UpstreamUnavailableException;
+import com.kakao.kakao_test.http.OutboundHttp;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 클러스터 모드 요청 전달
+ * - 수신(/api/servers/{name}/ingest/**): 소유 노드가 아니면 소유 노드로 그대로 전달 -> 서버별 메모리 상태(중복 제거, 이상 탐지, 알림 쿨타임)가 한 노드에만 쌓임
+ * - 레거시 SSE 메시지(/legacy/messages): 세션을 가진 노드로 전달 (SSE 연결은 그 노드에만 있음)
+ * - 소유 노드로 전달이 안 되면(죽는 중, 서킷 open 등) 503 + Retry-After -> forwarder 가 재전송하는 동안 링이 갱신됨
+ *   (여기서 직접 처리하면 서버별 메모리 상태가 두 노드로 갈라짐)
+ * - 소유 노드의 주소를 아직 모르면(막 합류한 노드) 직접 처리
+ * - 전달은 노드 간 전용 클라이언트(OutboundHttp.peerClient)로: 외부 API 와 자리/서킷을 나누고, 소유 노드의 4xx 는 그대로 전달
+ * - 전달받은 요청은 다시 전달하지 않음 (링이 잠깐 어긋난 동안 노드끼리 주고받는 루프 방지)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterForwardingFilter extends OncePerRequestFilter {
+
+    static final String FORWARDED_BY = "X-SD-FORWARDED-BY";
+
+    private static final Pattern INGEST_PATH = Pattern.compile("^/api/servers/([^/]+)/ingest/.*");
+    private static final String LEGACY_MESSAGES = "/legacy/messages";
+
+    // 수신 컨트롤러가 읽는 헤더만 넘김
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, "X-MCP-TOKEN", "X-DISCORD-WEBHOOK-URL", "X-BATCH-ID");
+
+    private final ClusterMembership clusterMembership;
+    private final OutboundHttp outboundHttp;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cluster.forward-retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !clusterMembership.isEnabled() || request.getHeader(FORWARDED_BY) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String owner = targetNode(request);
+        if (owner == null || owner.equals(clusterMembership.nodeId())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String ownerUrl = clusterMembership.urlOf(owner);
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        if (ownerUrl == null) {
+            // 소유 노드 주소를 모르면 직접 처리 (이미 읽은 본문은 다시 읽을 수 있게 감싸서 넘김)
+            meterRegistry.counter("cluster.requests.forwarded", "outcome", "handled_locally").increment();
+            chain.doFilter(new CachedBodyRequest(request, body), response);
+            return;
+        }
+        if (forward(request, body, ownerUrl, response)) {
+            meterRegistry.counter("cluster.requests.forwarded", "outcome", "forwarded").increment();
+            return;
+        }
+
+        meterRegistry.counter("cluster.requests.forwarded", "outcome", "unavailable").increment();
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"OWNER_UNAVAILABLE\",\"message\":\"소유 노드(" + owner
+                + ")에 전달하지 못했습니다. 잠시 후 다시 보내주세요.\"}");
+    }
+
+    // 요청을 처리해야 하는 노드 (대상이 아닌 경로면 null)
+    private String targetNode(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher m = INGEST_PATH.matcher(path);
+        if (m.matches()) {
+            return clusterMembership.ownerOf(m.group(1));
+        }
+        if (path.equals(LEGACY_MESSAGES)) {
+            return clusterMembership.sessionNode(request.getParameter("sessionId"));
+        }
+        return null;
+    }
+
+    /**
+     * @return 소유 노드가 응답했으면 true (4xx/5xx 응답도 그대로 전달), 연결 실패 / 서킷 open 이면 false
+     */
+    private boolean forward(HttpServletRequest request, byte[] body, String ownerUrl, HttpServletResponse response) {
+        String query = request.getQueryString();
+        URI target = URI.create(ownerUrl + request.getRequestURI() + (query == null ? "" : "?" + query));
+        try {
+            outboundHttp.peerClient()
+                    .method(HttpMethod.valueOf(request.getMethod()))
+                    .uri(target)
+                    .headers(h -> {
+                        for (String name : FORWARDED_HEADERS) {
+                            String value = request.getHeader(name);
+                            if (value != null) h.set(name, value);
+                        }
+                        h.set(FORWARDED_BY, clusterMembership.nodeId());
+                    })
+                    .body(body)
+                    .exchange((req, res) -> {
+                        response.setStatus(res.getStatusCode().value());
+                        String contentType = res.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE);
+                        if (contentType != null) response.setContentType(contentType);
+                        StreamUtils.copy(res.getBody(), response.getOutputStream());
+                        return null;
+                    });
+            return true;
+        } catch (RestClientException | UpstreamUnavailableException e) {
+            if (response.isCommitted()) throw e; // 응답을 쓰기 시작한 뒤라면 되돌릴 수 없음
+            response.reset();
+            log.warn("↪️ 소유 노드로 전달 실패, 503 응답 ({}): {}", target, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 이미 읽은 본문을 다시 읽을 수 있게 해주는 요청 래퍼
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // 본문이 이미 메모리에 있으므로 바로 읽을 수 있음을 알리고, 다 읽으면 완료 알림
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) listener.onDataAvailable();
+                        if (isFinished()) listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.kakao.kakao_test.cluster;
+
+import com.kakao.kakao_test.config.datasource.ReadRouting;
+import com.kakao.kakao_test.domain.ClusterNode;
+import com.kakao.kakao_test.repository.ClusterNodeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 클러스터 멤버십 / 서버 소유권
+ * - 노드 발견: 공유 MySQL 의 cluster_node 테이블에 주기적으로 heartbeat, TTL 안에 갱신된 노드만 살아있는 것으로 봄
+ * - 소유권: 살아있는 노드로 consistent hash 링을 만들고 서버 이름으로 소유 노드 결정
+ * - 노드가 들어오거나 나가서 링이 바뀌면, 더 이상 소유하지 않는 서버의 메모리 상태(ServerScopedState)를 정리
+ * - cluster.enabled=false (기본) 이면 단일 노드로 동작: 모든 서버를 자기가 소유
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterMembership {
+
+    private final ClusterNodeRepository clusterNodeRepository;
+    private final List<ServerScopedState> serverScopedStates;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cluster.node-id:}")
+    private String configuredNodeId;
+
+    // 다른 노드가 이 노드로 요청을 넘길 때 쓰는 주소 (비어 있으면 로컬 IP + server.port)
+    @Value("${cluster.advertise-url:}")
+    private String configuredAdvertiseUrl;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${cluster.node-ttl-ms:15000}")
+    private long nodeTtlMs;
+
+    @Value("${cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    private String nodeId;
+    private String advertiseUrl;
+
+    // heartbeat 스레드만 갱신, 요청 스레드는 읽기만 함 (참조 교체로 한 번에 바뀜)
+    private volatile ConsistentHashRing ring;
+    private volatile Map<String, String> nodeUrls = Map.of();
+
+    @PostConstruct
+    void init() throws Exception {
+        nodeId = configuredNodeId.isBlank() ? UUID.randomUUID().toString().substring(0, 8) : configuredNodeId;
+        advertiseUrl = configuredAdvertiseUrl.isBlank()
+                ? "http://" + InetAddress.getLocalHost().getHostAddress() + ":" + serverPort
+                : configuredAdvertiseUrl;
+        ring = ConsistentHashRing.of(List.of(nodeId), virtualNodes);
+
+        Gauge.builder("cluster.nodes.live", this, m -> m.ring.nodeCount())
+                .description("링에 포함된 살아있는 노드 수")
+                .register(meterRegistry);
+
+        if (enabled) {
+            // 요청을 받기 전에 먼저 합류해서 처음부터 올바른 링으로 시작
+            heartbeat();
+            log.info("🧩 클러스터 합류 (node: {}, url: {}, 노드 수: {})", nodeId, advertiseUrl, ring.nodeCount());
+        }
+    }
+
+    /**
+     * heartbeat 갱신 + 살아있는 노드 목록으로 링 재구성
+     * - 노드 목록은 복제 지연이 없도록 항상 primary 에서 읽음
+     */
+    @Scheduled(fixedDelayString = "${cluster.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (!enabled) return;
+
+        ReadRouting.enterPrimary();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (clusterNodeRepository.touch(nodeId, advertiseUrl, now) == 0) {
+                clusterNodeRepository.save(new ClusterNode(nodeId, advertiseUrl, now));
+            }
+
+            LocalDateTime liveThreshold = now.minusNanos(nodeTtlMs * 1_000_000);
+            Map<String, String> live = new HashMap<>();
+            for (ClusterNode node : clusterNodeRepository.findByLastHeartbeatAtAfter(liveThreshold)) {
+                live.put(node.getNodeId(), node.getAdvertiseUrl());
+            }
+            live.put(nodeId, advertiseUrl); // DB 시계 차이로 자기 자신이 빠지는 경우 방지
+
+            if (!live.keySet().equals(nodeUrls.keySet())) {
+                log.info("🧩 클러스터 노드 변경: {} -> {}", nodeUrls.keySet(), live.keySet());
+                ring = ConsistentHashRing.of(live.keySet(), virtualNodes);
+                nodeUrls = Map.copyOf(live);
+                rebalance();
+            } else {
+                nodeUrls = Map.copyOf(live); // 주소만 바뀐 경우
+            }
+
+            clusterNodeRepository.deleteStale(now.minusNanos(nodeTtlMs * 10 * 1_000_000));
+        } catch (Exception e) {
+            // DB 가 잠깐 안 되더라도 마지막 링으로 계속 동작
+            log.warn("⚠️ 클러스터 heartbeat 실패 (이전 링 유지): {}", e.getMessage());
+        } finally {
+            ReadRouting.exitPrimary();
+        }
+    }
+
+    /**
+     * 더 이상 소유하지 않는 서버의 메모리 상태 정리
+     * - 새 소유 노드는 다음 수신부터 상태를 다시 쌓음 (탐지기 등은 DB 이력 없이도 동작하도록 설계됨)
+     */
+    private void rebalance() {
+        int evicted = 0;
+        for (ServerScopedState state : serverScopedStates) {
+            for (String serverName : state.trackedServers()) {
+                if (!isOwner(serverName)) {
+                    state.forget(serverName);
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            meterRegistry.counter("cluster.rebalance.evicted").increment(evicted);
+            log.info("🔀 소유권 이동으로 서버 상태 {}건 정리", evicted);
+        }
+    }
+
+    @PreDestroy
+    void leave() {
+        if (!enabled) return;
+        try {
+            // 행을 지워서 다른 노드가 TTL 을 기다리지 않고 바로 재분배하도록
+            clusterNodeRepository.deleteById(nodeId);
+            log.info("👋 클러스터 탈퇴 (node: {})", nodeId);
+        } catch (Exception e) {
+            log.warn("⚠️ 클러스터 탈퇴 기록 실패: {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean isOwner(String serverName) {
+        return !enabled || nodeId.equals(ring.ownerOf(serverName));
+    }
+
+    public String ownerOf(String serverName) {
+        return enabled ? ring.ownerOf(serverName) : nodeId;
+    }
+
+    /**
+     * 노드 주소 (모르는 노드면 null)
+     */
+    public String urlOf(String node) {
+        return nodeUrls.get(node);
+    }
+
+    /**
+     * 레거시 SSE 세션 ID (어느 노드의 세션인지 알 수 있도록 노드 ID 를 앞에 붙임)
+     */
+    public String newSessionId() {
+        String id = UUID.randomUUID().toString();
+        return enabled ? nodeId + "." + id : id;
+    }
+
+    /**
+     * 세션 ID 를 만든 노드 (클러스터 모드가 아니거나 형식이 다르면 null)
+     */
+    public String sessionNode(String sessionId) {
+        if (!enabled || sessionId == null) return null;
+        int dot = sessionId.lastIndexOf('.');
+        return dot <= 0 ? null : sessionId.substring(0, dot);
+    }
+}
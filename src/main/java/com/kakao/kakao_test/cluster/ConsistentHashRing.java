@@ -0,0 +1,82 @@
+package com.kakao.kakao_test.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * 서버 이름 -> 소유 노드 매핑 (consistent hashing, 불변 객체)
+ * - 노드마다 가상 노드 여러 개를 링에 흩어 두어 부하를 고르게 나눔
+ * - 노드가 추가/제거돼도 그 노드 몫의 서버만 옮겨감 (나머지 서버의 소유 노드는 그대로)
+ * - 링은 정렬된 long 배열 + 이진 탐색 (조회 시 할당 없음)
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final String[] owners;
+    private final int nodeCount;
+
+    private ConsistentHashRing(long[] points, String[] owners, int nodeCount) {
+        this.points = points;
+        this.owners = owners;
+        this.nodeCount = nodeCount;
+    }
+
+    public static ConsistentHashRing of(Collection<String> nodeIds, int virtualNodes) {
+        // 노드 순서와 무관하게 모든 노드가 같은 링을 만들도록 정렬
+        String[] nodes = new TreeSet<>(nodeIds).toArray(String[]::new);
+
+        Point[] all = new Point[nodes.length * virtualNodes];
+        int n = 0;
+        for (String node : nodes) {
+            for (int v = 0; v < virtualNodes; v++) {
+                all[n++] = new Point(hash(node + "#" + v), node);
+            }
+        }
+        // 해시 충돌 시에도 결정적으로 정렬되도록 노드 이름을 2차 기준으로
+        Arrays.sort(all, Comparator.comparingLong(Point::hash).thenComparing(Point::node));
+
+        long[] points = new long[all.length];
+        String[] owners = new String[all.length];
+        for (int i = 0; i < all.length; i++) {
+            points[i] = all[i].hash();
+            owners[i] = all[i].node();
+        }
+        return new ConsistentHashRing(points, owners, nodes.length);
+    }
+
+    /**
+     * 소유 노드 (링이 비어 있으면 null)
+     */
+    public String ownerOf(String key) {
+        if (points.length == 0) return null;
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) i = -i - 1;
+        if (i == points.length) i = 0; // 링의 끝을 넘으면 처음으로
+        return owners[i];
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    // FNV-1a 64bit + murmur3 finalizer (짧고 비슷한 문자열도 링 전체에 고르게 흩어지도록)
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record Point(long hash, String node) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.kakao.kakao_test.cluster;
+
+import java.util.Set;
+
+/**
+ * 서버(target server) 단위로 메모리에 쌓는 상태
+ * - 클러스터 모드에서는 소유 노드에만 있어야 하므로, 소유권이 다른 노드로 넘어가면 ClusterMembership 이 forget 호출
+ * - 서버별 캐시/집계를 새로 만들 때 이 인터페이스를 구현하면 재분배 시 자동으로 정리됨
+ */
+public interface ServerScopedState {
+
+    /**
+     * 현재 상태를 들고 있는 서버 이름 (복사본)
+     */
+    Set<String> trackedServers();
+
+    void forget(String serverName);
+}
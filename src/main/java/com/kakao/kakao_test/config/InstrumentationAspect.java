@@ -0,0 +1,95 @@
+package com.kakao.kakao_test.config;
+
+import com.kakao.kakao_test.monitor.IngestTraced;
+import com.kakao.kakao_test.monitor.IngestTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+
+/**
+ * 서비스 트랜잭션 실행 시간 측정, 수집 파이프라인 단계별 추적
+ * - 트랜잭션 프록시보다 바깥에서 감싸서 커밋 시간까지 포함 (커넥션 대기 포함)
+ * - 히스토그램으로 내보내므로 Prometheus 에서 histogram_quantile 로 p50/p99 조회 가능
+ * - HTTP 엔드포인트별 latency 는 Spring 기본 http.server.requests 가 담당 (application.yml 에서 히스토그램 활성화)
+ * - MCP 도구 실행 시간은 McpToolDispatcher 가 직접 기록 (두 전송 방식 공통, 도구 빈은 프록시 없이 MethodHandle 로 호출)
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class InstrumentationAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final IngestTracer ingestTracer;
+
+    /**
+     * service 패키지의 @Transactional 메서드 (클래스 레벨 선언 포함)
+     * - 같은 클래스 내부 호출은 프록시를 거치지 않으므로 바깥 메서드 1번으로 집계됨
+     */
+    @Around("execution(public * com.kakao.kakao_test.service..*(..)) && " +
+            "(@annotation(org.springframework.transaction.annotation.Transactional) || " +
+            "@within(org.springframework.transaction.annotation.Transactional))")
+    public Object timeTransaction(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Transactional tx = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        if (tx == null) {
+            tx = AnnotatedElementUtils.findMergedAnnotation(pjp.getTarget().getClass(), Transactional.class);
+        }
+        boolean readOnly = tx != null && tx.readOnly();
+
+        return record(pjp, Timer.builder("service.transaction")
+                .description("서비스 트랜잭션 실행 시간 (커밋 포함)")
+                .tag("class", pjp.getTarget().getClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("readOnly", String.valueOf(readOnly)));
+    }
+
+    /**
+     * @IngestTraced 수집 파이프라인 (트랜잭션 바깥에서 시작/종료하므로 마지막 구간에 커밋 시간이 포함됨)
+     */
+    @Around("@annotation(traced)")
+    public Object traceIngest(ProceedingJoinPoint pjp, IngestTraced traced) throws Throwable {
+        Object[] args = pjp.getArgs();
+        String serverName = (args.length > 0 && args[0] instanceof String name) ? name : "unknown";
+        if (!ingestTracer.begin(traced.value(), serverName)) {
+            return pjp.proceed();
+        }
+
+        String outcome = "success";
+        try {
+            return pjp.proceed();
+        } catch (Throwable t) {
+            outcome = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            ingestTracer.end(outcome);
+        }
+    }
+
+    private Object record(ProceedingJoinPoint pjp, Timer.Builder builder) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return pjp.proceed();
+        } catch (Throwable t) {
+            outcome = "error";
+            throw t;
+        } finally {
+            sample.stop(builder
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
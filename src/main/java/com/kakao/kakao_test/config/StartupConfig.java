@@ -0,0 +1,49 @@
+package com.kakao.kakao_test.config;
+
+import com.kakao.kakao_test.controller.DoctorController;
+import com.kakao.kakao_test.controller.LLMToolController;
+import com.kakao.kakao_test.controller.McpController;
+import com.kakao.kakao_test.service.LlmClientService;
+import com.kakao.kakao_test.service.ServerDoctorService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * 기동 시간 설정 (fast-start 프로파일의 spring.main.lazy-initialization 과 함께 동작)
+ * - 지연 생성은 첫 요청 때 만들어도 되는 빈만: springdoc(OpenAPI 문서) / LLM 진단 리포트 경로
+ * - 그 외(수집, 모니터링, 스케줄러, 스냅샷, 클러스터, MCP 도구 등록)는 지금처럼 기동 시 생성
+ *   -> 지연되면 @Scheduled 가 돌지 않거나 첫 수신 요청이 느려짐
+ * - Discord 알림은 쿨타임 상태를 스냅샷/클러스터 재분배에 참여시키므로 즉시 생성 유지
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Set<Class<?>> DEFERRABLE = Set.of(
+            LlmClientService.class,
+            ServerDoctorService.class,
+            DoctorController.class,
+            LLMToolController.class,
+            McpController.class,
+            OpenApiConfig.class
+    );
+
+    private static final String[] DEFERRABLE_PACKAGES = {"org.springdoc.", "io.swagger."};
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerUnlessDeferrable() {
+        return (beanName, beanDefinition, beanType) -> !isDeferrable(beanType);
+    }
+
+    static boolean isDeferrable(Class<?> beanType) {
+        if (beanType == null) return false;
+        if (DEFERRABLE.contains(beanType)) return true;
+        String name = beanType.getName();
+        for (String prefix : DEFERRABLE_PACKAGES) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package com.kakao.kakao_test.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 기동 시간 리포트
+ * - 요청 수신 준비까지 걸린 시간 + 생성이 오래 걸린 빈 상위 N개를 로그로 출력
+ * - 전체 단계는 /actuator/startup (management 포트)
+ * - startup.report.exit=true 면 출력 후 종료 (./gradlew startupReport 에서 사용)
+ */
+@Slf4j
+@Component
+public class StartupReport {
+
+    @Value("${startup.report.top-beans:10}")
+    private int topBeans;
+
+    @Value("${startup.report.exit:false}")
+    private boolean exitAfterReport;
+
+    @EventListener
+    public void report(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        long timeToReadyMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("⏱️ 기동 리포트: 요청 수신 준비까지 %dms (프로파일 %s, CDS %s)%n",
+                timeToReadyMs, String.join(",", context.getEnvironment().getActiveProfiles()), cdsStatus()));
+
+        if (context.getApplicationStartup() instanceof BufferingApplicationStartup buffering) {
+            List<StartupTimeline.TimelineEvent> slowest = buffering.getBufferedTimeline().getEvents().stream()
+                    .filter(e -> "spring.beans.instantiate".equals(e.getStartupStep().getName()))
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(topBeans)
+                    .toList();
+            for (StartupTimeline.TimelineEvent e : slowest) {
+                sb.append(String.format("  %6dms  %s%n", e.getDuration().toMillis(), beanName(e.getStartupStep())));
+            }
+        }
+        log.info(sb.toString().stripTrailing());
+
+        if (exitAfterReport) {
+            // 이벤트 리스너 안에서 컨텍스트를 닫지 않도록 별도 스레드에서 종료
+            new Thread(() -> System.exit(SpringApplication.exit(context)), "startup-report-exit").start();
+        }
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) return tag.getValue();
+        }
+        return step.getName();
+    }
+
+    // -XX:SharedArchiveFile 로 띄웠는지 (실제 매핑 여부는 -Xshare:on / -Xlog:cds 로 확인)
+    private static String cdsStatus() {
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile")) ? "on" : "off";
+    }
+}
@@ -0,0 +1,16 @@
+package com.kakao.kakao_test.config.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 읽기 전용 트랜잭션이라도 replica 가 아닌 primary 에서 읽도록 강제
+ * - 복제 지연이 있으면 안 되는 조회 (예: Health 최신 상태/staleness 판단)
+ * - replica 설정이 없으면 아무 효과 없음
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PrimaryRead {
+}
@@ -0,0 +1,29 @@
+package com.kakao.kakao_test.config.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * @PrimaryRead 처리
+ * - 트랜잭션 시작(=커넥션 선택)보다 먼저 실행되어야 하므로 가장 바깥에서 감쌈
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PrimaryReadAspect {
+
+    @Around("@annotation(com.kakao.kakao_test.config.datasource.PrimaryRead) || " +
+            "@within(com.kakao.kakao_test.config.datasource.PrimaryRead)")
+    public Object forcePrimary(ProceedingJoinPoint pjp) throws Throwable {
+        ReadRouting.enterPrimary();
+        try {
+            return pjp.proceed();
+        } finally {
+            ReadRouting.exitPrimary();
+        }
+    }
+}
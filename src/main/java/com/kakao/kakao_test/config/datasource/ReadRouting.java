@@ -0,0 +1,27 @@
+package com.kakao.kakao_test.config.datasource;
+
+/**
+ * 현재 스레드의 primary 강제 여부 (@PrimaryRead 가 설정, 중첩 호출 고려해 깊이로 관리)
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<int[]> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ReadRouting() {
+    }
+
+    public static void enterPrimary() {
+        PRIMARY_DEPTH.get()[0]++;
+    }
+
+    public static void exitPrimary() {
+        int[] depth = PRIMARY_DEPTH.get();
+        if (--depth[0] <= 0) {
+            PRIMARY_DEPTH.remove();
+        }
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_DEPTH.get()[0] > 0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.kakao.kakao_test.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * replica 복제 지연 감시
+ * - 주기적으로 replica 에서 복제 상태를 조회해 지연(초)을 기록
+ * - 지연이 max-lag-seconds 를 넘거나, 복제가 멈췄거나, 조회 자체가 실패하면 replica 를 쓰지 않음 (primary 로 우회)
+ * - 복제 설정이 없는 DB (로컬에서 같은 DB 를 replica 로 지정한 경우 등) 는 지연 0 으로 취급
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replica;
+    private final int maxLagSeconds;
+    private final boolean enabled;
+
+    private volatile long lagSeconds = 0;
+    private volatile boolean usable = true;
+
+    public ReplicaLagMonitor(DataSource replica, int maxLagSeconds, boolean enabled, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.enabled = enabled;
+
+        Gauge.builder("db.replica.lag.seconds", this, m -> m.lagSeconds)
+                .description("replica 복제 지연 (조회 실패 시 -1)")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.usable", this, m -> m.usable ? 1 : 0)
+                .description("읽기 전용 트랜잭션을 replica 로 보내는지 여부")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        if (!enabled) return;
+
+        boolean wasUsable = usable;
+        try {
+            Long lag = queryLagSeconds();
+            lagSeconds = lag == null ? -1 : lag;
+            usable = lag != null && lag <= maxLagSeconds;
+        } catch (SQLException e) {
+            lagSeconds = -1;
+            usable = false;
+            log.debug("replica 상태 조회 실패: {}", e.getMessage());
+        }
+
+        if (wasUsable && !usable) {
+            log.warn("🐢 replica 사용 중지 - 읽기도 primary 로 보냄 (지연: {}초, 허용: {}초)", lagSeconds, maxLagSeconds);
+        } else if (!wasUsable && usable) {
+            log.info("✅ replica 복구 - 읽기 전용 트랜잭션을 다시 replica 로 보냄 (지연: {}초)", lagSeconds);
+        }
+    }
+
+    /**
+     * @return 지연(초), 복제가 멈춘 상태면 null, 복제 설정이 없으면 0
+     */
+    private Long queryLagSeconds() throws SQLException {
+        try (Connection conn = replica.getConnection()) {
+            try {
+                return readLag(conn, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                // MySQL 8.0.22 이전 문법
+                return readLag(conn, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+            }
+        }
+    }
+
+    private Long readLag(Connection conn, String sql, String column) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            if (!rs.next()) return 0L;
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+}
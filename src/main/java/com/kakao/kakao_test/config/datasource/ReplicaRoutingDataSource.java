@@ -0,0 +1,42 @@
+package com.kakao.kakao_test.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 읽기 전용 트랜잭션은 replica, 나머지는 primary 로 보내는 DataSource
+ * - LazyConnectionDataSourceProxy 로 감싸서 사용해야 함
+ *   (트랜잭션 시작 시점에는 readOnly 플래그가 아직 설정되지 않으므로, 실제 쿼리 시점까지 커넥션 선택을 미룸)
+ * - replica 가 지연/장애 상태이거나 @PrimaryRead 가 걸린 경우 primary 로 보냄
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final BooleanSupplier replicaUsable;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaUsable) {
+        this.replicaUsable = replicaUsable;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentTarget();
+    }
+
+    public Target currentTarget() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadRouting.isPrimaryForced()
+                && replicaUsable.getAsBoolean()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
@@ -0,0 +1,151 @@
+package com.kakao.kakao_test.controller;
+
+import com.kakao.kakao_test.alert.AlertRuleEngine;
+import com.kakao.kakao_test.dto.AlertRuleDto;
+import com.kakao.kakao_test.dto.AlertRuleRequest;
+import com.kakao.kakao_test.dto.IngestQuotaDto;
+import com.kakao.kakao_test.dto.IngestTraceDto;
+import com.kakao.kakao_test.dto.RegisterServerResponse;
+import com.kakao.kakao_test.dto.UpdateQuotaRequest;
+import com.kakao.kakao_test.exception.UnauthorizedException;
+import com.kakao.kakao_test.ingest.IngestQuotaManager;
+import com.kakao.kakao_test.monitor.IngestTracer;
+import com.kakao.kakao_test.service.ServerRegisterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * 운영자용 엔드포인트
+ * - X-ADMIN-TOKEN 헤더가 admin.token 설정값과 같아야 함 (설정이 비어 있으면 전부 거부)
+ */
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final IngestTracer ingestTracer;
+    private final IngestQuotaManager ingestQuotaManager;
+    private final AlertRuleEngine alertRuleEngine;
+    private final ServerRegisterService serverRegisterService;
+
+    @Value("${admin.token:}")
+    private String adminToken;
+
+    /**
+     * 최근 수집 요청 중 가장 느린 요청과 단계별 소요 시간
+     * @param pipeline logs / metrics / health (생략 시 전체)
+     */
+    @GetMapping("/ingest/traces/slowest")
+    public List<IngestTraceDto> slowestTraces(
+            @RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token,
+            @RequestParam(value = "pipeline", required = false) String pipeline,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        verifyAdmin(token);
+        return ingestTracer.slowest(clamp(limit), pipeline);
+    }
+
+    /**
+     * 최근 수집 요청 (최신순)
+     */
+    @GetMapping("/ingest/traces/recent")
+    public List<IngestTraceDto> recentTraces(
+            @RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        verifyAdmin(token);
+        return ingestTracer.recent(clamp(limit));
+    }
+
+    /**
+     * 서버별 수신 한도와 사용량 (이 노드에서 수신 중인 서버만, 버린 이벤트가 많은 순)
+     */
+    @GetMapping("/ingest/quotas")
+    public List<IngestQuotaDto> quotas(@RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token) {
+        verifyAdmin(token);
+        return ingestQuotaManager.usage();
+    }
+
+    @GetMapping("/servers/{name}/quota")
+    public IngestQuotaDto quota(@RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token,
+                                @PathVariable("name") String serverName) {
+        verifyAdmin(token);
+        return ingestQuotaManager.usage(serverName);
+    }
+
+    /**
+     * 서버별 수신 한도 변경 (null 항목은 기본값, 0 은 무제한)
+     */
+    @PutMapping("/servers/{name}/quota")
+    public IngestQuotaDto updateQuota(@RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token,
+                                      @PathVariable("name") String serverName,
+                                      @RequestBody UpdateQuotaRequest request) {
+        verifyAdmin(token);
+        return ingestQuotaManager.update(serverName, request);
+    }
+
+    /**
+     * 수신 토큰 재발급 (새 토큰과 설정 가이드 반환, 이전 토큰은 즉시 401)
+     */
+    @PostMapping("/servers/{name}/token")
+    public RegisterServerResponse rotateToken(@RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token,
+                                              @PathVariable("name") String serverName) {
+        verifyAdmin(token);
+        return serverRegisterService.rotateToken(serverName);
+    }
+
+    /**
+     * 서버별 알림 규칙 (비활성 규칙 포함, 규칙이 없으면 기본 규칙(첫 ERROR 알림)으로 동작)
+     */
+    @GetMapping("/servers/{name}/alert-rules")
+    public List<AlertRuleDto> alertRules(@RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token,
+                                         @PathVariable("name") String serverName) {
+        verifyAdmin(token);
+        return alertRuleEngine.list(serverName);
+    }
+
+    @PostMapping("/servers/{name}/alert-rules")
+    public AlertRuleDto createAlertRule(@RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token,
+                                        @PathVariable("name") String serverName,
+                                        @RequestBody AlertRuleRequest request) {
+        verifyAdmin(token);
+        return alertRuleEngine.create(serverName, request);
+    }
+
+    @PutMapping("/servers/{name}/alert-rules/{id}")
+    public AlertRuleDto updateAlertRule(@RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token,
+                                        @PathVariable("name") String serverName,
+                                        @PathVariable("id") Long id,
+                                        @RequestBody AlertRuleRequest request) {
+        verifyAdmin(token);
+        return alertRuleEngine.update(serverName, id, request);
+    }
+
+    @DeleteMapping("/servers/{name}/alert-rules/{id}")
+    public void deleteAlertRule(@RequestHeader(value = "X-ADMIN-TOKEN", required = false) String token,
+                                @PathVariable("name") String serverName,
+                                @PathVariable("id") Long id) {
+        verifyAdmin(token);
+        alertRuleEngine.delete(serverName, id);
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private void verifyAdmin(String token) {
+        if (adminToken == null || adminToken.isBlank()) {
+            throw new UnauthorizedException("관리자 API 가 비활성화되어 있습니다. (admin.token 미설정)");
+        }
+        // 응답 시간으로 토큰을 한 글자씩 맞춰 보지 못하도록 상수 시간 비교
+        if (token == null || !MessageDigest.isEqual(
+                adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            throw new UnauthorizedException("관리자 토큰이 유효하지 않습니다.");
+        }
+    }
+}
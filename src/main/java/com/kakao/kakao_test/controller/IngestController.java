@@ -1,15 +1,22 @@
 package com.kakao.kakao_test.controller;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kakao.kakao_test.dto.HealthIngestDto;
 import com.kakao.kakao_test.dto.IngestResultDto;
 import com.kakao.kakao_test.dto.LogEventDto;
 import com.kakao.kakao_test.dto.MetricIngestDto;
+import com.kakao.kakao_test.ingest.CompactIngestCodec;
+import com.kakao.kakao_test.ingest.IngestQuotaManager;
+import com.kakao.kakao_test.ingest.LogLineClassifier;
+import com.kakao.kakao_test.ingest.NdjsonParser;
 import com.kakao.kakao_test.service.HealthService;
 import com.kakao.kakao_test.service.LogService;
 import com.kakao.kakao_test.service.MetricService;
+import com.kakao.kakao_test.spool.IngestSpool;
 import jdk.jfr.Description;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,36 +30,158 @@ public class IngestController {
     private final MetricService metricService;
     private final LogService logService;
     private final HealthService healthService;
+    private final IngestQuotaManager ingestQuotaManager;
+    private final IngestSpool ingestSpool;
+    private static final int LOG_EVENT_OVERHEAD_BYTES = 48;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
     // 로그 수신(PUSH): 포워더/사용자 서버가 호출
     @PostMapping("/servers/{name}/ingest/logs")
     public IngestResultDto ingestLogs(@PathVariable("name") String serverName,
                                       @RequestHeader("X-MCP-TOKEN") String token,
                                       @RequestBody List<LogEventDto> events,
-                                      @RequestHeader(value = "X-DISCORD-WEBHOOK-URL", required = false) String discordWebhookUrl) {
-        return logService.ingestLogs(serverName, token, discordWebhookUrl, events);
+                                      @RequestHeader(value = "X-DISCORD-WEBHOOK-URL", required = false) String discordWebhookUrl,
+                                      @RequestHeader(value = "X-BATCH-ID", required = false) String batchId) {
+        return saveLogs(serverName, token, discordWebhookUrl, batchId, admitLogs(serverName, token, events));
+    }
+
+    /**
+     * 로그 수신 (compact 바이너리)
+     * - 레벨 문자열 테이블 + 타임스탬프 delta 인코딩, Jackson 바인딩 없이 디코딩
+     */
+    @PostMapping(value = "/servers/{name}/ingest/logs", consumes = CompactIngestCodec.MEDIA_TYPE)
+    public IngestResultDto ingestLogsCompact(@PathVariable("name") String serverName,
+                                             @RequestHeader("X-MCP-TOKEN") String token,
+                                             @RequestBody byte[] body,
+                                             @RequestHeader(value = "X-DISCORD-WEBHOOK-URL", required = false) String discordWebhookUrl,
+                                             @RequestHeader(value = "X-BATCH-ID", required = false) String batchId) {
+        List<LogEventDto> events = CompactIngestCodec.decodeLogs(body);
+        return saveLogs(serverName, token, discordWebhookUrl, batchId, admitLogs(serverName, token, events));
     }
 
 
+    // 단건도 배치와 같은 경로 / 같은 응답(IngestResultDto)
     @PostMapping("/servers/{serverName}/ingest/metrics")
-    public ResponseEntity<String> ingestMetrics(
+    public IngestResultDto ingestMetrics(
             @PathVariable String serverName,
             @RequestHeader("X-MCP-TOKEN") String token,
             @RequestHeader(value = "X-DISCORD-WEBHOOK-URL", required = false) String discordWebhookUrl,
             @RequestBody MetricIngestDto dto) {
 
-        metricService.saveMetric(serverName, dto, token, discordWebhookUrl);
+        return saveMetrics(serverName, token, discordWebhookUrl, null, admitMetrics(serverName, token, List.of(dto)));
+    }
+
+    /**
+     * 메트릭 배치 수신 (JSON 배열)
+     * - 여러 샘플을 한 번에 받아 검증 1회 + multi-row INSERT 1회로 저장
+     */
+    @PostMapping(value = "/servers/{serverName}/ingest/metrics/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public IngestResultDto ingestMetricBatch(
+            @PathVariable String serverName,
+            @RequestHeader("X-MCP-TOKEN") String token,
+            @RequestHeader(value = "X-DISCORD-WEBHOOK-URL", required = false) String discordWebhookUrl,
+            @RequestHeader(value = "X-BATCH-ID", required = false) String batchId,
+            @RequestBody List<MetricIngestDto> dtos) {
 
-        return ResponseEntity.ok("ok");
+        return saveMetrics(serverName, token, discordWebhookUrl, batchId, admitMetrics(serverName, token, dtos));
+    }
+
+    /**
+     * 메트릭 배치 수신 (NDJSON: 한 줄에 샘플 1개)
+     */
+    @PostMapping(value = "/servers/{serverName}/ingest/metrics/batch", consumes = "application/x-ndjson")
+    public IngestResultDto ingestMetricNdjson(
+            @PathVariable String serverName,
+            @RequestHeader("X-MCP-TOKEN") String token,
+            @RequestHeader(value = "X-DISCORD-WEBHOOK-URL", required = false) String discordWebhookUrl,
+            @RequestHeader(value = "X-BATCH-ID", required = false) String batchId,
+            @RequestBody String body) {
+
+        List<MetricIngestDto> dtos =
+                NdjsonParser.parse(body, MetricIngestDto.class, objectMapper, metricService.getMaxBatchSize());
+        return saveMetrics(serverName, token, discordWebhookUrl, batchId, admitMetrics(serverName, token, dtos));
+    }
+
+    /**
+     * 메트릭 수신 (compact 바이너리, 단건/배치 공통)
+     */
+    @PostMapping(value = {"/servers/{serverName}/ingest/metrics", "/servers/{serverName}/ingest/metrics/batch"},
+            consumes = CompactIngestCodec.MEDIA_TYPE)
+    public IngestResultDto ingestMetricsCompact(
+            @PathVariable String serverName,
+            @RequestHeader("X-MCP-TOKEN") String token,
+            @RequestHeader(value = "X-DISCORD-WEBHOOK-URL", required = false) String discordWebhookUrl,
+            @RequestHeader(value = "X-BATCH-ID", required = false) String batchId,
+            @RequestBody byte[] body) {
+
+        List<MetricIngestDto> dtos = CompactIngestCodec.decodeMetrics(body);
+        return saveMetrics(serverName, token, discordWebhookUrl, batchId, admitMetrics(serverName, token, dtos));
     }
 
     @PostMapping("/servers/{serverName}/ingest/health")
-    public ResponseEntity<String> ingestHealth(
+    public IngestResultDto ingestHealth(
             @PathVariable String serverName,
             @RequestHeader("X-MCP-TOKEN") String token,
+            @RequestHeader(value = "X-DISCORD-WEBHOOK-URL", required = false) String discordWebhookUrl,
             @RequestBody HealthIngestDto dto) {
 
-        healthService.saveHealth(serverName, dto, token);
-        return ResponseEntity.ok("ok");
+        return saveHealth(serverName, token, discordWebhookUrl, dto);
+    }
+
+    /**
+     * Health 수신 (compact 바이너리)
+     */
+    @PostMapping(value = "/servers/{serverName}/ingest/health", consumes = CompactIngestCodec.MEDIA_TYPE)
+    public IngestResultDto ingestHealthCompact(
+            @PathVariable String serverName,
+            @RequestHeader("X-MCP-TOKEN") String token,
+            @RequestHeader(value = "X-DISCORD-WEBHOOK-URL", required = false) String discordWebhookUrl,
+            @RequestBody byte[] body) {
+
+        return saveHealth(serverName, token, discordWebhookUrl, CompactIngestCodec.decodeHealth(body));
+    }
+
+    // 스풀이 켜져 있으면 파일에 추가 후 바로 응답 (DB 반영은 drainer), 아니면 지금처럼 바로 저장
+    private IngestResultDto saveLogs(String serverName, String token, String discordWebhookUrl, String batchId,
+                                     List<LogEventDto> events) {
+        if (ingestSpool.accepts(serverName, token)) {
+            return ingestSpool.appendLogs(serverName, discordWebhookUrl, batchId, events);
+        }
+        return logService.ingestLogs(serverName, token, discordWebhookUrl, batchId, events);
+    }
+
+    private IngestResultDto saveMetrics(String serverName, String token, String discordWebhookUrl, String batchId,
+                                        List<MetricIngestDto> dtos) {
+        // 한도 초과로 모두 버려진 요청(SAMPLE / KEEP_SEVERE 정책)도 하트비트는 갱신 -> 스풀을 거치지 않고 바로
+        if (!dtos.isEmpty() && ingestSpool.accepts(serverName, token)) {
+            return ingestSpool.appendMetrics(serverName, discordWebhookUrl, batchId, dtos);
+        }
+        return metricService.saveMetrics(serverName, dtos, token, discordWebhookUrl, batchId);
+    }
+
+    private IngestResultDto saveHealth(String serverName, String token, String discordWebhookUrl, HealthIngestDto dto) {
+        if (ingestSpool.accepts(serverName, token)) {
+            return ingestSpool.appendHealth(serverName, discordWebhookUrl, dto);
+        }
+        healthService.saveHealth(serverName, dto, token, discordWebhookUrl);
+        return new IngestResultDto(serverName, 1, "수신 완료");
+    }
+
+    /**
+     * 서버별 수신 한도 적용 (트랜잭션 시작 전)
+     * - 크기는 메시지 길이 + 고정 오버헤드로 추정 (JSON / compact 동일 기준)
+     */
+    private List<LogEventDto> admitLogs(String serverName, String token, List<LogEventDto> events) {
+        return ingestQuotaManager.admit(serverName, token, events,
+                e -> LOG_EVENT_OVERHEAD_BYTES + (e == null || e.getMessage() == null ? 0 : e.getMessage().length()),
+                e -> e != null && LogLineClassifier.mustKeep(e.getLevel(), e.getMessage()));
+    }
+
+    // 배치 크기는 한도(토큰)를 쓰기 전에 검사
+    private List<MetricIngestDto> admitMetrics(String serverName, String token, List<MetricIngestDto> dtos) {
+        metricService.checkBatchSize(dtos.size());
+        return ingestQuotaManager.admitMetrics(serverName, token, dtos);
     }
 }
@@ -1,6 +1,7 @@
 package com.kakao.kakao_test.controller;
 
 import com.kakao.kakao_test.dto.ErrorLogAnalysisDto;
+import com.kakao.kakao_test.dto.LogCountSeriesDto;
 import com.kakao.kakao_test.dto.ServerMetricsDto;
 import com.kakao.kakao_test.service.LogService;
 import com.kakao.kakao_test.service.MetricService;
@@ -26,6 +27,18 @@ public class LLMToolController {
         return ResponseEntity.ok(logService.analyzeErrorLogs(name));
     }
 
+    /**
+     * 레벨별 로그 수 시계열 (수신 시 집계, 분 단위 24시간 / 시간 단위 30일)
+     */
+    @Description("레벨별 로그 수 시계열과 에러 추세를 반환")
+    @GetMapping("/servers/{name}/log-counts")
+    public ResponseEntity<LogCountSeriesDto> logCounts(@PathVariable String name,
+                                                       @RequestParam(defaultValue = "ERROR") String level,
+                                                       @RequestParam(defaultValue = "MINUTE") String resolution,
+                                                       @RequestParam(defaultValue = "60") int buckets) {
+        return ResponseEntity.ok(logService.countLogs(name, level, resolution, buckets));
+    }
+
     /**
      * 현재 Metrics 정보를 가져옴
      */
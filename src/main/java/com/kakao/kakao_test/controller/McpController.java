@@ -1,13 +1,14 @@
 package com.kakao.kakao_test.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.kakao.kakao_test.dto.ErrorLogAnalysisDto;
-import com.kakao.kakao_test.dto.RegisterServerRequest;
-import com.kakao.kakao_test.dto.RegisterServerResponse;
-import com.kakao.kakao_test.service.LogService;
+import com.kakao.kakao_test.cluster.ClusterMembership;
+import com.kakao.kakao_test.mcp.McpToolDispatcher;
 import com.kakao.kakao_test.service.ServerDoctorService;
-import com.kakao.kakao_test.service.ServerRegisterService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.catalina.connector.ClientAbortException;
@@ -16,12 +17,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @RestController
@@ -30,12 +32,52 @@ import java.util.concurrent.ConcurrentMap;
 public class McpController {
 
     private final ServerDoctorService serverDoctorService;
-    private final LogService logService;
-    private final ServerRegisterService serverRegisterService;
+    private final McpToolDispatcher mcpToolDispatcher;
+    private final MeterRegistry meterRegistry;
+    private final ClusterMembership clusterMembership;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final String STREAM_DIAGNOSE_TOOL = "ServerDoctor_ai_diagnose_stream";
+    private static final long PROGRESS_INTERVAL_MS = 300; // 진행 알림(부분 결과) 전송 간격
+    private static final String LEGACY_PREFIX = "ServerDoctor_";
+    private static final String DISPATCHER_PREFIX = "ServerDoctor-";
+    private static final TypeReference<Map<String, Object>> ARGUMENTS_TYPE = new TypeReference<>() {};
+
     // 현재 활성화된 단일 Emitter 관리
     private final ConcurrentMap<String, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private List<Map<String, Object>> legacyTools;
+
+    @PostConstruct
+    void init() {
+        // 도구 목록은 기동 후 바뀌지 않으므로 1번만 구성
+        List<Map<String, Object>> tools = new ArrayList<>();
+        for (McpToolDispatcher.ToolDefinition definition : mcpToolDispatcher.definitions()) {
+            tools.add(Map.of(
+                    "name", toLegacyName(definition.name()),
+                    "description", definition.description(),
+                    "inputSchema", definition.inputSchema()
+            ));
+        }
+        tools.add(Map.of(
+                "name", STREAM_DIAGNOSE_TOOL,
+                "description", "AI 가 서버 상태를 진단한 리포트를 생성합니다. progressToken 을 주면 생성 중인 내용을 progress 알림으로 먼저 전달합니다.",
+                "inputSchema", Map.of(
+                        "type", "object",
+                        "properties", Map.of("serverName", Map.of("type", "string", "description", "진단할 서버 이름")),
+                        "required", List.of("serverName")
+                )
+        ));
+        legacyTools = List.copyOf(tools);
+
+        Gauge.builder("mcp.legacy.sessions", emitters, Map::size)
+                .description("연결 중인 legacy SSE 세션 수")
+                .register(meterRegistry);
+        Gauge.builder("mcp.legacy.streams.active", activeStreams, AtomicInteger::get)
+                .description("진행 중인 AI 진단 스트리밍 작업 수")
+                .register(meterRegistry);
+    }
+
     /**
      * MCP 가 접속하는 EndPoint
      */
@@ -46,7 +88,7 @@ public class McpController {
             produces = MediaType.TEXT_EVENT_STREAM_VALUE
     )
     public ResponseEntity<SseEmitter> connect(@RequestBody(required = false) String body) {
-        String sessionId = UUID.randomUUID().toString();
+        String sessionId = clusterMembership.newSessionId(); // 클러스터 모드면 노드 ID 포함 -> 메시지가 이 노드로 전달됨
         SseEmitter emitter = new SseEmitter(0L); // 0L = no timeout (Spring 관례)
 
         emitters.put(sessionId, emitter);
@@ -103,7 +145,7 @@ public class McpController {
                 return ResponseEntity.notFound().build();
             }
 
-            log.info("📩 MCP 요청 수신: {}", method);
+            log.debug("📩 MCP 요청 수신: {}", method);
 
             switch (method) {
                 case "initialize":
@@ -117,7 +159,11 @@ public class McpController {
                     handleToolsList(emitter, idNode);
                     break;
                 case "tools/call":
-                    handleToolsCall(emitter, idNode, request);
+                    if (STREAM_DIAGNOSE_TOOL.equals(request.path("params").path("name").asText())) {
+                        handleStreamingDiagnose(emitter, idNode, request);
+                    } else {
+                        handleToolsCall(emitter, idNode, request);
+                    }
                     break;
                 case "ping":
                     sendJsonRpcResponse(emitter, idNode, "pong");
@@ -157,110 +203,91 @@ public class McpController {
         sendJsonRpcResponse(emitter, id, result);
     }
 
-    // [핸들러] 도구 목록 제공 (여기에 4가지 도구 정의)
+    // [핸들러] 도구 목록 제공
+    // - /mcp 와 같은 도구 정의(McpToolDispatcher)를 legacy 이름(ServerDoctor_xxx)으로 노출 + AI 진단 스트리밍 도구
     private void handleToolsList(SseEmitter emitter, JsonNode id) {
-        // 도구 목록 정의
-        List<Map<String, Object>> tools = List.of(
-                // 1. 서버 진단
-                Map.of(
-                        "name", "ServerDoctor_diagnose_server",
-                        "description", "대상 서버의 최근 에러 로그와 리소스 상태를 조회합니다.",
-                        "inputSchema", Map.of(
-                                "type", "object",
-                                "properties", Map.of("serverName", Map.of("type", "string", "description", "진단할 서버 이름")),
-                                "required", List.of("serverName")
-                        )
-                ),
-                // 2. 로그 조회
-                Map.of(
-                        "name", "ServerDoctor_fetch_error_logs",
-                        "description", "서버에서 최근 발생한 에러 로그들을 조회합니다.",
-                        "inputSchema", Map.of(
-                                "type", "object",
-                                "properties", Map.of("serverName", Map.of("type", "string", "description", "대상 서버 이름")),
-                                "required", List.of("serverName")
-                        )
-                ),
-                // 3. 서버 등록
-                Map.of(
-                        "name", "ServerDoctor_register_server",
-                        "description", "모니터링할 새로운 대상 서버를 등록하고, 연동 가이드(yml, env 등)를 생성합니다.",
-                        "inputSchema", Map.of(
-                                "type", "object",
-                                "properties", Map.of(
-                                        "serverName", Map.of("type", "string", "description", "서버 고유 이름"),
-                                        "serverUrl", Map.of("type", "string", "description", "서버 URL"),
-                                        "healthUrl", Map.of("type", "string", "description", "헬스 체크 URL")
-                                ),
-                                "required", List.of("serverName", "serverUrl")
-                        )
-                ),
-                // 4. 가이드 조회
-                Map.of(
-                        "name", "ServerDoctor_get_setup_guide",
-                        "description", "모니터링 연동 템플릿을 조회합니다. 반환된 코드를 요약 없이 그대로 보여주세요.",
-                        "inputSchema", Map.of(
-                                "type", "object",
-                                "properties", Map.of(),
-                                "required", List.of()
-                        )
-                )
-        );
-
-        sendJsonRpcResponse(emitter, id, Map.of("tools", tools));
+        sendJsonRpcResponse(emitter, id, Map.of("tools", legacyTools));
     }
 
-    // [핸들러] 도구 실행 요청 (실제 로직 연결)
+    // [핸들러] 도구 실행 요청 (McpToolDispatcher 로 위임)
     private void handleToolsCall(SseEmitter emitter, JsonNode id, JsonNode request) {
         String toolName = request.path("params").path("name").asText();
-        JsonNode args = request.path("params").path("arguments");
-        String resultText;
+        Map<String, Object> args = objectMapper.convertValue(request.path("params").path("arguments"), ARGUMENTS_TYPE);
+        log.debug("📥 수신된 Tool Name: {}", toolName);
 
-        log.info("📥 수신된 Tool Name: {}", toolName);
+        McpToolDispatcher.ToolResult result = mcpToolDispatcher.call(
+                toDispatcherName(toolName), args, McpToolDispatcher.TRANSPORT_LEGACY_SSE);
 
-        try {
-            if ("ServerDoctor_diagnose_server".equals(toolName)) {
-                String serverName = args.path("serverName").asText();
-                log.info("🩺 진단 요청: {}", serverName);
-                resultText = serverDoctorService.diagnoseForMcp(serverName);
-
-            } else if ("ServerDoctor_fetch_error_logs".equals(toolName)) {
-                String serverName = args.path("serverName").asText();
-                log.info("📜 로그 조회 요청: {}", serverName);
-                ErrorLogAnalysisDto logs = logService.analyzeErrorLogs(serverName);
-                resultText = logs.getErrorCount() == 0 ? "발견된 에러 로그가 없습니다." : logs.toString();
+        // 결과 전송
+        sendJsonRpcResponse(emitter, id, Map.of(
+                "content", new Object[]{
+                        Map.of("type", "text", "text", result.text())
+                },
+                "isError", result.error()
+        ));
+    }
 
-            } else if ("ServerDoctor_register_server".equals(toolName)) {
-                String serverName = args.path("serverName").asText();
-                String serverUrl = args.path("serverUrl").asText(null);
+    // legacy 클라이언트는 ServerDoctor_diagnose_server 형태의 이름을 사용 (/mcp 는 ServerDoctor-diagnose_server)
+    private static String toDispatcherName(String legacyName) {
+        return legacyName.startsWith(LEGACY_PREFIX)
+                ? DISPATCHER_PREFIX + legacyName.substring(LEGACY_PREFIX.length())
+                : legacyName;
+    }
 
-                log.info("📝 서버 등록: {}", serverName);
+    private static String toLegacyName(String dispatcherName) {
+        return dispatcherName.startsWith(DISPATCHER_PREFIX)
+                ? LEGACY_PREFIX + dispatcherName.substring(DISPATCHER_PREFIX.length())
+                : dispatcherName;
+    }
 
-                // DB 저장
-                RegisterServerRequest req = new RegisterServerRequest(serverName);
-                RegisterServerResponse res = serverRegisterService.registerServer(req);
+    // [핸들러] AI 진단 스트리밍
+    // - LLM 응답이 길어 수십 초가 걸리므로 별도 스레드에서 실행하고 요청은 바로 202 로 응답
+    // - 생성 중인 부분 결과는 notifications/progress 로 모아서 전송, 완료 시 전체 결과를 응답
+    private void handleStreamingDiagnose(SseEmitter emitter, JsonNode id, JsonNode request) {
+        String serverName = request.path("params").path("arguments").path("serverName").asText();
+        JsonNode progressToken = request.path("params").path("_meta").get("progressToken");
+        log.info("🩺 AI 진단 스트리밍 요청: {}", serverName);
 
-                resultText = String.format("✅ 서버 [%s]가 성공적으로 등록되었습니다. (서버 URL: %s, IngestToken : %s)\n" +
-                        "서버 가이드 : %s", serverName, serverUrl, res.getIngestToken(), res.getGuide());
+        activeStreams.incrementAndGet();
+        new Thread(() -> {
+            StringBuilder pending = new StringBuilder();
+            long[] lastSentAt = {0L};
+            int[] progress = {0};
 
+            String resultText;
+            try {
+                resultText = serverDoctorService.streamDiagnosisReport(serverName, delta -> {
+                    if (progressToken == null) return;
+                    pending.append(delta);
+                    progress[0] += delta.length();
+                    if (System.currentTimeMillis() - lastSentAt[0] >= PROGRESS_INTERVAL_MS) {
+                        sendProgress(emitter, progressToken, progress[0], pending.toString());
+                        pending.setLength(0);
+                        lastSentAt[0] = System.currentTimeMillis();
+                    }
+                });
+                if (progressToken != null && !pending.isEmpty()) {
+                    sendProgress(emitter, progressToken, progress[0], pending.toString());
+                }
+            } catch (Exception e) {
+                log.error("AI 진단 스트리밍 중 오류", e);
+                resultText = "❌ 도구 실행 실패: " + e.getMessage();
             }
-            else if ("ServerDoctor_get_setup_guide".equals(toolName)) {
-                log.info("서버 등록 가이드라인 요청");
-                resultText = serverRegisterService.generateSetupGuide(null, null);
-            }
-            else {
-                resultText = "⚠️ 알 수 없는 도구입니다: " + toolName;
-            }
-        } catch (Exception e) {
-            log.error("도구 실행 중 오류", e);
-            resultText = "❌ 도구 실행 실패: " + e.getMessage();
-        }
 
-        // 결과 전송
-        sendJsonRpcResponse(emitter, id, Map.of(
-                "content", new Object[]{
-                        Map.of("type", "text", "text", resultText)
-                }
+            sendJsonRpcResponse(emitter, id, Map.of(
+                    "content", new Object[]{
+                            Map.of("type", "text", "text", resultText)
+                    }
+            ));
+            activeStreams.decrementAndGet();
+        }).start();
+    }
+
+    private void sendProgress(SseEmitter emitter, JsonNode progressToken, int progress, String message) {
+        sendJsonRpcNotification(emitter, "notifications/progress", Map.of(
+                "progressToken", progressToken,
+                "progress", progress,
+                "message", message
         ));
     }
 
@@ -286,10 +313,28 @@ public class McpController {
                     .name("message")
                     .data(jsonString));
 
-            log.info("✅ 응답 전송 완료");
+            log.debug("✅ 응답 전송 완료");
 
         } catch (Exception e) {
             log.warn("❌ JsonRpc 에러 : ", e);
         }
     }
+
+    // id 가 없는 JSON-RPC 알림 전송 (진행 상황 등)
+    private void sendJsonRpcNotification(SseEmitter emitter, String method, Object params) {
+        if (emitter == null) return;
+
+        try {
+            Map<String, Object> notification = new HashMap<>();
+            notification.put("jsonrpc", "2.0");
+            notification.put("method", method);
+            notification.put("params", params);
+
+            emitter.send(SseEmitter.event()
+                    .name("message")
+                    .data(objectMapper.writeValueAsString(notification)));
+        } catch (Exception e) {
+            log.warn("❌ JsonRpc 알림 에러 : ", e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.kakao.kakao_test.diagnosis;
+
+/**
+ * 프롬프트에 넣을 후보 조각
+ * - section 은 출력 시 묶을 구역 이름 (metrics, health, errors 등)
+ * - score 가 높을수록 먼저 예산을 차지함
+ * - order 는 최종 출력 시 정렬 순서 (시간 순서 유지용)
+ */
+public record ContextItem(String section, String text, double score, long order) {
+
+    public static final double MANDATORY = Double.MAX_VALUE;
+
+    public ContextItem withText(String newText) {
+        return new ContextItem(section, newText, score, order);
+    }
+}
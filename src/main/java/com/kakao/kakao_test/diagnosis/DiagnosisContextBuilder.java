@@ -0,0 +1,167 @@
+package com.kakao.kakao_test.diagnosis;
+
+import com.kakao.kakao_test.dto.ErrorGroupDto;
+import com.kakao.kakao_test.dto.HealthTransitionDto;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 진단 프롬프트용 컨텍스트 조립기
+ * - 고정 개수(limit 10, 15)나 고정 글자수(500자)로 자르지 않고, 토큰 예산 안에서 가치가 높은 내용부터 채움
+ * - 에러 그룹(빈도 + 최근성), 메트릭 이상 구간, Health 상태 변화를 후보로 점수화
+ * - 예산을 넘는 후보라도 남은 예산이 충분하면 잘라서라도 넣음 (가장 중요한 스택트레이스를 통째로 버리지 않기 위함)
+ */
+@Component
+@Getter
+public class DiagnosisContextBuilder {
+
+    public static final String SECTION_METRICS = "metrics";
+    public static final String SECTION_HEALTH = "health";
+    public static final String SECTION_ERRORS = "errors";
+
+    private static final int MIN_PARTIAL_TOKENS = 64; // 이보다 적게 남으면 잘라 넣지 않음
+    private static final String TRUNCATED_MARK = "\n   ... (생략됨) ...";
+
+    @Value("${diagnosis.context.llm-token-budget:2000}")
+    private int llmTokenBudget;          // AI 리포트 프롬프트 (OpenAI 비용)
+
+    @Value("${diagnosis.context.mcp-token-budget:3000}")
+    private int mcpTokenBudget;          // Claude/PlayMCP 로 반환하는 진단 데이터
+
+    @Value("${diagnosis.context.error-log-token-budget:2500}")
+    private int errorLogTokenBudget;     // 에러 로그 조회 도구
+
+    /**
+     * 점수가 높은 순서로 예산을 채우고, 선택된 조각은 order 순서로 돌려줌
+     * - MANDATORY 조각은 예산과 무관하게 통째로 넣음 (이 경우에만 usedTokens 가 예산을 넘을 수 있음)
+     */
+    public Packed pack(List<ContextItem> candidates, int tokenBudget) {
+        List<ContextItem> byScore = new ArrayList<>(candidates);
+        byScore.sort(Comparator.comparingDouble(ContextItem::score).reversed());
+
+        List<ContextItem> selected = new ArrayList<>();
+        int remaining = tokenBudget;
+        int omitted = 0;
+
+        for (ContextItem item : byScore) {
+            int cost = TokenEstimator.estimate(item.text()) + 1; // 줄바꿈 구분자 몫
+            if (cost <= remaining || item.score() == ContextItem.MANDATORY) {
+                selected.add(item);
+                remaining -= cost;
+            } else if (remaining >= MIN_PARTIAL_TOKENS) {
+                int markCost = TokenEstimator.estimate(TRUNCATED_MARK);
+                String cut = TokenEstimator.truncate(item.text(), remaining - markCost - 1) + TRUNCATED_MARK;
+                selected.add(item.withText(cut));
+                remaining -= TokenEstimator.estimate(cut) + 1;
+            } else {
+                omitted++;
+            }
+        }
+
+        selected.sort(Comparator.comparingLong(ContextItem::order));
+        return new Packed(selected, omitted, tokenBudget - remaining);
+    }
+
+    /**
+     * 진단 컨텍스트 생성
+     * - 메트릭 요약은 항상 포함, 나머지는 점수 순으로 예산 안에서 선택
+     */
+    public Packed buildDiagnosisContext(String metricTrend,
+                                        List<ErrorGroupDto> errorGroups,
+                                        List<String> metricAnomalies,
+                                        List<HealthTransitionDto> healthTransitions,
+                                        int tokenBudget) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ContextItem> candidates = new ArrayList<>();
+        long order = 0;
+
+        candidates.add(new ContextItem(SECTION_METRICS, metricTrend, ContextItem.MANDATORY, order++));
+        for (int i = 0; i < metricAnomalies.size(); i++) {
+            candidates.add(new ContextItem(SECTION_METRICS, metricAnomalies.get(i),
+                    scoreMetricAnomaly(i, metricAnomalies.size()), order++));
+        }
+        for (HealthTransitionDto t : healthTransitions) {
+            candidates.add(new ContextItem(SECTION_HEALTH, renderTransition(t), scoreHealthTransition(t), order++));
+        }
+        for (ErrorGroupDto g : errorGroups) {
+            candidates.add(new ContextItem(SECTION_ERRORS, renderErrorGroup(g), scoreErrorGroup(g, now), order++));
+        }
+
+        return pack(candidates, tokenBudget);
+    }
+
+    /**
+     * 에러 로그 조회 도구용: 에러 그룹만 예산 안에서 선택
+     */
+    public Packed buildErrorLogContext(List<ErrorGroupDto> errorGroups, int tokenBudget) {
+        return buildDiagnosisContext("", errorGroups, List.of(), List.of(), tokenBudget);
+    }
+
+    // 빈도(log 스케일) + 최근성(30분 반감기) + Exception 힌트 가산점
+    private double scoreErrorGroup(ErrorGroupDto g, LocalDateTime now) {
+        double frequency = Math.log1p(g.count());
+        double ageMinutes = Math.max(0, Duration.between(g.lastSeen(), now).toSeconds() / 60.0);
+        double recency = Math.pow(0.5, ageMinutes / 30.0);
+        double exceptionBonus = g.message() != null && g.message().contains("Exception") ? 0.5 : 0.0;
+        return 1.0 + frequency + 2.0 * recency + exceptionBonus;
+    }
+
+    // DOWN 쪽으로의 변화가 가장 중요, 최근 변화일수록 높게
+    private double scoreHealthTransition(HealthTransitionDto t) {
+        double ageMinutes = Math.max(0, (System.currentTimeMillis() - t.ts()) / 60_000.0);
+        double recency = Math.pow(0.5, ageMinutes / 30.0);
+        double severity = "UP".equals(t.toStatus()) ? 0.5 : 1.5;
+        return severity + recency;
+    }
+
+    // 최근 이상 구간일수록 높게 (리스트는 시간순)
+    private double scoreMetricAnomaly(int index, int size) {
+        return 1.0 + (double) (index + 1) / size;
+    }
+
+    private String renderErrorGroup(ErrorGroupDto g) {
+        String repeat = g.count() > 1
+                ? "\n   ㄴ (동일한 에러가 " + g.count() + "번 발생, 최초 " + g.firstSeen() + ")"
+                : "";
+        String context = g.context() == null || g.context().isEmpty()
+                ? ""
+                : "\n   ㄴ 에러 전후 로그:\n" + String.join("\n", g.context());
+        return g.lastSeen() + " [" + g.level() + "] " + g.message() + repeat + context;
+    }
+
+    private String renderTransition(HealthTransitionDto t) {
+        return String.format("%s %s -> %s (HTTP %d, %dms)",
+                Instant.ofEpochMilli(t.ts()),
+                t.fromStatus() == null ? "(최초)" : t.fromStatus(),
+                t.toStatus(),
+                t.httpStatus(),
+                t.latencyMs());
+    }
+
+    /**
+     * 예산 안에서 선택된 조각 (order 순서)
+     */
+    public record Packed(List<ContextItem> items, int omittedCount, int usedTokens) {
+
+        public List<String> texts(String section) {
+            return items.stream()
+                    .filter(i -> i.section().equals(section))
+                    .map(ContextItem::text)
+                    .filter(t -> !t.isEmpty())
+                    .toList();
+        }
+
+        public String joined(String section, String delimiter) {
+            return texts(section).stream().collect(Collectors.joining(delimiter));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.kakao.kakao_test.diagnosis;
+
+/**
+ * LLM 토큰 수 추정기 (tokenizer 없이 빠르게 근사)
+ * - 영문/숫자/공백: 약 4글자당 1토큰
+ * - 한글 등 비 ASCII 문자: 1글자당 약 1토큰
+ * - 실제보다 약간 크게 잡아서 예산을 넘기지 않도록 함
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {}
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+
+        double tokens = 0;
+        for (int i = 0; i < text.length(); i++) {
+            tokens += cost(text.charAt(i));
+        }
+        return (int) Math.ceil(tokens);
+    }
+
+    /**
+     * 앞에서부터 maxTokens 안에 들어가는 만큼만 자름
+     */
+    public static String truncate(String text, int maxTokens) {
+        if (text == null) return "";
+        if (maxTokens <= 0) return "";
+
+        double tokens = 0;
+        for (int i = 0; i < text.length(); i++) {
+            tokens += cost(text.charAt(i));
+            if (tokens > maxTokens) {
+                // 이모지 등 surrogate pair 를 반으로 자르지 않도록
+                int end = i > 0 && Character.isHighSurrogate(text.charAt(i - 1)) ? i - 1 : i;
+                return text.substring(0, end);
+            }
+        }
+        return text;
+    }
+
+    private static double cost(char c) {
+        if (c < 0x80) {
+            return Character.isLetterOrDigit(c) || Character.isWhitespace(c) ? 0.25 : 0.5;
+        }
+        return 1.0;
+    }
+}
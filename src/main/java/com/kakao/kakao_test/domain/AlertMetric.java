@@ -0,0 +1,9 @@
+package com.kakao.kakao_test.domain;
+
+/**
+ * METRIC_THRESHOLD 규칙이 보는 값 (둘 다 % 단위)
+ */
+public enum AlertMetric {
+    CPU,
+    MEMORY
+}
@@ -0,0 +1,78 @@
+package com.kakao.kakao_test.domain;
+
+import jakarta.persistence.*;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 서버별 알림 규칙
+ * - 수신 시점에 AlertRuleEngine 이 규칙을 증분 평가기로 바꿔서 이벤트마다 O(1) 로 평가
+ * - 규칙이 하나도 없는 서버는 alert.defaults 설정(첫 ERROR 알림)을 그대로 사용
+ */
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "alert_rule", indexes = {
+    @Index(name = "idx_alert_rule_server", columnList = "server_name")
+})
+public class AlertRule extends BaseTimeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "server_name", nullable = false)
+    private String serverName;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private AlertRuleType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private AlertMetric metric;       // METRIC_THRESHOLD 전용
+
+    private double threshold;         // 메트릭 % / ERROR 비율 %
+
+    private int windowSeconds;        // 지속 시간 / 집계 구간
+
+    private int minCount;             // 최소 줄 수 / 패턴 발생 횟수 / 연속 DOWN 횟수
+
+    @Column(length = 500)
+    private String pattern;           // EXCEPTION_PATTERN 전용 (정규식)
+
+    private int cooldownSeconds;      // 규칙별 재알림 간격
+
+    private boolean enabled;
+
+    @Builder
+    public AlertRule(String serverName, String name, AlertRuleType type, AlertMetric metric, double threshold,
+                     int windowSeconds, int minCount, String pattern, int cooldownSeconds, boolean enabled) {
+        this.serverName = serverName;
+        update(name, type, metric, threshold, windowSeconds, minCount, pattern, cooldownSeconds, enabled);
+    }
+
+    public void update(String name, AlertRuleType type, AlertMetric metric, double threshold,
+                       int windowSeconds, int minCount, String pattern, int cooldownSeconds, boolean enabled) {
+        this.name = name;
+        this.type = type;
+        this.metric = metric;
+        this.threshold = threshold;
+        this.windowSeconds = windowSeconds;
+        this.minCount = minCount;
+        this.pattern = pattern;
+        this.cooldownSeconds = cooldownSeconds;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 평가 조건이 같은지 비교용 (같으면 규칙을 다시 읽어도 윈도우 상태를 이어서 씀)
+     */
+    public String signature() {
+        return type + "|" + metric + "|" + threshold + "|" + windowSeconds + "|" + minCount + "|" + pattern;
+    }
+}
@@ -0,0 +1,15 @@
+package com.kakao.kakao_test.domain;
+
+/**
+ * 알림 규칙 종류
+ * - METRIC_THRESHOLD: 메트릭(CPU/메모리 %)이 threshold 를 windowSeconds 동안 계속 넘으면
+ * - ERROR_RATE: 최근 windowSeconds 동안 ERROR 비율(%)이 threshold 를 넘으면 (전체 minCount 줄 이상일 때만)
+ * - EXCEPTION_PATTERN: pattern(정규식)에 맞는 로그가 최근 windowSeconds 동안 minCount 번 이상이면
+ * - HEALTH_DOWN: health probe 가 minCount 번 연속 DOWN 이면
+ */
+public enum AlertRuleType {
+    METRIC_THRESHOLD,
+    ERROR_RATE,
+    EXCEPTION_PATTERN,
+    HEALTH_DOWN
+}
@@ -0,0 +1,38 @@
+package com.kakao.kakao_test.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 클러스터 모드에서 살아있는 노드 목록 (공유 MySQL 을 통한 노드 발견)
+ * - 각 노드가 주기적으로 lastHeartbeatAt 을 갱신, 일정 시간 갱신이 없으면 떠난 것으로 간주
+ */
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "cluster_node")
+public class ClusterNode {
+
+    @Id
+    @Column(length = 64)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private String advertiseUrl;     // 다른 노드가 요청을 넘겨줄 때 쓰는 내부 주소 (http://host:8080)
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lastHeartbeatAt;
+
+    public ClusterNode(String nodeId, String advertiseUrl, LocalDateTime now) {
+        this.nodeId = nodeId;
+        this.advertiseUrl = advertiseUrl;
+        this.startedAt = now;
+        this.lastHeartbeatAt = now;
+    }
+}
@@ -0,0 +1,51 @@
+package com.kakao.kakao_test.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 에러 그룹(서버 + fingerprint)별 가장 최근 발생 시점의 전후 로그
+ * - 수신 시점에 메모리 링버퍼에서 잘라 저장 -> 진단 시 server_log 범위 조회 없이 "직전에 무슨 일이 있었는지" 확인
+ * - 같은 그룹의 새 캡처가 오면 덮어씀 (captures 는 누적 캡처 횟수)
+ */
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "error_context", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_error_context_group", columnNames = {"server_name", "fingerprint"})
+})
+public class ErrorContext {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "server_name", nullable = false)
+    private String serverName;
+
+    @Column(nullable = false, length = 200)
+    private String fingerprint;
+
+    @Column(length = 20)
+    private String level;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;          // 에러 줄 원문 (앞부분)
+
+    private LocalDateTime occurredAt;
+
+    @Column(name = "context_lines", columnDefinition = "TEXT")
+    private String contextLines;     // 렌더링된 전후 로그 (줄바꿈 구분, 에러 줄은 ▶ 표시)
+
+    private int captures;
+
+    private LocalDateTime capturedAt;
+
+    public List<String> lines() {
+        return contextLines == null || contextLines.isEmpty() ? List.of() : List.of(contextLines.split("\n"));
+    }
+}
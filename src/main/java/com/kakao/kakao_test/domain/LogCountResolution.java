@@ -0,0 +1,31 @@
+package com.kakao.kakao_test.domain;
+
+/**
+ * 레벨별 로그 수 집계 단위
+ * - MINUTE: 최근 24시간 (1440개)
+ * - HOUR: 최근 30일 (720개)
+ */
+public enum LogCountResolution {
+    MINUTE(60_000L, 1_440),
+    HOUR(3_600_000L, 720);
+
+    private final long bucketMillis;
+    private final int buckets;
+
+    LogCountResolution(long bucketMillis, int buckets) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+    }
+
+    public long bucketMillis() {
+        return bucketMillis;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    public long retentionMillis() {
+        return bucketMillis * buckets;
+    }
+}
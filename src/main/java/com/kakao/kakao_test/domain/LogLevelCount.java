@@ -0,0 +1,50 @@
+package com.kakao.kakao_test.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 서버별 / 시간 구간별 레벨별 로그 수 (수신 시점에 메모리에서 집계 후 주기적으로 더해 넣음)
+ * - "최근 하루 분당 ERROR 수" 같은 질문에 server_log 를 훑지 않고 답하기 위한 요약 테이블
+ * - 분 단위는 24시간, 시간 단위는 30일만 보관
+ */
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "log_level_count", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_log_level_count_bucket", columnNames = {"server_name", "resolution", "bucket_start"})
+})
+public class LogLevelCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "server_name", nullable = false)
+    private String serverName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private LogCountResolution resolution;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "debug_count")
+    private long debugCount;         // TRACE 포함
+
+    @Column(name = "info_count")
+    private long infoCount;
+
+    @Column(name = "warn_count")
+    private long warnCount;
+
+    @Column(name = "error_count")
+    private long errorCount;         // FATAL 포함
+
+    @Column(name = "other_count")
+    private long otherCount;         // 레벨 없음 / 그 외
+}
@@ -0,0 +1,10 @@
+package com.kakao.kakao_test.domain;
+
+/**
+ * 수신 한도를 넘었을 때의 처리 방식
+ */
+public enum QuotaOverflowPolicy {
+    REJECT,       // 배치 전체를 429 로 거절 (forwarder 가 나중에 재전송)
+    SAMPLE,       // 남은 한도만큼만 골라서 저장 (WARN/ERROR 우선)
+    KEEP_SEVERE   // WARN/ERROR 만 저장, 나머지는 버림
+}
@@ -15,6 +15,8 @@ import java.time.LocalDateTime;
 @Table(name = "server_log", indexes = {
     @Index(name = "idx_log_server_time", columnList = "server_id, occurredAt"), // 시간순 조회용
     @Index(name = "idx_log_level", columnList = "server_id, level, occurredAt") // 에러만 필터링용
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_log_server_event", columnNames = {"server_id", "event_id"}) // 재전송 중복 방지 (NULL 은 중복 허용)
 })
 public class ServerLog extends BaseTimeEntity {
 
@@ -35,11 +37,24 @@ public class ServerLog extends BaseTimeEntity {
 
     private LocalDateTime occurredAt; // 로그 발생 시각 (수집 시각 X)
 
+    @Column(name = "event_id", length = 64)
+    private String eventId; // forwarder 가 부여한 이벤트 ID (없으면 NULL)
+
+    @Column(name = "exception_class")
+    private String exceptionClass; // 스택트레이스로 합쳐진 로그의 바깥 예외 클래스 (아니면 NULL)
+
+    public ServerLog(TargetServer server, String level, String message, LocalDateTime occurredAt, String eventId) {
+        this(server, level, message, occurredAt, eventId, null);
+    }
+
     @Builder
-    public ServerLog(TargetServer server, String level, String message, LocalDateTime occurredAt) {
+    public ServerLog(TargetServer server, String level, String message, LocalDateTime occurredAt, String eventId,
+                     String exceptionClass) {
         this.server = server;
         this.level = level;
         this.message = message;
         this.occurredAt = occurredAt;
+        this.eventId = eventId;
+        this.exceptionClass = exceptionClass;
     }
 }
\ No newline at end of file
@@ -16,6 +16,8 @@ import java.time.ZoneId;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Table(name = "server_metric", indexes = {
     @Index(name = "idx_metric_server_time", columnList = "server_id, capturedAt")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_metric_server_event", columnNames = {"server_id", "event_id"}) // 재전송 중복 방지 (NULL 은 중복 허용)
 })
 public class ServerMetric {
 
@@ -33,23 +35,28 @@ public class ServerMetric {
 
     private LocalDateTime capturedAt;
 
+    @Column(name = "event_id", length = 64)
+    private String eventId; // forwarder 가 부여한 이벤트 ID (없으면 NULL)
+
     @Builder
-    public ServerMetric(TargetServer server, Double cpuUsage, Double memoryUsedMb, Double memoryMaxMb, LocalDateTime capturedAt) {
+    public ServerMetric(TargetServer server, Double cpuUsage, Double memoryUsedMb, Double memoryMaxMb, LocalDateTime capturedAt, String eventId) {
         this.server = server;
         this.cpuUsage = cpuUsage;
         this.memoryUsedMb = memoryUsedMb;
         this.memoryMaxMb = memoryMaxMb;
         this.capturedAt = capturedAt;
+        this.eventId = eventId;
     }
 
     public static ServerMetric createMetric(Long ts, TargetServer server,
-                                            Double cpuPercent, Double memUsedMb, Double memMaxMb) {
+                                            Double cpuPercent, Double memUsedMb, Double memMaxMb, String eventId) {
         return ServerMetric.builder()
                 .server(server)
                 .cpuUsage(cpuPercent)
                 .memoryUsedMb(memUsedMb)
                 .memoryMaxMb(memMaxMb)
                 .capturedAt(convertTimestamp(ts))
+                .eventId(eventId)
                 .build();
     }
     private static LocalDateTime convertTimestamp(Long ts) {
@@ -36,6 +36,28 @@ public class TargetServer {
 
     private Long lastHealthLatencyMs;        // ms
 
+    // 수신 한도 (null 이면 ingest.quota 기본값, 0 이면 무제한)
+    private Integer quotaEventsPerSec;
+
+    private Long quotaBytesPerSec;
+
+    private Integer quotaBurstSeconds;       // 몇 초치 한도까지 한 번에 몰아서 받을 수 있는지
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private QuotaOverflowPolicy quotaOverflowPolicy;
+
+    public void updateQuota(Integer eventsPerSec, Long bytesPerSec, Integer burstSeconds, QuotaOverflowPolicy policy) {
+        this.quotaEventsPerSec = eventsPerSec;
+        this.quotaBytesPerSec = bytesPerSec;
+        this.quotaBurstSeconds = burstSeconds;
+        this.quotaOverflowPolicy = policy;
+    }
+
+    public void rotateToken(String newToken) {
+        this.mcpToken = newToken;
+    }
+
     public void updateHealthSnapshot(String newStatus, long latencyMs, int status) {
         this.lastHealthStatus = newStatus;
         this.lastHealthHttpStatus = status;
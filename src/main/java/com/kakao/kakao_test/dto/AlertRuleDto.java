@@ -0,0 +1,28 @@
+package com.kakao.kakao_test.dto;
+
+import com.kakao.kakao_test.domain.AlertMetric;
+import com.kakao.kakao_test.domain.AlertRule;
+import com.kakao.kakao_test.domain.AlertRuleType;
+
+/**
+ * 서버별 알림 규칙
+ */
+public record AlertRuleDto(
+        Long id,
+        String serverName,
+        String name,
+        AlertRuleType type,
+        AlertMetric metric,
+        double threshold,
+        int windowSeconds,
+        int minCount,
+        String pattern,
+        int cooldownSeconds,
+        boolean enabled
+) {
+    public static AlertRuleDto from(AlertRule r) {
+        return new AlertRuleDto(r.getId(), r.getServerName(), r.getName(), r.getType(), r.getMetric(),
+                r.getThreshold(), r.getWindowSeconds(), r.getMinCount(), r.getPattern(),
+                r.getCooldownSeconds(), r.isEnabled());
+    }
+}
@@ -0,0 +1,32 @@
+package com.kakao.kakao_test.dto;
+
+import com.kakao.kakao_test.domain.AlertMetric;
+import com.kakao.kakao_test.domain.AlertRuleType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 알림 규칙 생성/변경 (null 인 항목은 종류별 기본값 사용)
+ */
+@Getter
+@NoArgsConstructor
+public class AlertRuleRequest {
+
+    private String name;
+
+    private AlertRuleType type;
+
+    private AlertMetric metric;
+
+    private Double threshold;
+
+    private Integer windowSeconds;
+
+    private Integer minCount;
+
+    private String pattern;
+
+    private Integer cooldownSeconds;
+
+    private Boolean enabled;
+}
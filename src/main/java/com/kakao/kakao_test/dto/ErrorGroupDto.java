@@ -0,0 +1,19 @@
+package com.kakao.kakao_test.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 같은 형태(fingerprint)의 에러 로그 묶음
+ * - message 는 그룹에서 가장 최근에 발생한 원문
+ * - context 는 수신 시 캡처한 가장 최근 발생의 전후 로그 (없으면 빈 목록)
+ */
+public record ErrorGroupDto(
+        String fingerprint,
+        String level,
+        String message,
+        int count,
+        LocalDateTime firstSeen,
+        LocalDateTime lastSeen,
+        List<String> context
+) {}
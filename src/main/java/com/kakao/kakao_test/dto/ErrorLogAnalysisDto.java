@@ -13,6 +13,7 @@ public class ErrorLogAnalysisDto {
     private List<String> recentErrors;
     private int errorCount;
     private String summary;
+    private List<ErrorGroupDto> errorGroups; // 같은 형태의 에러 묶음 (진단 컨텍스트 점수화용)
 
     /**
      * MCP(Claude)에게 보낼 Raw Data 포맷으로 변환
@@ -39,9 +40,8 @@ public class ErrorLogAnalysisDto {
         } else {
             sb.append("```text\n"); // 로그는 text 코드 블록으로 감싸야 AI가 분석하기 좋음
 
-            // 리스트의 각 에러를 줄바꿈으로 연결
+            // 리스트의 각 에러를 줄바꿈으로 연결 (이미 토큰 예산 안에서 선별된 목록)
             String joinedLogs = recentErrors.stream()
-                    .limit(15) // 너무 길면 토큰 터질 수 있으니 안전하게 15개 정도만
                     .collect(Collectors.joining("\n----------------------------------------\n"));
 
             sb.append(joinedLogs);
@@ -0,0 +1,12 @@
+package com.kakao.kakao_test.dto;
+
+/**
+ * Health 상태 변화 (UP -> DOWN 등)
+ */
+public record HealthTransitionDto(
+        long ts,
+        String fromStatus,   // 최초 기록이면 null
+        String toStatus,
+        long latencyMs,
+        int httpStatus
+) {}
@@ -0,0 +1,28 @@
+package com.kakao.kakao_test.dto;
+
+import com.kakao.kakao_test.domain.QuotaOverflowPolicy;
+
+/**
+ * 서버별 수신 한도 설정과 현재 노드에서의 사용량 (한도 0 = 무제한)
+ */
+public record IngestQuotaDto(
+        String serverName,
+        long eventsPerSec,
+        long bytesPerSec,
+        int burstSeconds,
+        QuotaOverflowPolicy overflowPolicy,
+        Usage usage
+) {
+    /**
+     * 설정을 마지막으로 읽은 뒤의 누적값
+     */
+    public record Usage(
+            long acceptedEvents,
+            long acceptedBytes,
+            long droppedEvents,
+            long rejectedBatches,
+            long droppedMetricSamples,
+            long availableEvents,
+            long availableBytes
+    ) {}
+}
@@ -0,0 +1,18 @@
+package com.kakao.kakao_test.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 수집 요청 1건의 단계별 소요 시간
+ */
+public record IngestTraceDto(
+        String pipeline,
+        String serverName,
+        Instant startedAt,
+        double totalMs,
+        String outcome,
+        List<Stage> stages
+) {
+    public record Stage(String name, double ms) {}
+}
@@ -0,0 +1,19 @@
+package com.kakao.kakao_test.dto;
+
+import com.kakao.kakao_test.domain.LogCountResolution;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 서버의 레벨별 로그 수 시계열 (오래된 구간부터, 마지막 구간은 진행 중)
+ */
+public record LogCountSeriesDto(
+        String serverName,
+        String level,
+        LogCountResolution resolution,
+        LocalDateTime from,
+        List<Long> counts,
+        long total,
+        String errorTrend
+) {}
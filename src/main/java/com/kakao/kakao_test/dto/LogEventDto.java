@@ -1,12 +1,15 @@
 package com.kakao.kakao_test.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 @Getter
 @NoArgsConstructor
+@AllArgsConstructor
 public class LogEventDto {
     private long ts;        // epoch millis
     private String level;   // INFO/WARN/ERROR
     private String message; // 한 줄 메시지(마스킹된 형태 권장)
+    private String eventId; // 재전송 중복 제거용 ID (선택)
 }
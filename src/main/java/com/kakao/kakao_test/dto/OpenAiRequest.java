@@ -1,5 +1,6 @@
 package com.kakao.kakao_test.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -7,13 +8,15 @@ import java.util.List;
 
 @Getter
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OpenAiRequest {
     private String model;
     private List<Message> messages;
+    private Boolean stream; // true 이면 SSE(chunk) 로 응답을 받음
 
     @Getter @Builder
     public static class Message {
         private String role; // "system", "user"
         private String content;
     }
-}
\ No newline at end of file
+}
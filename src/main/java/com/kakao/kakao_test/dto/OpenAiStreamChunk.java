@@ -0,0 +1,29 @@
+package com.kakao.kakao_test.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * stream=true 요청 시 "data: {...}" 한 줄마다 내려오는 chunk
+ */
+@Getter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OpenAiStreamChunk {
+    private List<Choice> choices;
+
+    @Getter @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Choice {
+        private Delta delta;
+    }
+
+    @Getter @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Delta {
+        private String content;
+    }
+}
@@ -0,0 +1,21 @@
+package com.kakao.kakao_test.dto;
+
+import com.kakao.kakao_test.domain.QuotaOverflowPolicy;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 서버별 수신 한도 변경 (null 인 항목은 기본값 사용, 0 은 무제한)
+ */
+@Getter
+@NoArgsConstructor
+public class UpdateQuotaRequest {
+
+    private Integer eventsPerSec;
+
+    private Long bytesPerSec;
+
+    private Integer burstSeconds;
+
+    private QuotaOverflowPolicy overflowPolicy;
+}
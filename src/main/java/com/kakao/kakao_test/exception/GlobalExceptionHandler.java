@@ -28,6 +28,42 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<?> badRequest(BadRequestException e) {
+        return ResponseEntity.status(400).body(Map.of(
+                "error", "BAD_REQUEST",
+                "message", e.getMessage()
+        ));
+    }
+
+    @ExceptionHandler(QuotaExceededException.class)
+    public ResponseEntity<?> quotaExceeded(QuotaExceededException e) {
+        return ResponseEntity.status(429)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "error", "TOO_MANY_REQUESTS",
+                        "message", e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(IngestBackpressureException.class)
+    public ResponseEntity<?> ingestBackpressure(IngestBackpressureException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "error", "INGEST_BACKPRESSURE",
+                        "message", e.getMessage()
+                ));
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<?> upstreamUnavailable(UpstreamUnavailableException e) {
+        return ResponseEntity.status(503).body(Map.of(
+                "error", "UPSTREAM_UNAVAILABLE",
+                "message", e.getMessage()
+        ));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> unknown(Exception e) {
         return ResponseEntity.status(500).body(Map.of(
@@ -0,0 +1,16 @@
+package com.kakao.kakao_test.exception;
+
+import lombok.Getter;
+
+/**
+ * 수신 스풀이 가득 차 새 요청을 받지 않음 (503, DB 반영이 따라잡을 때까지 forwarder 가 재시도)
+ */
+@Getter
+public class IngestBackpressureException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public IngestBackpressureException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.kakao.kakao_test.exception;
+
+import lombok.Getter;
+
+/**
+ * 서버별 수신 한도 초과 (429)
+ */
+@Getter
+public class QuotaExceededException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public QuotaExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,10 @@
+package com.kakao.kakao_test.exception;
+
+/**
+ * 외부 API(OpenAI, Discord 등) 호출을 보내지 않고 거절한 경우 (서킷 open / 동시 호출 한도 초과)
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
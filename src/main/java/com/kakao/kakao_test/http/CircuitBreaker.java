@@ -0,0 +1,72 @@
+package com.kakao.kakao_test.http;
+
+/**
+ * 호스트 1개의 서킷 브레이커
+ * - CLOSED: 연속 실패가 임계치에 닿으면 OPEN
+ * - OPEN: openMillis 동안 호출 차단, 지나면 HALF_OPEN 으로 바꾸고 시험 호출 1건만 허용
+ * - HALF_OPEN: 시험 호출이 성공하면 CLOSED, 실패하면 다시 OPEN
+ * 상태 변경은 짧은 연산뿐이라 synchronized 로 충분 (블로킹 I/O 는 락 밖에서 수행)
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * 호출 가능 여부 (true 를 받았으면 반드시 onSuccess / onFailure / cancel 중 하나를 호출)
+     */
+    synchronized boolean tryAcquire(long now) {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> {
+                if (now - openedAt < openMillis) yield false;
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                yield true;
+            }
+            case HALF_OPEN -> {
+                if (probeInFlight) yield false;
+                probeInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.OPEN) return; // 열리기 전에 출발한 호출의 늦은 성공은 무시
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    synchronized void onFailure(long now) {
+        if (state == State.OPEN) return;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = now;
+            consecutiveFailures = 0;
+        }
+    }
+
+    // 허용받았지만 실제로 호출하지 않은 경우 (bulkhead 대기 실패 등)
+    synchronized void cancel() {
+        probeInFlight = false;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,348 @@
+package com.kakao.kakao_test.http;
+
+import com.kakao.kakao_test.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 외부 API 공용 HTTP 클라이언트 (OpenAI, Discord 웹훅) + 클러스터 노드 간 전달용 클라이언트
+ * - JDK HttpClient 1개를 공유 (HTTP/2 우선, 커넥션 재사용), 연결/응답 대기 타임아웃 명시
+ * - 대상별 동시 호출 한도(bulkhead): 자리가 없으면 잠깐만 기다리고 거절 -> 느린 upstream 이 요청 스레드를 붙잡지 못함
+ * - 대상별 서킷 브레이커: 5xx / 연결 실패가 이어지면 일정 시간 호출 자체를 보내지 않음
+ * - 429 / 503 의 Retry-After 는 대상별로 지킴 (그 시각까지 보내지 않고 바로 거절), 429 는 서킷 실패로 세지 않음
+ *   (호출량 제한일 뿐 upstream 은 살아 있음)
+ * - 대상 = 호스트, 단 웹훅(/webhooks/{id}/{token}/...)은 웹훅 단위 (Discord 는 웹훅마다 한도가 따로라
+ *   한 사용자의 웹훅이 막혀도 다른 사용자의 알림은 나가야 함)
+ * - 호출 자리는 응답 본문을 다 읽고 닫을 때 반납 (스트리밍 응답도 끝날 때까지 1자리 차지)
+ * - 블로킹은 Semaphore 대기뿐이라 가상 스레드에서 호출해도 캐리어 스레드를 점유하지 않음
+ * - 노드 간 전달(peerClient)은 자리/서킷을 따로 둠: 외부 API 장애가 전달을 막거나, 소유 노드가 돌려준 4xx(429 포함)가
+ *   서킷을 열지 않도록 (연결 실패와 5xx 만 실패로 셈)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboundHttp {
+
+    private static final String OTHER_HOST = "other";
+    private static final String WEBHOOK_SEGMENT = "webhooks";
+    private static final String NO_ROUTE = "-";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbound.http.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    // 요청 전송 ~ 응답 헤더 수신까지 (스트리밍 본문 수신 시간은 포함하지 않음)
+    @Value("${outbound.http.read-timeout-ms:60000}")
+    private long readTimeoutMs;
+
+    @Value("${outbound.http.max-concurrent-per-host:16}")
+    private int maxConcurrentPerHost;
+
+    @Value("${outbound.http.acquire-timeout-ms:500}")
+    private long acquireTimeoutMs;
+
+    @Value("${outbound.http.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${outbound.http.circuit.open-seconds:30}")
+    private long openSeconds;
+
+    // 웹훅 주소는 사용자가 등록하므로 대상 수 상한을 둠 (넘으면 "other" 하나로 묶음)
+    @Value("${outbound.http.max-tracked-hosts:64}")
+    private int maxTrackedHosts;
+
+    // 429 / 503 에 Retry-After 가 없을 때 기다리는 시간
+    @Value("${outbound.http.default-retry-after-seconds:1}")
+    private long defaultRetryAfterSeconds;
+
+    @Value("${outbound.http.peer.read-timeout-ms:10000}")
+    private long peerReadTimeoutMs;
+
+    @Value("${outbound.http.peer.max-concurrent-per-node:64}")
+    private int peerMaxConcurrent;
+
+    private final Map<String, HostGuard> guards = new ConcurrentHashMap<>();
+    private final Map<String, HostGuard> peerGuards = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+    private HttpClient httpClient;
+    private RestClient restClient;
+    private RestClient peerClient;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2) // 지원하지 않는 서버는 HTTP/1.1 로 자동 협상
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        restClient = RestClient.builder()
+                .requestFactory(requestFactory)
+                .requestInterceptor((request, body, execution) -> guard(request, body, execution, externalGuardFor(request)))
+                .build();
+
+        JdkClientHttpRequestFactory peerRequestFactory = new JdkClientHttpRequestFactory(httpClient);
+        peerRequestFactory.setReadTimeout(Duration.ofMillis(peerReadTimeoutMs));
+        peerClient = RestClient.builder()
+                .requestFactory(peerRequestFactory)
+                .requestInterceptor((request, body, execution) -> guard(request, body, execution, peerGuardFor(request)))
+                .build();
+    }
+
+    @PreDestroy
+    void close() {
+        httpClient.close();
+        executor.shutdownNow();
+    }
+
+    public RestClient restClient() {
+        return restClient;
+    }
+
+    /**
+     * 클러스터 노드 간 요청 전달 전용 (노드별 자리/서킷, 응답 상태는 그대로 돌려받음)
+     */
+    public RestClient peerClient() {
+        return peerClient;
+    }
+
+    // ===================== bulkhead + circuit breaker =====================
+
+    private ClientHttpResponse guard(HttpRequest request, byte[] body, ClientHttpRequestExecution execution,
+                                     HostGuard guard) throws IOException {
+        long waitMs = guard.retryAfterUntil - System.currentTimeMillis();
+        if (waitMs > 0) {
+            reject(guard, "retry_after");
+            throw new UpstreamUnavailableException(
+                    guard.host + " 호출 대기 중 (Retry-After, " + Math.max(1, waitMs / 1000) + "초 남음)");
+        }
+        if (!guard.breaker.tryAcquire(System.currentTimeMillis())) {
+            reject(guard, "circuit_open");
+            throw new UpstreamUnavailableException(guard.host + " 호출 차단 중 (연속 실패로 서킷 open)");
+        }
+        if (!acquirePermit(guard)) {
+            guard.breaker.cancel();
+            reject(guard, "bulkhead_full");
+            throw new UpstreamUnavailableException(guard.host + " 동시 호출 한도 초과 (" + guard.maxConcurrent + ")");
+        }
+
+        long startNanos = System.nanoTime();
+        ClientHttpResponse response;
+        int status;
+        try {
+            response = execution.execute(request, body);
+            status = response.getStatusCode().value();
+        } catch (IOException | RuntimeException e) {
+            guard.breaker.onFailure(System.currentTimeMillis());
+            guard.permits.release();
+            guard.timer("error").record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+
+        if ((status == 429 || status == 503) && !guard.peer) {
+            long retryAfterMs = retryAfterMillis(response.getHeaders());
+            guard.retryAfterUntil = System.currentTimeMillis() + retryAfterMs;
+            log.warn("⏳ 외부 호출 제한 [{}]: {} -> {}ms 동안 보내지 않음", guard.host, status, retryAfterMs);
+        }
+        if (status >= 500) {
+            guard.breaker.onFailure(System.currentTimeMillis());
+        } else {
+            guard.breaker.onSuccess(); // 4xx(429 포함)는 upstream 이 응답한 것
+        }
+        return new GuardedResponse(response, guard, status / 100 + "xx", startNanos);
+    }
+
+    private boolean acquirePermit(HostGuard guard) throws IOException {
+        try {
+            return guard.permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            guard.breaker.cancel();
+            throw new IOException("호출 대기 중 인터럽트", e);
+        }
+    }
+
+    private void reject(HostGuard guard, String reason) {
+        meterRegistry.counter("http.client.upstream.rejected", "host", guard.host, "route", guard.route,
+                "reason", reason).increment();
+        log.warn("⛔ 외부 호출 거절 [{}]: {}", guard.host, reason);
+    }
+
+    private HostGuard externalGuardFor(HttpRequest request) {
+        String host = request.getURI().getHost();
+        host = host == null ? OTHER_HOST : host;
+        String[] webhook = webhookOf(request.getURI().getRawPath());
+        // 키에는 웹훅 토큰까지 포함, 메트릭 태그에는 웹훅 id 만 (토큰이 메트릭으로 새지 않도록)
+        String key = webhook == null ? host : host + "/" + WEBHOOK_SEGMENT + "/" + webhook[0] + "/" + webhook[1];
+        String route = webhook == null ? NO_ROUTE : WEBHOOK_SEGMENT + "/" + webhook[0];
+
+        HostGuard guard = guards.get(key);
+        if (guard != null) return guard;
+        if (guards.size() >= maxTrackedHosts) {
+            key = OTHER_HOST;
+            host = OTHER_HOST;
+            route = NO_ROUTE;
+        }
+        String guardHost = host;
+        String guardRoute = route;
+        return guards.computeIfAbsent(key, k -> new HostGuard(guardHost, guardRoute, maxConcurrentPerHost, false));
+    }
+
+    // 노드는 같은 호스트에 포트만 다를 수 있으므로 host:port 단위 (노드 수는 클러스터 크기로 제한됨)
+    private HostGuard peerGuardFor(HttpRequest request) {
+        String key = "peer:" + request.getURI().getHost() + ":" + request.getURI().getPort();
+        return peerGuards.computeIfAbsent(key, k -> new HostGuard(k, NO_ROUTE, peerMaxConcurrent, true));
+    }
+
+    // 경로의 /webhooks/{id}/{token} -> [id, token] (웹훅이 아니면 null)
+    static String[] webhookOf(String path) {
+        if (path == null) return null;
+        String[] segments = path.split("/");
+        for (int i = 0; i + 2 < segments.length; i++) {
+            if (segments[i].equals(WEBHOOK_SEGMENT) && !segments[i + 1].isEmpty() && !segments[i + 2].isEmpty()) {
+                return new String[]{segments[i + 1], segments[i + 2]};
+            }
+        }
+        return null;
+    }
+
+    // Retry-After: 초(소수 허용) 또는 HTTP 날짜, 없거나 해석할 수 없으면 기본값
+    private long retryAfterMillis(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value != null && !value.isBlank()) {
+            try {
+                return Math.max(0, (long) (Double.parseDouble(value.trim()) * 1000));
+            } catch (NumberFormatException ignored) {
+            }
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, at.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+        return defaultRetryAfterSeconds * 1000;
+    }
+
+    /**
+     * 대상 1개(호스트 또는 웹훅)의 호출 자리 / 서킷 / Retry-After / 메트릭
+     */
+    private class HostGuard {
+        private final String host;
+        private final String route;         // 웹훅 id (호스트 단위면 "-")
+        private final int maxConcurrent;
+        private final boolean peer;         // 노드 간 전달 (Retry-After 를 지키지 않고 응답을 그대로 전달)
+        private final Semaphore permits;
+        private final CircuitBreaker breaker = new CircuitBreaker(failureThreshold, openSeconds * 1000);
+        private volatile long retryAfterUntil;
+
+        HostGuard(String host, String route, int maxConcurrent, boolean peer) {
+            this.host = host;
+            this.route = route;
+            this.maxConcurrent = maxConcurrent;
+            this.peer = peer;
+            this.permits = new Semaphore(maxConcurrent);
+            Gauge.builder("http.client.upstream.in_flight", permits, p -> maxConcurrent - p.availablePermits())
+                    .description("진행 중인 외부 호출 수 (응답 본문 수신 포함)")
+                    .tags("host", host, "route", route)
+                    .register(meterRegistry);
+            Gauge.builder("http.client.upstream.circuit_state", breaker, b -> b.state().ordinal())
+                    .description("서킷 상태 (0=closed, 1=open, 2=half_open)")
+                    .tags("host", host, "route", route)
+                    .register(meterRegistry);
+        }
+
+        Timer timer(String outcome) {
+            return Timer.builder("http.client.upstream")
+                    .description("외부 호출 시간 (요청 ~ 응답 본문 수신 완료)")
+                    .tags("host", host, "route", route, "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 닫힐 때 호출 자리를 반납하고 전체 소요 시간을 기록하는 응답 래퍼
+     */
+    private static class GuardedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final HostGuard guard;
+        private final String outcome;
+        private final long startNanos;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        GuardedResponse(ClientHttpResponse delegate, HostGuard guard, String outcome, long startNanos) {
+            this.delegate = delegate;
+            this.guard = guard;
+            this.outcome = outcome;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    guard.permits.release();
+                    guard.timer(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.dto.HealthIngestDto;
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.dto.MetricIngestDto;
+import com.kakao.kakao_test.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forwarder 전용 바이너리 수집 포맷 (Content-Type: application/x-sd-compact)
+ * - JSON 대비 필드 이름/따옴표/중복 서버명이 없고, Jackson 바인딩 없이 바이트 배열을 한 번만 훑어서 DTO 생성
+ * - 정수는 varint (음수 가능 값은 zigzag), 타임스탬프는 직전 이벤트와의 차이(delta)로 기록
+ * - 로그 레벨/Health 상태처럼 반복되는 문자열은 앞쪽 문자열 테이블에 한 번만 두고 인덱스로 참조
+ *
+ * 공통 헤더: 'S' 'D' [version] [kind]
+ * LOGS    : [테이블] [count] { [ts delta] [level idx] [message] [eventId] } * count
+ * METRICS : [count] { [flags] [ts delta]? ([cpu f64] [memUsed] [memMax] [memPercent f64])? [eventId]? } * count
+ * HEALTH  : [ts] [status] [latencyMs] [httpStatus] [message]
+ * 문자열   : [varint 바이트길이 + 1] [UTF-8] (0 = null)
+ *
+ * 버전
+ * - 2: cpu / memPercent 를 float64 로 (JSON 과 같은 값이 그대로 저장되도록)
+ * - 1: cpu / memPercent 가 float32 (유효숫자 약 7자리, 이전 forwarder 호환용으로 디코딩만 지원)
+ * - memUsed / memMax 는 두 버전 모두 byte 단위 정수로 반올림
+ */
+public final class CompactIngestCodec {
+
+    public static final String MEDIA_TYPE = "application/x-sd-compact";
+
+    private static final byte MAGIC_0 = 'S';
+    private static final byte MAGIC_1 = 'D';
+    private static final byte VERSION = 2;
+    private static final byte MIN_VERSION = 1;
+
+    private static final byte KIND_LOGS = 1;
+    private static final byte KIND_METRICS = 2;
+    private static final byte KIND_HEALTH = 3;
+
+    private static final int FLAG_TS = 1;
+    private static final int FLAG_DATA = 1 << 1;
+    private static final int FLAG_EVENT_ID = 1 << 2;
+
+    private static final int MAX_STRING_BYTES = 1 << 20; // 1MB 넘는 단일 문자열은 거부
+
+    private CompactIngestCodec() {
+    }
+
+    // ===================== 로그 =====================
+
+    public static byte[] encodeLogs(List<LogEventDto> events) {
+        Writer w = new Writer(64 + events.size() * 48);
+        w.header(KIND_LOGS);
+
+        Map<String, Integer> levelIndex = new HashMap<>();
+        List<String> levels = new ArrayList<>();
+        for (LogEventDto e : events) {
+            if (e.getLevel() != null && !levelIndex.containsKey(e.getLevel())) {
+                levelIndex.put(e.getLevel(), levels.size());
+                levels.add(e.getLevel());
+            }
+        }
+        w.varint(levels.size());
+        for (String level : levels) w.string(level);
+
+        w.varint(events.size());
+        long prevTs = 0;
+        for (LogEventDto e : events) {
+            w.zigzag(e.getTs() - prevTs);
+            prevTs = e.getTs();
+            w.varint(e.getLevel() == null ? 0 : levelIndex.get(e.getLevel()) + 1);
+            w.string(e.getMessage());
+            w.string(e.getEventId());
+        }
+        return w.toByteArray();
+    }
+
+    public static List<LogEventDto> decodeLogs(byte[] body) {
+        Reader r = new Reader(body);
+        r.header(KIND_LOGS);
+
+        int levelCount = r.count();
+        String[] levels = new String[levelCount];
+        for (int i = 0; i < levelCount; i++) {
+            String level = r.string();
+            levels[i] = level == null ? null : level.intern(); // 모든 이벤트가 같은 인스턴스를 공유
+        }
+
+        int count = r.count();
+        List<LogEventDto> events = new ArrayList<>(count);
+        long ts = 0;
+        for (int i = 0; i < count; i++) {
+            ts += r.zigzag();
+            int levelRef = r.varintInt();
+            if (levelRef > levelCount) throw r.malformed("레벨 인덱스 범위 초과");
+            String level = levelRef == 0 ? null : levels[levelRef - 1];
+            events.add(new LogEventDto(ts, level, r.string(), r.string()));
+        }
+        r.end();
+        return events;
+    }
+
+    // ===================== 메트릭 =====================
+
+    public static byte[] encodeMetrics(List<MetricIngestDto> samples) {
+        Writer w = new Writer(16 + samples.size() * 32);
+        w.header(KIND_METRICS);
+        w.varint(samples.size());
+
+        long prevTs = 0;
+        for (MetricIngestDto s : samples) {
+            int flags = (s.getTs() != null ? FLAG_TS : 0)
+                    | (s.getData() != null ? FLAG_DATA : 0)
+                    | (s.getEventId() != null ? FLAG_EVENT_ID : 0);
+            w.varint(flags);
+            if (s.getTs() != null) {
+                w.zigzag(s.getTs() - prevTs);
+                prevTs = s.getTs();
+            }
+            if (s.getData() != null) {
+                MetricIngestDto.MetricData d = s.getData();
+                w.float64(d.getCpuUsage());
+                w.varint(Math.round(d.getMemoryUsed()));
+                w.varint(Math.round(d.getMemoryMax()));
+                w.float64(d.getMemoryPercent());
+            }
+            if (s.getEventId() != null) {
+                w.string(s.getEventId());
+            }
+        }
+        return w.toByteArray();
+    }
+
+    public static List<MetricIngestDto> decodeMetrics(byte[] body) {
+        Reader r = new Reader(body);
+        r.header(KIND_METRICS);
+
+        int count = r.count();
+        List<MetricIngestDto> samples = new ArrayList<>(count);
+        long ts = 0;
+        for (int i = 0; i < count; i++) {
+            int flags = r.varintInt();
+            MetricIngestDto s = new MetricIngestDto();
+            s.setType("METRIC");
+            if ((flags & FLAG_TS) != 0) {
+                ts += r.zigzag();
+                s.setTs(ts);
+            }
+            if ((flags & FLAG_DATA) != 0) {
+                MetricIngestDto.MetricData d = new MetricIngestDto.MetricData();
+                d.setCpuUsage(r.ratio());
+                d.setMemoryUsed(r.varint());
+                d.setMemoryMax(r.varint());
+                d.setMemoryPercent(r.ratio());
+                s.setData(d);
+            }
+            if ((flags & FLAG_EVENT_ID) != 0) {
+                s.setEventId(r.string());
+            }
+            samples.add(s);
+        }
+        r.end();
+        return samples;
+    }
+
+    // ===================== Health =====================
+
+    public static byte[] encodeHealth(HealthIngestDto dto) {
+        Writer w = new Writer(64);
+        w.header(KIND_HEALTH);
+        w.zigzag(dto.ts());
+        w.string(dto.status());
+        w.varint(Math.max(0, dto.latencyMs()));
+        w.varint(Math.max(0, dto.httpStatus()));
+        w.string(dto.message());
+        return w.toByteArray();
+    }
+
+    public static HealthIngestDto decodeHealth(byte[] body) {
+        Reader r = new Reader(body);
+        r.header(KIND_HEALTH);
+        long ts = r.zigzag();
+        String status = r.string();
+        HealthIngestDto dto = new HealthIngestDto(
+                ts,
+                status == null ? null : status.intern(),
+                r.varint(),
+                r.varintInt(),
+                r.string());
+        r.end();
+        return dto;
+    }
+
+    // ===================== 저수준 읽기/쓰기 =====================
+
+    private static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int initialCapacity) {
+            this.buf = new byte[Math.max(16, initialCapacity)];
+        }
+
+        void header(byte kind) {
+            ensure(4);
+            buf[pos++] = MAGIC_0;
+            buf[pos++] = MAGIC_1;
+            buf[pos++] = VERSION;
+            buf[pos++] = kind;
+        }
+
+        void varint(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void zigzag(long v) {
+            varint((v << 1) ^ (v >> 63));
+        }
+
+        void float64(double d) {
+            ensure(8);
+            long bits = Double.doubleToLongBits(d);
+            for (int i = 0; i < 8; i++) {
+                buf[pos++] = (byte) (bits >>> (8 * i));
+            }
+        }
+
+        void string(String s) {
+            if (s == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+        private int version;
+
+        Reader(byte[] buf) {
+            if (buf == null) throw new BadRequestException("요청 본문이 비어 있습니다.");
+            this.buf = buf;
+        }
+
+        void header(byte expectedKind) {
+            if (buf.length < 4 || buf[0] != MAGIC_0 || buf[1] != MAGIC_1) {
+                throw malformed("헤더가 올바르지 않음");
+            }
+            if (buf[2] < MIN_VERSION || buf[2] > VERSION) {
+                throw new BadRequestException("지원하지 않는 compact 포맷 버전입니다: " + buf[2]);
+            }
+            version = buf[2];
+            if (buf[3] != expectedKind) {
+                throw malformed("엔드포인트와 데이터 종류가 다름");
+            }
+            pos = 4;
+        }
+
+        long varint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= buf.length) throw malformed("데이터가 중간에 끊김");
+                byte b = buf[pos++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw malformed("varint 길이 초과");
+        }
+
+        int varintInt() {
+            long v = varint();
+            if (v < 0 || v > Integer.MAX_VALUE) throw malformed("정수 범위 초과");
+            return (int) v;
+        }
+
+        // 개수 필드: 남은 바이트 수보다 클 수 없음 (잘못된 값으로 큰 배열을 미리 잡지 않도록)
+        int count() {
+            int n = varintInt();
+            if (n > buf.length - pos) throw malformed("개수가 본문 크기보다 큼");
+            return n;
+        }
+
+        long zigzag() {
+            long v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        // cpu / memPercent (버전 1 은 float32)
+        double ratio() {
+            return version == 1 ? float32() : float64();
+        }
+
+        float float32() {
+            return Float.intBitsToFloat((int) littleEndian(4));
+        }
+
+        double float64() {
+            return Double.longBitsToDouble(littleEndian(8));
+        }
+
+        private long littleEndian(int bytes) {
+            if (pos + bytes > buf.length) throw malformed("데이터가 중간에 끊김");
+            long bits = 0;
+            for (int i = 0; i < bytes; i++) {
+                bits |= (long) (buf[pos + i] & 0xFF) << (8 * i);
+            }
+            pos += bytes;
+            return bits;
+        }
+
+        String string() {
+            int lenPlusOne = varintInt();
+            if (lenPlusOne == 0) return null;
+            int len = lenPlusOne - 1;
+            if (len > MAX_STRING_BYTES || pos + len > buf.length) throw malformed("문자열 길이 초과");
+            String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+
+        void end() {
+            if (pos != buf.length) throw malformed("본문 끝에 알 수 없는 데이터가 있음");
+        }
+
+        BadRequestException malformed(String reason) {
+            return new BadRequestException("compact 본문 파싱 실패 (" + reason + ", offset " + pos + ")");
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.repository.ErrorContextRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 에러 전후 로그 캡처 (수신 단계)
+ * - 서버별로 최근 로그 N줄을 링버퍼에 유지 (샘플링 전 원본 기준 -> 저장되지 않은 INFO 도 포함)
+ * - 에러가 오면 직전 N줄을 복사해 두고, 이후 M줄이 더 들어오면(또는 일정 시간이 지나면) error_context 에 저장
+ * - 같은 fingerprint 의 에러는 일정 시간에 한 번만 캡처 (폭주 시 저장량 제한)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ErrorContextRecorder implements ServerScopedState {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    private static final int MAX_LINE_LENGTH = 300;
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    private static final int MAX_TRACKED_FINGERPRINTS = 256;   // 서버당 최근 캡처 시각을 기억할 에러 그룹 수
+
+    private final ErrorContextRepository errorContextRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ingest.error-context.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ingest.error-context.before-lines:10}")
+    private int beforeLines;
+
+    @Value("${ingest.error-context.after-lines:5}")
+    private int afterLines;
+
+    @Value("${ingest.error-context.after-wait-ms:30000}")
+    private long afterWaitMs;
+
+    @Value("${ingest.error-context.recapture-interval-ms:60000}")
+    private long recaptureIntervalMs;
+
+    @Value("${ingest.error-context.max-pending-per-server:8}")
+    private int maxPendingPerServer;
+
+    private final Map<String, ServerWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * 수신한 로그를 순서대로 반영하고, 전후 로그가 다 모인 캡처는 저장 (호출한 트랜잭션 안에서)
+     */
+    public void record(String serverName, List<LogEventDto> events) {
+        record(serverName, events, e -> StackTrace.parse(e.getMessage()));
+    }
+
+    /**
+     * traceOf: 이벤트의 스택트레이스 파싱 결과 (호출한 쪽이 이미 파싱해 둔 것을 재사용, 에러 줄에만 호출)
+     */
+    public void record(String serverName, List<LogEventDto> events, Function<LogEventDto, StackTrace> traceOf) {
+        if (!enabled || events.isEmpty()) return;
+
+        ServerWindow window = windows.computeIfAbsent(serverName, k -> new ServerWindow());
+        List<Capture> completed = new ArrayList<>();
+        synchronized (window) {
+            for (LogEventDto e : events) {
+                window.accept(e, traceOf, completed);
+            }
+        }
+        persist(serverName, completed);
+    }
+
+    /**
+     * 에러 뒤로 로그가 더 들어오지 않는 경우 (서버가 죽는 중 등) 모인 만큼만 저장
+     */
+    @Scheduled(fixedDelayString = "${ingest.error-context.flush-interval-ms:5000}")
+    public void flushExpired() {
+        long threshold = System.currentTimeMillis() - afterWaitMs;
+        windows.forEach((serverName, window) -> {
+            List<Capture> expired;
+            synchronized (window) {
+                expired = window.drainCapturedBefore(threshold);
+            }
+            try {
+                persist(serverName, expired);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ 에러 전후 로그 저장 실패 (서버: {}): {}", serverName, e.getMessage());
+            }
+        });
+    }
+
+    private void persist(String serverName, List<Capture> captures) {
+        if (captures.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        for (Capture c : captures) {
+            errorContextRepository.upsert(serverName, c.fingerprint, c.error.getLevel(),
+                    truncate(c.error.getMessage(), MAX_MESSAGE_LENGTH), toDateTime(c.error.getTs()), c.render(), now);
+        }
+        meterRegistry.counter("ingest.error_context.captured").increment(captures.size());
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(windows.keySet());
+    }
+
+    @Override
+    public void forget(String serverName) {
+        windows.remove(serverName);
+    }
+
+    /**
+     * 서버 1대의 최근 로그 링버퍼 + 뒤쪽 로그를 기다리는 캡처
+     */
+    private class ServerWindow {
+        private final LogEventDto[] recent = new LogEventDto[Math.max(0, beforeLines)];
+        private int head;
+        private int size;
+        private final ArrayDeque<Capture> pending = new ArrayDeque<>();
+        private final Map<String, Long> lastCaptured = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > MAX_TRACKED_FINGERPRINTS;
+            }
+        };
+
+        void accept(LogEventDto e, Function<LogEventDto, StackTrace> traceOf, List<Capture> completed) {
+            // 1. 먼저 기다리던 캡처들의 뒤쪽 로그로 추가
+            for (Iterator<Capture> it = pending.iterator(); it.hasNext(); ) {
+                Capture c = it.next();
+                c.after.add(e);
+                if (c.after.size() >= afterLines) {
+                    it.remove();
+                    completed.add(c);
+                }
+            }
+
+            // 2. 에러면 직전 로그를 복사해 새 캡처 시작
+            if (LogLineClassifier.isErrorLike(e.getLevel(), e.getMessage())) {
+                startCapture(e, traceOf.apply(e), completed);
+            }
+
+            // 3. 링버퍼에 기록 (가장 오래된 줄을 덮어씀)
+            if (recent.length == 0) return;
+            recent[(head + size) % recent.length] = e;
+            if (size == recent.length) {
+                head = (head + 1) % recent.length;
+            } else {
+                size++;
+            }
+        }
+
+        private void startCapture(LogEventDto error, StackTrace trace, List<Capture> completed) {
+            String fingerprint = LogLineClassifier.fingerprint(error.getMessage(), trace);
+            long now = System.currentTimeMillis();
+            Long last = lastCaptured.get(fingerprint);
+            if (last != null && now - last < recaptureIntervalMs) return; // 같은 에러의 반복은 최근 캡처로 충분
+            if (pending.size() >= maxPendingPerServer) {
+                meterRegistry.counter("ingest.error_context.skipped").increment();
+                return;
+            }
+            lastCaptured.put(fingerprint, now);
+
+            List<LogEventDto> before = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                before.add(recent[(head + i) % recent.length]);
+            }
+            Capture capture = new Capture(fingerprint, error, before, now);
+            if (afterLines <= 0) {
+                completed.add(capture);
+            } else {
+                pending.add(capture);
+            }
+        }
+
+        List<Capture> drainCapturedBefore(long threshold) {
+            List<Capture> expired = new ArrayList<>();
+            while (!pending.isEmpty() && pending.peek().capturedAt <= threshold) {
+                expired.add(pending.poll());
+            }
+            return expired;
+        }
+    }
+
+    /**
+     * 에러 1건의 전후 로그
+     */
+    private static class Capture {
+        private final String fingerprint;
+        private final LogEventDto error;
+        private final List<LogEventDto> before;
+        private final List<LogEventDto> after = new ArrayList<>();
+        private final long capturedAt;
+
+        Capture(String fingerprint, LogEventDto error, List<LogEventDto> before, long capturedAt) {
+            this.fingerprint = fingerprint;
+            this.error = error;
+            this.before = before;
+            this.capturedAt = capturedAt;
+        }
+
+        // "HH:mm:ss.SSS LEVEL 메시지 첫 줄" 한 줄씩, 에러 줄은 ▶ 표시
+        String render() {
+            StringBuilder sb = new StringBuilder();
+            for (LogEventDto e : before) appendLine(sb, "  ", e);
+            appendLine(sb, "▶ ", error);
+            for (LogEventDto e : after) appendLine(sb, "  ", e);
+            return sb.toString();
+        }
+
+        private static void appendLine(StringBuilder sb, String marker, LogEventDto e) {
+            if (!sb.isEmpty()) sb.append('\n');
+            String firstLine = e.getMessage() == null ? "" : e.getMessage().lines().findFirst().orElse("");
+            sb.append(marker)
+                    .append(toDateTime(e.getTs()).format(TIME_FORMAT)).append(' ')
+                    .append(e.getLevel() == null ? "-" : e.getLevel()).append(' ')
+                    .append(truncate(firstLine, MAX_LINE_LENGTH));
+        }
+    }
+
+    private static LocalDateTime toDateTime(long ts) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(ts), ZoneId.systemDefault());
+    }
+
+    private static String truncate(String s, int max) {
+        if (s == null) return null;
+        return s.length() > max ? s.substring(0, max) + "..." : s;
+    }
+}
@@ -0,0 +1,58 @@
+package com.kakao.kakao_test.ingest;
+
+/**
+ * 분 단위 에러 수로 본 최근 에러 추세 (진단 시 "새로 생긴 문제인지, 커지는 중인지, 잦아드는 중인지" 판단용)
+ * - 최근 15분과 직전 45분(15분 환산)을 비교, 그 전 23시간에 에러가 없었으면 새로 발생
+ */
+public record ErrorTrend(Direction direction, long last15m, long previous45m, long last24h) {
+
+    public enum Direction {
+        NONE("에러 없음"),
+        NEW("새로 발생"),
+        GROWING("증가 중"),
+        STABLE("비슷한 수준 유지"),
+        SUBSIDING("감소 중");
+
+        private final String label;
+
+        Direction(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private static final double GROWTH_RATIO = 1.5;
+    private static final double SUBSIDE_RATIO = 0.5;
+    private static final long MIN_GROWTH = 3;   // 1건 -> 2건 같은 작은 변화는 증가로 보지 않음
+
+    /**
+     * @param earlier 최근 1시간을 뺀 나머지 23시간의 에러 수
+     */
+    static ErrorTrend of(long last15m, long previous45m, long earlier) {
+        long lastHour = last15m + previous45m;
+        long last24h = lastHour + earlier;
+        double previousPer15m = previous45m / 3.0;
+
+        Direction direction;
+        if (lastHour == 0) {
+            direction = earlier == 0 ? Direction.NONE : Direction.SUBSIDING;
+        } else if (earlier == 0 && previous45m == 0) {
+            direction = Direction.NEW;
+        } else if (last15m > previousPer15m * GROWTH_RATIO && last15m - previousPer15m >= MIN_GROWTH) {
+            direction = Direction.GROWING;
+        } else if (last15m < previousPer15m * SUBSIDE_RATIO) {
+            direction = Direction.SUBSIDING;
+        } else {
+            direction = Direction.STABLE;
+        }
+        return new ErrorTrend(direction, last15m, previous45m, last24h);
+    }
+
+    public String describe() {
+        return String.format("에러 추세: %s (최근 15분 %d건 / 직전 45분 %d건 / 24시간 %d건)",
+                direction.label(), last15m, previous45m, last24h);
+    }
+}
@@ -0,0 +1,449 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.domain.QuotaOverflowPolicy;
+import com.kakao.kakao_test.domain.TargetServer;
+import com.kakao.kakao_test.dto.IngestQuotaDto;
+import com.kakao.kakao_test.dto.UpdateQuotaRequest;
+import com.kakao.kakao_test.exception.BadRequestException;
+import com.kakao.kakao_test.exception.NotFoundException;
+import com.kakao.kakao_test.exception.QuotaExceededException;
+import com.kakao.kakao_test.monitor.ForwarderWatchdog;
+import com.kakao.kakao_test.repository.TargetServerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * 서버별 수신 한도 (events/sec, bytes/sec, burst)
+ * - 컨트롤러에서 서비스(트랜잭션) 호출 전에 검사 -> 한도를 넘은 요청은 DB 커넥션을 잡지 않음
+ * - 설정은 TargetServer 에 저장, 메모리에는 서버별 토큰 버킷과 설정 사본만 둠 (refresh-seconds 마다 다시 읽음)
+ * - 토큰이 틀린 요청은 한도를 소비하지 않고 그대로 통과시켜 서비스에서 401 로 처리
+ *   (서버 이름만 아는 제3자가 정상 서버의 한도를 소진시키지 못하도록)
+ * - 클러스터 모드에서는 소유 노드에서만 수신하므로 노드별 버킷이 곧 서버 전체 한도
+ * - 메트릭 샘플은 로그와 버킷을 나눔 (작고 주기가 일정해서, 로그 폭주 중에도 CPU/메모리 수집이 끊기지 않도록)
+ * - 등록되지 않은 서버 이름은 잠깐 캐시해서 (unknown-server-cache-seconds) 요청마다 DB 를 조회하지 않음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IngestQuotaManager implements ServerScopedState {
+
+    private final TargetServerRepository targetServerRepository;
+    private final MeterRegistry meterRegistry;
+    private final ForwarderWatchdog forwarderWatchdog;
+
+    @Value("${ingest.quota.default-events-per-sec:2000}")
+    private long defaultEventsPerSec;
+
+    @Value("${ingest.quota.default-bytes-per-sec:2097152}")
+    private long defaultBytesPerSec;
+
+    @Value("${ingest.quota.default-burst-seconds:5}")
+    private int defaultBurstSeconds;
+
+    @Value("${ingest.quota.default-overflow-policy:KEEP_SEVERE}")
+    private QuotaOverflowPolicy defaultOverflowPolicy;
+
+    @Value("${ingest.quota.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    // 서버별 메트릭 샘플 한도 (로그 한도와 별도, 0 = 무제한)
+    @Value("${ingest.quota.metric-samples-per-sec:50}")
+    private long metricSamplesPerSec;
+
+    @Value("${ingest.quota.unknown-server-cache-seconds:5}")
+    private long unknownServerCacheSeconds;
+
+    private static final int MAX_UNKNOWN_SERVERS = 10_000;
+
+    private final Map<String, ServerQuota> quotas = new ConcurrentHashMap<>();
+    // 등록되지 않은 서버 이름 -> 캐시 만료 시각 (임의 이름으로 크기가 늘지 않도록 상한을 넘으면 비움)
+    private final Map<String, Long> unknownServers = new ConcurrentHashMap<>();
+
+    /**
+     * 한도 안에서 받을 이벤트만 반환 (전부 받으면 입력 리스트 그대로)
+     * @param sizeOf 이벤트 1건의 대략적인 크기 (bytes/sec 한도용)
+     * @param severe 한도를 넘어도 남겨야 하는 이벤트 (WARN/ERROR 등)
+     * @throws QuotaExceededException REJECT 정책일 때 (SAMPLE / KEEP_SEVERE 는 빈 리스트까지 반환)
+     * @throws NotFoundException 등록되지 않은 서버
+     */
+    public <T> List<T> admit(String serverName, String token, List<T> events,
+                             ToLongFunction<T> sizeOf, Predicate<T> severe) {
+        if (events == null || events.isEmpty()) return events;
+
+        ServerQuota quota = requireQuota(serverName);
+        if (!tokenMatches(quota, token)) return events; // 401 은 서비스에서
+
+        long bytes = 0;
+        for (T e : events) bytes += sizeOf.applyAsLong(e);
+
+        if (quota.tryAcquire(events.size(), bytes)) {
+            quota.accept(events.size(), bytes);
+            return events;
+        }
+
+        if (quota.policy == QuotaOverflowPolicy.REJECT) {
+            quota.rejectedBatches.increment();
+            quota.droppedEvents.add(events.size());
+            meterRegistry.counter("ingest.quota.rejected", "type", "logs").increment();
+            throw new QuotaExceededException(
+                    serverName + " 서버의 수신 한도를 초과했습니다. (" + quota.describe() + ")",
+                    quota.secondsUntil(events.size(), bytes));
+        }
+
+        List<T> kept;
+        if (quota.policy == QuotaOverflowPolicy.SAMPLE) {
+            kept = sample(events, severe, quota.acquireUpTo(events.size(), bytes));
+        } else {
+            kept = events.stream().filter(severe).toList();
+            quota.consume(kept.size(), bytes * kept.size() / events.size()); // WARN/ERROR 는 한도와 무관하게 저장
+        }
+        quota.accept(kept.size(), bytes * kept.size() / events.size());
+
+        int dropped = events.size() - kept.size();
+        quota.droppedEvents.add(dropped);
+        meterRegistry.counter("ingest.quota.dropped", "policy", quota.policy.name(), "type", "logs").increment(dropped);
+        // 전부 버려져서 서비스까지 가지 않더라도 forwarder 는 살아있으므로 침묵 감시는 갱신
+        if (kept.isEmpty()) forwarderWatchdog.touch(serverName, null);
+
+        log.debug("🚦 {} 서버 수신 한도 초과: {}건 중 {}건만 저장 ({})", serverName, events.size(), kept.size(), quota.policy);
+        return kept;
+    }
+
+    /**
+     * 메트릭 샘플 한도 (로그와 별도 버킷, 크기는 고정이라 건수만 셈)
+     * - 한도를 넘으면 REJECT 는 429, 나머지 정책은 남은 자리만큼 고르게 남김
+     * @throws NotFoundException 등록되지 않은 서버
+     */
+    public <T> List<T> admitMetrics(String serverName, String token, List<T> samples) {
+        if (samples == null || samples.isEmpty()) return samples;
+
+        ServerQuota quota = requireQuota(serverName);
+        if (!tokenMatches(quota, token) || quota.metricSamples == null) return samples;
+        if (quota.metricSamples.tryAcquire(samples.size())) return samples;
+
+        if (quota.policy == QuotaOverflowPolicy.REJECT) {
+            quota.droppedMetricSamples.add(samples.size());
+            meterRegistry.counter("ingest.quota.rejected", "type", "metrics").increment();
+            throw new QuotaExceededException(
+                    serverName + " 서버의 메트릭 수신 한도를 초과했습니다. (" + metricSamplesPerSec + " samples/s)",
+                    quota.metricSamples.secondsUntil(Math.min(samples.size(), metricSamplesPerSec * quota.burstSeconds)));
+        }
+
+        List<T> kept = sample(samples, s -> false, (int) quota.metricSamples.acquireUpTo(samples.size()));
+        int dropped = samples.size() - kept.size();
+        quota.droppedMetricSamples.add(dropped);
+        meterRegistry.counter("ingest.quota.dropped", "policy", quota.policy.name(), "type", "metrics").increment(dropped);
+        if (kept.isEmpty()) forwarderWatchdog.touch(serverName, null);
+        return kept;
+    }
+
+    /**
+     * 캐시된 토큰으로 인증 (스풀에 넣기 전 확인, refresh 주기마다만 DB 조회)
+     * @return 등록된 서버이고 토큰이 맞으면 true (아니면 서비스에서 404 / 401)
+     */
+    public boolean authenticated(String serverName, String token) {
+        ServerQuota quota = quotaFor(serverName);
+        return quota != null && tokenMatches(quota, token);
+    }
+
+    /**
+     * 캐시된 현재 토큰 (스풀 재반영 전용, 스풀 파일에는 토큰을 남기지 않음)
+     * @return 등록되지 않은 서버면 null
+     */
+    public String currentToken(String serverName) {
+        ServerQuota quota = quotaFor(serverName);
+        return quota == null ? null : quota.token;
+    }
+
+    // 길이 외의 정보가 응답 시간으로 새지 않도록 고정 시간 비교
+    private static boolean tokenMatches(ServerQuota quota, String token) {
+        return token != null && MessageDigest.isEqual(
+                quota.token.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * WARN/ERROR 를 먼저 채우고, 남은 자리는 나머지에서 고르게 뽑음 (원래 순서 유지)
+     */
+    static <T> List<T> sample(List<T> events, Predicate<T> severe, int limit) {
+        if (limit <= 0) return List.of();
+        if (limit >= events.size()) return events;
+
+        boolean[] keep = new boolean[events.size()];
+        int kept = 0;
+        for (int i = 0; i < events.size() && kept < limit; i++) {
+            if (severe.test(events.get(i))) {
+                keep[i] = true;
+                kept++;
+            }
+        }
+        int remainingSlots = limit - kept;
+        int others = events.size() - kept;
+        if (remainingSlots > 0) {
+            // others 개 중 remainingSlots 개를 같은 간격으로 선택
+            double step = (double) others / remainingSlots;
+            double nextPick = 0;
+            int otherIndex = 0;
+            for (int i = 0; i < events.size() && remainingSlots > 0; i++) {
+                if (keep[i]) continue;
+                if (otherIndex >= nextPick) {
+                    keep[i] = true;
+                    remainingSlots--;
+                    nextPick += step;
+                }
+                otherIndex++;
+            }
+        }
+
+        List<T> result = new ArrayList<>(limit);
+        for (int i = 0; i < events.size(); i++) {
+            if (keep[i]) result.add(events.get(i));
+        }
+        return result;
+    }
+
+    // ===================== 관리자 API =====================
+
+    public List<IngestQuotaDto> usage() {
+        return quotas.values().stream()
+                .map(ServerQuota::toDto)
+                .sorted(Comparator.comparingLong((IngestQuotaDto q) -> q.usage().droppedEvents()).reversed())
+                .toList();
+    }
+
+    public IngestQuotaDto usage(String serverName) {
+        ServerQuota quota = quotaFor(serverName);
+        if (quota == null) {
+            throw new NotFoundException("서버를 찾을 수 없습니다: " + serverName);
+        }
+        return quota.toDto();
+    }
+
+    /**
+     * 한도 변경 (DB 저장 후 메모리 버킷을 새 설정으로 교체)
+     */
+    @Transactional
+    public IngestQuotaDto update(String serverName, UpdateQuotaRequest req) {
+        if (isNegative(req.getEventsPerSec()) || isNegative(req.getBytesPerSec()) || isNegative(req.getBurstSeconds())) {
+            throw new BadRequestException("수신 한도는 0 이상이어야 합니다. (0 = 무제한)");
+        }
+        TargetServer server = targetServerRepository.getByServerName(serverName);
+        server.updateQuota(req.getEventsPerSec(), req.getBytesPerSec(), req.getBurstSeconds(), req.getOverflowPolicy());
+
+        ServerQuota quota = load(server);
+        quotas.put(serverName, quota);
+        log.info("🚦 {} 서버 수신 한도 변경: {}", serverName, quota.describe());
+        return quota.toDto();
+    }
+
+    private static boolean isNegative(Number n) {
+        return n != null && n.longValue() < 0;
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(quotas.keySet());
+    }
+
+    @Override
+    public void forget(String serverName) {
+        quotas.remove(serverName);
+    }
+
+    /**
+     * 서버 등록 / 토큰 변경 직후 호출 (이 노드의 캐시를 지움, 다른 노드는 refresh 주기 안에 반영)
+     */
+    public void invalidate(String serverName) {
+        quotas.remove(serverName);
+        unknownServers.remove(serverName);
+        // 커밋 전에 들어온 요청이 다시 "없는 서버" 로 캐시했을 수 있으므로 커밋 후 한 번 더
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    quotas.remove(serverName);
+                    unknownServers.remove(serverName);
+                }
+            });
+        }
+    }
+
+    // ===================== 내부 =====================
+
+    private ServerQuota requireQuota(String serverName) {
+        ServerQuota quota = quotaFor(serverName);
+        if (quota == null) {
+            throw new NotFoundException("서버를 찾을 수 없습니다: " + serverName);
+        }
+        return quota;
+    }
+
+    private ServerQuota quotaFor(String serverName) {
+        ServerQuota quota = quotas.get(serverName);
+        long now = System.currentTimeMillis();
+        if (quota != null && now - quota.loadedAt < refreshSeconds * 1000) {
+            return quota;
+        }
+        if (quota == null) {
+            Long unknownUntil = unknownServers.get(serverName);
+            if (unknownUntil != null) {
+                if (now < unknownUntil) return null;
+                unknownServers.remove(serverName);
+            }
+        }
+        // 최초 1회 + refresh 주기마다만 DB 조회
+        ServerQuota loaded;
+        try {
+            loaded = targetServerRepository.findByServerName(serverName).map(this::load).orElse(null);
+        } catch (DataAccessException | TransactionException e) {
+            if (quota == null) throw e;
+            // DB 장애 중에는 마지막으로 읽은 설정/토큰으로 계속 수신 (스풀에 쌓였다가 복구 후 반영)
+            log.debug("🚦 {} 서버 수신 한도 갱신 실패, 이전 설정 유지: {}", serverName, e.getMessage());
+            return quota;
+        }
+        if (loaded == null) {
+            quotas.remove(serverName);
+            if (unknownServers.size() >= MAX_UNKNOWN_SERVERS) unknownServers.clear();
+            unknownServers.put(serverName, now + unknownServerCacheSeconds * 1000);
+            return null;
+        }
+        if (quota != null && quota.sameLimits(loaded)) {
+            quota.loadedAt = loaded.loadedAt; // 설정이 그대로면 버킷과 사용량 유지
+            quota.token = loaded.token;
+            return quota;
+        }
+        quotas.put(serverName, loaded);
+        return loaded;
+    }
+
+    private ServerQuota load(TargetServer server) {
+        return new ServerQuota(
+                server.getServerName(),
+                server.getMcpToken(),
+                orDefault(server.getQuotaEventsPerSec(), defaultEventsPerSec),
+                orDefault(server.getQuotaBytesPerSec(), defaultBytesPerSec),
+                server.getQuotaBurstSeconds() == null ? defaultBurstSeconds : Math.max(1, server.getQuotaBurstSeconds()),
+                server.getQuotaOverflowPolicy() == null ? defaultOverflowPolicy : server.getQuotaOverflowPolicy(),
+                metricSamplesPerSec);
+    }
+
+    private static long orDefault(Number value, long defaultValue) {
+        return value == null ? defaultValue : value.longValue();
+    }
+
+    /**
+     * 서버 1대의 한도 설정 + 버킷 + 사용량 (한도 0 이면 버킷 없음 = 무제한)
+     */
+    private static class ServerQuota {
+        private final String serverName;
+        private volatile String token;
+        private volatile long loadedAt = System.currentTimeMillis();
+        private final long eventsPerSec;
+        private final long bytesPerSec;
+        private final int burstSeconds;
+        private final QuotaOverflowPolicy policy;
+        private final TokenBucket events;
+        private final TokenBucket bytes;
+        private final TokenBucket metricSamples;
+
+        private final LongAdder acceptedEvents = new LongAdder();
+        private final LongAdder acceptedBytes = new LongAdder();
+        private final LongAdder droppedEvents = new LongAdder();
+        private final LongAdder rejectedBatches = new LongAdder();
+        private final LongAdder droppedMetricSamples = new LongAdder();
+
+        ServerQuota(String serverName, String token, long eventsPerSec, long bytesPerSec, int burstSeconds,
+                    QuotaOverflowPolicy policy, long metricSamplesPerSec) {
+            this.serverName = serverName;
+            this.token = token;
+            this.eventsPerSec = eventsPerSec;
+            this.bytesPerSec = bytesPerSec;
+            this.burstSeconds = burstSeconds;
+            this.policy = policy;
+            this.events = eventsPerSec > 0 ? new TokenBucket(eventsPerSec, (double) eventsPerSec * burstSeconds) : null;
+            this.bytes = bytesPerSec > 0 ? new TokenBucket(bytesPerSec, (double) bytesPerSec * burstSeconds) : null;
+            this.metricSamples = metricSamplesPerSec > 0
+                    ? new TokenBucket(metricSamplesPerSec, (double) metricSamplesPerSec * burstSeconds) : null;
+        }
+
+        boolean tryAcquire(int n, long size) {
+            if (events != null && !events.tryAcquire(n)) return false;
+            if (bytes != null && !bytes.tryAcquire(size)) {
+                if (events != null) events.refund(n);
+                return false;
+            }
+            return true;
+        }
+
+        // 건수 / 크기 한도 중 더 빡빡한 쪽에 맞춰 최대 n 건까지 획득
+        int acquireUpTo(int n, long size) {
+            long granted = events == null ? n : events.acquireUpTo(n);
+            if (bytes != null && granted > 0) {
+                long avg = Math.max(1, size / n);
+                long grantedBytes = bytes.acquireUpTo(granted * avg);
+                long byBytes = grantedBytes / avg;
+                bytes.refund(grantedBytes - byBytes * avg);
+                if (events != null) events.refund(granted - byBytes);
+                granted = byBytes;
+            }
+            return (int) granted;
+        }
+
+        void consume(int n, long size) {
+            if (events != null) events.consume(n);
+            if (bytes != null) bytes.consume(size);
+        }
+
+        void accept(int n, long size) {
+            acceptedEvents.add(n);
+            acceptedBytes.add(size);
+        }
+
+        long secondsUntil(int n, long size) {
+            long wait = events == null ? 1 : events.secondsUntil(Math.min(n, eventsPerSec * burstSeconds));
+            if (bytes != null) wait = Math.max(wait, bytes.secondsUntil(Math.min(size, bytesPerSec * burstSeconds)));
+            return wait;
+        }
+
+        boolean sameLimits(ServerQuota other) {
+            return eventsPerSec == other.eventsPerSec && bytesPerSec == other.bytesPerSec
+                    && burstSeconds == other.burstSeconds && policy == other.policy;
+        }
+
+        String describe() {
+            return String.format("%s events/s, %s bytes/s, burst %ds, 초과 시 %s",
+                    eventsPerSec == 0 ? "무제한" : eventsPerSec,
+                    bytesPerSec == 0 ? "무제한" : bytesPerSec,
+                    burstSeconds, policy);
+        }
+
+        IngestQuotaDto toDto() {
+            return new IngestQuotaDto(serverName, eventsPerSec, bytesPerSec, burstSeconds, policy,
+                    new IngestQuotaDto.Usage(
+                            acceptedEvents.sum(), acceptedBytes.sum(), droppedEvents.sum(), rejectedBatches.sum(),
+                            droppedMetricSamples.sum(),
+                            events == null ? -1 : events.available(),
+                            bytes == null ? -1 : bytes.available()));
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.domain.LogCountResolution;
+import com.kakao.kakao_test.domain.LogLevelCount;
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.exception.BadRequestException;
+import com.kakao.kakao_test.repository.LogLevelCountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 서버별 / 레벨별 로그 수 집계 (수신 단계)
+ * - 분 단위 24시간, 시간 단위 30일을 서버별 고정 크기 long 배열(링버퍼)에 이벤트 시각 기준으로 누적
+ * - 주기마다 바뀐 구간의 증가분만 log_level_count 에 더해 넣음 (재시도/노드 이동에도 덮어쓰지 않고 합산)
+ * - 서버를 처음 받을 때 DB 에 있는 구간으로 배열을 채워 두므로 재시작 후에도 조회 결과가 이어짐
+ * - 이 노드가 받지 않는 서버는 조회 시 DB 에서 읽기만 함 (캐시하지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LogLevelCounter implements ServerScopedState {
+
+    static final int DEBUG = 0;
+    static final int INFO = 1;
+    static final int WARN = 2;
+    static final int ERROR = 3;
+    static final int OTHER = 4;
+    static final int LEVELS = 5;
+    static final int ALL = -1;
+
+    private static final long FUTURE_TOLERANCE_MS = 60_000;   // 시계가 조금 빠른 forwarder 까지는 그대로 인정
+
+    private final LogLevelCountRepository logLevelCountRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ingest.level-counts.enabled:true}")
+    private boolean enabled;
+
+    private final Map<String, ServerCounts> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 수신한 이벤트를 레벨별로 집계 (샘플링 전 원본 기준, 이벤트 1건당 배열 2칸 증가)
+     */
+    public void record(String serverName, Iterable<LogEventDto> events) {
+        if (!enabled) return;
+
+        ServerCounts counts = countsFor(serverName);
+        long now = System.currentTimeMillis();
+        synchronized (counts) {
+            for (LogEventDto e : events) {
+                long ts = e.getTs() <= 0 || e.getTs() > now + FUTURE_TOLERANCE_MS ? now : e.getTs();
+                counts.add(ts, levelIndex(e.getLevel()), now);
+            }
+        }
+    }
+
+    /**
+     * 최근 buckets 개 구간의 로그 수 (오래된 순, 마지막 구간은 진행 중)
+     * @param level DEBUG / INFO / WARN / ERROR / OTHER / ALL
+     */
+    public long[] series(String serverName, String level, LogCountResolution resolution, int buckets) {
+        int levelIndex = parseLevel(level);
+        long now = System.currentTimeMillis();
+        ServerCounts counts = countsForRead(serverName);
+        synchronized (counts) {
+            return counts.ring(resolution).series(now, buckets, levelIndex);
+        }
+    }
+
+    /**
+     * 분 단위 ERROR 수로 본 최근 추세
+     */
+    public ErrorTrend errorTrend(String serverName) {
+        long now = System.currentTimeMillis();
+        ServerCounts counts = countsForRead(serverName);
+        long[] day;
+        synchronized (counts) {
+            day = counts.minutes.series(now, LogCountResolution.MINUTE.buckets(), ERROR);
+        }
+        int n = day.length;
+        long last15 = sum(day, n - 15, n);
+        long previous45 = sum(day, n - 60, n - 15);
+        long earlier = sum(day, 0, n - 60);
+        return ErrorTrend.of(last15, previous45, earlier);
+    }
+
+    @Scheduled(fixedDelayString = "${ingest.level-counts.flush-interval-ms:10000}")
+    public void flush() {
+        for (String serverName : counters.keySet()) {
+            flush(serverName);
+        }
+    }
+
+    /**
+     * 보관 기간(분 단위 24시간 / 시간 단위 30일)이 지난 구간 삭제
+     */
+    @Scheduled(fixedDelayString = "${ingest.level-counts.retention-check-interval-ms:3600000}",
+            initialDelayString = "${ingest.level-counts.retention-check-interval-ms:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        for (LogCountResolution resolution : LogCountResolution.values()) {
+            int deleted = logLevelCountRepository.deleteExpired(resolution, toDateTime(now - resolution.retentionMillis()));
+            if (deleted > 0) {
+                log.info("🧹 레벨별 로그 수 {} 구간 {}건 삭제 (보관 기간 경과)", resolution, deleted);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(counters.keySet());
+    }
+
+    // 소유권이 넘어가기 전에 아직 안 쓴 증가분을 DB 에 넘겨 둠 (새 소유 노드는 DB 에서 이어서 읽음)
+    @Override
+    public void forget(String serverName) {
+        flush(serverName);
+        counters.remove(serverName);
+    }
+
+    // ===================== 내부 =====================
+
+    private ServerCounts countsFor(String serverName) {
+        ServerCounts counts = counters.get(serverName);
+        if (counts != null) return counts;
+
+        ServerCounts loaded = load(serverName);
+        ServerCounts existing = counters.putIfAbsent(serverName, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private ServerCounts countsForRead(String serverName) {
+        ServerCounts counts = counters.get(serverName);
+        return counts != null ? counts : load(serverName);
+    }
+
+    private ServerCounts load(String serverName) {
+        ServerCounts counts = new ServerCounts();
+        long now = System.currentTimeMillis();
+        for (LogCountResolution resolution : LogCountResolution.values()) {
+            LevelRing ring = counts.ring(resolution);
+            LocalDateTime from = toDateTime(now - resolution.retentionMillis());
+            for (LogLevelCount row : logLevelCountRepository
+                    .findByServerNameAndResolutionAndBucketStartGreaterThanEqual(serverName, resolution, from)) {
+                long ts = row.getBucketStart().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                ring.add(ts, DEBUG, row.getDebugCount(), now);
+                ring.add(ts, INFO, row.getInfoCount(), now);
+                ring.add(ts, WARN, row.getWarnCount(), now);
+                ring.add(ts, ERROR, row.getErrorCount(), now);
+                ring.add(ts, OTHER, row.getOtherCount(), now);
+            }
+        }
+        return counts;
+    }
+
+    private void flush(String serverName) {
+        ServerCounts counts = counters.get(serverName);
+        if (counts == null) return;
+
+        Map<Long, long[]> minutes;
+        Map<Long, long[]> hours;
+        synchronized (counts) {
+            if (counts.pendingMinutes.isEmpty() && counts.pendingHours.isEmpty()) return;
+            minutes = counts.pendingMinutes;
+            hours = counts.pendingHours;
+            counts.pendingMinutes = new HashMap<>();
+            counts.pendingHours = new HashMap<>();
+        }
+
+        int rows = write(serverName, LogCountResolution.MINUTE, minutes) + write(serverName, LogCountResolution.HOUR, hours);
+        meterRegistry.counter("ingest.level_counts.rows.flushed").increment(rows);
+
+        // 못 쓴 구간은 다음 주기에 다시 (이미 쓴 구간은 write 에서 제거됨)
+        if (!minutes.isEmpty() || !hours.isEmpty()) {
+            synchronized (counts) {
+                merge(counts.pendingMinutes, minutes);
+                merge(counts.pendingHours, hours);
+            }
+        }
+    }
+
+    // 쓴 구간은 pending 에서 지우고, 실패하면 남은 구간을 그대로 둔 채 중단
+    private int write(String serverName, LogCountResolution resolution, Map<Long, long[]> pending) {
+        int written = 0;
+        Iterator<Map.Entry<Long, long[]>> it = pending.entrySet().iterator();
+        try {
+            while (it.hasNext()) {
+                Map.Entry<Long, long[]> entry = it.next();
+                long[] c = entry.getValue();
+                logLevelCountRepository.addCounts(serverName, resolution.name(),
+                        toDateTime(entry.getKey() * resolution.bucketMillis()),
+                        c[DEBUG], c[INFO], c[WARN], c[ERROR], c[OTHER]);
+                it.remove();
+                written++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 레벨별 로그 수 저장 실패 ({} {}, 남은 구간 {}개는 다음 주기에 재시도): {}",
+                    serverName, resolution, pending.size(), e.getMessage());
+        }
+        return written;
+    }
+
+    private static void merge(Map<Long, long[]> into, Map<Long, long[]> from) {
+        from.forEach((bucket, c) -> {
+            long[] target = into.computeIfAbsent(bucket, k -> new long[LEVELS]);
+            for (int i = 0; i < LEVELS; i++) target[i] += c[i];
+        });
+    }
+
+    static int levelIndex(String level) {
+        if (level == null || level.isEmpty()) return OTHER;
+        return switch (level.trim().toUpperCase()) {
+            case "TRACE", "DEBUG" -> DEBUG;
+            case "INFO" -> INFO;
+            case "WARN", "WARNING" -> WARN;
+            case "ERROR", "FATAL" -> ERROR;
+            default -> OTHER;
+        };
+    }
+
+    private static int parseLevel(String level) {
+        if (level == null || level.isBlank() || "ALL".equalsIgnoreCase(level.trim())) return ALL;
+        String normalized = level.trim().toUpperCase();
+        return switch (normalized) {
+            case "DEBUG" -> DEBUG;
+            case "INFO" -> INFO;
+            case "WARN" -> WARN;
+            case "ERROR" -> ERROR;
+            case "OTHER" -> OTHER;
+            default -> throw new BadRequestException("level 은 DEBUG / INFO / WARN / ERROR / OTHER / ALL 중 하나여야 합니다: " + level);
+        };
+    }
+
+    private static long sum(long[] values, int from, int to) {
+        long total = 0;
+        for (int i = Math.max(0, from); i < to; i++) total += values[i];
+        return total;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 서버 1대의 집계 상태 (동기화는 인스턴스 락)
+     */
+    private static final class ServerCounts {
+        final LevelRing minutes = new LevelRing(LogCountResolution.MINUTE);
+        final LevelRing hours = new LevelRing(LogCountResolution.HOUR);
+        Map<Long, long[]> pendingMinutes = new HashMap<>();   // 구간 번호 -> 아직 DB 에 더하지 않은 증가분
+        Map<Long, long[]> pendingHours = new HashMap<>();
+
+        LevelRing ring(LogCountResolution resolution) {
+            return resolution == LogCountResolution.MINUTE ? minutes : hours;
+        }
+
+        void add(long ts, int level, long now) {
+            if (minutes.add(ts, level, 1, now)) {
+                pendingMinutes.computeIfAbsent(ts / LogCountResolution.MINUTE.bucketMillis(), k -> new long[LEVELS])[level]++;
+            }
+            if (hours.add(ts, level, 1, now)) {
+                pendingHours.computeIfAbsent(ts / LogCountResolution.HOUR.bucketMillis(), k -> new long[LEVELS])[level]++;
+            }
+        }
+    }
+
+    /**
+     * 구간 번호(ts / 구간 길이) % 구간 수 자리에 레벨별 수를 이어 붙인 배열
+     * - 자리에 더 오래된 구간 번호가 있으면 비우고 새 구간으로 사용, 보관 범위를 벗어난 이벤트는 무시
+     */
+    static final class LevelRing {
+        private final long bucketMillis;
+        private final int size;
+        private final long[] ids;
+        private final long[] counts;
+
+        LevelRing(LogCountResolution resolution) {
+            this.bucketMillis = resolution.bucketMillis();
+            this.size = resolution.buckets();
+            this.ids = new long[size];
+            this.counts = new long[size * LEVELS];
+            Arrays.fill(ids, -1);
+        }
+
+        boolean add(long ts, int level, long n, long now) {
+            long bucket = ts / bucketMillis;
+            if (bucket <= now / bucketMillis - size) return false;
+            int slot = (int) (bucket % size);
+            if (ids[slot] != bucket) {
+                if (ids[slot] > bucket) return false;
+                ids[slot] = bucket;
+                Arrays.fill(counts, slot * LEVELS, slot * LEVELS + LEVELS, 0);
+            }
+            counts[slot * LEVELS + level] += n;
+            return true;
+        }
+
+        long[] series(long now, int buckets, int level) {
+            int n = Math.max(1, Math.min(buckets, size));
+            long last = now / bucketMillis;
+            long[] out = new long[n];
+            for (int i = 0; i < n; i++) {
+                long bucket = last - (n - 1 - i);
+                int slot = (int) Math.floorMod(bucket, (long) size);
+                if (ids[slot] != bucket) continue;
+                if (level == ALL) {
+                    for (int l = 0; l < LEVELS; l++) out[i] += counts[slot * LEVELS + l];
+                } else {
+                    out[i] = counts[slot * LEVELS + level];
+                }
+            }
+            return out;
+        }
+    }
+}
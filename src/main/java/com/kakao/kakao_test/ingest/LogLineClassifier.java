@@ -0,0 +1,75 @@
+package com.kakao.kakao_test.ingest;
+
+import java.util.regex.Pattern;
+
+/**
+ * 로그 한 줄의 진단 가치 판단 (수신 샘플링 / 수신 한도 / 에러 분석이 같은 기준을 쓰도록 한 곳에 둠)
+ */
+public final class LogLineClassifier {
+
+    // UUID, 16진수 주소, 숫자 (에러 형태 비교 시 무시)
+    private static final Pattern VOLATILE_TOKENS = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|0x[0-9a-fA-F]+|\\d+");
+
+    // 스택트레이스의 이어지는 줄 ("\tat ...", "Caused by: ...", "... 12 more", "Suppressed: ...")
+    private static final Pattern CONTINUATION = Pattern.compile(
+            "^(?:\\s+at\\s+\\S+\\(|\\s*\\.\\.\\.\\s\\d+\\s(?:more|common frames omitted)|\\s*Caused by:|\\s*Suppressed:)");
+
+    private LogLineClassifier() {
+    }
+
+    /**
+     * 레벨과 무관하게 예외/에러 흔적이 있는 메시지 (INFO 로 찍힌 스택트레이스 등)
+     */
+    public static boolean containsExceptionHint(String msg) {
+        if (msg == null) return false;
+        return msg.contains("Exception") || msg.contains("ERROR") || msg.contains("Caused by");
+    }
+
+    public static boolean isError(String level) {
+        return "ERROR".equalsIgnoreCase(level) || "FATAL".equalsIgnoreCase(level);
+    }
+
+    public static boolean isSevere(String level) {
+        return isError(level) || "WARN".equalsIgnoreCase(level) || "WARNING".equalsIgnoreCase(level);
+    }
+
+    public static boolean isStackTraceContinuation(String msg) {
+        return msg != null && CONTINUATION.matcher(msg).find();
+    }
+
+    /**
+     * 샘플링/한도 초과 시에도 반드시 남겨야 하는 줄 (WARN 이상, 예외 흔적, 스택트레이스의 일부)
+     */
+    public static boolean mustKeep(String level, String msg) {
+        return isSevere(level) || containsExceptionHint(msg) || isStackTraceContinuation(msg);
+    }
+
+    /**
+     * 에러 분석 대상 (ERROR 이상 또는 예외 흔적)
+     */
+    public static boolean isErrorLike(String level, String msg) {
+        return isError(level) || containsExceptionHint(msg);
+    }
+
+    /**
+     * 숫자/ID 등 매번 바뀌는 부분을 지운 첫 줄을 에러의 형태(fingerprint)로 사용
+     * - 스택트레이스면 예외 클래스와 가장 위 프레임의 메서드를 붙여 구분 (같은 문구라도 던진 곳이 다르면 다른 에러)
+     */
+    public static String fingerprint(String msg) {
+        return fingerprint(msg, StackTrace.parse(msg));
+    }
+
+    /**
+     * 이미 파싱해 둔 스택트레이스(msg 를 StackTrace.parse 한 결과, 아니면 null)로 fingerprint 계산
+     */
+    public static String fingerprint(String msg, StackTrace trace) {
+        if (msg == null) return "";
+        String key = msg.lines().findFirst().orElse("");
+        if (trace != null) {
+            key = key + " | " + trace.exceptionClass() + (trace.topMethod() == null ? "" : " @ " + trace.topMethod());
+        }
+        String normalized = VOLATILE_TOKENS.matcher(key).replaceAll("#").trim();
+        return normalized.length() > 200 ? normalized.substring(0, 200) : normalized;
+    }
+}
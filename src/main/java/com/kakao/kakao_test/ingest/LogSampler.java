@@ -0,0 +1,272 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.dto.LogEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 수신 단계 로그 샘플링 (저장 전)
+ * - WARN/ERROR 와 예외 흔적이 있는 줄은 항상 저장
+ * - 에러 직전의 일반 로그 N줄(context window)은 에러와 함께 저장 -> 에러 직전 상황을 잃지 않음
+ * - 일반 로그(INFO/DEBUG)는 분당 처음 몇 줄은 그대로 두고, 그 뒤로는 직전 1분의 양에 맞춰 확률을 조정해 일부만 저장
+ *   (조용한 서버는 거의 전부, 시끄러운 서버는 분당 목표 줄 수 근처로)
+ * - 버린 줄은 레벨별로 분 단위 건수만 세어 두었다가, 분이 바뀌면 요약 로그 1줄로 저장
+ *   (다음 배치가 오지 않는 서버는 drainFinishedSummaries 를 주기적으로 호출해 마지막 분의 요약을 꺼냄)
+ */
+@Component
+@RequiredArgsConstructor
+public class LogSampler implements ServerScopedState {
+
+    private static final DateTimeFormatter MINUTE_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ingest.sampling.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ingest.sampling.context-lines:5}")
+    private int contextLines;
+
+    @Value("${ingest.sampling.keep-first-per-minute:20}")
+    private int keepFirstPerMinute;
+
+    @Value("${ingest.sampling.target-per-minute:60}")
+    private int targetPerMinute;
+
+    @Value("${ingest.sampling.summary-grace-ms:5000}")
+    private long summaryGraceMs;
+
+    private final Map<String, ServerSampling> states = new ConcurrentHashMap<>();
+
+    private Counter keptCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        keptCounter = meterRegistry.counter("ingest.sampling.lines", "decision", "kept");
+        droppedCounter = meterRegistry.counter("ingest.sampling.lines", "decision", "dropped");
+    }
+
+    /**
+     * 저장할 로그만 반환 (원래 순서 유지, 지난 분의 요약 로그가 있으면 함께 포함)
+     */
+    public List<LogEventDto> sample(String serverName, List<LogEventDto> events) {
+        if (!enabled || events.isEmpty()) return events;
+
+        ServerSampling state = states.computeIfAbsent(serverName, k -> new ServerSampling(contextLines));
+        boolean[] keep = new boolean[events.size()];
+        LogEventDto[] summaryBefore = new LogEventDto[events.size()];   // i 번째 줄 앞에 넣을 지난 분 요약
+        List<LogEventDto> carried = new ArrayList<>();                  // 이전 배치에서 넘어온 context 줄
+        int keptCount = 0;
+
+        synchronized (state) {
+            state.markContextCarried();
+            for (int i = 0; i < events.size(); i++) {
+                LogEventDto e = events.get(i);
+                long minute = Math.floorDiv(e.getTs(), 60_000L);
+                if (minute > state.minute) {
+                    summaryBefore[i] = state.rollOver(minute);
+                }
+
+                if (LogLineClassifier.mustKeep(e.getLevel(), e.getMessage())) {
+                    state.flushContext(keep, carried);
+                    keep[i] = true;
+                } else {
+                    keep[i] = state.keepRoutine(e.getLevel());
+                    state.remember(e, i, keep[i]);
+                }
+            }
+        }
+
+        // 원래 순서대로 조립 (이전 배치 context 는 이번 배치보다 앞선 시각이므로 맨 앞)
+        List<LogEventDto> kept = new ArrayList<>(carried);
+        for (int i = 0; i < events.size(); i++) {
+            if (summaryBefore[i] != null) kept.add(summaryBefore[i]);
+            if (keep[i]) {
+                kept.add(events.get(i));
+                keptCount++;
+            }
+        }
+
+        keptCounter.increment(keptCount + carried.size());
+        droppedCounter.increment(events.size() - keptCount);
+        return kept;
+    }
+
+    /**
+     * 끝난 분의 요약 로그를 서버별로 꺼냄 (다음 배치 없이도 마지막 분의 요약이 남도록)
+     * - 분이 끝나고 summary-grace-ms 가 지난 서버만 (같은 분의 로그가 늦게 도착할 여유)
+     * - 꺼낸 뒤 같은 분의 로그가 더 오면 그만큼은 다음 분으로 넘어갈 때 요약 1줄로 한 번 더 남김
+     */
+    public Map<String, LogEventDto> drainFinishedSummaries(long nowMillis) {
+        Map<String, LogEventDto> summaries = new LinkedHashMap<>();
+        if (!enabled) return summaries;
+        states.forEach((serverName, state) -> {
+            LogEventDto summary;
+            synchronized (state) {
+                if (state.minute == Long.MIN_VALUE || (state.minute + 1) * 60_000L + summaryGraceMs > nowMillis) return;
+                summary = state.drainSummary();
+            }
+            if (summary != null) summaries.put(serverName, summary);
+        });
+        return summaries;
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(states.keySet());
+    }
+
+    @Override
+    public void forget(String serverName) {
+        states.remove(serverName);
+    }
+
+    /**
+     * 서버 1대의 현재 분 샘플링 상태
+     */
+    private class ServerSampling {
+        private long minute = Long.MIN_VALUE;
+        private int routineSeen;                 // 현재 분에 본 일반 로그 수
+        private int previousMinuteRoutine;       // 직전 분의 일반 로그 수 (확률 계산용)
+        private final Map<String, int[]> levelCounts = new LinkedHashMap<>(); // 레벨 -> {본 줄, 저장한 줄}
+
+        // 최근 일반 로그 N줄 링버퍼 (에러가 오면 그중 아직 저장하지 않은 줄을 함께 저장)
+        private final LogEventDto[] context;
+        private final int[] contextIndex;        // 현재 배치 안의 위치 (-1 = 이전 배치)
+        private final boolean[] contextKept;
+        private int contextHead;
+        private int contextSize;
+
+        ServerSampling(int contextCapacity) {
+            this.context = new LogEventDto[Math.max(0, contextCapacity)];
+            this.contextIndex = new int[context.length];
+            this.contextKept = new boolean[context.length];
+        }
+
+        boolean keepRoutine(String level) {
+            routineSeen++;
+            int[] counts = levelCounts.computeIfAbsent(level == null ? "UNKNOWN" : level.toUpperCase(Locale.ROOT),
+                    k -> new int[2]);
+            counts[0]++;
+
+            boolean keep = routineSeen <= keepFirstPerMinute
+                    || ThreadLocalRandom.current().nextDouble() < keepProbability();
+            if (keep) counts[1]++;
+            return keep;
+        }
+
+        // 직전 분의 양으로 이번 분의 예상량을 잡고, 분당 목표 줄 수에 맞는 확률 (최소 1%)
+        private double keepProbability() {
+            int expected = Math.max(previousMinuteRoutine, routineSeen);
+            if (expected <= targetPerMinute) return 1.0;
+            return Math.max(0.01, (double) (targetPerMinute - keepFirstPerMinute) / (expected - keepFirstPerMinute));
+        }
+
+        void remember(LogEventDto e, int index, boolean alreadyKept) {
+            if (context.length == 0) return;
+            int slot = (contextHead + contextSize) % context.length;
+            if (contextSize == context.length) {
+                contextHead = (contextHead + 1) % context.length; // 가장 오래된 줄을 덮어씀
+            } else {
+                contextSize++;
+            }
+            context[slot] = e;
+            contextIndex[slot] = index;
+            contextKept[slot] = alreadyKept;
+        }
+
+        // 새 배치 시작: 남아 있는 context 는 모두 이전 배치의 줄
+        void markContextCarried() {
+            Arrays.fill(contextIndex, -1);
+        }
+
+        // 에러 직전 context 중 아직 저장하지 않은 줄을 저장 대상으로
+        void flushContext(boolean[] keep, List<LogEventDto> carried) {
+            for (int i = 0; i < contextSize; i++) {
+                int slot = (contextHead + i) % context.length;
+                if (contextKept[slot]) continue;
+                LogEventDto e = context[slot];
+                int[] counts = levelCounts.get(e.getLevel() == null ? "UNKNOWN" : e.getLevel().toUpperCase(Locale.ROOT));
+                if (counts != null) counts[1]++;
+                if (contextIndex[slot] >= 0) {
+                    keep[contextIndex[slot]] = true;
+                } else {
+                    carried.add(e);
+                }
+            }
+            clearContext();
+        }
+
+        private void clearContext() {
+            Arrays.fill(context, null);
+            contextHead = 0;
+            contextSize = 0;
+        }
+
+        /**
+         * 분이 바뀌면 카운터 초기화
+         * @return 지난 분에 버린 줄의 요약 로그 (버린 줄이 없으면 null)
+         */
+        LogEventDto rollOver(long newMinute) {
+            LogEventDto summary = minute == Long.MIN_VALUE ? null : summary();
+            previousMinuteRoutine = minute == newMinute - 1 ? routineSeen : 0;
+            minute = newMinute;
+            routineSeen = 0;
+            levelCounts.clear();
+            clearContext();
+            return summary;
+        }
+
+        // 현재 분을 유지한 채 지금까지 버린 줄의 요약만 꺼냄 (다음 분의 확률 계산용 routineSeen 은 그대로)
+        // context 도 비움: 요약에 생략으로 집계된 줄을 나중에 에러 context 로 다시 저장하지 않도록
+        LogEventDto drainSummary() {
+            LogEventDto summary = summary();
+            levelCounts.clear();
+            clearContext();
+            return summary;
+        }
+
+        // 요약 메시지에는 ERROR / Exception 같은 단어를 넣지 않음 (에러 분석에서 에러로 오인하지 않도록)
+        private LogEventDto summary() {
+            StringBuilder sb = new StringBuilder();
+            int droppedTotal = 0;
+            for (Map.Entry<String, int[]> entry : levelCounts.entrySet()) {
+                int dropped = entry.getValue()[0] - entry.getValue()[1];
+                if (dropped <= 0) continue;
+                droppedTotal += dropped;
+                if (!sb.isEmpty()) sb.append(", ");
+                sb.append(entry.getKey()).append(' ')
+                        .append(String.format("%,d", entry.getValue()[0])).append("줄 중 ")
+                        .append(String.format("%,d", dropped)).append("줄");
+            }
+            if (droppedTotal == 0) return null;
+
+            long minuteStart = minute * 60_000L;
+            String label = LocalDateTime.ofInstant(Instant.ofEpochMilli(minuteStart), ZoneId.systemDefault())
+                    .format(MINUTE_FORMAT);
+            // 해당 분의 마지막 시각으로 기록 (시간순 조회 시 그 분의 로그 뒤에 위치)
+            return new LogEventDto(minuteStart + 59_999, "INFO",
+                    "📊 [sampled " + label + "] 샘플링으로 생략: " + sb, null);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.kakao.kakao_test.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.kakao_test.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NDJSON(한 줄에 JSON 1개) 본문 파서
+ * - 빈 줄(공백 / CRLF 포함)은 건너뜀
+ * - 잘못된 줄은 몇 번째 줄인지 담아 400, JSON null 줄도 잘못된 줄로 봄
+ * - maxItems 를 넘는 순간 나머지 줄은 파싱하지 않고 400 (큰 본문을 끝까지 객체로 만들지 않도록)
+ */
+public final class NdjsonParser {
+
+    private NdjsonParser() {}
+
+    public static <T> List<T> parse(String body, Class<T> type, ObjectMapper objectMapper, int maxItems) {
+        List<T> items = new ArrayList<>();
+        if (body == null) return items;
+
+        int lineNo = 0;
+        int from = 0;
+        while (from < body.length()) {
+            int newline = body.indexOf('\n', from);
+            int end = newline < 0 ? body.length() : newline;
+            lineNo++;
+            String line = body.substring(from, end);
+            from = end + 1;
+            if (line.isBlank()) continue;
+
+            if (items.size() >= maxItems) {
+                throw new BadRequestException("NDJSON 한 요청에는 최대 " + maxItems + "줄까지 보낼 수 있습니다.");
+            }
+            T item;
+            try {
+                item = objectMapper.readValue(line, type);
+            } catch (JsonProcessingException e) {
+                throw new BadRequestException("NDJSON 파싱 실패 (" + lineNo + "번째 줄): " + e.getOriginalMessage());
+            }
+            if (item == null) {
+                throw new BadRequestException("NDJSON 파싱 실패 (" + lineNo + "번째 줄): null");
+            }
+            items.add(item);
+        }
+        return items;
+    }
+}
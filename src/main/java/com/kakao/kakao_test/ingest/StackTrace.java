@@ -0,0 +1,103 @@
+package com.kakao.kakao_test.ingest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 여러 줄로 합쳐진 로그 메시지에서 읽어낸 Java 스택트레이스 구조
+ * - exceptionClass / exceptionMessage: 가장 바깥 예외
+ * - rootCauseClass: 마지막 "Caused by:" 예외 (없으면 바깥 예외와 같음)
+ * - topFrames: 바깥 예외의 상위 프레임 몇 개 ("at " 제외)
+ */
+public record StackTrace(
+        String exceptionClass,
+        String exceptionMessage,
+        String rootCauseClass,
+        List<String> topFrames,
+        int frameCount
+) {
+
+    private static final int MAX_TOP_FRAMES = 5;
+
+    static final Pattern FRAME = Pattern.compile("^\\s*at\\s+(\\S+\\(.*)$");
+    static final Pattern EXCEPTION_LINE = Pattern.compile(
+            "^\\s*(?:Caused by: |Suppressed: )?((?:[a-zA-Z_$][\\w$]*\\.)+[A-Z][\\w$]*(?:Exception|Error|Throwable))(?::\\s*(.*))?$");
+    private static final Pattern FRAME_LOCATION = Pattern.compile("\\([^)]*\\)$");
+
+    /**
+     * 스택트레이스가 아니면 (프레임이 없거나 예외 줄이 없으면) null
+     */
+    public static StackTrace parse(String message) {
+        if (message == null || message.indexOf('\n') < 0) return null;
+
+        String exceptionClass = null;
+        String exceptionMessage = null;
+        String rootCause = null;
+        List<String> frames = new ArrayList<>(MAX_TOP_FRAMES);
+        int frameCount = 0;
+        boolean outer = true;
+
+        for (String line : message.split("\n")) {
+            Matcher frame = FRAME.matcher(line);
+            if (frame.matches()) {
+                frameCount++;
+                if (outer && frames.size() < MAX_TOP_FRAMES) frames.add(frame.group(1).strip());
+                continue;
+            }
+            Matcher ex = EXCEPTION_LINE.matcher(line);
+            if (!ex.matches()) continue;
+            if (exceptionClass == null) {
+                exceptionClass = ex.group(1);
+                exceptionMessage = ex.group(2);
+            } else if (line.strip().startsWith("Caused by:")) {
+                rootCause = ex.group(1);
+                outer = false;
+            }
+        }
+
+        if (exceptionClass == null || frameCount == 0) return null;
+        return new StackTrace(exceptionClass, exceptionMessage, rootCause == null ? exceptionClass : rootCause,
+                List.copyOf(frames), frameCount);
+    }
+
+    /**
+     * 진단용 요약: 첫 줄 + 예외 + 상위 프레임 + 근본 원인 (스택트레이스가 아니면 원문 그대로)
+     */
+    public static String compact(String message) {
+        return compact(message, parse(message));
+    }
+
+    /**
+     * 이미 파싱해 둔 스택트레이스(message 를 parse 한 결과, 아니면 null)로 요약
+     */
+    public static String compact(String message, StackTrace trace) {
+        if (trace == null) return message;
+
+        String firstLine = message.lines().findFirst().orElse("");
+        StringBuilder sb = new StringBuilder(firstLine);
+        String exceptionLine = trace.exceptionClass()
+                + (trace.exceptionMessage() == null ? "" : ": " + trace.exceptionMessage());
+        if (!firstLine.strip().equals(exceptionLine)) {
+            sb.append('\n').append(exceptionLine);
+        }
+        for (String f : trace.topFrames()) {
+            sb.append("\n\tat ").append(f);
+        }
+        if (trace.frameCount() > trace.topFrames().size()) {
+            sb.append("\n\t... (프레임 ").append(trace.frameCount() - trace.topFrames().size()).append("개 생략)");
+        }
+        if (!trace.rootCauseClass().equals(trace.exceptionClass())) {
+            sb.append("\n근본 원인: ").append(trace.rootCauseClass());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 가장 위 프레임의 메서드 (파일/줄 번호 제외, 프레임이 없으면 null)
+     */
+    public String topMethod() {
+        return topFrames.isEmpty() ? null : FRAME_LOCATION.matcher(topFrames.getFirst()).replaceAll("");
+    }
+}
@@ -0,0 +1,162 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.dto.LogEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 한 줄씩 들어오는 스택트레이스를 이벤트 1건으로 다시 합침 (수신 단계, 저장 전)
+ * - 이어지는 줄("\tat ...", "Caused by: ...", "... N more", 프레임이 뒤따르는 예외 줄)은 바로 앞 이벤트의 메시지에 붙임
+ * - 배치 경계에서 끊긴 경우: 직전 배치의 마지막 에러 머리줄을 기억해 두었다가, 다음 배치 앞쪽의 이어지는 줄에 머리줄을 붙여 1건으로 저장
+ *   (이미 저장된 행을 고치지 않음 -> 머리줄이 두 행에 남는 대신 추가 조회/UPDATE 없음)
+ * - 합친 메시지는 최대 줄 수까지만 (넘는 프레임은 건수만 표시)
+ */
+@Component
+@RequiredArgsConstructor
+public class StackTraceReassembler implements ServerScopedState {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ingest.stacktrace.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ingest.stacktrace.max-lines:200}")
+    private int maxLines;
+
+    @Value("${ingest.stacktrace.carry-seconds:30}")
+    private long carrySeconds;
+
+    // 서버별 직전 배치의 마지막 에러 머리줄
+    private final Map<String, LogEventDto> carried = new ConcurrentHashMap<>();
+
+    private Counter mergedLines;
+    private Counter reassembledEvents;
+
+    @PostConstruct
+    void registerMetrics() {
+        mergedLines = meterRegistry.counter("ingest.stacktrace.lines.merged");
+        reassembledEvents = meterRegistry.counter("ingest.stacktrace.events");
+    }
+
+    /**
+     * 이어지는 줄을 앞 이벤트에 합친 목록 (순서 유지, 합칠 것이 없으면 입력 그대로)
+     */
+    public List<LogEventDto> reassemble(String serverName, List<LogEventDto> events) {
+        if (!enabled || events.isEmpty()) return events;
+
+        List<LogEventDto> result = new ArrayList<>(events.size());
+        Builder current = null;
+        int merged = 0;
+        int traces = 0;
+        LogEventDto carry = carried.remove(serverName);
+
+        for (int i = 0; i < events.size(); i++) {
+            LogEventDto e = events.get(i);
+            if (isContinuation(events, i)) {
+                if (current == null) {
+                    // 배치 맨 앞의 이어지는 줄: 직전 배치의 머리줄이 최근 것이면 그 아래로, 아니면 이 줄부터 시작
+                    current = carry != null && e.getTs() - carry.getTs() <= carrySeconds * 1000
+                            ? new Builder(carry, e.getEventId())
+                            : new Builder(e, e.getEventId());
+                    if (current.head == e) continue;
+                }
+                if (current.lines == 1) traces++;
+                current.append(e.getMessage());
+                merged++;
+                continue;
+            }
+            if (current != null) result.add(current.build());
+            current = new Builder(e, e.getEventId());
+        }
+        if (current != null) {
+            LogEventDto last = current.build();
+            result.add(last);
+            // 다음 배치에서 이어질 수 있는 에러 머리줄만 기억 (스택트레이스는 머리줄 + 예외 줄까지만)
+            if (LogLineClassifier.isErrorLike(last.getLevel(), last.getMessage())) {
+                carried.put(serverName, headOf(last));
+            }
+        }
+
+        if (merged > 0) {
+            mergedLines.increment(merged);
+            reassembledEvents.increment(traces);
+        }
+        return merged == 0 ? events : result;
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(carried.keySet());
+    }
+
+    @Override
+    public void forget(String serverName) {
+        carried.remove(serverName);
+    }
+
+    // 앞 이벤트에 붙일 줄인지 (예외 줄은 바로 뒤에 프레임이 올 때만 -> 따로 찍힌 한 줄짜리 예외 로그는 그대로 둠)
+    private static boolean isContinuation(List<LogEventDto> events, int i) {
+        String msg = events.get(i).getMessage();
+        if (LogLineClassifier.isStackTraceContinuation(msg)) return true;
+        return i + 1 < events.size()
+                && msg != null && StackTrace.EXCEPTION_LINE.matcher(msg).matches()
+                && StackTrace.FRAME.matcher(String.valueOf(events.get(i + 1).getMessage())).matches();
+    }
+
+    // 머리줄 (프레임이 시작되기 전까지의 줄)
+    private static LogEventDto headOf(LogEventDto e) {
+        String msg = e.getMessage() == null ? "" : e.getMessage();
+        StringBuilder head = new StringBuilder();
+        for (String line : msg.split("\n")) {
+            if (LogLineClassifier.isStackTraceContinuation(line)) break;
+            if (!head.isEmpty()) head.append('\n');
+            head.append(line);
+        }
+        return new LogEventDto(e.getTs(), e.getLevel(), head.toString(), null);
+    }
+
+    /**
+     * 머리 이벤트 + 이어지는 줄
+     */
+    private class Builder {
+        private final LogEventDto head;
+        private final String eventId;          // 재전송 중복 제거는 첫 줄의 ID 로
+        private StringBuilder message;
+        private int lines = 1;
+        private int omitted;
+
+        Builder(LogEventDto head, String eventId) {
+            this.head = head;
+            this.eventId = eventId;
+        }
+
+        void append(String line) {
+            if (lines >= maxLines) {
+                omitted++;
+                return;
+            }
+            if (message == null) message = new StringBuilder(head.getMessage() == null ? "" : head.getMessage());
+            message.append('\n').append(line);
+            lines++;
+        }
+
+        LogEventDto build() {
+            if (message == null && omitted == 0 && Objects.equals(eventId, head.getEventId())) return head;
+            if (message == null) message = new StringBuilder(head.getMessage() == null ? "" : head.getMessage());
+            if (omitted > 0) message.append("\n\t... (").append(omitted).append("줄 생략)");
+            return new LogEventDto(head.getTs(), head.getLevel(), message.toString(), eventId);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.kakao.kakao_test.ingest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 락 없는 토큰 버킷 (GCRA: 상태는 "버킷이 다시 가득 차는 이론상 시각" long 하나)
+ * - 토큰 1개가 채워지는 시간 = intervalNanos, 최대 burst 개까지 모아둘 수 있음
+ * - 획득은 CAS 한 번 (경합 시에만 재시도), 할당/락 없음
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;   // burst 만큼 미리 당겨 쓸 수 있는 시간
+    private final AtomicLong tat;        // theoretical arrival time (System.nanoTime 기준)
+
+    TokenBucket(double ratePerSec, double burst) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / ratePerSec));
+        this.toleranceNanos = (long) (Math.max(1, burst) * intervalNanos);
+        this.tat = new AtomicLong(System.nanoTime()); // 가득 찬 상태로 시작
+    }
+
+    /**
+     * n 개를 한 번에 획득 (부족하면 아무것도 가져가지 않고 false)
+     */
+    boolean tryAcquire(long n) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long next = Math.max(current, now) + n * intervalNanos;
+            if (next - now > toleranceNanos) return false;
+            if (tat.compareAndSet(current, next)) return true;
+        }
+    }
+
+    /**
+     * 최대 n 개까지 있는 만큼 획득
+     * @return 실제 획득한 개수 (0 ~ n)
+     */
+    long acquireUpTo(long n) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long granted = Math.min(n, (now + toleranceNanos - base) / intervalNanos);
+            if (granted <= 0) return 0;
+            if (tat.compareAndSet(current, base + granted * intervalNanos)) return granted;
+        }
+    }
+
+    /**
+     * 한도와 무관하게 n 개 소비 (버킷이 비는 데까지만 반영, 빚은 지지 않음)
+     */
+    void consume(long n) {
+        while (true) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long next = Math.min(Math.max(current, now) + n * intervalNanos, now + toleranceNanos);
+            if (next <= current || tat.compareAndSet(current, next)) return;
+        }
+    }
+
+    // 획득했지만 쓰지 않은 토큰 반납
+    void refund(long n) {
+        if (n > 0) tat.addAndGet(-n * intervalNanos);
+    }
+
+    long available() {
+        long now = System.nanoTime();
+        return Math.max(0, (now + toleranceNanos - Math.max(tat.get(), now)) / intervalNanos);
+    }
+
+    /**
+     * n 개를 받을 수 있을 때까지 남은 시간 (초, 최소 1)
+     */
+    long secondsUntil(long n) {
+        long now = System.nanoTime();
+        long waitNanos = Math.max(tat.get(), now) + n * intervalNanos - now - toleranceNanos;
+        return Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+    }
+}
@@ -0,0 +1,32 @@
+package com.kakao.kakao_test.logstore;
+
+import com.kakao.kakao_test.domain.ServerLog;
+import com.kakao.kakao_test.repository.ServerLogRepository;
+import com.kakao.kakao_test.repository.projection.LogLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * MySQL server_log 테이블 저장소 (기본값)
+ */
+@Component
+@ConditionalOnProperty(name = "logstore.backend", havingValue = "mysql", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaLogStore implements LogStore {
+
+    private final ServerLogRepository serverLogRepository;
+
+    @Override
+    public int append(List<ServerLog> logs) {
+        return serverLogRepository.bulkInsert(logs);
+    }
+
+    @Override
+    public List<LogLine> findRecentLines(String serverName, int limit) {
+        return serverLogRepository.findRecentLines(serverName, Limit.of(limit));
+    }
+}
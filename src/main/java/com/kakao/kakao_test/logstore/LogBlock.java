@@ -0,0 +1,121 @@
+package com.kakao.kakao_test.logstore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 세그먼트 파일의 압축 블록 1개
+ * - [헤더 32B: magic, 원본 길이, 압축 길이, 줄 수, crc32c(압축본), 예약] + [deflate 압축 본문]
+ * - 본문 레코드: [ts long][level 길이 short][level][message 길이 int][message] (UTF-8)
+ * - 시간 범위(min/max ts)는 인덱스 파일에만 둠 (읽을 블록 선택은 인덱스만으로)
+ */
+final class LogBlock {
+
+    static final int MAGIC = 0x4C4F4731; // "LOG1"
+    static final int HEADER_BYTES = 32;
+
+    /**
+     * 블록 1개에 들어갈 로그 줄
+     */
+    record Entry(long ts, String level, String message) {}
+
+    private LogBlock() {
+    }
+
+    /**
+     * 레코드를 직렬화 후 압축한 블록 (헤더 포함, position 0 / limit 끝)
+     */
+    static ByteBuffer encode(List<Entry> entries, Deflater deflater) {
+        int rawLength = 0;
+        List<byte[][]> encoded = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            byte[] level = e.level() == null ? new byte[0] : e.level().getBytes(StandardCharsets.UTF_8);
+            byte[] message = e.message() == null ? new byte[0] : e.message().getBytes(StandardCharsets.UTF_8);
+            encoded.add(new byte[][]{level, message});
+            rawLength += 8 + 2 + level.length + 4 + message.length;
+        }
+
+        ByteBuffer raw = ByteBuffer.allocate(rawLength);
+        for (int i = 0; i < entries.size(); i++) {
+            byte[][] fields = encoded.get(i);
+            raw.putLong(entries.get(i).ts());
+            raw.putShort((short) fields[0].length).put(fields[0]);
+            raw.putInt(fields[1].length).put(fields[1]);
+        }
+
+        deflater.reset();
+        deflater.setInput(raw.array(), 0, rawLength);
+        deflater.finish();
+        byte[] compressed = new byte[Math.max(64, rawLength + rawLength / 1000 + 64)];
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(compressed, 0, compressedLength);
+
+        ByteBuffer block = ByteBuffer.allocate(HEADER_BYTES + compressedLength);
+        block.putInt(MAGIC).putInt(rawLength).putInt(compressedLength).putInt(entries.size())
+                .putInt((int) crc.getValue()).putInt(0).putLong(0);
+        block.put(compressed, 0, compressedLength);
+        return block.flip();
+    }
+
+    /**
+     * 블록을 풀어서 레코드 목록으로 (깨진 블록이면 빈 목록 -> 쓰다가 죽은 마지막 블록 등)
+     */
+    static List<Entry> decode(ByteBuffer block) {
+        if (block.remaining() < HEADER_BYTES || block.getInt() != MAGIC) return List.of();
+        int rawLength = block.getInt();
+        int compressedLength = block.getInt();
+        int count = block.getInt();
+        int expectedCrc = block.getInt();
+        block.position(block.position() + 12);
+        if (block.remaining() < compressedLength) return List.of();
+
+        ByteBuffer compressed = block.slice(block.position(), compressedLength);
+        CRC32C crc = new CRC32C();
+        crc.update(compressed.duplicate());
+        if ((int) crc.getValue() != expectedCrc) return List.of();
+
+        ByteBuffer raw = ByteBuffer.allocate(rawLength);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            while (!inflater.finished() && raw.hasRemaining()) {
+                if (inflater.inflate(raw) == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+            }
+        } catch (DataFormatException e) {
+            return List.of();
+        } finally {
+            inflater.end();
+        }
+        raw.flip();
+
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count && raw.remaining() >= 14; i++) {
+            long ts = raw.getLong();
+            String level = readString(raw, raw.getShort() & 0xFFFF);
+            String message = readString(raw, raw.getInt());
+            entries.add(new Entry(ts, level, message));
+        }
+        return entries;
+    }
+
+    private static String readString(ByteBuffer buf, int length) {
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), length, StandardCharsets.UTF_8);
+        buf.position(buf.position() + length);
+        return s;
+    }
+}
@@ -0,0 +1,178 @@
+package com.kakao.kakao_test.logstore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 서버 1대의 시간 구간 세그먼트 (append-only)
+ * - {시작 시각}.seg: 압축 블록을 이어 붙인 데이터 파일
+ * - {시작 시각}.idx: 블록마다 [minTs][maxTs][offset][길이][줄 수] 32B (sparse 시간 인덱스)
+ * - 데이터를 먼저 쓰고 인덱스를 나중에 씀 -> 인덱스에 있는 블록은 항상 끝까지 쓰여 있음 (중간에 죽으면 crc 로 걸러짐)
+ * - 읽기는 인덱스/데이터 파일을 읽기 전용으로 mmap (쓰는 쪽과 채널 공유 없음)
+ */
+final class LogSegment implements Closeable {
+
+    static final String DATA_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+    static final int INDEX_ENTRY_BYTES = 32;
+
+    /**
+     * 인덱스 항목 1개 (블록 1개)
+     */
+    record IndexEntry(long minTs, long maxTs, long offset, int length, int count) {}
+
+    private final long startMillis;
+    private final Path dataPath;
+    private final Path indexPath;
+
+    // 쓰기용 (현재 세그먼트만 열려 있음)
+    private FileChannel data;
+    private FileChannel index;
+    private long size;
+
+    private LogSegment(Path dir, long startMillis) {
+        this.startMillis = startMillis;
+        this.dataPath = dir.resolve(startMillis + DATA_SUFFIX);
+        this.indexPath = dir.resolve(startMillis + INDEX_SUFFIX);
+    }
+
+    /**
+     * 새 세그먼트를 만들어 쓰기용으로 열기
+     */
+    static LogSegment create(Path dir, long startMillis) throws IOException {
+        LogSegment segment = new LogSegment(dir, startMillis);
+        segment.data = FileChannel.open(segment.dataPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segment.index = FileChannel.open(segment.indexPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return segment;
+    }
+
+    /**
+     * 이미 있는 세그먼트 (읽기 전용)
+     */
+    static LogSegment existing(Path dir, long startMillis) throws IOException {
+        LogSegment segment = new LogSegment(dir, startMillis);
+        segment.size = Files.size(segment.dataPath);
+        return segment;
+    }
+
+    long startMillis() {
+        return startMillis;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * 블록 추가 (호출자가 서버 단위로 직렬화)
+     */
+    void append(ByteBuffer block, long minTs, long maxTs, int count, boolean fsync) throws IOException {
+        long offset = size;
+        int length = block.remaining();
+        while (block.hasRemaining()) {
+            data.write(block);
+        }
+
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES)
+                .putLong(minTs).putLong(maxTs).putLong(offset).putInt(length).putInt(count)
+                .flip();
+        while (entry.hasRemaining()) {
+            index.write(entry);
+        }
+        if (fsync) {
+            data.force(false);
+            index.force(false);
+        }
+        size = offset + length;
+    }
+
+    /**
+     * 인덱스 전체 (mmap, 마지막에 덜 쓰인 항목은 제외)
+     */
+    List<IndexEntry> readIndex() throws IOException {
+        if (!Files.exists(indexPath)) return List.of();
+        try (FileChannel ch = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            long usable = ch.size() - ch.size() % INDEX_ENTRY_BYTES;
+            if (usable == 0) return List.of();
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, usable);
+            List<IndexEntry> entries = new ArrayList<>((int) (usable / INDEX_ENTRY_BYTES));
+            while (map.hasRemaining()) {
+                entries.add(new IndexEntry(map.getLong(), map.getLong(), map.getLong(), map.getInt(), map.getInt()));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * 데이터 파일을 읽기 전용으로 연 핸들 (블록 여러 개를 읽을 때 한 번만 mmap)
+     */
+    Reader openReader() throws IOException {
+        return new Reader(FileChannel.open(dataPath, StandardOpenOption.READ));
+    }
+
+    /**
+     * 쓰기 종료 (다음 세그먼트로 넘어갈 때)
+     */
+    void seal() throws IOException {
+        close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(indexPath);
+        Files.deleteIfExists(dataPath);
+    }
+
+    long lastModifiedMillis() throws IOException {
+        return Files.getLastModifiedTime(dataPath).toMillis();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (data != null) {
+            data.close();
+            data = null;
+        }
+        if (index != null) {
+            index.close();
+            index = null;
+        }
+    }
+
+    /**
+     * 세그먼트 데이터 읽기 (파일 전체를 한 번 mmap 한 뒤 블록 단위로 잘라 씀)
+     */
+    static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private MappedByteBuffer map;
+
+        private Reader(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        List<LogBlock.Entry> read(IndexEntry entry) throws IOException {
+            long end = entry.offset() + entry.length();
+            if (map == null || map.capacity() < end) {
+                long fileSize = channel.size();
+                if (fileSize < end) return List.of();
+                map = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            }
+            return LogBlock.decode(map.slice((int) entry.offset(), entry.length()));
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.kakao.kakao_test.logstore;
+
+import com.kakao.kakao_test.domain.ServerLog;
+import com.kakao.kakao_test.repository.projection.LogLine;
+
+import java.util.List;
+
+/**
+ * 원본 로그 줄 저장소 (logstore.backend 로 선택)
+ * - mysql (기본): server_log 테이블 (JpaLogStore)
+ * - segment: 서버별 로컬 세그먼트 파일 (SegmentLogStore)
+ */
+public interface LogStore {
+
+    /**
+     * 로그 저장
+     * @return 실제로 저장된 줄 수 (재전송 중복 등으로 건너뛴 줄 제외)
+     */
+    int append(List<ServerLog> logs);
+
+    /**
+     * 최신 로그 (최신순, 최대 limit 줄)
+     */
+    List<LogLine> findRecentLines(String serverName, int limit);
+}
@@ -0,0 +1,334 @@
+package com.kakao.kakao_test.logstore;
+
+import com.kakao.kakao_test.domain.ServerLog;
+import com.kakao.kakao_test.repository.projection.LogLine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+/**
+ * 로컬 디스크 세그먼트 로그 저장소 (logstore.backend=segment)
+ * - 서버별 디렉터리에 시간 단위로 넘어가는 append-only 세그먼트 파일, 블록 단위 deflate 압축
+ * - 블록마다 시간 범위를 sparse 인덱스에 남겨, 최신 로그 조회 시 필요한 블록만 mmap 해서 풂
+ * - MySQL 의 행 단위 INSERT + 보조 인덱스 2개 갱신 대신 순차 쓰기 한 번
+ * - 재전송 중복은 메모리 중복 제거(IngestDeduplicator)만 적용 (DB 유니크 키 같은 2차 방어 없음)
+ * - 노드 로컬 저장이므로 클러스터 모드에서는 조회가 수신 노드에서 처리되어야 전체가 보임
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "logstore.backend", havingValue = "segment")
+@RequiredArgsConstructor
+public class SegmentLogStore implements LogStore {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${logstore.segment.dir:./data/logs}")
+    private String dir;
+
+    @Value("${logstore.segment.roll-minutes:60}")
+    private long rollMinutes;
+
+    @Value("${logstore.segment.max-segment-bytes:67108864}")
+    private long maxSegmentBytes;
+
+    @Value("${logstore.segment.block-bytes:65536}")
+    private int blockBytes;
+
+    @Value("${logstore.segment.retention-hours:72}")
+    private long retentionHours;
+
+    @Value("${logstore.segment.fsync:false}")
+    private boolean fsync;
+
+    @Value("${cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    private Path root;
+    private final Map<String, ServerSegments> servers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Path.of(dir).toAbsolutePath();
+        Files.createDirectories(root);
+        if (clusterEnabled) {
+            log.warn("⚠️ 세그먼트 로그 저장소는 노드 로컬입니다. 클러스터 모드에서는 다른 노드가 받은 로그가 조회되지 않을 수 있습니다.");
+        }
+        log.info("🗄️ 세그먼트 로그 저장소 사용: {}", root);
+    }
+
+    @Override
+    public int append(List<ServerLog> logs) {
+        if (logs.isEmpty()) return 0;
+        String serverName = logs.getFirst().getServer().getServerName();
+        ServerSegments segments = segmentsOf(serverName);
+
+        segments.lock.lock();
+        try {
+            List<LogBlock.Entry> block = new ArrayList<>();
+            int blockSize = 0;
+            for (ServerLog l : logs) {
+                LogBlock.Entry entry = new LogBlock.Entry(toMillis(l.getOccurredAt()), l.getLevel(), l.getMessage());
+                block.add(entry);
+                blockSize += 14 + (entry.message() == null ? 0 : entry.message().length());
+                if (blockSize >= blockBytes) {
+                    segments.writeBlock(block);
+                    block = new ArrayList<>();
+                    blockSize = 0;
+                }
+            }
+            if (!block.isEmpty()) segments.writeBlock(block);
+        } catch (IOException e) {
+            throw new UncheckedIOException("로그 세그먼트 쓰기 실패: " + serverName, e);
+        } finally {
+            segments.lock.unlock();
+        }
+        meterRegistry.counter("logstore.segment.rows.written").increment(logs.size());
+        return logs.size();
+    }
+
+    /**
+     * 최신 블록부터 읽어, limit 번째로 최근인 줄보다 오래된 블록만 남으면 중단
+     * (블록은 도착 순서라 시간이 조금씩 겹칠 수 있어 인덱스의 maxTs 로 판단)
+     */
+    @Override
+    public List<LogLine> findRecentLines(String serverName, int limit) {
+        ServerSegments segments = servers.get(serverName);
+        if (segments == null) {
+            Path serverDir = root.resolve(directoryName(serverName));
+            if (!Files.isDirectory(serverDir)) return List.of();
+            segments = segmentsOf(serverName);
+        }
+
+        // 가장 최근 limit 줄만 유지 (가장 오래된 것이 맨 앞)
+        PriorityQueue<LogBlock.Entry> recent = new PriorityQueue<>(Comparator.comparingLong(LogBlock.Entry::ts));
+        try {
+            for (LogSegment segment : segments.newestFirst()) {
+                try {
+                    readNewestFirst(segment, recent, limit);
+                } catch (NoSuchFileException e) {
+                    // 보관 기간 정리(deleteExpired)가 읽는 도중에 지운 세그먼트 -> 건너뛰고 더 오래된 세그먼트로
+                    log.debug("삭제된 로그 세그먼트 건너뜀 (서버: {}): {}", serverName, e.getFile());
+                    continue;
+                }
+                // 이전 세그먼트는 이 세그먼트 시작 전에 받은 로그 (발생 시각이 크게 어긋난 로그가 아니라면 더 오래됨)
+                if (recent.size() >= limit && recent.peek().ts() >= segment.startMillis()) break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("로그 세그먼트 읽기 실패: " + serverName, e);
+        }
+
+        List<LogLine> lines = new ArrayList<>(recent.size());
+        while (!recent.isEmpty()) {
+            LogBlock.Entry e = recent.poll();
+            lines.add(new LogLine(LocalDateTime.ofInstant(Instant.ofEpochMilli(e.ts()), ZONE), e.level(), e.message()));
+        }
+        return lines.reversed();
+    }
+
+    private static void readNewestFirst(LogSegment segment, PriorityQueue<LogBlock.Entry> recent, int limit)
+            throws IOException {
+        List<LogSegment.IndexEntry> index = segment.readIndex();
+        if (index.isEmpty()) return;
+        try (LogSegment.Reader reader = segment.openReader()) {
+            for (int i = index.size() - 1; i >= 0; i--) {
+                LogSegment.IndexEntry block = index.get(i);
+                if (recent.size() >= limit && block.maxTs() < recent.peek().ts()) continue;
+                for (LogBlock.Entry e : reader.read(block)) {
+                    recent.add(e);
+                    if (recent.size() > limit) recent.poll();
+                }
+            }
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 세그먼트 삭제 (쓰는 중인 세그먼트는 제외)
+     * - 재시작 후 아직 수신이 없어 열지 않은 서버 디렉터리도 파일 수정 시각으로 정리
+     */
+    @Scheduled(fixedDelayString = "${logstore.segment.retention-check-interval-ms:600000}")
+    public void deleteExpired() {
+        long cutoff = System.currentTimeMillis() - retentionHours * 3_600_000L;
+        Set<Path> opened = new HashSet<>();
+        for (Map.Entry<String, ServerSegments> entry : servers.entrySet()) {
+            ServerSegments segments = entry.getValue();
+            opened.add(segments.dir);
+            segments.lock.lock();
+            try {
+                int deleted = segments.deleteOlderThan(cutoff);
+                if (deleted > 0) log.info("🧹 {} 서버의 오래된 로그 세그먼트 {}개 삭제", entry.getKey(), deleted);
+            } catch (IOException e) {
+                log.warn("⚠️ 로그 세그먼트 삭제 실패 (서버: {}): {}", entry.getKey(), e.getMessage());
+            } finally {
+                segments.lock.unlock();
+            }
+        }
+
+        try (Stream<Path> dirs = Files.list(root)) {
+            for (Path serverDir : dirs.filter(Files::isDirectory).filter(d -> !opened.contains(d)).toList()) {
+                try (Stream<Path> files = Files.list(serverDir)) {
+                    for (Path f : files.toList()) {
+                        if (Files.getLastModifiedTime(f).toMillis() < cutoff) Files.deleteIfExists(f);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ 로그 세그먼트 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        for (ServerSegments segments : servers.values()) {
+            segments.lock.lock();
+            try {
+                segments.closeActive();
+            } catch (IOException e) {
+                log.warn("⚠️ 로그 세그먼트 닫기 실패: {}", e.getMessage());
+            } finally {
+                segments.lock.unlock();
+            }
+        }
+    }
+
+    private ServerSegments segmentsOf(String serverName) {
+        return servers.computeIfAbsent(serverName, name -> {
+            try {
+                return new ServerSegments(Files.createDirectories(root.resolve(directoryName(name))));
+            } catch (IOException e) {
+                throw new UncheckedIOException("로그 세그먼트 디렉터리 생성 실패: " + name, e);
+            }
+        });
+    }
+
+    // 서버 이름을 디렉터리 이름으로 (허용 문자 외에는 치환 + 충돌 방지용 해시)
+    static String directoryName(String serverName) {
+        String safe = serverName.replaceAll("[^A-Za-z0-9._-]", "_");
+        if (safe.equals(serverName) && !safe.startsWith(".")) return safe;
+        int hash = 0x811c9dc5;
+        for (byte b : serverName.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ b) * 0x01000193;
+        }
+        return "_" + safe + "-" + Integer.toHexString(hash);
+    }
+
+    private static long toMillis(LocalDateTime t) {
+        return t == null ? System.currentTimeMillis() : t.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 서버 1대의 세그먼트 목록 (시작 시각 순) + 현재 쓰는 세그먼트
+     */
+    private class ServerSegments {
+        private final Path dir;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final NavigableMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private LogSegment active;
+
+        ServerSegments(Path dir) throws IOException {
+            this.dir = dir;
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path p : files.toList()) {
+                    String name = p.getFileName().toString();
+                    if (!name.endsWith(LogSegment.DATA_SUFFIX)) continue;
+                    long start = Long.parseLong(name.substring(0, name.length() - LogSegment.DATA_SUFFIX.length()));
+                    try {
+                        segments.put(start, LogSegment.existing(dir, start));
+                    } catch (NoSuchFileException e) {
+                        // 목록을 읽은 뒤 보관 기간 정리로 지워진 파일
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("알 수 없는 세그먼트 파일: " + dir, e);
+            }
+        }
+
+        void writeBlock(List<LogBlock.Entry> entries) throws IOException {
+            long minTs = Long.MAX_VALUE;
+            long maxTs = Long.MIN_VALUE;
+            for (LogBlock.Entry e : entries) {
+                minTs = Math.min(minTs, e.ts());
+                maxTs = Math.max(maxTs, e.ts());
+            }
+            ByteBuffer block = LogBlock.encode(entries, deflater);
+            int compressed = block.remaining();
+
+            LogSegment segment = activeSegment(compressed);
+            segment.append(block, minTs, maxTs, entries.size(), fsync);
+
+            meterRegistry.counter("logstore.segment.bytes", "kind", "compressed").increment(compressed);
+            meterRegistry.counter("logstore.segment.blocks").increment();
+        }
+
+        // 시간 구간이 지났거나 크기 상한을 넘으면 새 세그먼트 (재시작 후에는 항상 새 세그먼트부터)
+        private LogSegment activeSegment(int nextBlockBytes) throws IOException {
+            long now = System.currentTimeMillis();
+            if (active != null
+                    && now - active.startMillis() < rollMinutes * 60_000L
+                    && active.size() + nextBlockBytes <= maxSegmentBytes) {
+                return active;
+            }
+            if (active != null) active.seal();
+
+            long start = Math.max(now, segments.isEmpty() ? now : segments.lastKey() + 1);
+            active = LogSegment.create(dir, start);
+            segments.put(start, active);
+            return active;
+        }
+
+        Iterable<LogSegment> newestFirst() {
+            return segments.descendingMap().values();
+        }
+
+        int deleteOlderThan(long cutoff) throws IOException {
+            int deleted = 0;
+            for (LogSegment segment : List.copyOf(segments.values())) {
+                if (segment == active || segment.lastModifiedMillis() >= cutoff) continue;
+                segment.delete();
+                segments.remove(segment.startMillis());
+                deleted++;
+            }
+            return deleted;
+        }
+
+        void closeActive() throws IOException {
+            if (active != null) {
+                active.seal();
+                active = null;
+            }
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.kakao.kakao_test.mcp;
+
+import com.kakao.kakao_test.exception.BadRequestException;
+import com.kakao.kakao_test.exception.NotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MCP 도구 실행 공용 코어 (Streamable HTTP /mcp, legacy SSE 가 같이 사용)
+ * - ServerDoctorMcpTools 의 @McpTool 메서드를 기동 시 1번만 등록 (이름 / 설명 / 입력 스키마)
+ * - 인자 바인딩은 등록 시 만든 파라미터별 변환기 + MethodHandle 로 처리 -> 호출마다 리플렉션 없음
+ * - 도구별 동시 실행 한도: 자리가 없으면 잠깐만 기다리고 isError 결과로 거절 (느린 도구가 요청 스레드를 다 잡지 못함)
+ * - 실행 시간은 mcp.tool.calls (tool / transport / outcome) 히스토그램, 진행 중 수는 mcp.tool.in_flight
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpToolDispatcher {
+
+    public static final String TRANSPORT_STREAMABLE = "streamable";
+    public static final String TRANSPORT_LEGACY_SSE = "legacy-sse";
+    private static final String UNKNOWN_TOOL = "unknown";
+
+    private final ServerDoctorMcpTools serverDoctorMcpTools;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mcp.dispatch.max-concurrent-per-tool:32}")
+    private int maxConcurrentPerTool;
+
+    @Value("${mcp.dispatch.acquire-timeout-ms:100}")
+    private long acquireTimeoutMs;
+
+    // 도구별 한도 (예: ServerDoctor-diagnose_server=8,ServerDoctor-register_server=4), 없으면 max-concurrent-per-tool
+    @Value("${mcp.dispatch.tool-limits:}")
+    private String toolLimits;
+
+    // 등록 순서 유지 (tools/list 응답 순서)
+    private final Map<String, RegisteredTool> tools = new LinkedHashMap<>();
+    private final Map<String, Timer> unknownTimers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        register(serverDoctorMcpTools);
+        log.info("🧰 MCP 도구 {}개 등록: {}", tools.size(), tools.keySet());
+    }
+
+    /**
+     * 빈의 @McpTool 메서드를 도구로 등록
+     */
+    void register(Object bean) {
+        Map<String, Integer> limits = parseLimits(toolLimits);
+        Class<?> type = AopUtils.getTargetClass(bean);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        for (Method method : type.getMethods()) {
+            McpTool annotation = AnnotatedElementUtils.findMergedAnnotation(method, McpTool.class);
+            if (annotation == null) continue;
+            if (tools.containsKey(annotation.name())) {
+                throw new IllegalStateException("MCP 도구 이름 중복: " + annotation.name());
+            }
+
+            Parameter[] parameters = method.getParameters();
+            ArgBinder[] binders = new ArgBinder[parameters.length];
+            Map<String, Object> properties = new LinkedHashMap<>();
+            List<String> required = new ArrayList<>();
+            for (int i = 0; i < parameters.length; i++) {
+                Parameter p = parameters[i];
+                if (!p.isNamePresent()) {
+                    throw new IllegalStateException("파라미터 이름을 읽을 수 없습니다 (-parameters 컴파일 옵션 필요): " + method);
+                }
+                McpToolParam param = p.getAnnotation(McpToolParam.class);
+                boolean isRequired = param == null || param.required() || p.getType().isPrimitive();
+                binders[i] = new ArgBinder(p.getName(), p.getType(), isRequired);
+
+                Map<String, Object> schema = new LinkedHashMap<>();
+                schema.put("type", jsonType(p.getType()));
+                if (param != null && !param.description().isBlank()) schema.put("description", param.description());
+                properties.put(p.getName(), schema);
+                if (isRequired) required.add(p.getName());
+            }
+
+            MethodHandle handle;
+            try {
+                handle = lookup.unreflect(method)
+                        .bindTo(bean)
+                        .asSpreader(Object[].class, parameters.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("MCP 도구 메서드에 접근할 수 없습니다: " + method, e);
+            }
+
+            Map<String, Object> inputSchema = new LinkedHashMap<>();
+            inputSchema.put("type", "object");
+            inputSchema.put("properties", Collections.unmodifiableMap(properties));
+            inputSchema.put("required", List.copyOf(required));
+
+            ToolDefinition definition = new ToolDefinition(annotation.name(), annotation.description(),
+                    Collections.unmodifiableMap(inputSchema));
+            int limit = limits.getOrDefault(annotation.name(), maxConcurrentPerTool);
+            tools.put(annotation.name(), new RegisteredTool(definition, handle, binders, limit));
+        }
+    }
+
+    public Collection<ToolDefinition> definitions() {
+        List<ToolDefinition> definitions = new ArrayList<>(tools.size());
+        for (RegisteredTool tool : tools.values()) definitions.add(tool.definition);
+        return definitions;
+    }
+
+    public boolean has(String toolName) {
+        return tools.containsKey(toolName);
+    }
+
+    /**
+     * 도구 실행 (예외는 밖으로 던지지 않고 isError 결과로 변환 - MCP 규약상 도구 실패는 응답 본문으로 전달)
+     */
+    public ToolResult call(String toolName, Map<String, Object> arguments, String transport) {
+        RegisteredTool tool = tools.get(toolName);
+        if (tool == null) {
+            // 임의 문자열로 태그가 늘어나지 않도록 "unknown" 하나로 집계
+            unknownTimers.computeIfAbsent(transport, t -> timer(UNKNOWN_TOOL, t, "error")).record(0, TimeUnit.NANOSECONDS);
+            return new ToolResult("⚠️ 알 수 없는 도구입니다: " + toolName, true);
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = tool.permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            tool.timer(transport, "rejected").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return new ToolResult("⏳ 요청이 많아 도구를 실행하지 못했습니다. 잠시 후 다시 시도해 주세요. (" + toolName + ")", true);
+        }
+
+        String outcome = "success";
+        try {
+            Object result = tool.handle.invokeExact(tool.bind(arguments));
+            return new ToolResult(result == null ? "" : result.toString(), false);
+        } catch (IllegalArgumentException | BadRequestException | NotFoundException e) {
+            // 잘못된 인자 / 없는 서버 등 호출자 쪽 문제 -> 스택 없이 메시지만 전달
+            outcome = "invalid";
+            return new ToolResult("⚠️ " + e.getMessage(), true);
+        } catch (Throwable t) {
+            outcome = "error";
+            log.error("도구 실행 중 오류 ({})", toolName, t);
+            return new ToolResult("❌ 도구 실행 실패: " + t.getMessage(), true);
+        } finally {
+            tool.permits.release();
+            tool.timer(transport, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String tool, String transport, String outcome) {
+        return Timer.builder("mcp.tool.calls")
+                .description("MCP 도구 실행 시간 (실행 자리 대기 포함)")
+                .tags("tool", tool, "transport", transport, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Map<String, Integer> parseLimits(String spec) {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) return limits;
+        for (String entry : spec.split(",")) {
+            int eq = entry.indexOf('=');
+            if (eq <= 0) throw new IllegalStateException("mcp.dispatch.tool-limits 형식 오류: " + entry);
+            limits.put(entry.substring(0, eq).trim(), Integer.parseInt(entry.substring(eq + 1).trim()));
+        }
+        return limits;
+    }
+
+    private static String jsonType(Class<?> type) {
+        if (type == int.class || type == Integer.class || type == long.class || type == Long.class) return "integer";
+        if (type == double.class || type == Double.class || type == float.class || type == Float.class) return "number";
+        if (type == boolean.class || type == Boolean.class) return "boolean";
+        return "string";
+    }
+
+    /**
+     * 도구 1개: 정의 / 실행 핸들 / 인자 변환기 / 실행 자리 / 메트릭
+     */
+    private class RegisteredTool {
+        private final ToolDefinition definition;
+        private final MethodHandle handle;
+        private final ArgBinder[] binders;
+        private final Semaphore permits;
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        RegisteredTool(ToolDefinition definition, MethodHandle handle, ArgBinder[] binders, int limit) {
+            this.definition = definition;
+            this.handle = handle;
+            this.binders = binders;
+            this.permits = new Semaphore(limit);
+            Gauge.builder("mcp.tool.in_flight", permits, p -> limit - p.availablePermits())
+                    .description("실행 중인 MCP 도구 호출 수")
+                    .tag("tool", definition.name())
+                    .register(meterRegistry);
+        }
+
+        Object[] bind(Map<String, Object> arguments) {
+            Object[] values = new Object[binders.length];
+            for (int i = 0; i < binders.length; i++) {
+                values[i] = binders[i].bind(arguments);
+            }
+            return values;
+        }
+
+        Timer timer(String transport, String outcome) {
+            return timers.computeIfAbsent(transport + '|' + outcome,
+                    k -> McpToolDispatcher.this.timer(definition.name(), transport, outcome));
+        }
+    }
+
+    /**
+     * 파라미터 1개의 인자 변환 (JSON 값 -> 메서드 파라미터 타입)
+     */
+    private record ArgBinder(String name, Class<?> type, boolean required) {
+
+        Object bind(Map<String, Object> arguments) {
+            Object value = arguments == null ? null : arguments.get(name);
+            if (value == null || (value instanceof String s && s.isBlank() && type != String.class)) {
+                if (required) throw new InvalidArgumentsException("필수 인자가 없습니다: " + name);
+                return null;
+            }
+            try {
+                if (type == String.class) return value instanceof String s ? s : value.toString();
+                if (type == int.class || type == Integer.class) {
+                    return value instanceof Number n ? n.intValue() : Integer.parseInt(value.toString().trim());
+                }
+                if (type == long.class || type == Long.class) {
+                    return value instanceof Number n ? n.longValue() : Long.parseLong(value.toString().trim());
+                }
+                if (type == double.class || type == Double.class) {
+                    return value instanceof Number n ? n.doubleValue() : Double.parseDouble(value.toString().trim());
+                }
+                if (type == float.class || type == Float.class) {
+                    return value instanceof Number n ? n.floatValue() : Float.parseFloat(value.toString().trim());
+                }
+                if (type == boolean.class || type == Boolean.class) {
+                    return value instanceof Boolean b ? b : Boolean.parseBoolean(value.toString().trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new InvalidArgumentsException("인자 형식이 올바르지 않습니다: " + name + "=" + value);
+            }
+            throw new InvalidArgumentsException("지원하지 않는 인자 타입입니다: " + name + " (" + type.getSimpleName() + ")");
+        }
+    }
+
+    private static class InvalidArgumentsException extends IllegalArgumentException {
+        InvalidArgumentsException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 도구 정의 (inputSchema 는 JSON Schema object 그대로)
+     */
+    public record ToolDefinition(String name, String description, Map<String, Object> inputSchema) {
+    }
+
+    public record ToolResult(String text, boolean error) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.kakao.kakao_test.mcp;
+
+import io.modelcontextprotocol.server.McpStatelessServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streamable HTTP(/mcp, STATELESS) 도구 등록
+ * - spring.ai.mcp.server.annotation-scanner 는 끄고, McpToolDispatcher 에 등록된 도구를 그대로 노출
+ * - 호출은 Spring AI 의 메서드 리플렉션 대신 McpToolDispatcher 로 위임 (legacy SSE 와 같은 실행 경로 / 한도 / 메트릭)
+ */
+@Configuration
+public class McpToolSpecificationConfig {
+
+    @Bean
+    public List<McpStatelessServerFeatures.SyncToolSpecification> serverDoctorToolSpecifications(McpToolDispatcher dispatcher) {
+        List<McpStatelessServerFeatures.SyncToolSpecification> specs = new ArrayList<>();
+        for (McpToolDispatcher.ToolDefinition definition : dispatcher.definitions()) {
+            specs.add(McpStatelessServerFeatures.SyncToolSpecification.builder()
+                    .tool(McpSchema.Tool.builder()
+                            .name(definition.name())
+                            .description(definition.description())
+                            .inputSchema(inputSchema(definition))
+                            .build())
+                    .callHandler((context, request) -> {
+                        McpToolDispatcher.ToolResult result = dispatcher.call(
+                                request.name(), request.arguments(), McpToolDispatcher.TRANSPORT_STREAMABLE);
+                        return McpSchema.CallToolResult.builder()
+                                .addTextContent(result.text())
+                                .isError(result.error())
+                                .build();
+                    })
+                    .build());
+        }
+        return specs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static McpSchema.JsonSchema inputSchema(McpToolDispatcher.ToolDefinition definition) {
+        Map<String, Object> schema = definition.inputSchema();
+        return new McpSchema.JsonSchema("object",
+                (Map<String, Object>) schema.get("properties"),
+                (List<String>) schema.get("required"),
+                false, null, null);
+    }
+}
@@ -10,12 +10,15 @@ import com.kakao.kakao_test.service.ServerRegisterService;
 import lombok.RequiredArgsConstructor;
 import org.springaicommunity.mcp.annotation.McpTool;
 import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
 public class ServerDoctorMcpTools {
 
+    // 도구 등록은 기동 시 필요하지만 진단(LLM) 쪽은 첫 호출 때 생성 (StartupConfig)
+    @Lazy
     private final ServerDoctorService serverDoctorService;
     private final LogService logService;
     private final ServerRegisterService serverRegisterService;
@@ -68,6 +71,16 @@ public class ServerDoctorMcpTools {
         return (logs.getErrorCount() == 0) ? "발견된 에러 로그가 없습니다." : logs.toString();
     }
 
+    @McpTool(
+        name = "ServerDoctor-get_error_trend",
+        description = "서버의 에러 추세(새로 발생 / 증가 중 / 비슷한 수준 / 감소 중)와 최근 60분 분당, 최근 24시간 시간당 ERROR 로그 수를 반환합니다."
+    )
+    public String getErrorTrend(
+        @McpToolParam(description = "대상 서버 이름") String serverName
+    ) {
+        return logService.describeErrorTrend(serverName);
+    }
+
     @McpTool(
         name = "ServerDoctor-register_server",
         description = "모니터링할 새로운 대상 서버를 등록하고, 연동 가이드(yml, env 등)를 생성합니다."
@@ -86,7 +99,7 @@ public class ServerDoctorMcpTools {
 
     @McpTool(
             name = "ServerDoctor-get_health_status",
-            description = "서버의 현재 Health 상태(UP/DOWN), 마지막 체크 시각, latency, stale 여부(60초 기준)를 반환합니다."
+            description = "서버의 현재 Health 상태(UP/DOWN), 마지막 체크 시각, latency, stale 여부(60초 기준)와 최근 1시간 가동률(uptime %), latency p50/p99 를 반환합니다."
     )
     public String getHealthStatus(
             @McpToolParam(description = "대상 서버 이름") String serverName
@@ -0,0 +1,155 @@
+package com.kakao.kakao_test.monitor;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.service.DiscordNotificationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Forwarder 침묵 감시 (서버가 조용히 죽은 경우를 물어보기 전에 먼저 감지)
+ * - 수신(로그/메트릭/Health) 시 마지막 수신 시각만 메모리에 기록 (O(1), 큐 조작 없음)
+ * - 서버당 최대 1개의 마감 시각(deadline)을 우선순위 큐에 두고, 만료된 것만 꺼내서 확인
+ *   (꺼냈는데 그 사이 수신이 있었다면 새 마감 시각으로 다시 넣음 = lazy reschedule)
+ * - 전체 테이블/전체 서버를 주기적으로 훑지 않으므로 등록 서버 수와 무관하게 비용이 작음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ForwarderWatchdog implements ServerScopedState {
+
+    private final DiscordNotificationService discordNotificationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${watchdog.silent-seconds:60}")
+    private int silentSeconds;
+
+    private LongSupplier clock = System::currentTimeMillis; // 테스트에서 시각 주입
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final PriorityBlockingQueue<Deadline> deadlines = new PriorityBlockingQueue<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("watchdog.tracked.servers", entries, Map::size)
+                .description("침묵 감시 중인 서버 수")
+                .register(meterRegistry);
+        Gauge.builder("watchdog.deadline.queue.size", deadlines, PriorityBlockingQueue::size)
+                .description("침묵 감시 마감 시각 큐 크기")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 수신 기록 (ingest 경로에서 호출)
+     * @param webhookUrl 알림 받을 디스코드 웹훅 (없으면 이전 값 유지)
+     */
+    public void touch(String serverName, String webhookUrl) {
+        long now = clock.getAsLong();
+        Entry entry = entries.computeIfAbsent(serverName, k -> new Entry());
+        entry.lastSeen = now;
+        if (webhookUrl != null && !webhookUrl.isBlank()) {
+            entry.webhookUrl = webhookUrl;
+        }
+
+        if (entry.silent) {
+            entry.silent = false;
+            log.info("📡 Forwarder 수신 재개 (서버: {})", serverName);
+        }
+
+        // 큐에 마감 시각이 없을 때만 추가 (대부분의 수신은 여기서 끝)
+        if (entry.scheduled.compareAndSet(false, true)) {
+            deadlines.add(new Deadline(serverName, now + silentSeconds * 1000L));
+        }
+    }
+
+    /**
+     * 마지막으로 받은 디스코드 웹훅 (스풀 재반영 시 알림 대상, 모르면 null)
+     */
+    public String webhookUrl(String serverName) {
+        Entry entry = entries.get(serverName);
+        return entry == null ? null : entry.webhookUrl;
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(entries.keySet());
+    }
+
+    @Override
+    public void forget(String serverName) {
+        entries.remove(serverName);
+    }
+
+    /**
+     * 마감 시각이 지난 항목만 확인
+     */
+    @Scheduled(fixedDelayString = "${watchdog.check-interval-ms:1000}")
+    public void checkDeadlines() {
+        long now = clock.getAsLong();
+        long timeoutMs = silentSeconds * 1000L;
+        List<SilentServer> silentServers = new ArrayList<>();
+
+        Deadline head;
+        while ((head = deadlines.peek()) != null && head.deadline() <= now) {
+            deadlines.poll();
+            Entry entry = entries.get(head.serverName());
+            if (entry == null) continue; // 감시 해제된 서버
+
+            long expected = entry.lastSeen + timeoutMs;
+            if (expected > now) {
+                // 그 사이 수신이 있었음 -> 새 마감 시각으로 다시 예약
+                deadlines.add(new Deadline(head.serverName(), expected));
+                continue;
+            }
+
+            entry.scheduled.set(false); // 다음 수신 때 다시 예약
+            if (entry.lastSeen + timeoutMs > now) {
+                // 예약 해제 직전에 수신이 끼어든 경우
+                if (entry.scheduled.compareAndSet(false, true)) {
+                    deadlines.add(new Deadline(head.serverName(), entry.lastSeen + timeoutMs));
+                }
+                continue;
+            }
+            entry.silent = true;
+            silentServers.add(new SilentServer(head.serverName(), entry.webhookUrl, now - entry.lastSeen));
+        }
+
+        for (SilentServer s : silentServers) {
+            log.warn("🔇 Forwarder 침묵 감지 (서버: {}, 마지막 수신 {}초 전)", s.serverName(), s.silentMs() / 1000);
+            meterRegistry.counter("watchdog.silent.alerts").increment();
+            discordNotificationService.sendErrorAlert(s.webhookUrl(), s.serverName(), String.format(
+                    "📡 Forwarder 로부터 %d초 이상 아무 데이터도 수신되지 않았습니다.\n서버 또는 forwarder 컨테이너가 중지되었는지 확인해주세요.",
+                    s.silentMs() / 1000));
+        }
+    }
+
+    private static class Entry {
+        private volatile long lastSeen;
+        private volatile String webhookUrl;
+        private volatile boolean silent;
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    }
+
+    private record Deadline(String serverName, long deadline) implements Comparable<Deadline> {
+        @Override
+        public int compareTo(Deadline o) {
+            return Long.compare(deadline, o.deadline);
+        }
+    }
+
+    private record SilentServer(String serverName, String webhookUrl, long silentMs) {}
+}
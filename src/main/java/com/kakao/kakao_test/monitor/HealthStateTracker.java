@@ -0,0 +1,427 @@
+package com.kakao.kakao_test.monitor;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.snapshot.SnapshotParticipant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 서버별 Health 상태를 메모리에서 관리
+ * - 매 probe 마다 DB 에 쓰지 않고, 상태 변화(UP -> DOWN, latency 구간 변화)와 주기적 압축 샘플만 저장하도록 판단
+ * - 가동률(uptime %) 과 latency p50/p99 를 1분 단위 슬롯 링버퍼로 점진적으로 유지 (서버당 고정 메모리)
+ * - latency 구간은 경계 근처에서 오갈 때마다 저장되지 않도록 margin + 연속 N회 확인 후에만 바뀐 것으로 봄
+ * - "마지막으로 저장한 상태"는 DB 커밋 후에 갱신 (롤백되면 다음 probe 에서 같은 상태 변화를 다시 저장)
+ */
+@Component
+public class HealthStateTracker implements ServerScopedState, SnapshotParticipant {
+
+    // latency 히스토그램 버킷 상한 (ms). 백분위수는 버킷 상한으로 근사
+    private static final long[] LATENCY_BUCKETS_MS = {
+            5, 10, 20, 50, 75, 100, 150, 200, 300, 500, 750, 1_000, 1_500, 2_000, 3_000, 5_000, 10_000, Long.MAX_VALUE
+    };
+    private static final long SLOT_MS = 60_000;
+
+    @Value("${health.stats.window-minutes:60}")
+    private int maxWindowMinutes;
+
+    @Value("${health.persist.compact-interval-seconds:300}")
+    private int compactIntervalSeconds;
+
+    @Value("${health.persist.latency-band-margin-percent:20}")
+    private int latencyBandMarginPercent;
+
+    @Value("${health.persist.latency-band-confirm-probes:3}")
+    private int latencyBandConfirmProbes;
+
+    private final Map<String, ServerHealthState> states = new ConcurrentHashMap<>();
+
+    /**
+     * probe 1건 반영
+     * @return DB 에 저장해야 하는지 여부와 이유
+     */
+    public Observation observe(String serverName, long ts, String status, long latencyMs, int httpStatus) {
+        ServerHealthState state = states.computeIfAbsent(serverName, k -> new ServerHealthState(maxWindowMinutes));
+        Observation obs;
+        synchronized (state) {
+            obs = state.observe(ts, status, latencyMs, httpStatus, compactIntervalSeconds * 1000L,
+                    latencyBandMarginPercent, latencyBandConfirmProbes);
+        }
+        if (obs.shouldPersist()) {
+            markPersistedAfterCommit(state, ts, status, obs);
+        }
+        return obs;
+    }
+
+    // 저장 기준 상태는 이벤트가 실제로 커밋된 뒤에 옮김 (트랜잭션 밖이면 바로)
+    private void markPersistedAfterCommit(ServerHealthState state, long ts, String status, Observation obs) {
+        Runnable mark = () -> {
+            synchronized (state) {
+                state.markPersisted(ts, status, obs);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mark.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mark.run();
+            }
+        });
+    }
+
+    /**
+     * 재시작 직후 등 메모리에 상태가 없을 때 DB 의 마지막 이벤트로 초기화
+     * (이미 상태가 있으면 무시)
+     */
+    public void seed(String serverName, long ts, String status, long latencyMs, int httpStatus) {
+        ServerHealthState state = states.computeIfAbsent(serverName, k -> new ServerHealthState(maxWindowMinutes));
+        synchronized (state) {
+            if (state.lastTs == 0) {
+                state.status = status;
+                state.latencyMs = latencyMs;
+                state.httpStatus = httpStatus;
+                state.lastTs = ts;
+                state.persistedStatus = status;
+                state.persistedBand = LatencyBand.of(latencyMs);
+                state.lastPersistedTs = ts;
+            }
+        }
+    }
+
+    /**
+     * 현재 상태 + 최근 windowMinutes 동안의 통계 (메모리에 없으면 null)
+     */
+    public Snapshot snapshot(String serverName, int windowMinutes) {
+        ServerHealthState state = states.get(serverName);
+        if (state == null) return null;
+        synchronized (state) {
+            if (state.lastTs == 0) return null;
+            return state.snapshot(Math.min(windowMinutes, maxWindowMinutes), System.currentTimeMillis());
+        }
+    }
+
+    public int getMaxWindowMinutes() {
+        return maxWindowMinutes;
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(states.keySet());
+    }
+
+    @Override
+    public void forget(String serverName) {
+        states.remove(serverName);
+    }
+
+    // 재시작 후에도 uptime / p50·p99 와 "마지막 저장 이후" 누적이 이어지도록 (DB 의 마지막 이벤트로 seed 하는 것보다 정확)
+    @Override
+    public String snapshotName() {
+        return "health.state";
+    }
+
+    @Override
+    public int snapshotVersion() {
+        return 2;
+    }
+
+    @Override
+    public void writeSnapshot(DataOutputStream out) throws IOException {
+        Map<String, ServerHealthState> copy = Map.copyOf(states);
+        out.writeInt(copy.size());
+        for (Map.Entry<String, ServerHealthState> e : copy.entrySet()) {
+            out.writeUTF(e.getKey());
+            synchronized (e.getValue()) {
+                e.getValue().write(out);
+            }
+        }
+    }
+
+    @Override
+    public void restoreSnapshot(DataInputStream in, long savedAtMillis) throws IOException {
+        Map<String, ServerHealthState> restored = new HashMap<>();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            String serverName = in.readUTF();
+            restored.put(serverName, ServerHealthState.read(in, maxWindowMinutes));
+        }
+        restored.forEach(states::putIfAbsent);
+    }
+
+    public enum LatencyBand {
+        FAST(0), NORMAL(100), SLOW(500), VERY_SLOW(2_000);
+
+        private final long lowerMs;
+
+        LatencyBand(long lowerMs) {
+            this.lowerMs = lowerMs;
+        }
+
+        static LatencyBand of(long latencyMs) {
+            LatencyBand[] bands = values();
+            for (int i = bands.length - 1; i > 0; i--) {
+                if (latencyMs >= bands[i].lowerMs) return bands[i];
+            }
+            return FAST;
+        }
+
+        /**
+         * 현재 구간을 기준으로 한 구간 판정
+         * - 느려지는 쪽은 경계 그대로, 빨라지는 쪽은 현재 구간 하한보다 marginPercent 만큼 더 내려가야 바뀜
+         */
+        static LatencyBand of(long latencyMs, LatencyBand current, int marginPercent) {
+            LatencyBand raw = of(latencyMs);
+            if (current == null || raw.ordinal() >= current.ordinal()) return raw;
+            return latencyMs * 100 < current.lowerMs * (100L - marginPercent) ? raw : current;
+        }
+    }
+
+    public enum PersistReason { NONE, TRANSITION, COMPACT }
+
+    /**
+     * observe 결과
+     * - previousStatus 는 마지막으로 저장한 상태
+     * - reason 이 COMPACT 면 직전 압축 이후 누적된 probe 수(compactedProbes)와 UP 비율을 함께 전달
+     */
+    public record Observation(PersistReason reason, String previousStatus, LatencyBand band,
+                              int compactedProbes, double compactedUptimePercent) {
+        public boolean shouldPersist() {
+            return reason != PersistReason.NONE;
+        }
+    }
+
+    public record Snapshot(
+            String status,
+            long lastTs,
+            long latencyMs,
+            int httpStatus,
+            int windowMinutes,
+            long probes,
+            double uptimePercent,
+            long p50LatencyMs,
+            long p99LatencyMs
+    ) {}
+
+    /**
+     * 서버 1대의 Health 상태
+     */
+    private static class ServerHealthState {
+        // 마지막 probe
+        private String status;
+        private long latencyMs;
+        private int httpStatus;
+        private long lastTs;
+
+        // 마지막으로 DB 에 저장(커밋)한 상태
+        private String persistedStatus;
+        private LatencyBand persistedBand;
+        private long lastPersistedTs;
+
+        // 저장된 구간과 다른 구간이 연속으로 나온 횟수
+        private LatencyBand pendingBand;
+        private int pendingBandProbes;
+
+        // 마지막 저장 이후 누적 (압축 샘플용)
+        private int probesSincePersist;
+        private int upSincePersist;
+
+        // 1분 슬롯 링버퍼
+        private final long[] slotStart;
+        private final int[] slotProbes;
+        private final int[] slotUp;
+        private final int[][] slotHistogram;
+
+        ServerHealthState(int slots) {
+            this.slotStart = new long[slots];
+            this.slotProbes = new int[slots];
+            this.slotUp = new int[slots];
+            this.slotHistogram = new int[slots][LATENCY_BUCKETS_MS.length];
+        }
+
+        Observation observe(long ts, String newStatus, long newLatencyMs, int newHttpStatus, long compactIntervalMs,
+                            int bandMarginPercent, int bandConfirmProbes) {
+            recordSlot(ts, newStatus, newLatencyMs);
+
+            status = newStatus;
+            latencyMs = newLatencyMs;
+            httpStatus = newHttpStatus;
+            lastTs = Math.max(lastTs, ts);
+            probesSincePersist++;
+            if ("UP".equals(newStatus)) upSincePersist++;
+
+            LatencyBand band = confirmedBand(newLatencyMs, bandMarginPercent, bandConfirmProbes);
+            boolean transition = persistedStatus == null || !persistedStatus.equals(newStatus) || band != persistedBand;
+            if (transition) {
+                return new Observation(PersistReason.TRANSITION, persistedStatus, band, 0, 0);
+            }
+            if (ts - lastPersistedTs >= compactIntervalMs) {
+                int probes = probesSincePersist;
+                double uptime = probes == 0 ? 0 : upSincePersist * 100.0 / probes;
+                return new Observation(PersistReason.COMPACT, persistedStatus, band, probes, uptime);
+            }
+            return new Observation(PersistReason.NONE, persistedStatus, band, 0, 0);
+        }
+
+        // 저장된 구간과 다른 구간이 bandConfirmProbes 번 연속으로 나와야 구간 변화로 봄
+        private LatencyBand confirmedBand(long newLatencyMs, int bandMarginPercent, int bandConfirmProbes) {
+            LatencyBand candidate = LatencyBand.of(newLatencyMs, persistedBand, bandMarginPercent);
+            if (persistedBand == null) return candidate;
+            if (candidate == persistedBand) {
+                pendingBand = null;
+                pendingBandProbes = 0;
+                return persistedBand;
+            }
+            if (candidate == pendingBand) {
+                pendingBandProbes++;
+            } else {
+                pendingBand = candidate;
+                pendingBandProbes = 1;
+            }
+            return pendingBandProbes >= bandConfirmProbes ? candidate : persistedBand;
+        }
+
+        // 이벤트가 커밋된 뒤 호출 - 이 사이에 들어온 probe 는 다음 압축 샘플에 남김
+        void markPersisted(long ts, String savedStatus, Observation obs) {
+            persistedStatus = savedStatus;
+            if (obs.band() != persistedBand) {
+                persistedBand = obs.band();
+                pendingBand = null;
+                pendingBandProbes = 0;
+            }
+            lastPersistedTs = Math.max(lastPersistedTs, ts);
+            if (obs.reason() == PersistReason.COMPACT) {
+                int compactedUp = (int) Math.round(obs.compactedProbes() * obs.compactedUptimePercent() / 100.0);
+                probesSincePersist = Math.max(0, probesSincePersist - obs.compactedProbes());
+                upSincePersist = Math.max(0, upSincePersist - compactedUp);
+            } else {
+                probesSincePersist = 0;
+                upSincePersist = 0;
+            }
+        }
+
+        private void recordSlot(long ts, String newStatus, long newLatencyMs) {
+            long start = ts - (ts % SLOT_MS);
+            int idx = (int) ((start / SLOT_MS) % slotStart.length);
+            if (slotStart[idx] > start) return; // 윈도우보다 오래된 probe 는 통계에서 제외
+            if (slotStart[idx] != start) {
+                // 오래된 슬롯 재사용
+                slotStart[idx] = start;
+                slotProbes[idx] = 0;
+                slotUp[idx] = 0;
+                Arrays.fill(slotHistogram[idx], 0);
+            }
+            slotProbes[idx]++;
+            if ("UP".equals(newStatus)) slotUp[idx]++;
+            slotHistogram[idx][bucketOf(newLatencyMs)]++;
+        }
+
+        Snapshot snapshot(int windowMinutes, long now) {
+            long from = now - windowMinutes * SLOT_MS;
+            long probes = 0, up = 0;
+            long[] merged = new long[LATENCY_BUCKETS_MS.length];
+
+            for (int i = 0; i < slotStart.length; i++) {
+                if (slotProbes[i] == 0 || slotStart[i] + SLOT_MS <= from) continue;
+                probes += slotProbes[i];
+                up += slotUp[i];
+                for (int b = 0; b < merged.length; b++) merged[b] += slotHistogram[i][b];
+            }
+
+            double uptime = probes == 0 ? 0.0 : up * 100.0 / probes;
+            return new Snapshot(status, lastTs, latencyMs, httpStatus, windowMinutes, probes, uptime,
+                    percentile(merged, probes, 0.50), percentile(merged, probes, 0.99));
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeBoolean(status != null);
+            if (status != null) out.writeUTF(status);
+            out.writeLong(latencyMs);
+            out.writeInt(httpStatus);
+            out.writeLong(lastTs);
+            out.writeBoolean(persistedStatus != null);
+            if (persistedStatus != null) {
+                out.writeUTF(persistedStatus);
+                out.writeByte(persistedBand.ordinal());
+            }
+            out.writeLong(lastPersistedTs);
+            out.writeInt(probesSincePersist);
+            out.writeInt(upSincePersist);
+            out.writeInt(slotStart.length);
+            out.writeInt(LATENCY_BUCKETS_MS.length);
+            for (int i = 0; i < slotStart.length; i++) {
+                out.writeLong(slotStart[i]);
+                out.writeInt(slotProbes[i]);
+                out.writeInt(slotUp[i]);
+                for (int h : slotHistogram[i]) out.writeInt(h);
+            }
+        }
+
+        // 슬롯 수(window-minutes)나 latency 버킷이 바뀌었으면 현재 상태만 복원하고 통계는 새로 쌓음
+        static ServerHealthState read(DataInputStream in, int slots) throws IOException {
+            ServerHealthState state = new ServerHealthState(slots);
+            state.status = in.readBoolean() ? in.readUTF() : null;
+            state.latencyMs = in.readLong();
+            state.httpStatus = in.readInt();
+            state.lastTs = in.readLong();
+            if (in.readBoolean()) {
+                state.persistedStatus = in.readUTF();
+                state.persistedBand = LatencyBand.values()[in.readUnsignedByte()];
+            }
+            state.lastPersistedTs = in.readLong();
+            state.probesSincePersist = in.readInt();
+            state.upSincePersist = in.readInt();
+
+            int savedSlots = in.readInt();
+            int savedBuckets = in.readInt();
+            boolean compatible = savedSlots == slots && savedBuckets == LATENCY_BUCKETS_MS.length;
+            for (int i = 0; i < savedSlots; i++) {
+                long start = in.readLong();
+                int probes = in.readInt();
+                int up = in.readInt();
+                int[] histogram = new int[savedBuckets];
+                for (int b = 0; b < savedBuckets; b++) histogram[b] = in.readInt();
+                if (compatible) {
+                    state.slotStart[i] = start;
+                    state.slotProbes[i] = probes;
+                    state.slotUp[i] = up;
+                    state.slotHistogram[i] = histogram;
+                }
+            }
+            return state;
+        }
+
+        private static long percentile(long[] histogram, long total, double p) {
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int b = 0; b < histogram.length; b++) {
+                seen += histogram[b];
+                if (seen >= rank) {
+                    // 마지막(무한대) 버킷은 바로 아래 상한으로 표기
+                    return LATENCY_BUCKETS_MS[b] == Long.MAX_VALUE ? LATENCY_BUCKETS_MS[b - 1] : LATENCY_BUCKETS_MS[b];
+                }
+            }
+            return LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 2];
+        }
+
+        private static int bucketOf(long latencyMs) {
+            for (int b = 0; b < LATENCY_BUCKETS_MS.length; b++) {
+                if (latencyMs <= LATENCY_BUCKETS_MS[b]) return b;
+            }
+            return LATENCY_BUCKETS_MS.length - 1;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.kakao.kakao_test.monitor;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.snapshot.SnapshotParticipant;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * 재전송(retry)된 이벤트/배치 중복 제거
+ * - forwarder 가 타임아웃 후 재전송하면 같은 eventId / X-BATCH-ID 가 다시 들어옴
+ * - 서버별로 2세대(현재/이전) 시간 버킷에 64bit 해시만 저장 -> window 동안의 ID 를 기억
+ * - 한 세대가 가득 차면 조기 교체하므로 서버당 메모리 상한이 고정됨
+ * - 메모리에서 놓친 중복(재시작 직후 등)은 DB 유니크 키(server_id, event_id)가 한 번 더 막음
+ * - 트랜잭션 안에서 본 ID 는 커밋된 뒤에 기록 (저장 실패한 배치의 재전송을 중복으로 오인하지 않도록)
+ */
+@Component
+@RequiredArgsConstructor
+public class IngestDeduplicator implements ServerScopedState, SnapshotParticipant {
+
+    public static final int MAX_EVENT_ID_LENGTH = 64; // DB event_id 컬럼 길이
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ingest.dedup.window-seconds:600}")
+    private int windowSeconds;
+
+    @Value("${ingest.dedup.max-ids-per-generation:65536}")
+    private int maxIdsPerGeneration;
+
+    private final Map<String, DedupWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * 처음 보는 ID 면 기록 후 true, 최근 window 안에 본 ID 면 false
+     * - 트랜잭션 안에서는 커밋 전까지 그 트랜잭션에만 보이는 대기 상태로 두고, 커밋된 뒤에 window 에 확정
+     * @param kind 이벤트 종류 (log / metric / batch)
+     */
+    public boolean firstSeen(String serverName, String kind, String id) {
+        if (id == null || id.isBlank()) return true; // ID 가 없으면 중복 판단 불가 -> 통과
+
+        long hash = hash(kind, id);
+        DedupWindow window = windows.computeIfAbsent(serverName, k -> new DedupWindow(maxIdsPerGeneration));
+        PendingIds pending = pendingIds();
+        boolean first;
+        synchronized (window) {
+            if (pending == null) {
+                first = window.addIfAbsent(hash, System.currentTimeMillis(), generationMs());
+            } else {
+                first = !window.contains(hash, System.currentTimeMillis(), generationMs()) && pending.add(window, hash);
+            }
+        }
+        if (!first) {
+            recordDropped(kind, 1);
+        }
+        return first;
+    }
+
+    // 현재 트랜잭션에서 새로 본 ID 모음 (트랜잭션 밖이면 null -> 바로 확정)
+    // - 커밋 전에 window 에 넣으면, 진행 중에 들어온 재전송을 중복으로 버린 뒤 원래 요청이 롤백될 때 데이터가 사라짐
+    // - 진행 중인 다른 트랜잭션의 ID 는 보이지 않으므로 그 사이의 재전송은 DB 유니크 키가 막음
+    private PendingIds pendingIds() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+
+        PendingIds pending = (PendingIds) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            PendingIds created = new PendingIds();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(IngestDeduplicator.this);
+                    if (status == STATUS_COMMITTED) {
+                        created.confirm(System.currentTimeMillis(), generationMs());
+                    }
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    // 세대 2개가 합쳐서 window 를 덮도록 세대 길이는 window 의 절반
+    private long generationMs() {
+        return windowSeconds * 500L;
+    }
+
+    /**
+     * DB 유니크 키로 걸러진 중복 등 외부에서 확인된 중복 건수 기록
+     */
+    public void recordDropped(String kind, int count) {
+        if (count <= 0) return;
+        meterRegistry.counter("ingest.duplicates.dropped", "type", kind).increment(count);
+    }
+
+    /**
+     * DB 에 저장할 형태로 ID 정리 (빈 값은 NULL, 컬럼보다 긴 ID 는 해시로 축약)
+     */
+    public static String normalizeId(String id) {
+        if (id == null || id.isBlank()) return null;
+        String trimmed = id.trim();
+        if (trimmed.length() <= MAX_EVENT_ID_LENGTH) return trimmed;
+        return "h:" + Long.toHexString(hash("", trimmed));
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(windows.keySet());
+    }
+
+    @Override
+    public void forget(String serverName) {
+        windows.remove(serverName);
+    }
+
+    // 배포 직후 forwarder 재전송이 몰릴 때 DB 유니크 키까지 가지 않고 메모리에서 걸러지도록
+    @Override
+    public String snapshotName() {
+        return "ingest.dedup";
+    }
+
+    @Override
+    public int snapshotVersion() {
+        return 1;
+    }
+
+    @Override
+    public void writeSnapshot(DataOutputStream out) throws IOException {
+        Map<String, DedupWindow> copy = Map.copyOf(windows);
+        out.writeInt(copy.size());
+        for (Map.Entry<String, DedupWindow> e : copy.entrySet()) {
+            out.writeUTF(e.getKey());
+            synchronized (e.getValue()) {
+                e.getValue().write(out);
+            }
+        }
+    }
+
+    @Override
+    public void restoreSnapshot(DataInputStream in, long savedAtMillis) throws IOException {
+        // window 보다 오래 전 스냅샷이면 기억하던 ID 가 전부 만료된 상태
+        if (System.currentTimeMillis() - savedAtMillis >= windowSeconds * 1000L) return;
+
+        Map<String, DedupWindow> restored = new HashMap<>();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            String serverName = in.readUTF();
+            DedupWindow window = new DedupWindow(maxIdsPerGeneration);
+            window.read(in);
+            restored.put(serverName, window);
+        }
+        restored.forEach(windows::putIfAbsent);
+    }
+
+    // FNV-1a 64bit + 종류 구분
+    private static long hash(String kind, String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < kind.length(); i++) {
+            h ^= kind.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= ':';
+        h *= 0x100000001b3L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h; // 0 은 빈 슬롯 표시용
+    }
+
+    /**
+     * 한 트랜잭션에서 새로 본 ID 목록 (서버별 window 단위)
+     */
+    private static class PendingIds {
+        private final Map<DedupWindow, LongSet> byWindow = new IdentityHashMap<>();
+
+        // 같은 트랜잭션 안에서 이미 본 ID 면 false (window 락 안에서 호출)
+        boolean add(DedupWindow window, long hash) {
+            LongSet ids = byWindow.computeIfAbsent(window, w -> new LongSet(16));
+            if (ids.contains(hash)) return false;
+            ids.add(hash);
+            return true;
+        }
+
+        void confirm(long now, long generationMs) {
+            byWindow.forEach((window, ids) -> {
+                synchronized (window) {
+                    ids.forEach(hash -> window.addIfAbsent(hash, now, generationMs));
+                }
+            });
+        }
+    }
+
+    /**
+     * 서버 1대의 중복 확인 윈도우 (현재 세대 + 이전 세대)
+     */
+    private static class DedupWindow {
+        private LongSet current;
+        private LongSet previous;
+        private long generationStartedAt;
+        private final int maxIds;
+
+        DedupWindow(int maxIds) {
+            this.maxIds = maxIds;
+            this.current = new LongSet(16);
+            this.previous = new LongSet(16);
+        }
+
+        boolean addIfAbsent(long hash, long now, long generationMs) {
+            if (contains(hash, now, generationMs)) {
+                return false;
+            }
+            current.add(hash);
+            return true;
+        }
+
+        boolean contains(long hash, long now, long generationMs) {
+            if (now - generationStartedAt >= generationMs || current.size() >= maxIds) {
+                // 세대 교체: 이전 세대를 버리고 현재 세대를 이전 세대로
+                previous = current;
+                current = new LongSet(16);
+                generationStartedAt = now;
+            }
+            return previous.contains(hash) || current.contains(hash);
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(generationStartedAt);
+            current.write(out);
+            previous.write(out);
+        }
+
+        void read(DataInputStream in) throws IOException {
+            generationStartedAt = in.readLong();
+            current = LongSet.read(in);
+            previous = LongSet.read(in);
+        }
+    }
+
+    /**
+     * 박싱 없는 long 해시셋 (open addressing, 선형 탐사)
+     */
+    private static class LongSet {
+        private long[] slots;
+        private int size;
+
+        LongSet(int capacity) {
+            this.slots = new long[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(long key) {
+            int mask = slots.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (slots[i] == 0) return false;
+                if (slots[i] == key) return true;
+            }
+        }
+
+        void add(long key) {
+            if ((size + 1) * 2 > slots.length) grow();
+            insert(slots, key);
+            size++;
+        }
+
+        void forEach(LongConsumer action) {
+            for (long k : slots) {
+                if (k != 0) action.accept(k);
+            }
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            for (long k : slots) {
+                if (k != 0) out.writeLong(k);
+            }
+        }
+
+        static LongSet read(DataInputStream in) throws IOException {
+            int n = in.readInt();
+            LongSet set = new LongSet(Math.max(16, Integer.highestOneBit(Math.max(1, n) * 2) << 1));
+            for (int i = 0; i < n; i++) {
+                set.add(in.readLong());
+            }
+            return set;
+        }
+
+        private void grow() {
+            long[] bigger = new long[slots.length * 2];
+            for (long k : slots) {
+                if (k != 0) insert(bigger, k);
+            }
+            slots = bigger;
+        }
+
+        private static void insert(long[] table, long key) {
+            int mask = table.length - 1;
+            int i = mix(key) & mask;
+            while (table[i] != 0 && table[i] != key) {
+                i = (i + 1) & mask;
+            }
+            table[i] = key;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.kakao.kakao_test.monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 수집 요청 1건의 JFR 이벤트 (JDK Mission Control 등에서 오프라인 분석)
+ * - 기록 중인 JFR 세션이 없으면 commit 비용이 거의 없음
+ * - 사용: java -XX:StartFlightRecording=filename=ingest.jfr ... 또는 jcmd <pid> JFR.start
+ */
+@Name("com.kakao.kakao_test.IngestTrace")
+@Label("Ingest Trace")
+@Category({"ServerDoctor", "Ingest"})
+@Description("수집 파이프라인 요청 1건의 단계별 소요 시간")
+@StackTrace(false)
+class IngestTraceEvent extends Event {
+
+    @Label("Pipeline")
+    String pipeline;
+
+    @Label("Server")
+    String serverName;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Total")
+    @Timespan(Timespan.NANOSECONDS)
+    long totalNanos;
+
+    @Label("Stages")
+    @Description("단계명=ms 목록")
+    String stages;
+}
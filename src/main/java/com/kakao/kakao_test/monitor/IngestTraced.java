@@ -0,0 +1,21 @@
+package com.kakao.kakao_test.monitor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 단계별 시간 추적 대상 수집 파이프라인 표시
+ * - 첫 번째 파라미터는 서버 이름이어야 함
+ * - 메서드 안에서 IngestTracer.mark("단계명") 으로 구간을 나눔
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IngestTraced {
+
+    /**
+     * 파이프라인 이름 (logs / metrics / health)
+     */
+    String value();
+}
@@ -0,0 +1,185 @@
+package com.kakao.kakao_test.monitor;
+
+import com.kakao.kakao_test.dto.IngestTraceDto;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 수집 요청 단계별 시간 추적 (프로세스 내부, 외부 트레이싱 시스템 없이)
+ * - 요청 스레드의 ThreadLocal 에 단계 구간(mark)을 기록, 요청이 끝나면 한 건의 trace 로 확정
+ * - 일부만 샘플링해서 고정 크기 링버퍼에 보관 (느린 요청과 실패한 요청은 항상 보관)
+ * - 모든 요청은 JFR 이벤트로도 남김 (기록 중인 JFR 세션이 있을 때만 실제로 저장)
+ */
+@Component
+public class IngestTracer {
+
+    private static final int MAX_STAGES = 16;
+    private static final String TAIL_STAGE = "commit"; // 마지막 mark 이후 ~ 종료 (트랜잭션 커밋 포함)
+
+    @Value("${ingest.trace.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${ingest.trace.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    @Value("${ingest.trace.buffer-size:256}")
+    private int bufferSize;
+
+    private final ThreadLocal<ActiveTrace> current = new ThreadLocal<>();
+
+    private IngestTraceDto[] ring;
+    private int ringHead;
+    private int ringCount;
+
+    @PostConstruct
+    void init() {
+        ring = new IngestTraceDto[bufferSize];
+    }
+
+    /**
+     * 추적 시작 (이미 추적 중이면 무시하고 false - 중첩 호출은 바깥 trace 로 합쳐짐)
+     */
+    public boolean begin(String pipeline, String serverName) {
+        if (current.get() != null) return false;
+        current.set(new ActiveTrace(pipeline, serverName));
+        return true;
+    }
+
+    /**
+     * 직전 mark(또는 시작) 부터 지금까지를 stage 구간으로 기록
+     */
+    public void mark(String stage) {
+        ActiveTrace t = current.get();
+        if (t != null) t.mark(stage, System.nanoTime());
+    }
+
+    /**
+     * 추적 종료 및 확정
+     */
+    public void end(String outcome) {
+        ActiveTrace t = current.get();
+        if (t == null) return;
+        current.remove();
+
+        long endNanos = System.nanoTime();
+        t.mark(TAIL_STAGE, endNanos);
+        long totalNanos = endNanos - t.startNanos;
+
+        t.event.end();
+        if (t.event.shouldCommit()) {
+            t.event.pipeline = t.pipeline;
+            t.event.serverName = t.serverName;
+            t.event.outcome = outcome;
+            t.event.totalNanos = totalNanos;
+            t.event.stages = t.stagesText();
+            t.event.commit();
+        }
+
+        double totalMs = totalNanos / 1_000_000.0;
+        boolean keep = totalMs >= slowThresholdMs
+                || !"success".equals(outcome)
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (keep) {
+            store(new IngestTraceDto(t.pipeline, t.serverName, Instant.ofEpochMilli(t.startEpochMs),
+                    totalMs, outcome, t.stages()));
+        }
+    }
+
+    /**
+     * 보관 중인 trace 중 가장 느린 순
+     * @param pipeline null 이면 전체
+     */
+    public List<IngestTraceDto> slowest(int limit, String pipeline) {
+        return snapshot().stream()
+                .filter(t -> pipeline == null || pipeline.equals(t.pipeline()))
+                .sorted(Comparator.comparingDouble(IngestTraceDto::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * 보관 중인 trace 중 최근 순
+     */
+    public List<IngestTraceDto> recent(int limit) {
+        List<IngestTraceDto> all = snapshot();
+        List<IngestTraceDto> result = new ArrayList<>(Math.min(limit, all.size()));
+        for (int i = all.size() - 1; i >= 0 && result.size() < limit; i--) {
+            result.add(all.get(i));
+        }
+        return result;
+    }
+
+    private synchronized void store(IngestTraceDto trace) {
+        ring[ringHead] = trace;
+        ringHead = (ringHead + 1) % ring.length;
+        ringCount = Math.min(ringCount + 1, ring.length);
+    }
+
+    // 오래된 순
+    private synchronized List<IngestTraceDto> snapshot() {
+        List<IngestTraceDto> list = new ArrayList<>(ringCount);
+        int start = (ringHead - ringCount + ring.length) % ring.length;
+        for (int i = 0; i < ringCount; i++) {
+            list.add(ring[(start + i) % ring.length]);
+        }
+        return list;
+    }
+
+    /**
+     * 진행 중인 요청 1건 (요청 스레드 전용이라 동기화 불필요)
+     */
+    private static class ActiveTrace {
+        private final String pipeline;
+        private final String serverName;
+        private final long startEpochMs = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private final IngestTraceEvent event = new IngestTraceEvent();
+
+        private final String[] names = new String[MAX_STAGES];
+        private final long[] durations = new long[MAX_STAGES];
+        private int count;
+        private long lastNanos;
+
+        ActiveTrace(String pipeline, String serverName) {
+            this.pipeline = pipeline;
+            this.serverName = serverName;
+            this.lastNanos = startNanos;
+            event.begin();
+        }
+
+        void mark(String stage, long now) {
+            if (count == MAX_STAGES) {
+                durations[count - 1] += now - lastNanos; // 초과분은 마지막 구간에 합산
+            } else {
+                names[count] = stage;
+                durations[count] = now - lastNanos;
+                count++;
+            }
+            lastNanos = now;
+        }
+
+        List<IngestTraceDto.Stage> stages() {
+            List<IngestTraceDto.Stage> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(new IngestTraceDto.Stage(names[i], durations[i] / 1_000_000.0));
+            }
+            return list;
+        }
+
+        String stagesText() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(names[i]).append('=').append(String.format("%.2f", durations[i] / 1_000_000.0));
+            }
+            return sb.toString();
+        }
+    }
+}
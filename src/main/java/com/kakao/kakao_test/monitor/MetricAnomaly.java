@@ -0,0 +1,20 @@
+package com.kakao.kakao_test.monitor;
+
+import java.time.Instant;
+
+/**
+ * 메트릭 스트림에서 감지된 이상 패턴
+ */
+public record MetricAnomaly(Type type, String serverName, long ts, String message) {
+
+    public enum Type {
+        SPIKE,       // 평소(EWMA) 대비 급격한 상승
+        SATURATION,  // 임계치 이상이 일정 시간 지속
+        LEAK         // 메모리 사용률이 꾸준히 증가하는 추세
+    }
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(ts) + " [" + type + "] " + message;
+    }
+}
@@ -0,0 +1,381 @@
+package com.kakao.kakao_test.monitor;
+
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.snapshot.SnapshotParticipant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메트릭 스트림 온라인 이상 탐지기
+ * - 메트릭 수신 시마다 서버별 통계를 O(1) 로 갱신 (DB 조회 없음)
+ * - 서버당 고정 크기 메모리만 사용 (EWMA 평균/분산 + 메모리 사용률 링버퍼)
+ *
+ * 감지 항목
+ * 1. SPIKE      : EWMA 평균 + k*표준편차 를 넘는 급상승 (단발성)
+ * 2. SATURATION : 임계치 이상이 N 샘플 연속 지속 (구간당 1회)
+ * 3. LEAK       : 최근 W 샘플의 메모리 사용률 선형회귀 기울기가 양수이고 추세가 뚜렷함 (구간당 1회)
+ */
+@Component
+public class MetricAnomalyDetector implements ServerScopedState, SnapshotParticipant {
+
+    private static final int WARMUP_SAMPLES = 10;   // 통계가 안정되기 전에는 SPIKE 판정 안 함
+    private static final int RECENT_ANOMALY_SIZE = 20;
+
+    @Value("${anomaly.ewma-alpha:0.1}")
+    private double alpha;
+
+    @Value("${anomaly.spike-sigma:3.0}")
+    private double spikeSigma;
+
+    @Value("${anomaly.spike-min-percent:50.0}")
+    private double spikeMinPercent;          // 이 값 미만이면 급상승이라도 무시 (5% -> 15% 같은 경우)
+
+    @Value("${anomaly.saturation.cpu-percent:80.0}")
+    private double saturationCpuPercent;
+
+    @Value("${anomaly.saturation.mem-percent:90.0}")
+    private double saturationMemPercent;
+
+    @Value("${anomaly.saturation.samples:6}")
+    private int saturationSamples;
+
+    @Value("${anomaly.leak.window:60}")
+    private int leakWindow;
+
+    @Value("${anomaly.leak.min-slope-per-min:0.5}")
+    private double leakMinSlopePerMin;       // 분당 메모리 사용률 증가(%p)
+
+    @Value("${anomaly.leak.min-r2:0.7}")
+    private double leakMinR2;
+
+    private final Map<String, ServerStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * 샘플 1개 반영 후 새로 감지된 이상 패턴 반환 (없으면 빈 리스트)
+     */
+    public List<MetricAnomaly> observe(String serverName, long ts, double cpuPercent, double memPercent) {
+        ServerStats s = stats.computeIfAbsent(serverName, k -> new ServerStats(leakWindow));
+        synchronized (s) {
+            return s.observe(serverName, ts, cpuPercent, memPercent);
+        }
+    }
+
+    /**
+     * 최근 감지된 이상 패턴 (오래된 순)
+     */
+    public List<MetricAnomaly> recentAnomalies(String serverName) {
+        ServerStats s = stats.get(serverName);
+        if (s == null) return List.of();
+        synchronized (s) {
+            return s.recentAnomalies();
+        }
+    }
+
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(stats.keySet());
+    }
+
+    @Override
+    public void forget(String serverName) {
+        stats.remove(serverName);
+    }
+
+    // 재시작마다 EWMA 워밍업과 누수 회귀 윈도우(기본 60샘플)를 처음부터 다시 채우지 않도록
+    @Override
+    public String snapshotName() {
+        return "metric.anomaly";
+    }
+
+    @Override
+    public int snapshotVersion() {
+        return 1;
+    }
+
+    @Override
+    public void writeSnapshot(DataOutputStream out) throws IOException {
+        Map<String, ServerStats> copy = Map.copyOf(stats);
+        out.writeInt(copy.size());
+        for (Map.Entry<String, ServerStats> e : copy.entrySet()) {
+            out.writeUTF(e.getKey());
+            synchronized (e.getValue()) {
+                e.getValue().write(out);
+            }
+        }
+    }
+
+    @Override
+    public void restoreSnapshot(DataInputStream in, long savedAtMillis) throws IOException {
+        Map<String, ServerStats> restored = new HashMap<>();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            String serverName = in.readUTF();
+            ServerStats s = new ServerStats(leakWindow);
+            s.read(serverName, in);
+            restored.put(serverName, s);
+        }
+        restored.forEach(stats::putIfAbsent);
+    }
+
+    /**
+     * 서버 1대의 스트리밍 통계
+     */
+    private class ServerStats {
+        // EWMA 평균/분산
+        private final Ewma cpu = new Ewma();
+        private final Ewma mem = new Ewma();
+        private long samples;
+
+        // 지속 포화 구간
+        private int saturatedRun;
+        private boolean saturationReported;
+
+        // 메모리 선형회귀 (x: 분 단위 경과 시간, y: 메모리 사용률) - 링버퍼 + 누적합
+        private final double[] xs;
+        private final double[] ys;
+        private int head;
+        private int count;
+        private double sx, sy, sxx, sxy, syy;
+        private long baseTs = -1;
+        private int sinceRecompute;
+        private boolean leakReported;
+
+        // 최근 이상 패턴 링버퍼
+        private final MetricAnomaly[] recent = new MetricAnomaly[RECENT_ANOMALY_SIZE];
+        private int recentHead;
+        private int recentCount;
+
+        ServerStats(int window) {
+            this.xs = new double[window];
+            this.ys = new double[window];
+        }
+
+        List<MetricAnomaly> observe(String serverName, long ts, double cpuPercent, double memPercent) {
+            List<MetricAnomaly> found = new ArrayList<>(1);
+
+            // 1. SPIKE (갱신 전 통계와 비교)
+            if (samples >= WARMUP_SAMPLES) {
+                if (cpu.isSpike(cpuPercent)) {
+                    found.add(new MetricAnomaly(MetricAnomaly.Type.SPIKE, serverName, ts, String.format(
+                            "CPU 급상승 %.1f%% (평소 %.1f%% ± %.1f)", cpuPercent, cpu.mean, cpu.std())));
+                }
+                if (mem.isSpike(memPercent)) {
+                    found.add(new MetricAnomaly(MetricAnomaly.Type.SPIKE, serverName, ts, String.format(
+                            "메모리 급상승 %.1f%% (평소 %.1f%% ± %.1f)", memPercent, mem.mean, mem.std())));
+                }
+            }
+            cpu.update(cpuPercent);
+            mem.update(memPercent);
+            samples++;
+
+            // 2. SATURATION
+            if (cpuPercent > saturationCpuPercent || memPercent > saturationMemPercent) {
+                saturatedRun++;
+                if (saturatedRun >= saturationSamples && !saturationReported) {
+                    saturationReported = true;
+                    found.add(new MetricAnomaly(MetricAnomaly.Type.SATURATION, serverName, ts, String.format(
+                            "리소스 포화 %d회 연속 (CPU %.1f%% / RAM %.1f%%)", saturatedRun, cpuPercent, memPercent)));
+                }
+            } else {
+                saturatedRun = 0;
+                saturationReported = false;
+            }
+
+            // 3. LEAK
+            addRegressionPoint(ts, memPercent);
+            if (count == xs.length) {
+                double slope = slope();
+                boolean leaking = slope >= leakMinSlopePerMin && r2() >= leakMinR2;
+                if (leaking && !leakReported) {
+                    leakReported = true;
+                    double minutesToFull = slope > 0 ? (100.0 - memPercent) / slope : Double.POSITIVE_INFINITY;
+                    found.add(new MetricAnomaly(MetricAnomaly.Type.LEAK, serverName, ts, String.format(
+                            "메모리 사용률이 분당 %.2f%%p 씩 증가 중 (현재 %.1f%%, 약 %.0f분 후 100%% 도달 예상)",
+                            slope, memPercent, minutesToFull)));
+                } else if (!leaking && slope < leakMinSlopePerMin / 2) {
+                    leakReported = false; // 추세가 충분히 꺾였을 때만 다시 알림 가능
+                }
+            }
+
+            for (MetricAnomaly a : found) {
+                recent[recentHead] = a;
+                recentHead = (recentHead + 1) % recent.length;
+                recentCount = Math.min(recentCount + 1, recent.length);
+            }
+            return found;
+        }
+
+        List<MetricAnomaly> recentAnomalies() {
+            List<MetricAnomaly> list = new ArrayList<>(recentCount);
+            int start = (recentHead - recentCount + recent.length) % recent.length;
+            for (int i = 0; i < recentCount; i++) {
+                list.add(recent[(start + i) % recent.length]);
+            }
+            return list;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            cpu.write(out);
+            mem.write(out);
+            out.writeLong(samples);
+            out.writeInt(saturatedRun);
+            out.writeBoolean(saturationReported);
+
+            out.writeInt(xs.length);
+            out.writeInt(head);
+            out.writeInt(count);
+            out.writeLong(baseTs);
+            out.writeInt(sinceRecompute);
+            out.writeBoolean(leakReported);
+            for (int i = 0; i < xs.length; i++) {
+                out.writeDouble(xs[i]);
+                out.writeDouble(ys[i]);
+            }
+
+            List<MetricAnomaly> anomalies = recentAnomalies();
+            out.writeInt(anomalies.size());
+            for (MetricAnomaly a : anomalies) {
+                out.writeUTF(a.type().name());
+                out.writeLong(a.ts());
+                out.writeUTF(a.message());
+            }
+        }
+
+        // 누수 윈도우 크기가 바뀌었으면 회귀 데이터만 버리고 EWMA/포화 상태는 유지
+        void read(String serverName, DataInputStream in) throws IOException {
+            cpu.read(in);
+            mem.read(in);
+            samples = in.readLong();
+            saturatedRun = in.readInt();
+            saturationReported = in.readBoolean();
+
+            int window = in.readInt();
+            int savedHead = in.readInt();
+            int savedCount = in.readInt();
+            long savedBaseTs = in.readLong();
+            int savedSinceRecompute = in.readInt();
+            boolean savedLeakReported = in.readBoolean();
+            boolean compatible = window == xs.length;
+            for (int i = 0; i < window; i++) {
+                double x = in.readDouble();
+                double y = in.readDouble();
+                if (compatible) {
+                    xs[i] = x;
+                    ys[i] = y;
+                }
+            }
+            if (compatible) {
+                head = savedHead;
+                count = savedCount;
+                baseTs = savedBaseTs;
+                sinceRecompute = savedSinceRecompute;
+                leakReported = savedLeakReported;
+                sx = sy = sxx = sxy = syy = 0;
+                for (int i = 0; i < count; i++) {
+                    sx += xs[i]; sy += ys[i]; sxx += xs[i] * xs[i]; sxy += xs[i] * ys[i]; syy += ys[i] * ys[i];
+                }
+            }
+
+            int anomalies = in.readInt();
+            for (int i = 0; i < anomalies; i++) {
+                MetricAnomaly.Type type = MetricAnomaly.Type.valueOf(in.readUTF());
+                MetricAnomaly a = new MetricAnomaly(type, serverName, in.readLong(), in.readUTF());
+                recent[recentHead] = a;
+                recentHead = (recentHead + 1) % recent.length;
+                recentCount = Math.min(recentCount + 1, recent.length);
+            }
+        }
+
+        private void addRegressionPoint(long ts, double y) {
+            if (baseTs < 0) baseTs = ts;
+            double x = (ts - baseTs) / 60_000.0;
+
+            if (count == xs.length) {
+                // 가장 오래된 점 제거
+                double ox = xs[head], oy = ys[head];
+                sx -= ox; sy -= oy; sxx -= ox * ox; sxy -= ox * oy; syy -= oy * oy;
+            } else {
+                count++;
+            }
+            xs[head] = x;
+            ys[head] = y;
+            head = (head + 1) % xs.length;
+            sx += x; sy += y; sxx += x * x; sxy += x * y; syy += y * y;
+
+            // 뺄셈 누적 오차 방지: 윈도우 크기마다 한 번 재계산 (분할 상환 O(1))
+            if (++sinceRecompute >= xs.length) {
+                sinceRecompute = 0;
+                sx = sy = sxx = sxy = syy = 0;
+                for (int i = 0; i < count; i++) {
+                    sx += xs[i]; sy += ys[i]; sxx += xs[i] * xs[i]; sxy += xs[i] * ys[i]; syy += ys[i] * ys[i];
+                }
+            }
+        }
+
+        private double slope() {
+            double denom = count * sxx - sx * sx;
+            return denom <= 0 ? 0.0 : (count * sxy - sx * sy) / denom;
+        }
+
+        private double r2() {
+            double varX = count * sxx - sx * sx;
+            double varY = count * syy - sy * sy;
+            if (varX <= 0 || varY <= 0) return 0.0;
+            double cov = count * sxy - sx * sy;
+            return (cov * cov) / (varX * varY);
+        }
+    }
+
+    /**
+     * 지수가중 이동평균/분산
+     */
+    private class Ewma {
+        private double mean;
+        private double variance;
+        private boolean initialized;
+
+        void update(double value) {
+            if (!initialized) {
+                mean = value;
+                initialized = true;
+                return;
+            }
+            double diff = value - mean;
+            double incr = alpha * diff;
+            mean += incr;
+            variance = (1 - alpha) * (variance + diff * incr);
+        }
+
+        boolean isSpike(double value) {
+            // 분산이 0에 가까운 평탄한 구간에서도 작은 흔들림을 급상승으로 보지 않도록 최소 폭 1%p
+            double threshold = mean + spikeSigma * Math.max(std(), 1.0);
+            return value > threshold && value >= spikeMinPercent;
+        }
+
+        double std() {
+            return Math.sqrt(variance);
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeBoolean(initialized);
+            out.writeDouble(mean);
+            out.writeDouble(variance);
+        }
+
+        void read(DataInputStream in) throws IOException {
+            initialized = in.readBoolean();
+            mean = in.readDouble();
+            variance = in.readDouble();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.kakao.kakao_test.repository;
+
+import com.kakao.kakao_test.domain.AlertRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+
+    List<AlertRule> findByServerNameOrderById(String serverName);
+
+    List<AlertRule> findByServerNameAndEnabledTrue(String serverName);
+
+    Optional<AlertRule> findByIdAndServerName(Long id, String serverName);
+}
@@ -0,0 +1,31 @@
+package com.kakao.kakao_test.repository;
+
+import com.kakao.kakao_test.domain.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    /**
+     * heartbeat 갱신 (dirty check 없이 직접 UPDATE)
+     * @return 0 이면 아직 등록되지 않은 노드 (또는 죽은 노드로 정리된 뒤)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ClusterNode n SET n.lastHeartbeatAt = :now, n.advertiseUrl = :url WHERE n.nodeId = :nodeId")
+    int touch(@Param("nodeId") String nodeId, @Param("url") String advertiseUrl, @Param("now") LocalDateTime now);
+
+    List<ClusterNode> findByLastHeartbeatAtAfter(LocalDateTime threshold);
+
+    // 오래전에 떠난 노드 행 정리
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClusterNode n WHERE n.lastHeartbeatAt < :threshold")
+    int deleteStale(@Param("threshold") LocalDateTime threshold);
+}
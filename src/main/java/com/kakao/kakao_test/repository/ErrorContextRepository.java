@@ -0,0 +1,38 @@
+package com.kakao.kakao_test.repository;
+
+import com.kakao.kakao_test.domain.ErrorContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ErrorContextRepository extends JpaRepository<ErrorContext, Long> {
+
+    /**
+     * 에러 그룹의 전후 로그를 최신 캡처로 교체 (없으면 생성, 조회 없이 한 번의 INSERT)
+     * - 새 값은 행 별칭(new)으로 참조 (VALUES() 는 MySQL 8.0.20 부터 deprecated, 별칭은 8.0.19+)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO error_context (server_name, fingerprint, level, message, occurred_at, context_lines, captures, captured_at)
+            VALUES (:serverName, :fingerprint, :level, :message, :occurredAt, :contextLines, 1, :capturedAt) AS new
+            ON DUPLICATE KEY UPDATE
+                level = new.level, message = new.message, occurred_at = new.occurred_at,
+                context_lines = new.context_lines, captures = error_context.captures + 1, captured_at = new.captured_at
+            """, nativeQuery = true)
+    int upsert(@Param("serverName") String serverName,
+               @Param("fingerprint") String fingerprint,
+               @Param("level") String level,
+               @Param("message") String message,
+               @Param("occurredAt") LocalDateTime occurredAt,
+               @Param("contextLines") String contextLines,
+               @Param("capturedAt") LocalDateTime capturedAt);
+
+    List<ErrorContext> findByServerNameAndFingerprintIn(String serverName, Collection<String> fingerprints);
+}
@@ -0,0 +1,48 @@
+package com.kakao.kakao_test.repository;
+
+import com.kakao.kakao_test.domain.LogCountResolution;
+import com.kakao.kakao_test.domain.LogLevelCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface LogLevelCountRepository extends JpaRepository<LogLevelCount, Long> {
+
+    /**
+     * 구간 1개에 이번 주기 증가분을 더함 (없으면 생성, 조회 없이 한 번의 INSERT)
+     * - 증가분은 행 별칭(new)으로 참조 (VALUES() 는 deprecated)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO log_level_count (server_name, resolution, bucket_start, debug_count, info_count, warn_count, error_count, other_count)
+            VALUES (:serverName, :resolution, :bucketStart, :debug, :info, :warn, :error, :other) AS new
+            ON DUPLICATE KEY UPDATE
+                debug_count = log_level_count.debug_count + new.debug_count,
+                info_count = log_level_count.info_count + new.info_count,
+                warn_count = log_level_count.warn_count + new.warn_count,
+                error_count = log_level_count.error_count + new.error_count,
+                other_count = log_level_count.other_count + new.other_count
+            """, nativeQuery = true)
+    int addCounts(@Param("serverName") String serverName,
+                  @Param("resolution") String resolution,
+                  @Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("debug") long debug,
+                  @Param("info") long info,
+                  @Param("warn") long warn,
+                  @Param("error") long error,
+                  @Param("other") long other);
+
+    List<LogLevelCount> findByServerNameAndResolutionAndBucketStartGreaterThanEqual(
+            String serverName, LogCountResolution resolution, LocalDateTime from);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LogLevelCount c WHERE c.resolution = :resolution AND c.bucketStart < :before")
+    int deleteExpired(@Param("resolution") LogCountResolution resolution, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,64 @@
+package com.kakao.kakao_test.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * bulk INSERT 전에 이미 저장된 (server_id, event_id) 행을 걸러냄
+ * - Connector/J 기본값(useAffectedRows=false)에서는 ON DUPLICATE KEY UPDATE 의 영향 행 수가 중복도 1로 세므로,
+ *   INSERT 결과만으로는 새 행과 재전송 중복을 구분할 수 없음 -> 배치의 이벤트 ID 를 먼저 조회
+ * - 같은 배치 안에서 반복된 이벤트 ID 는 첫 번째만 남김, 이벤트 ID 가 없는 행은 항상 남김
+ */
+final class NewEventFilter {
+
+    private static final int IDS_PER_QUERY = 500;
+
+    private NewEventFilter() {
+    }
+
+    static <T> List<T> filter(JdbcTemplate jdbcTemplate, String table, List<T> rows,
+                              Function<T, Long> serverId, Function<T, String> eventId) {
+        // 서버별 이벤트 ID (보통 배치 하나 = 서버 하나)
+        Map<Long, Set<String>> idsByServer = new LinkedHashMap<>();
+        for (T row : rows) {
+            String id = eventId.apply(row);
+            if (id != null) idsByServer.computeIfAbsent(serverId.apply(row), k -> new HashSet<>()).add(id);
+        }
+        if (idsByServer.isEmpty()) return rows;
+
+        Map<Long, Set<String>> existing = new HashMap<>();
+        idsByServer.forEach((server, ids) -> existing.put(server, existingIds(jdbcTemplate, table, server, ids)));
+
+        List<T> fresh = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            String id = eventId.apply(row);
+            // add 가 false 면 DB 에 있거나 이번 배치에서 이미 나온 ID
+            if (id == null || existing.get(serverId.apply(row)).add(id)) fresh.add(row);
+        }
+        return fresh.size() == rows.size() ? rows : Collections.unmodifiableList(fresh);
+    }
+
+    private static Set<String> existingIds(JdbcTemplate jdbcTemplate, String table, Long serverId, Set<String> ids) {
+        Set<String> found = new HashSet<>();
+        List<String> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += IDS_PER_QUERY) {
+            List<String> chunk = all.subList(from, Math.min(all.size(), from + IDS_PER_QUERY));
+            String sql = "SELECT event_id FROM " + table + " WHERE server_id = ? AND event_id IN ("
+                    + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(serverId);
+            args.addAll(chunk);
+            found.addAll(jdbcTemplate.queryForList(sql, String.class, args.toArray()));
+        }
+        return found;
+    }
+}
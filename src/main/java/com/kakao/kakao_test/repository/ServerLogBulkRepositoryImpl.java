@@ -0,0 +1,56 @@
+package com.kakao.kakao_test.repository;
+
+import com.kakao.kakao_test.domain.ServerLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ServerLogBulkRepositoryImpl implements ServerLogBulkRepository {
+
+    private static final int ROWS_PER_STATEMENT = 200; // 메시지가 길 수 있어 메트릭보다 작게
+    private static final String INSERT_PREFIX =
+            "INSERT INTO server_log (server_id, level, message, occurred_at, event_id, exception_class, created_at, updated_at) VALUES ";
+    private static final String ON_DUPLICATE = " ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public int bulkInsert(List<ServerLog> input) {
+        // 이미 저장된 이벤트는 INSERT 전에 제외 (영향 행 수로는 중복을 구분할 수 없음)
+        List<ServerLog> logs = NewEventFilter.filter(jdbcTemplate, "server_log", input,
+                l -> l.getServer().getId(), ServerLog::getEventId);
+        // JPA Auditing 을 거치지 않으므로 생성/수정 시각은 직접 채움
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int inserted = 0;
+        for (int from = 0; from < logs.size(); from += ROWS_PER_STATEMENT) {
+            List<ServerLog> chunk = logs.subList(from, Math.min(logs.size(), from + ROWS_PER_STATEMENT));
+
+            // ON DUPLICATE KEY UPDATE id = id: 조회와 INSERT 사이에 같은 이벤트가 동시에 들어온 경우의 안전망
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+            List<Object> args = new ArrayList<>(chunk.size() * 8);
+            for (int i = 0; i < chunk.size(); i++) {
+                ServerLog l = chunk.get(i);
+                sql.append(i == 0 ? "(?,?,?,?,?,?,?,?)" : ",(?,?,?,?,?,?,?,?)");
+                args.add(l.getServer().getId());
+                args.add(l.getLevel());
+                args.add(l.getMessage());
+                args.add(Timestamp.valueOf(l.getOccurredAt()));
+                args.add(l.getEventId());
+                args.add(l.getExceptionClass());
+                args.add(now);
+                args.add(now);
+            }
+            sql.append(ON_DUPLICATE);
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        meterRegistry.counter("db.rows.written", "table", "server_log").increment(inserted);
+        return inserted;
+    }
+}
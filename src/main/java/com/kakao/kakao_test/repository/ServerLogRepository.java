@@ -2,15 +2,32 @@ package com.kakao.kakao_test.repository;
 
 import com.kakao.kakao_test.domain.ServerLog;
 import com.kakao.kakao_test.domain.TargetServer;
+import com.kakao.kakao_test.repository.projection.LogLine;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface ServerLogRepository extends JpaRepository<ServerLog, Long> {
+public interface ServerLogRepository extends JpaRepository<ServerLog, Long>, ServerLogBulkRepository {
     // 특정 서버의 최신 로그 100개 가져오기
     List<ServerLog> findTop100ByServerOrderByOccurredAtDesc(TargetServer server);
     
     // 특정 서버의 에러 로그만 최신순 조회
     List<ServerLog> findByServerAndLevelOrderByOccurredAtDesc(TargetServer server, String level, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * 최신 로그 (분석용 컬럼만, 최신순)
+     * - TargetServer 엔티티를 먼저 조회하지 않고 서버 이름으로 바로 조회
+     * - 생성자 projection 이라 영속성 컨텍스트에 올라가지 않음
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT new com.kakao.kakao_test.repository.projection.LogLine(l.occurredAt, l.level, l.message) " +
+            "FROM ServerLog l WHERE l.server.serverName = :serverName ORDER BY l.occurredAt DESC")
+    List<LogLine> findRecentLines(@Param("serverName") String serverName, Limit limit);
+}
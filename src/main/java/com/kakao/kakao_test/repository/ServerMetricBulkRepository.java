@@ -0,0 +1,19 @@
+package com.kakao.kakao_test.repository;
+
+import com.kakao.kakao_test.domain.ServerMetric;
+
+import java.util.List;
+
+/**
+ * 메트릭 대량 저장 (JPA saveAll 은 IDENTITY 전략이라 1건씩 INSERT 됨)
+ */
+public interface ServerMetricBulkRepository {
+
+    /**
+     * multi-row INSERT 로 저장
+     * - (server_id, event_id) 가 이미 있는 행은 INSERT 전에 조회해 제외 (재전송 중복, 같은 배치 안의 반복 포함)
+     * - 중복 외의 오류(컬럼 길이 초과, FK 위반 등)는 INSERT IGNORE 처럼 경고로 삼키지 않고 예외로 올림
+     * @return 새로 저장한 행 수 (전부 중복이면 0, 조회와 INSERT 사이에 동시에 들어온 같은 이벤트만 예외적으로 포함될 수 있음)
+     */
+    int bulkInsert(List<ServerMetric> metrics);
+}
@@ -2,12 +2,19 @@ package com.kakao.kakao_test.repository;
 
 import com.kakao.kakao_test.domain.ServerMetric;
 import com.kakao.kakao_test.domain.TargetServer;
+import com.kakao.kakao_test.repository.projection.MetricSample;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface ServerMetricRepository extends JpaRepository<ServerMetric, Integer> {
+public interface ServerMetricRepository extends JpaRepository<ServerMetric, Integer>, ServerMetricBulkRepository {
 
     /**
      * 가장 최근의 Metrics 를 가져옴
@@ -18,4 +25,15 @@ public interface ServerMetricRepository extends JpaRepository<ServerMetric, Inte
      * 최근 50개의 Metrics 를 가져옴
      */
     List<ServerMetric> findTop50ByServerOrderByCapturedAtDesc(TargetServer server);
+
+    /**
+     * 최신 메트릭 (분석용 컬럼만, 최신순)
+     * - TargetServer 엔티티를 먼저 조회하지 않고 서버 이름으로 바로 조회
+     * - 생성자 projection 이라 영속성 컨텍스트에 올라가지 않음, NULL 은 0 으로
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT new com.kakao.kakao_test.repository.projection.MetricSample(" +
+            "m.capturedAt, COALESCE(m.cpuUsage, 0.0), COALESCE(m.memoryUsedMb, 0.0), COALESCE(m.memoryMaxMb, 0.0)) " +
+            "FROM ServerMetric m WHERE m.server.serverName = :serverName ORDER BY m.capturedAt DESC")
+    List<MetricSample> findRecentSamples(@Param("serverName") String serverName, Limit limit);
 }
@@ -0,0 +1,8 @@
+package com.kakao.kakao_test.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 로그 분석에 필요한 컬럼만 담은 조회 결과 (엔티티/서버 프록시 없이)
+ */
+public record LogLine(LocalDateTime occurredAt, String level, String message) {}
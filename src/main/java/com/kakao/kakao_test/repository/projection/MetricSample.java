@@ -0,0 +1,13 @@
+package com.kakao.kakao_test.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 메트릭 분석에 필요한 컬럼만 담은 조회 결과 (boxed Double 대신 primitive)
+ */
+public record MetricSample(LocalDateTime capturedAt, double cpuUsage, double memoryUsedMb, double memoryMaxMb) {
+
+    public double memPercent() {
+        return memoryMaxMb > 0 ? memoryUsedMb / memoryMaxMb * 100.0 : 0.0;
+    }
+}
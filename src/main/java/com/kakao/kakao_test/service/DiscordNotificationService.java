@@ -1,29 +1,46 @@
 package com.kakao.kakao_test.service;
 
+import com.kakao.kakao_test.cluster.ServerScopedState;
+import com.kakao.kakao_test.http.OutboundHttp;
+import com.kakao.kakao_test.snapshot.SnapshotParticipant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class DiscordNotificationService {
+public class DiscordNotificationService implements ServerScopedState, SnapshotParticipant {
 
-    // 쿨타임 관리
+    // 쿨타임 관리 (규칙 알림은 AlertRuleEngine 이 규칙별로 관리)
     private final Map<String, Long> lastSentTime = new ConcurrentHashMap<>();
-    private static final long COOLDOWN_MS = 10 * 60 * 1000; // 10분
 
-    private final RestClient restClient = RestClient.create();
+    @Value("${alert.defaults.cooldown-seconds:600}")
+    private long cooldownSeconds;
+
+    // 스트리밍 전송 시 메시지 수정(edit) 간격 (디스코드 웹훅 rate limit: 2초당 5회)
+    private static final long STREAM_EDIT_INTERVAL_MS = 1500;
+    private static final int CHUNK_SIZE = 1900;
+
+    private final OutboundHttp outboundHttp;
 
     /**
      * [1] 시스템 에러 알림용 (쿨타임 적용 O)
-     * - 짧은 에러 로그 전송 시 사용
-     * - 10분 내 재발송 방지
+     * - 메트릭 이상 패턴 / forwarder 무응답 알림에 사용
+     * - 서버별 alert.defaults.cooldown-seconds(기본 10분) 내 재발송 방지
      */
     public void sendErrorAlert(String webhookUrl, String serverName, String message) {
         if (checkCooldown(serverName)) {
@@ -39,6 +56,15 @@ public class DiscordNotificationService {
         lastSentTime.put(serverName, System.currentTimeMillis());
     }
 
+    /**
+     * [1-1] 알림 규칙 발동 (서버 단위 쿨타임 적용 X)
+     * - 쿨타임은 AlertRuleEngine 이 규칙별로 이미 적용함 -> 한 규칙이 울려도 다른 규칙 알림은 막히지 않음
+     */
+    public void sendRuleAlert(String webhookUrl, String serverName, String ruleName, String message) {
+        String formattedMsg = String.format("## 🚨 [%s] 서버 경고 · %s\n>>> %s", serverName, ruleName, message);
+        sendToDiscord(webhookUrl, formattedMsg);
+    }
+
     /**
      * [2] AI 리포트 / 일반 메시지용 (쿨타임 적용 X)
      * - 사용자가 요청한 AI 진단 결과 전송 시 사용
@@ -49,6 +75,15 @@ public class DiscordNotificationService {
         sendToDiscord(webhookUrl, message);
     }
 
+    /**
+     * [3] AI 리포트 스트리밍 전송용 (쿨타임 적용 X)
+     * - 첫 메시지를 보낸 뒤, 생성되는 내용을 모아서 같은 메시지를 주기적으로 수정(edit)
+     * - 1900자를 넘으면 새 메시지로 이어서 전송
+     */
+    public DiscordStream openStream(String webhookUrl, String header) {
+        return new DiscordStream(webhookUrl, header);
+    }
+
     /**
      * [내부 메서드] 실제 전송 로직
      * - 2000자 제한 처리 (자동 분할 전송)
@@ -70,7 +105,7 @@ public class DiscordNotificationService {
 
     // 메시지가 길 경우 1900자 단위로 잘라서 여러 번 보냄
     private void sendSplitMessages(String webhookUrl, String message) {
-        int chunkSize = 1900; // 여유 있게 1900자
+        int chunkSize = CHUNK_SIZE; // 여유 있게 1900자
         int length = message.length();
 
         for (int i = 0; i < length; i += chunkSize) {
@@ -86,7 +121,7 @@ public class DiscordNotificationService {
     private void sendRequest(String webhookUrl, String content) {
         Map<String, String> payload = Map.of("content", content);
 
-        restClient.post()
+        outboundHttp.restClient().post()
                 .uri(webhookUrl)
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(payload)
@@ -96,9 +131,191 @@ public class DiscordNotificationService {
         log.info("✅ 디스코드 메시지 발송 완료");
     }
 
+    @Override
+    public Set<String> trackedServers() {
+        return Set.copyOf(lastSentTime.keySet());
+    }
+
+    // 소유권이 다른 노드로 넘어가면 쿨타임도 그 노드에서 새로 시작
+    @Override
+    public void forget(String serverName) {
+        lastSentTime.remove(serverName);
+    }
+
+    // 재배포 직후 같은 경고가 다시 나가지 않도록 쿨타임을 스냅샷으로 이어감
+    @Override
+    public String snapshotName() {
+        return "discord.cooldown";
+    }
+
+    @Override
+    public int snapshotVersion() {
+        return 1;
+    }
+
+    @Override
+    public void writeSnapshot(DataOutputStream out) throws IOException {
+        Map<String, Long> copy = Map.copyOf(lastSentTime);
+        out.writeInt(copy.size());
+        for (Map.Entry<String, Long> e : copy.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeLong(e.getValue());
+        }
+    }
+
+    @Override
+    public void restoreSnapshot(DataInputStream in, long savedAtMillis) throws IOException {
+        long now = System.currentTimeMillis();
+        Map<String, Long> restored = new HashMap<>();
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            String serverName = in.readUTF();
+            long sentAt = in.readLong();
+            if (now - sentAt < cooldownSeconds * 1000) restored.put(serverName, sentAt);
+        }
+        lastSentTime.putAll(restored);
+    }
+
     private boolean checkCooldown(String serverName) {
         long now = System.currentTimeMillis();
         long last = lastSentTime.getOrDefault(serverName, 0L);
-        return (now - last) < COOLDOWN_MS;
+        return (now - last) < cooldownSeconds * 1000;
+    }
+
+    /**
+     * 스트리밍 리포트 1건의 전송 상태
+     * - append 는 버퍼에만 쌓고, 일정 간격이 지났을 때만 디스코드에 반영 (요청 수 절약)
+     * - 웹훅 URL 이 없으면 아무것도 하지 않음
+     * - 락을 잡은 채로 HTTP 호출을 하므로 synchronized 대신 ReentrantLock (가상 스레드 pinning 방지)
+     * - 1900자에서 확정한 메시지의 전송이 실패하면 버리지 않고 보관했다가 다음 flush 때 순서대로 다시 보냄
+     */
+    public class DiscordStream {
+        private final String webhookUrl;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final StringBuilder current = new StringBuilder(); // 현재 수정 중인 메시지 내용
+        private String messageId;                                  // 현재 메시지 ID (첫 전송 후 채워짐)
+        private long lastFlushAt;
+        private boolean dirty;
+        private final ArrayDeque<Chunk> unsent = new ArrayDeque<>(); // 확정했지만 아직 반영 못 한 이전 메시지들
+
+        private DiscordStream(String webhookUrl, String header) {
+            this.webhookUrl = (webhookUrl == null || webhookUrl.isBlank()) ? null : webhookUrl;
+            if (header != null) current.append(header);
+            this.dirty = !current.isEmpty();
+        }
+
+        public void append(String delta) {
+            if (webhookUrl == null || delta == null || delta.isEmpty()) return;
+
+            lock.lock();
+            try {
+                appendLocked(delta);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public void complete() {
+            if (webhookUrl == null) return;
+            lock.lock();
+            try {
+                if (dirty || !unsent.isEmpty()) flush();
+                if (!unsent.isEmpty()) {
+                    // 마지막 재시도도 실패 -> 남은 내용은 잘라서라도 새 메시지로 보냄
+                    StringBuilder rest = new StringBuilder();
+                    unsent.forEach(c -> rest.append(c.content()));
+                    if (dirty) rest.append(current);
+                    unsent.clear();
+                    log.warn("⚠️ 디스코드 스트리밍 리포트 일부({}자)를 분할 전송으로 다시 보냄", rest.length());
+                    sendToDiscord(webhookUrl, rest.toString());
+                }
+            } finally {
+                lock.unlock();
+            }
+            log.info("✅ 디스코드 스트리밍 리포트 전송 완료");
+        }
+
+        private void appendLocked(String delta) {
+            current.append(delta);
+            dirty = true;
+
+            // 1900자를 넘었으면 현재 메시지를 확정하고 나머지는 새 메시지로
+            while (current.length() > CHUNK_SIZE) {
+                unsent.add(new Chunk(messageId, current.substring(0, CHUNK_SIZE)));
+                current.delete(0, CHUNK_SIZE);
+                messageId = null;
+                dirty = true;
+                flushUnsent();
+            }
+
+            if (System.currentTimeMillis() - lastFlushAt >= STREAM_EDIT_INTERVAL_MS) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            // 이전 메시지가 아직 밀려 있으면 순서가 뒤집히지 않도록 현재 메시지는 다음 기회에
+            if (!flushUnsent() || current.isEmpty()) {
+                lastFlushAt = System.currentTimeMillis();
+                return;
+            }
+            try {
+                if (messageId == null) {
+                    messageId = createMessage(webhookUrl, current.toString());
+                    // id 를 못 받으면 수정이 불가능하므로, 보낸 내용은 비우고 이후 내용은 새 메시지로 이어서 보냄
+                    if (messageId == null) current.setLength(0);
+                } else {
+                    editMessage(webhookUrl, messageId, current.toString());
+                }
+                dirty = false;
+            } catch (Exception e) {
+                log.error("❌ 디스코드 스트리밍 전송 실패: {}", e.getMessage());
+            }
+            lastFlushAt = System.currentTimeMillis();
+        }
+
+        // 밀려 있는 이전 메시지를 순서대로 반영 (하나라도 실패하면 거기서 멈추고 false)
+        private boolean flushUnsent() {
+            while (!unsent.isEmpty()) {
+                Chunk chunk = unsent.peek();
+                try {
+                    if (chunk.messageId() == null) {
+                        createMessage(webhookUrl, chunk.content());
+                    } else {
+                        editMessage(webhookUrl, chunk.messageId(), chunk.content());
+                    }
+                } catch (Exception e) {
+                    log.error("❌ 디스코드 스트리밍 전송 실패 (다음 flush 에 재시도): {}", e.getMessage());
+                    return false;
+                }
+                unsent.poll();
+            }
+            return true;
+        }
+    }
+
+    // 스트리밍 중 1900자에서 확정된 메시지 1개 (messageId 가 null 이면 아직 만들지 못한 메시지)
+    private record Chunk(String messageId, String content) {}
+
+    // wait=true 로 보내야 생성된 메시지 객체(id 포함)를 돌려받음
+    @SuppressWarnings("unchecked")
+    private String createMessage(String webhookUrl, String content) {
+        Map<String, Object> res = outboundHttp.restClient().post()
+                .uri(webhookUrl + (webhookUrl.contains("?") ? "&" : "?") + "wait=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("content", content))
+                .retrieve()
+                .body(Map.class);
+        return (res == null || res.get("id") == null) ? null : String.valueOf(res.get("id"));
+    }
+
+    private void editMessage(String webhookUrl, String messageId, String content) {
+        String base = webhookUrl.contains("?") ? webhookUrl.substring(0, webhookUrl.indexOf('?')) : webhookUrl;
+        outboundHttp.restClient().method(HttpMethod.PATCH)
+                .uri(base + "/messages/" + messageId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("content", content))
+                .retrieve()
+                .toBodilessEntity();
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,27 @@
 package com.kakao.kakao_test.service;
 
+import com.kakao.kakao_test.alert.AlertRuleEngine;
+import com.kakao.kakao_test.config.datasource.PrimaryRead;
 import com.kakao.kakao_test.domain.ServerHealthEvent;
 import com.kakao.kakao_test.domain.TargetServer;
 import com.kakao.kakao_test.dto.HealthIngestDto;
+import com.kakao.kakao_test.dto.HealthTransitionDto;
+import com.kakao.kakao_test.monitor.ForwarderWatchdog;
+import com.kakao.kakao_test.monitor.HealthStateTracker;
+import com.kakao.kakao_test.monitor.IngestTraced;
+import com.kakao.kakao_test.monitor.IngestTracer;
 import com.kakao.kakao_test.repository.ServerHealthEventRepository;
 import com.kakao.kakao_test.repository.TargetServerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -17,10 +29,22 @@ public class HealthService {
 
     private final TargetServerRepository targetServerRepository;
     private final ServerHealthEventRepository healthEventRepository;
+    private final HealthStateTracker healthStateTracker;
+    private final ForwarderWatchdog forwarderWatchdog;
+    private final MeterRegistry meterRegistry;
+    private final IngestTracer ingestTracer;
+    private final AlertRuleEngine alertRuleEngine;
     private static final int STALE_SECONDS = 60; // 60초가 지나면 오래된 정보로 인식하여 서버가 죽었다 판단
 
+    /**
+     * Health probe 수신
+     * - 현재 상태는 메모리(HealthStateTracker)에서 관리
+     * - DB 에는 상태 변화(UP -> DOWN, latency 구간 변화)와 주기적인 압축 샘플만 저장
+     * - 건강한 서버가 몇 초마다 보내는 probe 는 DB 쓰기 없이 끝남
+     */
     @Transactional
-    public void saveHealth(String serverName, HealthIngestDto dto, String token) {
+    @IngestTraced("health")
+    public void saveHealth(String serverName, HealthIngestDto dto, String token, String discordWebhookUrl) {
         // 1) 서버/토큰 검증
         TargetServer server = targetServerRepository.findByServerName(serverName)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown serverName: " + serverName));
@@ -29,54 +53,114 @@ public class HealthService {
             throw new SecurityException("Invalid token");
         }
 
+        forwarderWatchdog.touch(serverName, discordWebhookUrl);
+        ingestTracer.mark("server_lookup");
+
         // 2) 입력 정규화
         String newStatus = normalizeStatus(dto.status(), dto.httpStatus());
         long ts = (dto.ts() > 0) ? dto.ts() : System.currentTimeMillis();
-        String safeMsg = safeMessage(dto.message());
 
-        // 3) 이벤트 저장(이력)
+        // 3) 메모리 상태 갱신 + 저장 여부 판단
+        HealthStateTracker.Observation obs =
+                healthStateTracker.observe(serverName, ts, newStatus, dto.latencyMs(), dto.httpStatus());
+        ingestTracer.mark("state_update");
+
+        // 서버별 알림 규칙 평가 (N회 연속 DOWN)
+        if (alertRuleEngine.onHealth(serverName, discordWebhookUrl, newStatus) > 0) {
+            ingestTracer.mark("discord_alert");
+        }
+        if (!obs.shouldPersist()) {
+            return;
+        }
+
+        // 4) 이벤트 저장(이력) - 상태 변화 또는 압축 샘플
+        String message = (obs.reason() == HealthStateTracker.PersistReason.COMPACT)
+                ? String.format("[compact] %d probes, UP %.1f%%", obs.compactedProbes(), obs.compactedUptimePercent())
+                : safeMessage(dto.message());
+
         healthEventRepository.save(ServerHealthEvent.builder()
                 .serverName(serverName)
                 .ts(ts)
                 .status(newStatus)
                 .latencyMs(dto.latencyMs())
                 .httpStatus(dto.httpStatus())
-                .message(safeMsg)
+                .message(message)
                 .build());
+        meterRegistry.counter("db.rows.written", "table", "server_health_event").increment();
+        ingestTracer.mark("db_insert");
 
-        server.updateHealthSnapshot(newStatus, dto.latencyMs(), dto.httpStatus());
-        log.info("Server Health Check 완료 (서버 : {})", serverName);
+        // 스냅샷 컬럼은 상태가 바뀔 때만 갱신
+        if (obs.reason() == HealthStateTracker.PersistReason.TRANSITION) {
+            server.updateHealthSnapshot(newStatus, dto.latencyMs(), dto.httpStatus());
+            log.info("Server Health 상태 변화 (서버 : {}, {} -> {})", serverName, obs.previousStatus(), newStatus);
+        }
     }
 
     /**
      * 최근 수신된 Health Check 정보를 반환
+     * - 메모리 상태로 응답하고, 최근 구간의 가동률과 latency p50/p99 를 함께 제공
+     * - 재시작 직후처럼 메모리에 없으면 DB 의 마지막 이벤트로 초기화
      */
+    @PrimaryRead // staleness(마지막 수신 시각) 판단은 복제 지연 없이
     @Transactional(readOnly = true)
     public String getHealthStatusForMcp(String serverName) {
-        ServerHealthEvent latestOpt = healthEventRepository.findTop1ByServerNameOrderByTsDesc(serverName).orElseThrow(
-                () -> new IllegalArgumentException("Health 데이터가 없습니다. forwarder HEALTH_URL 및 health ingest 설정을 확인하세요. (serverName=" +
-                        serverName + ")")
-        );
+        int window = healthStateTracker.getMaxWindowMinutes();
+        HealthStateTracker.Snapshot snap = healthStateTracker.snapshot(serverName, window);
 
+        if (snap == null) {
+            ServerHealthEvent latest = healthEventRepository.findTop1ByServerNameOrderByTsDesc(serverName).orElseThrow(
+                    () -> new IllegalArgumentException("Health 데이터가 없습니다. forwarder HEALTH_URL 및 health ingest 설정을 확인하세요. (serverName=" +
+                            serverName + ")")
+            );
+            healthStateTracker.seed(serverName, latest.getTs(), latest.getStatus(), latest.getLatencyMs(), latest.getHttpStatus());
+            snap = healthStateTracker.snapshot(serverName, window);
+        }
 
         long now = System.currentTimeMillis();
-        long ageMs = now - latestOpt.getTs();
+        long ageMs = now - snap.lastTs();
         boolean stale = ageMs > (STALE_SECONDS * 1000L);
 
-        String lastAt = java.time.Instant.ofEpochMilli(latestOpt.getTs()).toString();
+        String lastAt = java.time.Instant.ofEpochMilli(snap.lastTs()).toString();
+
+        String windowStats = snap.probes() == 0
+                ? String.format("Uptime(%dm): 데이터 없음", snap.windowMinutes())
+                : String.format("Uptime(%dm): %.2f%% (%d probes)\nLatency p50/p99(%dm): ≈%dms / ≈%dms",
+                        snap.windowMinutes(), snap.uptimePercent(), snap.probes(),
+                        snap.windowMinutes(), snap.p50LatencyMs(), snap.p99LatencyMs());
 
         return String.format(
-                "Health: %s\nLastCheck: %s (%.1fs ago)\nHTTP: %d\nLatency: %dms\nStale(>%ds): %s",
-                latestOpt.getStatus(),
+                "Health: %s\nLastCheck: %s (%.1fs ago)\nHTTP: %d\nLatency: %dms\nStale(>%ds): %s\n%s",
+                snap.status(),
                 lastAt,
                 ageMs / 1000.0,
-                latestOpt.getHttpStatus(),
-                latestOpt.getLatencyMs(),
+                snap.httpStatus(),
+                snap.latencyMs(),
                 STALE_SECONDS,
-                stale ? "YES" : "NO"
+                stale ? "YES" : "NO",
+                windowStats
         );
     }
 
+    /**
+     * 최근 Health 상태 변화 목록 (진단 컨텍스트용, 시간순)
+     * - 같은 상태가 이어지는 구간은 첫 이벤트만 남김
+     */
+    @Transactional(readOnly = true)
+    public List<HealthTransitionDto> findRecentTransitions(String serverName) {
+        List<ServerHealthEvent> events = new ArrayList<>(healthEventRepository.findTop100ByServerNameOrderByTsDesc(serverName));
+        Collections.reverse(events);
+
+        List<HealthTransitionDto> transitions = new ArrayList<>();
+        String prev = null;
+        for (ServerHealthEvent e : events) {
+            if (!e.getStatus().equals(prev)) {
+                transitions.add(new HealthTransitionDto(e.getTs(), prev, e.getStatus(), e.getLatencyMs(), e.getHttpStatus()));
+                prev = e.getStatus();
+            }
+        }
+        return transitions;
+    }
+
     private String normalizeStatus(String status, int httpStatus) {
         // forwarder가 status를 못 읽는 경우도 있으니 httpStatus로 보정
         if (status == null || status.isBlank()) {
@@ -1,15 +1,27 @@
 package com.kakao.kakao_test.service;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kakao.kakao_test.dto.OpenAiRequest;
 import com.kakao.kakao_test.dto.OpenAiResponse;
+import com.kakao.kakao_test.dto.OpenAiStreamChunk;
+import com.kakao.kakao_test.http.OutboundHttp;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -19,22 +31,23 @@ public class LlmClientService {
     @Value("${openai.api-key}")
     private String apiKey;
 
-    private final RestClient restClient = RestClient.create();
+    // 로컬 가짜 스트리밍 서버로 테스트할 수 있도록 주소를 분리
+    @Value("${openai.base-url:https://api.openai.com}")
+    private String baseUrl;
+
+    private final MeterRegistry meterRegistry;
+    private final OutboundHttp outboundHttp;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
     public String analyze(String systemPrompt, String userContent) {
         log.info("🤖 LLM에게 분석 요청 중...");
 
-        OpenAiRequest request = OpenAiRequest.builder()
-                .model("gpt-4o-mini") // 가성비 모델 (또는 gpt-3.5-turbo)
-                .messages(List.of(
-                        OpenAiRequest.Message.builder().role("system").content(systemPrompt).build(),
-                        OpenAiRequest.Message.builder().role("user").content(userContent).build()
-                ))
-                .build();
+        OpenAiRequest request = buildRequest(systemPrompt, userContent, null);
 
         try {
-            OpenAiResponse response = restClient.post()
-                    .uri("https://api.openai.com/v1/chat/completions")
+            OpenAiResponse response = outboundHttp.restClient().post()
+                    .uri(baseUrl + "/v1/chat/completions")
                     .header("Authorization", "Bearer " + apiKey)
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(request)
@@ -50,4 +63,102 @@ public class LlmClientService {
         }
         return "분석 결과가 없습니다.";
     }
-}
\ No newline at end of file
+
+    /**
+     * 스트리밍 분석
+     * - stream=true 로 요청하여 토큰이 생성되는 즉시 onDelta 로 전달
+     * - 첫 토큰까지 걸린 시간(TTFT)을 메트릭으로 기록
+     * - 반환값은 전체 응답 (analyze 와 동일한 의미)
+     */
+    public String analyzeStream(String systemPrompt, String userContent, Consumer<String> onDelta) {
+        log.info("🤖 LLM에게 스트리밍 분석 요청 중...");
+
+        OpenAiRequest request = buildRequest(systemPrompt, userContent, true);
+        StringBuilder full = new StringBuilder();
+        long startNanos = System.nanoTime();
+
+        try {
+            outboundHttp.restClient().post()
+                    .uri(baseUrl + "/v1/chat/completions")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .body(request)
+                    .exchange((req, res) -> {
+                        if (res.getStatusCode().isError()) {
+                            throw new IllegalStateException("HTTP " + res.getStatusCode().value());
+                        }
+                        readStream(res.getBody(), startNanos, full, onDelta);
+                        return null;
+                    });
+        } catch (Exception e) {
+            log.error("LLM 스트리밍 호출 실패: {}", e.getMessage());
+            String failMsg = "AI 분석 서버 연결 실패: " + e.getMessage();
+            // 이미 일부가 전달된 경우라도 실패 사유를 이어서 보여줌
+            onDelta.accept(full.isEmpty() ? failMsg : "\n\n" + failMsg);
+            return full.isEmpty() ? failMsg : full + "\n\n" + failMsg;
+        } finally {
+            Timer.builder("llm.stream.duration")
+                    .description("LLM 스트리밍 응답 전체 소요 시간")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (full.isEmpty()) {
+            String empty = "분석 결과가 없습니다.";
+            onDelta.accept(empty);
+            return empty;
+        }
+        return full.toString();
+    }
+
+    // "data: {...}" 라인을 한 줄씩 읽어 delta 를 꺼냄 ("data: [DONE]" 에서 종료)
+    private void readStream(InputStream body, long startNanos, StringBuilder full, Consumer<String> onDelta)
+            throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) continue;
+
+                String data = line.substring(5).trim();
+                if ("[DONE]".equals(data)) break;
+
+                String delta = extractDelta(data);
+                if (delta == null || delta.isEmpty()) continue;
+
+                if (full.isEmpty()) {
+                    Timer.builder("llm.stream.time_to_first_token")
+                            .description("LLM 스트리밍 첫 토큰 수신까지 걸린 시간")
+                            .publishPercentiles(0.5, 0.99)
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                }
+                full.append(delta);
+                onDelta.accept(delta);
+            }
+        }
+    }
+
+    private String extractDelta(String data) {
+        try {
+            OpenAiStreamChunk chunk = objectMapper.readValue(data, OpenAiStreamChunk.class);
+            if (chunk.getChoices() == null || chunk.getChoices().isEmpty()) return null;
+            OpenAiStreamChunk.Delta delta = chunk.getChoices().get(0).getDelta();
+            return delta == null ? null : delta.getContent();
+        } catch (Exception e) {
+            log.warn("스트리밍 chunk 파싱 실패 (무시함): {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private OpenAiRequest buildRequest(String systemPrompt, String userContent, Boolean stream) {
+        return OpenAiRequest.builder()
+                .model("gpt-4o-mini") // 가성비 모델 (또는 gpt-3.5-turbo)
+                .messages(List.of(
+                        OpenAiRequest.Message.builder().role("system").content(systemPrompt).build(),
+                        OpenAiRequest.Message.builder().role("user").content(userContent).build()
+                ))
+                .stream(stream)
+                .build();
+    }
+}
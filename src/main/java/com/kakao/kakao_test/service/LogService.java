@@ -1,20 +1,41 @@
 package com.kakao.kakao_test.service;
 
+import com.kakao.kakao_test.alert.AlertRuleEngine;
+import com.kakao.kakao_test.diagnosis.DiagnosisContextBuilder;
+import com.kakao.kakao_test.domain.ErrorContext;
+import com.kakao.kakao_test.domain.LogCountResolution;
 import com.kakao.kakao_test.domain.ServerLog;
 import com.kakao.kakao_test.domain.TargetServer;
 import com.kakao.kakao_test.dto.*;
+import com.kakao.kakao_test.exception.BadRequestException;
+import com.kakao.kakao_test.exception.NotFoundException;
 import com.kakao.kakao_test.exception.UnauthorizedException;
-import com.kakao.kakao_test.repository.ServerLogRepository;
+import com.kakao.kakao_test.ingest.ErrorContextRecorder;
+import com.kakao.kakao_test.ingest.ErrorTrend;
+import com.kakao.kakao_test.ingest.LogLevelCounter;
+import com.kakao.kakao_test.ingest.LogLineClassifier;
+import com.kakao.kakao_test.ingest.LogSampler;
+import com.kakao.kakao_test.ingest.StackTrace;
+import com.kakao.kakao_test.ingest.StackTraceReassembler;
+import com.kakao.kakao_test.logstore.LogStore;
+import com.kakao.kakao_test.monitor.ForwarderWatchdog;
+import com.kakao.kakao_test.monitor.IngestDeduplicator;
+import com.kakao.kakao_test.monitor.IngestTraced;
+import com.kakao.kakao_test.monitor.IngestTracer;
+import com.kakao.kakao_test.repository.ErrorContextRepository;
 import com.kakao.kakao_test.repository.TargetServerRepository;
+import com.kakao.kakao_test.repository.projection.LogLine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Function;
 
 @Service
 @Slf4j
@@ -23,9 +44,20 @@ import java.util.*;
 public class LogService {
 
     private final TargetServerRepository targetServerRepository;
-    private final ServerLogRepository serverLogRepository;
-    private final DiscordNotificationService discordNotificationService;
+    private final LogStore logStore;
+    private final AlertRuleEngine alertRuleEngine;
     private final ServerHeartbeatService serverHeartbeatService;
+    private final DiagnosisContextBuilder contextBuilder;
+    private final ForwarderWatchdog forwarderWatchdog;
+    private final IngestDeduplicator ingestDeduplicator;
+    private final IngestTracer ingestTracer;
+    private final LogSampler logSampler;
+    private final StackTraceReassembler stackTraceReassembler;
+    private final ErrorContextRecorder errorContextRecorder;
+    private final LogLevelCounter logLevelCounter;
+    private final ErrorContextRepository errorContextRepository;
+
+    private static final int RECENT_LOG_LIMIT = 100;
 
     /**
      * 서버 이름 가져오기 (없으면 에러)
@@ -38,129 +70,256 @@ public class LogService {
     /**
      * 로그 수신(PUSH) 및 저장
      * 1. 토큰 검증
-     * 2. DB 저장
-     * 3. 에러 감지 시 카카오 알림
+     * 2. 재전송 중복 제거 (배치 ID / 이벤트 ID)
+     * 3. 스택트레이스 재조립, 에러 전후 로그 캡처, 일반 로그 샘플링
+     * 4. DB 저장
+     * 5. 레벨별 로그 수 집계, 서버별 알림 규칙 평가
      */
     @Transactional
-    public IngestResultDto ingestLogs(String serverName, String mcpToken, String discordWebhookUrl, List<LogEventDto> events) {
+    @IngestTraced("logs")
+    public IngestResultDto ingestLogs(String serverName, String mcpToken, String discordWebhookUrl,
+                                      String batchId, List<LogEventDto> events) {
         TargetServer server = getServerOrThrow(serverName);
         verifyToken(server, mcpToken);
+        ingestTracer.mark("server_lookup");
 
         if (events == null || events.isEmpty()) {
             return new IngestResultDto(serverName, 0, "수신할 로그가 없습니다.");
         }
         // 1. 하트비트 갱신 (x-lock 을 얻어야 하므로 다른 트렌젝션으로 빼며 데드락을 회피)
         serverHeartbeatService.updateHeartbeatQuickly(server.getId());
+        forwarderWatchdog.touch(serverName, discordWebhookUrl);
+        ingestTracer.mark("heartbeat");
 
-        // 2. DTO -> Entity 변환
-        List<ServerLog> logsToSave = events.stream()
+        // 2. 이미 처리한 배치의 재전송이면 저장/알림 없이 성공 응답 (forwarder 가 재시도를 멈추도록)
+        if (!ingestDeduplicator.firstSeen(serverName, "batch", batchId)) {
+            log.info("{} 서버의 중복 로그 배치 무시 (batchId: {})", serverName, batchId);
+            return new IngestResultDto(serverName, 0, "이미 처리된 배치입니다.");
+        }
+
+        List<LogEventDto> fresh = events.stream()
+                .filter(e -> ingestDeduplicator.firstSeen(serverName, "log", e.getEventId()))
+                .toList();
+        if (fresh.isEmpty()) {
+            return new IngestResultDto(serverName, 0, "모두 이미 처리된 로그입니다.");
+        }
+
+        ingestTracer.mark("dedup");
+
+        // 3. 한 줄씩 온 스택트레이스를 이벤트 1건으로 합치고, 에러 전후 로그 캡처 (샘플링 전 원본 기준) 후 샘플링:
+        //    WARN/ERROR/예외 줄과 에러 직전 context 는 전부, 일반 로그는 일부만 + 분당 요약 1줄
+        List<LogEventDto> assembled = stackTraceReassembler.reassemble(serverName, fresh);
+        Function<LogEventDto, StackTrace> traceOf = stackTraces(); // 캡처 fingerprint 와 exception_class 가 같은 파싱 결과를 씀
+        errorContextRecorder.record(serverName, assembled, traceOf);
+        List<LogEventDto> sampled = logSampler.sample(serverName, assembled);
+
+        // 4. DTO -> Entity 변환
+        List<ServerLog> logsToSave = sampled.stream()
                 .map(e -> ServerLog.builder()
                         .server(server)
                         .level(e.getLevel())
                         .message(e.getMessage())
                         .occurredAt(convertTimestamp(e.getTs()))
+                        .eventId(IngestDeduplicator.normalizeId(e.getEventId()))
+                        .exceptionClass(Optional.ofNullable(traceOf.apply(e)).map(StackTrace::exceptionClass).orElse(null))
                         .build())
                 .toList();
 
-        // 3. DB 저장 (Batch Insert 효과)
-        serverLogRepository.saveAll(logsToSave);
-        log.info("{} 서버로부터 수신된 {} 개의 로그를 저장", serverName, logsToSave.size());
+        ingestTracer.mark("sampling");
 
-        // 4. 에러 감지 및 알림 (단순 텍스트 전송)
-        List<String> errorLogs = events.stream()
-                .filter(e -> "ERROR".equalsIgnoreCase(e.getLevel()))
-                .map(LogEventDto::getMessage)
-                .toList();
+        // 5. 저장 (MySQL: multi-row INSERT + DB 유니크 키에서 걸러진 중복 집계 / segment: 로컬 세그먼트 파일)
+        int saved = logStore.append(logsToSave);
+        ingestTracer.mark("db_insert");
+        int dbDuplicates = logsToSave.size() - saved;
+        ingestDeduplicator.recordDropped("log", dbDuplicates);
+        log.info("{} 서버로부터 수신된 {} 개의 로그를 저장 (중복 {}건 제외, 스택트레이스 {}줄 병합, 샘플링 {}건 생략)",
+                serverName, saved, events.size() - fresh.size() + dbDuplicates, fresh.size() - assembled.size(),
+                assembled.size() - sampled.size());
 
-        if (!errorLogs.isEmpty()) {
-            String firstError = errorLogs.getFirst();
-            String shortError = firstError.length() > 200
-                    ? firstError.substring(0, 200) + "..."
-                    : firstError;
-            String alertMsg = createDiscordMessage(shortError);
+        // 6. 레벨별 로그 수 집계 (분/시간 구간, 주기적으로 log_level_count 에 반영)
+        if (saved > 0) {
+            logLevelCounter.record(serverName, assembled);
+        }
 
-            // 사용자 토큰으로 디스코드 알림 발송
-            discordNotificationService.sendErrorAlert(discordWebhookUrl, serverName, alertMsg);
+        // 7. 서버별 알림 규칙 평가 (에러 비율 / 예외 패턴, 규칙이 없으면 첫 ERROR 알림)
+        //    전부 DB 에서 중복으로 걸러진 경우(재시작 직후 재전송)는 이미 평가했으므로 생략
+        if (saved > 0 && alertRuleEngine.onLogs(serverName, discordWebhookUrl, assembled) > 0) {
+            ingestTracer.mark("discord_alert");
         }
 
-        return new IngestResultDto(serverName, logsToSave.size(), "로그 저장 완료");
+        return new IngestResultDto(serverName, saved, "로그 저장 완료");
     }
 
-    private String createDiscordMessage(String shortError) {
-        return String.format("""
-            📋 **내용 요약:**
-            `%s`
-            """, shortError
-        );
+    /**
+     * 샘플링 요약 주기 저장
+     * - 분이 바뀌어야 요약이 나오므로, 로그가 끊긴 서버는 마지막 분의 요약이 다음 배치가 올 때까지 남지 않음
+     */
+    @Scheduled(fixedDelayString = "${ingest.sampling.summary-flush-interval-ms:15000}")
+    @Transactional
+    public void flushSamplingSummaries() {
+        logSampler.drainFinishedSummaries(System.currentTimeMillis()).forEach((serverName, summary) ->
+                targetServerRepository.findByServerName(serverName).ifPresent(server -> logStore.append(List.of(
+                        ServerLog.builder()
+                                .server(server)
+                                .level(summary.getLevel())
+                                .message(summary.getMessage())
+                                .occurredAt(convertTimestamp(summary.getTs()))
+                                .build()))));
     }
 
     /**
      * 로그 분석 (LLM 도구용)
-     * DB에서 최근 로그를 조회하여 요약
+     * DB에서 최근 로그를 조회하여 같은 형태의 에러끼리 묶고, 토큰 예산 안에서 중요한 것부터 요약
      */
     public ErrorLogAnalysisDto analyzeErrorLogs(String name) {
-        TargetServer server = getServerOrThrow(name);
+        // 1. 가장 최근 로그 100개 가져오기 (필요한 컬럼만, 서버 엔티티 조회 없이)
+        List<LogLine> recentLogs = new ArrayList<>(logStore.findRecentLines(name, RECENT_LOG_LIMIT));
 
-        // 1. 가장 최근 로그 100개 가져오기
-        List<ServerLog> recentLogs = serverLogRepository.findTop100ByServerOrderByOccurredAtDesc(server);
+        if (recentLogs.isEmpty()) {
+            requireServer(name);
+            return new ErrorLogAnalysisDto(name, List.of(), 0, "✅ 수집된 로그가 없습니다.", List.of());
+        }
 
         // 2. 최근 로그 100개를 역순으로 뒤집어 사건의 순서대로 보여줌.
         Collections.reverse(recentLogs);
 
-        if (recentLogs.isEmpty()) {
-            return new ErrorLogAnalysisDto(name, List.of(), 0, "✅ 수집된 로그가 없습니다.");
-        }
+        // 3. 에러 그룹화 (fingerprint 기준, 발생 순서 유지)
+        Map<String, ErrorGroupAccumulator> groups = new LinkedHashMap<>();
+        int errorCount = 0;
 
-        List<String> errors = new ArrayList<>();
-        String lastMsg = "";
-        int duplicateCount = 0;
-
-        for (ServerLog log : recentLogs) {
-            String msg = safe(log.getMessage());
-            String level = safe(log.getLevel());
+        for (LogLine log : recentLogs) {
+            String msg = safe(log.message());
+            String level = safe(log.level());
 
             // 에러가 아니면 패스 (단, Exception 힌트가 있으면 포함)
-            if (!"ERROR".equalsIgnoreCase(level) && !containsExceptionHint(msg)) {
+            if (!LogLineClassifier.isErrorLike(level, msg)) {
                 continue;
             }
 
-            // (A) 중복 제거 로직
-            if (msg.equals(lastMsg)) {
-                duplicateCount++;
-                continue;
-            }
-
-            if (duplicateCount > 0) {
-                errors.add("   ㄴ (위와 동일한 에러가 " + duplicateCount + "번 더 반복되었습니다.)");
-                duplicateCount = 0;
-            }
-
-            // (B) 길이 제한
-            String displayMsg = msg;
-            if (displayMsg.length() > 500) {
-                displayMsg = displayMsg.substring(0, 500) + "\n   ... (생략됨) ...";
-            }
+            errorCount++;
+            StackTrace trace = StackTrace.parse(msg); // 그룹 키와 요약에 같은 파싱 결과를 씀
+            groups.computeIfAbsent(LogLineClassifier.fingerprint(msg, trace), k -> new ErrorGroupAccumulator(k, log.occurredAt()))
+                    .add(level, StackTrace.compact(msg, trace), log.occurredAt()); // 스택트레이스는 예외/상위 프레임만
+        }
 
-            errors.add(log.getOccurredAt() + " [" + level + "] " + displayMsg);
-            lastMsg = msg;
+        if (groups.isEmpty()) {
+            return new ErrorLogAnalysisDto(name, List.of(), 0, "✅ 최근 구간에서 에러가 없습니다.", List.of());
         }
 
-        if (duplicateCount > 0) {
-            errors.add("   ㄴ (위와 동일한 에러가 " + duplicateCount + "번 더 반복되었습니다.)");
+        // 4. 수신 시 캡처해 둔 에러 전후 로그 (그룹 키로 바로 조회, server_log 범위 조회 없음)
+        Map<String, List<String>> contexts = new HashMap<>();
+        for (ErrorContext c : errorContextRepository.findByServerNameAndFingerprintIn(name, groups.keySet())) {
+            contexts.put(c.getFingerprint(), c.lines());
         }
 
-        if (errors.isEmpty()) {
-            return new ErrorLogAnalysisDto(name, List.of(), 0, "✅ 최근 구간에서 에러가 없습니다.");
+        // 5. 최근에 발생한 순서로 정렬 후 토큰 예산 안에서 선별 (고정 개수/고정 길이로 자르지 않음)
+        List<ErrorGroupDto> errorGroups = groups.values().stream()
+                .map(g -> g.toDto(contexts.getOrDefault(g.fingerprint, List.of())))
+                .sorted(Comparator.comparing(ErrorGroupDto::lastSeen))
+                .toList();
+
+        DiagnosisContextBuilder.Packed packed = contextBuilder.buildErrorLogContext(
+                errorGroups, contextBuilder.getErrorLogTokenBudget());
+
+        String summary = "⚠️ 최근 에러 로그가 발견되었습니다.";
+        if (packed.omittedCount() > 0) {
+            summary += " (토큰 예산 초과로 우선순위가 낮은 에러 " + packed.omittedCount() + "종류 생략)";
         }
 
         return new ErrorLogAnalysisDto(
                 name,
-                errors,
-                errors.size(),
-                "⚠️ 최근 에러 로그가 발견되었습니다."
+                packed.texts(DiagnosisContextBuilder.SECTION_ERRORS),
+                errorCount,
+                summary,
+                errorGroups
         );
     }
 
+    /**
+     * 레벨별 로그 수 시계열 (LLM 도구용, server_log 조회 없이 수신 시 집계한 값)
+     * @param level DEBUG / INFO / WARN / ERROR / OTHER / ALL
+     * @param resolution MINUTE(최대 1440개 = 24시간) / HOUR(최대 720개 = 30일)
+     */
+    public LogCountSeriesDto countLogs(String name, String level, String resolution, int buckets) {
+        requireServer(name);
+        LogCountResolution res;
+        try {
+            res = resolution == null ? LogCountResolution.MINUTE : LogCountResolution.valueOf(resolution.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("resolution 은 MINUTE 또는 HOUR 여야 합니다: " + resolution);
+        }
+        int n = Math.max(1, Math.min(buckets, res.buckets()));
+        long[] counts = logLevelCounter.series(name, level, res, n);
+
+        long now = System.currentTimeMillis();
+        long firstBucketStart = (now / res.bucketMillis() - (n - 1)) * res.bucketMillis();
+        return new LogCountSeriesDto(
+                name,
+                level == null || level.isBlank() ? "ALL" : level.trim().toUpperCase(),
+                res,
+                convertTimestamp(firstBucketStart),
+                Arrays.stream(counts).boxed().toList(),
+                Arrays.stream(counts).sum(),
+                logLevelCounter.errorTrend(name).describe()
+        );
+    }
+
+    /**
+     * 에러 추세 요약 (MCP 도구 / 진단용)
+     * - 최근 1시간 분당 ERROR 수와 최근 24시간 시간당 ERROR 수를 함께 제공
+     */
+    public String describeErrorTrend(String name) {
+        requireServer(name);
+        ErrorTrend trend = logLevelCounter.errorTrend(name);
+        long[] perMinute = logLevelCounter.series(name, "ERROR", LogCountResolution.MINUTE, 60);
+        long[] perHour = logLevelCounter.series(name, "ERROR", LogCountResolution.HOUR, 24);
+        return trend.describe()
+                + "\n- 최근 60분 분당 ERROR (오래된 순): " + joinCounts(perMinute)
+                + "\n- 최근 24시간 시간당 ERROR (오래된 순): " + joinCounts(perHour);
+    }
+
+    /**
+     * 에러 추세 (진단 컨텍스트용, 메모리 집계만 사용)
+     */
+    public ErrorTrend errorTrend(String name) {
+        return logLevelCounter.errorTrend(name);
+    }
+
+    private String joinCounts(long[] counts) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(counts[i]);
+        }
+        return sb.toString();
+    }
+
+    // 같은 fingerprint 를 가진 에러 로그 누적
+    private static class ErrorGroupAccumulator {
+        private final String fingerprint;
+        private final LocalDateTime firstSeen;
+        private LocalDateTime lastSeen;
+        private String level;
+        private String message;
+        private int count;
+
+        ErrorGroupAccumulator(String fingerprint, LocalDateTime firstSeen) {
+            this.fingerprint = fingerprint;
+            this.firstSeen = firstSeen;
+        }
+
+        void add(String level, String message, LocalDateTime occurredAt) {
+            this.level = level;
+            this.message = message; // 가장 최근 원문을 대표로 사용
+            this.lastSeen = occurredAt;
+            this.count++;
+        }
+
+        ErrorGroupDto toDto(List<String> context) {
+            return new ErrorGroupDto(fingerprint, level, message, count, firstSeen, lastSeen, context);
+        }
+    }
+
     // --- 유틸리티 메서드 ---
 
     // Timestamp(Long) -> LocalDateTime 변환
@@ -169,9 +328,20 @@ public class LogService {
         return LocalDateTime.ofInstant(Instant.ofEpochMilli(ts), ZoneId.systemDefault());
     }
 
-    private boolean containsExceptionHint(String msg) {
-        if (msg == null) return false;
-        return msg.contains("Exception") || msg.contains("ERROR") || msg.contains("Caused by");
+    // 조회 결과가 비었을 때만 서버 존재 여부 확인 (없는 서버면 404)
+    private void requireServer(String name) {
+        if (!targetServerRepository.existsByServerName(name)) {
+            throw new NotFoundException("서버를 찾을 수 없습니다: " + name);
+        }
+    }
+
+    // 이벤트별 스택트레이스 파싱 결과를 한 번만 계산해 재사용 (스택트레이스가 아니면 null 도 기억)
+    private static Function<LogEventDto, StackTrace> stackTraces() {
+        Map<LogEventDto, StackTrace> parsed = new IdentityHashMap<>();
+        return e -> {
+            if (!parsed.containsKey(e)) parsed.put(e, StackTrace.parse(e.getMessage()));
+            return parsed.get(e);
+        };
     }
 
     private String safe(String s) {
@@ -1,17 +1,36 @@
 package com.kakao.kakao_test.service;
 
+import com.kakao.kakao_test.alert.AlertRuleEngine;
+import com.kakao.kakao_test.domain.AlertMetric;
 import com.kakao.kakao_test.domain.ServerMetric;
 import com.kakao.kakao_test.domain.TargetServer;
+import com.kakao.kakao_test.dto.IngestResultDto;
 import com.kakao.kakao_test.dto.MetricIngestDto;
 import com.kakao.kakao_test.dto.ServerMetricsDto;
+import com.kakao.kakao_test.exception.BadRequestException;
+import com.kakao.kakao_test.exception.NotFoundException;
 import com.kakao.kakao_test.exception.UnauthorizedException;
+import com.kakao.kakao_test.monitor.ForwarderWatchdog;
+import com.kakao.kakao_test.monitor.IngestDeduplicator;
+import com.kakao.kakao_test.monitor.IngestTraced;
+import com.kakao.kakao_test.monitor.IngestTracer;
+import com.kakao.kakao_test.monitor.MetricAnomaly;
+import com.kakao.kakao_test.monitor.MetricAnomalyDetector;
 import com.kakao.kakao_test.repository.ServerMetricRepository;
 import com.kakao.kakao_test.repository.TargetServerRepository;
+import com.kakao.kakao_test.repository.projection.MetricSample;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -23,67 +42,138 @@ public class MetricService {
     private final ServerMetricRepository serverMetricRepository;
     private final DiscordNotificationService discordNotificationService;
     private final ServerHeartbeatService serverHeartbeatService;
+    private final MetricAnomalyDetector anomalyDetector;
+    private final AlertRuleEngine alertRuleEngine;
+    private final ForwarderWatchdog forwarderWatchdog;
+    private final IngestDeduplicator ingestDeduplicator;
+    private final IngestTracer ingestTracer;
+
+    private static final int RECENT_SAMPLE_LIMIT = 50;
+
+    @Value("${ingest.metrics.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * 배치 크기 검사 (스풀에 넣기 전에도 호출 -> 반영 시점이 아니라 수신 시점에 400)
+     */
+    public void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new BadRequestException("한 번에 보낼 수 있는 메트릭은 최대 " + maxBatchSize + "개입니다.");
+        }
+    }
 
     /**
-     * [1] 데이터 수집 (Ingest)
-     * - DB 저장
-     * - 80% 초과 시 카카오 알림
+     * [1] 데이터 수집 (Ingest) - 단건 / 배치 공통
+     * - 서버 조회/토큰 검증/하트비트 갱신은 요청당 1회
+     * - 재전송된 배치(batchId)/샘플(eventId)은 메모리에서 먼저 거르고, 남은 중복은 DB 유니크 키가 거름
+     * - multi-row INSERT 한 번으로 저장
+     * - 이상 패턴(급상승/지속 포화/메모리 누수 추세)은 배치 전체를 시간순으로 평가 후 알림 1회
      */
     @Transactional
-    public void saveMetric(String serverName, MetricIngestDto dto, String mcpToken, String discordWebhookUrl) {
+    @IngestTraced("metrics")
+    public IngestResultDto saveMetrics(String serverName, List<MetricIngestDto> dtos, String mcpToken,
+                                       String discordWebhookUrl, String batchId) {
 
         // 1. 서버 조회 및 토큰 검증
         TargetServer server = targetServerRepository.getByServerName(serverName);
         verifyToken(server, mcpToken);
+        ingestTracer.mark("server_lookup");
+        if (dtos != null) checkBatchSize(dtos.size());
 
-        // 2. HeartBeat 갱신 (다른 트렌젝션에서 처리)
+        // 2. HeartBeat 갱신 (다른 트렌젝션에서 처리, 한도 초과로 샘플이 모두 버려진 요청도 서버는 살아 있음)
         serverHeartbeatService.updateHeartbeatQuickly(server.getId());
-        MetricIngestDto.MetricData data = dto.getData();
+        forwarderWatchdog.touch(serverName, discordWebhookUrl);
+        ingestTracer.mark("heartbeat");
 
-        // 3. 단위 변환 및 Entity 생성 (DB에 맞게 변환)
-        Double cpuPercent = data.getCpuUsage() * 100.0;
-        Double memUsedMb = data.getMemoryUsed() / 1024.0 / 1024.0;
-        Double memMaxMb = data.getMemoryMax() / 1024.0 / 1024.0;
+        if (dtos == null || dtos.isEmpty()) {
+            return new IngestResultDto(serverName, 0, "수신할 메트릭이 없습니다.");
+        }
 
-        ServerMetric metric = ServerMetric.createMetric(dto.getTs(), server, cpuPercent, memUsedMb, memMaxMb);
+        // 3. 이미 처리한 배치의 재전송이면 저장/탐지 없이 성공 응답
+        if (!ingestDeduplicator.firstSeen(serverName, "batch", batchId)) {
+            log.info("{} 서버의 중복 메트릭 배치 무시 (batchId: {})", serverName, batchId);
+            return new IngestResultDto(serverName, 0, "이미 처리된 배치입니다.");
+        }
+
+        // 4. 단위 변환 및 Entity 생성 (DB에 맞게 변환), data 가 없는 샘플과 재전송 샘플은 제외
+        List<ServerMetric> metrics = dtos.stream()
+                .filter(dto -> dto != null && dto.getData() != null)
+                .filter(dto -> ingestDeduplicator.firstSeen(serverName, "metric", dto.getEventId()))
+                .sorted(Comparator.comparing(dto -> dto.getTs() == null ? Long.MAX_VALUE : dto.getTs()))
+                .map(dto -> toEntity(server, dto))
+                .toList();
+
+        if (metrics.isEmpty()) {
+            return new IngestResultDto(serverName, 0, "모두 이미 처리된 메트릭입니다.");
+        }
 
-        // 4. DB 저장
-        serverMetricRepository.save(metric);
+        ingestTracer.mark("dedup");
 
-        // 5. 위험 감지 및 알림 (80% 초과 시)
-        // (Memory Percent 계산)
-        double memPercent = (memMaxMb > 0) ? (memUsedMb / memMaxMb) * 100.0 : 0.0;
+        // 5. DB 저장 (multi-row INSERT, DB 유니크 키에서 걸러진 중복도 집계)
+        int saved = serverMetricRepository.bulkInsert(metrics);
+        ingestTracer.mark("db_insert");
+        ingestDeduplicator.recordDropped("metric", metrics.size() - saved);
+        if (saved == 0) {
+            // 전부 DB 에 이미 있음 (재시작 직후 재전송) -> 탐지기에 같은 샘플을 두 번 넣지 않음
+            return new IngestResultDto(serverName, 0, "모두 이미 처리된 메트릭입니다.");
+        }
+
+        // 6. 이상 패턴 감지 및 알림 (단일 샘플 임계치가 아닌 서버별 스트리밍 통계 기준)
+        List<MetricAnomaly> anomalies = new ArrayList<>();
+        ServerMetric last = null;
+        for (ServerMetric m : metrics) {
+            long ts = m.getCapturedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            anomalies.addAll(anomalyDetector.observe(serverName, ts, m.getCpuUsage(), memPercent(m)));
+            last = m;
+        }
 
-        if (cpuPercent > 80.0 || memPercent > 80.0) {
+        ingestTracer.mark("anomaly_detect");
+
+        if (!anomalies.isEmpty() && last != null) {
             String alertMsg = String.format(
-                    "리소스 사용량이 높습니다!\n🔥 CPU: %.1f%%\n💾 RAM: %.1f%% (%.0fMB / %.0fMB)",
-                    cpuPercent, memPercent, memUsedMb, memMaxMb
+                    "리소스 이상 패턴이 감지되었습니다!\n%s\n🔥 CPU: %.1f%%\n💾 RAM: %.1f%% (%.0fMB / %.0fMB)",
+                    anomalies.stream().map(a -> "- [" + a.type() + "] " + a.message()).collect(Collectors.joining("\n")),
+                    last.getCpuUsage(), memPercent(last), last.getMemoryUsedMb(), last.getMemoryMaxMb()
             );
 
             // DTO에 담겨온 사용자 토큰으로 발송
             discordNotificationService.sendErrorAlert(discordWebhookUrl, serverName, alertMsg);
-            log.info("Metric 저장 (서버: {})ㄴ", serverName);
+            ingestTracer.mark("discord_alert");
+            log.info("Metric 이상 패턴 감지 (서버: {}, {}건)", serverName, anomalies.size());
+        }
+
+        // 7. 서버별 알림 규칙 평가 (임계치 N초 이상 지속)
+        if (alertRuleEngine.onMetrics(serverName, discordWebhookUrl, metrics) > 0) {
+            ingestTracer.mark("discord_alert");
         }
+
+        return new IngestResultDto(serverName, saved, "메트릭 저장 완료");
     }
 
 
 
     /**
      * [2] 현재 상태 조회 (LLM Tools용)
-     * - DB에서 가장 최신 메트릭 1개 조회
+     * - DB에서 가장 최신 메트릭 1개 조회 (필요한 컬럼만)
      */
     public ServerMetricsDto getCurrentMetrics(String serverName) {
-        TargetServer server = targetServerRepository.getByServerName(serverName);
+        List<MetricSample> latest = serverMetricRepository.findRecentSamples(serverName, Limit.of(1));
+        if (latest.isEmpty()) {
+            requireServer(serverName);
+            return new ServerMetricsDto(0.0, 0.0, 0.0, false);
+        }
 
-        // DB에서 최신값 1개 가져오기
-        return serverMetricRepository.findTopByServerOrderByCapturedAtDesc(server)
-                .map(m -> new ServerMetricsDto(
-                        m.getCpuUsage(),        // 이미 % 단위로 저장됨
-                        m.getMemoryUsedMb(),    // 이미 MB 단위
-                        m.getMemoryMaxMb(),
-                        true
-                ))
-                .orElseGet(() -> new ServerMetricsDto(0.0, 0.0, 0.0, false));
+        MetricSample m = latest.getFirst();
+        return new ServerMetricsDto(
+                m.cpuUsage(),        // 이미 % 단위로 저장됨
+                m.memoryUsedMb(),    // 이미 MB 단위
+                m.memoryMaxMb(),
+                true
+        );
     }
 
     /**
@@ -91,52 +181,93 @@ public class MetricService {
      * - 최근 10분(또는 최근 60개) 데이터를 조회하여 분석
      */
     public String getMetricTrend(String serverName) {
-        TargetServer server = targetServerRepository.getByServerName(serverName);
-
-        // 최근 60개 데이터 조회 (약 10분치)
-        List<ServerMetric> history = serverMetricRepository.findTop50ByServerOrderByCapturedAtDesc(server);
-
-        if (history.isEmpty()) return "데이터 없음";
-
-        // 1. 평균 CPU 사용량 계산
-        double avgCpu = history.stream()
-                .mapToDouble(ServerMetric::getCpuUsage)
-                .average()
-                .orElse(0.0);
+        // 최근 50개 데이터 조회 (약 10분치)
+        List<MetricSample> history = serverMetricRepository.findRecentSamples(serverName, Limit.of(RECENT_SAMPLE_LIMIT));
 
-        // 2. 평균 메모리 사용률 계산 (%)
-        double avgMem = history.stream()
-                .mapToDouble(m -> ((double) m.getMemoryUsedMb() / m.getMemoryMaxMb()) * 100.0)
-                .average()
-                .orElse(0.0);
-
-        // CPU가 80% 넘었던 순간이 있는지 카운팅
-        long highCpuCount = history.stream()
-                .filter(m -> m.getCpuUsage() > 80.0)
-                .count();
+        if (history.isEmpty()) {
+            requireServer(serverName);
+            return "데이터 없음";
+        }
 
-        // 메모리가 90% 넘었던 순간
-        long highMemCount = history.stream()
-                .filter(m -> (m.getMemoryUsedMb() / m.getMemoryMaxMb() * 100.0) > 90.0)
-                .count();
+        // 평균/최대/임계치 초과 횟수를 한 번에 계산 (임계치는 서버의 METRIC_THRESHOLD 규칙, 없으면 alert.defaults)
+        double cpuLimit = alertRuleEngine.thresholdFor(serverName, AlertMetric.CPU);
+        double memLimit = alertRuleEngine.thresholdFor(serverName, AlertMetric.MEMORY);
+        double sumCpu = 0, sumMem = 0, maxCpu = 0;
+        long highCpuCount = 0, highMemCount = 0;
+        for (MetricSample m : history) {
+            double memPercent = m.memPercent();
+            sumCpu += m.cpuUsage();
+            sumMem += memPercent;
+            maxCpu = Math.max(maxCpu, m.cpuUsage());
+            if (m.cpuUsage() > cpuLimit) highCpuCount++;   // CPU가 기준(기본 80%)을 넘었던 순간
+            if (memPercent > memLimit) highMemCount++;     // 메모리가 기준(기본 90%)을 넘었던 순간
+        }
+        double avgCpu = sumCpu / history.size();
+        double avgMem = sumMem / history.size();
 
-        // 4. 결과 문자열 포맷팅
+        // 결과 문자열 포맷팅
         String statsSummary = String.format("\n(평균 CPU: %.1f%% / 평균 RAM: %.1f%%)", avgCpu, avgMem);
 
         if (highCpuCount > 0 || highMemCount > 0) {
-            double maxCpu = history.stream().mapToDouble(ServerMetric::getCpuUsage).max().orElse(0.0);
-
             return String.format(
-                    "⚠️ 최근 10분간 리소스 불안정:%s\n- CPU 80%% 초과: %d회 (최대 %.1f%%)\n- 메모리 90%% 초과: %d회",
-                    statsSummary, highCpuCount, maxCpu, highMemCount
+                    "⚠️ 최근 10분간 리소스 불안정:%s\n- CPU %.0f%% 초과: %d회 (최대 %.1f%%)\n- 메모리 %.0f%% 초과: %d회",
+                    statsSummary, cpuLimit, highCpuCount, maxCpu, memLimit, highMemCount
             );
         }
 
         return "✅ 최근 10분간 시스템 리소스 상태는 매우 안정적입니다." + statsSummary;
     }
 
+    /**
+     * [4] 이상 구간 목록 (진단 컨텍스트용)
+     * - 온라인 탐지기가 감지한 이상 패턴을 시간순으로 반환
+     * - 재시작 직후처럼 탐지 이력이 없으면 최근 데이터 중 임계치(기본 CPU 80% / 메모리 90%)를 넘은 샘플로 대체
+     */
+    public List<String> findMetricAnomalies(String serverName) {
+        List<MetricAnomaly> detected = anomalyDetector.recentAnomalies(serverName);
+        if (!detected.isEmpty()) {
+            return detected.stream().map(MetricAnomaly::toString).toList();
+        }
+
+        List<MetricSample> history = new ArrayList<>(
+                serverMetricRepository.findRecentSamples(serverName, Limit.of(RECENT_SAMPLE_LIMIT)));
+        Collections.reverse(history);
+
+        double cpuLimit = alertRuleEngine.thresholdFor(serverName, AlertMetric.CPU);
+        double memLimit = alertRuleEngine.thresholdFor(serverName, AlertMetric.MEMORY);
+        List<String> anomalies = new ArrayList<>();
+        for (MetricSample m : history) {
+            double memPercent = m.memPercent();
+            if (m.cpuUsage() > cpuLimit || memPercent > memLimit) {
+                anomalies.add(String.format("%s CPU %.1f%% / RAM %.1f%% (%.0fMB / %.0fMB)",
+                        m.capturedAt(), m.cpuUsage(), memPercent, m.memoryUsedMb(), m.memoryMaxMb()));
+            }
+        }
+        return anomalies;
+    }
+
     // --- Private Helpers ---
 
+    private ServerMetric toEntity(TargetServer server, MetricIngestDto dto) {
+        MetricIngestDto.MetricData data = dto.getData();
+        Double cpuPercent = data.getCpuUsage() * 100.0;
+        Double memUsedMb = data.getMemoryUsed() / 1024.0 / 1024.0;
+        Double memMaxMb = data.getMemoryMax() / 1024.0 / 1024.0;
+        return ServerMetric.createMetric(dto.getTs(), server, cpuPercent, memUsedMb, memMaxMb,
+                IngestDeduplicator.normalizeId(dto.getEventId()));
+    }
+
+    private double memPercent(ServerMetric m) {
+        return (m.getMemoryMaxMb() > 0) ? (m.getMemoryUsedMb() / m.getMemoryMaxMb()) * 100.0 : 0.0;
+    }
+
+    // 조회 결과가 비었을 때만 서버 존재 여부 확인 (없는 서버면 404)
+    private void requireServer(String serverName) {
+        if (!targetServerRepository.existsByServerName(serverName)) {
+            throw new NotFoundException("서버를 찾을 수 없습니다: " + serverName);
+        }
+    }
+
     private void verifyToken(TargetServer server, String token) {
         if (!server.getMcpToken().equals(token)) {
             throw new UnauthorizedException("토큰이 유효하지 않습니다.");
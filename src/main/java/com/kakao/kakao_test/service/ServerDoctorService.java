@@ -1,12 +1,14 @@
 package com.kakao.kakao_test.service;
 
+import com.kakao.kakao_test.diagnosis.DiagnosisContextBuilder;
 import com.kakao.kakao_test.dto.ErrorLogAnalysisDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -17,20 +19,43 @@ public class ServerDoctorService {
     private final MetricService metricService;
     private final LlmClientService llmClientService;
     private final DiscordNotificationService discordService;
+    private final HealthService healthService;
+    private final DiagnosisContextBuilder contextBuilder;
+
+    private static final String REPORT_HEADER = "## 🤖 AI 서버 주치의 진단 리포트\n";
 
     /**
      * [CASE 1] 디스코드 링크 클릭 등으로 요청 (비동기)
      * - 결과는 디스코드 웹훅으로 전송
+     * - LLM 응답을 스트리밍으로 받아 생성되는 대로 디스코드 메시지를 수정(edit)
      */
     @Async
     public void diagnoseAndReport(String serverName, String discordWebhookUrl) {
-        // 1. 진단 리포트 생성
-        String report = generateDiagnosisReport(serverName);
+        if (discordWebhookUrl == null || discordWebhookUrl.isBlank()) {
+            return;
+        }
 
-        // 2. 디스코드로 전송
-        if (discordWebhookUrl != null && !discordWebhookUrl.isBlank()) {
-            discordService.sendAiReport(discordWebhookUrl, report);
+        DiscordNotificationService.DiscordStream stream = discordService.openStream(discordWebhookUrl, null);
+        streamDiagnosisReport(serverName, stream::append);
+        stream.complete();
+    }
+
+    /**
+     * 진단 리포트를 스트리밍으로 생성
+     * - 헤더부터 LLM 토큰까지 생성되는 즉시 sink 로 전달
+     * - 서버가 건강하면 LLM 호출 없이 고정 문구 1회 전달
+     * @return 전체 리포트
+     */
+    public String streamDiagnosisReport(String serverName, Consumer<String> sink) {
+        DiagnosisPrompt prompt = buildDiagnosisPrompt(serverName);
+        if (prompt == null) {
+            sink.accept(HEALTHY_REPORT);
+            return HEALTHY_REPORT;
         }
+
+        sink.accept(REPORT_HEADER);
+        String aiAnalysis = llmClientService.analyzeStream(prompt.systemPrompt(), prompt.userContent(), sink);
+        return REPORT_HEADER + aiAnalysis;
     }
 
     /**
@@ -40,25 +65,36 @@ public class ServerDoctorService {
         // 1. 데이터 수집
         ErrorLogAnalysisDto logAnalysis = logService.analyzeErrorLogs(serverName);
         String metricTrend = metricService.getMetricTrend(serverName);
+        DiagnosisContextBuilder.Packed context =
+                buildContext(serverName, logAnalysis, metricTrend, contextBuilder.getMcpTokenBudget());
 
         // 2. LLM(Claude)이 읽기 좋은 형태로 Raw Data 포맷팅
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("### 📊 서버 진단 데이터 (Server: %s)\n\n", serverName));
 
         // 리소스 상태
-        sb.append("**1. CPU/RAM 상태:**\n").append(metricTrend).append("\n\n");
+        sb.append("**1. CPU/RAM 상태:**\n")
+                .append(context.joined(DiagnosisContextBuilder.SECTION_METRICS, "\n")).append("\n\n");
+
+        // Health 상태 변화
+        List<String> health = context.texts(DiagnosisContextBuilder.SECTION_HEALTH);
+        if (!health.isEmpty()) {
+            sb.append("**Health 상태 변화:**\n").append(String.join("\n", health)).append("\n\n");
+        }
 
         // 에러 로그
         sb.append("**2. 최근 에러 로그 분석:**\n");
         sb.append("- 총 에러 수: ").append(logAnalysis.getErrorCount()).append("건\n");
+        sb.append("- ").append(logService.errorTrend(serverName).describe()).append("\n");
 
         if (logAnalysis.getErrorCount() > 0) {
             sb.append("- 주요 로그 내역:\n```text\n");
-            // 로그 원문을 그대로 Claude에게 전달 (토큰 제한 고려하여 적당히 자르기)
-            sb.append(logAnalysis.getRecentErrors().stream()
-                    .limit(15)
-                    .collect(Collectors.joining("\n")));
+            // 로그 원문을 그대로 Claude에게 전달 (토큰 예산 안에서 중요도 순으로 선별됨)
+            sb.append(context.joined(DiagnosisContextBuilder.SECTION_ERRORS, "\n"));
             sb.append("\n```\n");
+            if (context.omittedCount() > 0) {
+                sb.append("- (토큰 예산 초과로 우선순위가 낮은 항목 ").append(context.omittedCount()).append("건 생략)\n");
+            }
         } else {
             sb.append("- 특이사항: 발견된 에러 로그 없음 (Healthy)\n");
         }
@@ -67,19 +103,43 @@ public class ServerDoctorService {
     }
 
     /**
-     * [핵심 로직] 로그 분석 및 LLM 리포트 생성 (전송 로직 제거됨)
-     * - 순수하게 "String"만 만들어서 리턴함
+     * 에러 그룹 / 메트릭 이상 구간 / Health 상태 변화를 모아 토큰 예산 안에서 선별
+     */
+    private DiagnosisContextBuilder.Packed buildContext(String serverName, ErrorLogAnalysisDto logAnalysis,
+                                                        String metricTrend, int tokenBudget) {
+        return contextBuilder.buildDiagnosisContext(
+                metricTrend,
+                logAnalysis.getErrorGroups(),
+                metricService.findMetricAnomalies(serverName),
+                healthService.findRecentTransitions(serverName),
+                tokenBudget
+        );
+    }
+
+    private static final String HEALTHY_REPORT =
+            "✅ **[진단 결과]**\n현재 서버 상태가 매우 안정적입니다.\n- 발견된 에러 로그 없음\n- 리소스 사용량 정상 범위\n(특이사항이 없어 상세 분석을 생략합니다.)";
+
+    private record DiagnosisPrompt(String systemPrompt, String userContent) {}
+
+    /**
+     * [핵심 로직] 로그 분석 및 LLM 프롬프트 생성 (LLM 호출/전송 로직 제거됨)
+     * - 서버가 너무 건강하면 null (LLM 호출 생략)
      */
-    private String generateDiagnosisReport(String serverName) {
+    private DiagnosisPrompt buildDiagnosisPrompt(String serverName) {
         // 1. 데이터 수집
         ErrorLogAnalysisDto logAnalysis = logService.analyzeErrorLogs(serverName);
         String metricTrend = metricService.getMetricTrend(serverName);
 
         // 2. 조기 종료 조건: 서버가 너무 건강할 때 (LLM 비용 절약)
         if (logAnalysis.getErrorCount() == 0 && metricTrend.contains("안정적")) {
-            return "✅ **[진단 결과]**\n현재 서버 상태가 매우 안정적입니다.\n- 발견된 에러 로그 없음\n- 리소스 사용량 정상 범위\n(특이사항이 없어 상세 분석을 생략합니다.)";
+            return null;
         }
 
+        // 토큰 예산 안에서 중요도 순으로 선별 (OpenAI 비용/지연 절감)
+        DiagnosisContextBuilder.Packed context =
+                buildContext(serverName, logAnalysis, metricTrend, contextBuilder.getLlmTokenBudget());
+        List<String> health = context.texts(DiagnosisContextBuilder.SECTION_HEALTH);
+
         // 3. 프롬프트 구성
         String systemPrompt = """
         당신은 시스템 로그를 분석하여 장애 원인을 파악하는 'DevOps 포렌식 전문가'입니다.
@@ -88,30 +148,32 @@ public class ServerDoctorService {
         [분석 규칙]
         1. 추측성 발언 금지: "DDoS 공격일 수 있습니다" 같은 막연한 말 대신, 로그에 있는 구체적인 Exception 이름과 메시지를 언급하며 설명하세요.
         2. 근거 기반: "로그를 보니 [NullPointerException]이 발생했고, 이는 [UserSerivce] 로직의 버그로 보입니다." 처럼 말하세요.
-        3. 해결책: 코드 레벨에서 수정해야 할 부분이나, 당장 실행해야 할 조치를 구체적으로 제시하세요.
-        4. 데이터가 부족하거나 특이사항이 없다면 솔직하게 "분석할 만한 치명적인 에러가 발견되지 않았습니다."라고 말하세요.
-        5. 한국어로 답변하세요.
+        3. 에러 추세(새로 발생 / 증가 중 / 감소 중)를 보고 최근 배포·변경 때문인지, 계속 악화되는지, 이미 잦아드는지 구분해서 긴급도를 판단하세요.
+        4. 해결책: 코드 레벨에서 수정해야 할 부분이나, 당장 실행해야 할 조치를 구체적으로 제시하세요.
+        5. 데이터가 부족하거나 특이사항이 없다면 솔직하게 "분석할 만한 치명적인 에러가 발견되지 않았습니다."라고 말하세요.
+        6. 한국어로 답변하세요.
         """;
 
         String userContent = String.format("""
         [분석 요청 데이터]
         1. 서버명: %s
         2. CPU/RAM 상태: %s
-        3. 최근 발생한 핵심 에러 로그 (최대 10건):
+        3. Health 상태 변화:
+        %s
+        4. %s
+        5. 최근 발생한 핵심 에러 로그 (빈도/최근성 순으로 선별):
         ```text
         %s
         ```
         (위 로그를 바탕으로 원인을 추적해주세요.)
         """,
                 serverName,
-                metricTrend,
-                logAnalysis.getRecentErrors().stream()
-                        .limit(10) // 토큰 절약을 위해 10개만
-                        .collect(Collectors.joining("\n"))
+                context.joined(DiagnosisContextBuilder.SECTION_METRICS, "\n"),
+                health.isEmpty() ? "(변화 없음)" : String.join("\n", health),
+                logService.errorTrend(serverName).describe(),
+                context.joined(DiagnosisContextBuilder.SECTION_ERRORS, "\n")
         );
 
-        String aiAnalysis = llmClientService.analyze(systemPrompt, userContent);
-        // 5. 최종 포맷팅
-        return "## 🤖 AI 서버 주치의 진단 리포트\n" + aiAnalysis;
+        return new DiagnosisPrompt(systemPrompt, userContent);
     }
-}
\ No newline at end of file
+}
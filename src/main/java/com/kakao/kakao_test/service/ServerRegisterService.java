@@ -4,6 +4,7 @@ import com.kakao.kakao_test.domain.TargetServer;
 import com.kakao.kakao_test.dto.RegisterServerRequest;
 import com.kakao.kakao_test.dto.RegisterServerResponse;
 import com.kakao.kakao_test.exception.DuplicationServer;
+import com.kakao.kakao_test.ingest.IngestQuotaManager;
 import com.kakao.kakao_test.repository.TargetServerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +20,7 @@ import java.util.UUID;
 public class ServerRegisterService {
 
     private final TargetServerRepository targetServerRepository;
+    private final IngestQuotaManager ingestQuotaManager;
 
     @Value("${mcp.server-url}")
     private String mcpDomain;
@@ -41,6 +43,7 @@ public class ServerRegisterService {
         TargetServer server = TargetServer.register(req, token);
 
         targetServerRepository.save(server);
+        ingestQuotaManager.invalidate(server.getServerName());
         log.info("✅ 서버 등록 완료: {}", server.getServerName());
 
         return new RegisterServerResponse(
@@ -50,6 +53,21 @@ public class ServerRegisterService {
         );
     }
 
+    /**
+     * 수신 토큰 재발급 (유출 시)
+     * - 이전 토큰은 이 노드에서는 커밋 직후부터 401, 다른 노드는 ingest.quota.refresh-seconds 안에 401
+     */
+    @Transactional
+    public RegisterServerResponse rotateToken(String serverName) {
+        TargetServer server = targetServerRepository.getByServerName(serverName);
+        String token = UUID.randomUUID().toString();
+        server.rotateToken(token);
+        ingestQuotaManager.invalidate(serverName);
+        log.info("🔑 수신 토큰 재발급: {}", serverName);
+
+        return new RegisterServerResponse(serverName, token, generateSetupGuide(serverName, token));
+    }
+
     /**
      * 서버 등록 전 "이름 + url" 이 중복되는지 탐색
      */
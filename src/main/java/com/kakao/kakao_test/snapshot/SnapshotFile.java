@@ -0,0 +1,111 @@
+package com.kakao.kakao_test.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * 상태 스냅샷 파일 포맷 (빅엔디언)
+ * - 헤더: [magic "SDS1" int][포맷 버전 short][저장 시각 long][섹션 수 int]
+ * - 섹션: [이름 길이 short][이름 UTF-8][섹션 버전 int][본문 길이 int][crc32c(본문) int][본문]
+ * - 쓰기는 같은 디렉터리의 임시 파일에 쓰고 fsync 후 rename (중간에 죽어도 이전 스냅샷이 그대로 남음)
+ * - 읽을 때 crc 가 안 맞거나 잘린 섹션은 건너뜀
+ */
+final class SnapshotFile {
+
+    static final int MAGIC = 0x53445331; // "SDS1"
+    static final short FORMAT_VERSION = 1;
+
+    /**
+     * 섹션 1개
+     */
+    record Section(String name, int version, byte[] payload) {}
+
+    /**
+     * 읽은 스냅샷 (깨진 섹션은 제외됨)
+     */
+    record Contents(long savedAtMillis, List<Section> sections, int skipped) {}
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * @return 쓴 바이트 수
+     */
+    static long write(Path path, long savedAtMillis, List<Section> sections) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64 * 1024);
+        ByteBuffer header = ByteBuffer.allocate(18)
+                .putInt(MAGIC).putShort(FORMAT_VERSION).putLong(savedAtMillis).putInt(sections.size());
+        buf.write(header.array());
+
+        for (Section s : sections) {
+            byte[] name = s.name().getBytes(StandardCharsets.UTF_8);
+            CRC32C crc = new CRC32C();
+            crc.update(s.payload());
+            ByteBuffer sectionHeader = ByteBuffer.allocate(2 + name.length + 12)
+                    .putShort((short) name.length).put(name)
+                    .putInt(s.version()).putInt(s.payload().length).putInt((int) crc.getValue());
+            buf.write(sectionHeader.array());
+            buf.write(s.payload());
+        }
+
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = dir.resolve(path.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.wrap(buf.toByteArray());
+            while (data.hasRemaining()) {
+                ch.write(data);
+            }
+            ch.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return buf.size();
+    }
+
+    /**
+     * @return 파일이 없거나 헤더가 맞지 않으면 null
+     */
+    static Contents read(Path path) throws IOException {
+        if (!Files.exists(path)) return null;
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (in.remaining() < 18 || in.getInt() != MAGIC || in.getShort() != FORMAT_VERSION) return null;
+
+        long savedAt = in.getLong();
+        int count = in.getInt();
+        List<Section> sections = new ArrayList<>(Math.max(0, Math.min(count, 64)));
+        int skipped = 0;
+        for (int i = 0; i < count; i++) {
+            if (in.remaining() < 2) return new Contents(savedAt, sections, skipped + (count - i));
+            int nameLength = in.getShort() & 0xFFFF;
+            if (in.remaining() < nameLength + 12) return new Contents(savedAt, sections, skipped + (count - i));
+            byte[] name = new byte[nameLength];
+            in.get(name);
+            int version = in.getInt();
+            int length = in.getInt();
+            int expectedCrc = in.getInt();
+            if (length < 0 || in.remaining() < length) return new Contents(savedAt, sections, skipped + (count - i));
+
+            byte[] payload = new byte[length];
+            in.get(payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != expectedCrc) {
+                skipped++;
+                continue;
+            }
+            sections.add(new Section(new String(name, StandardCharsets.UTF_8), version, payload));
+        }
+        return new Contents(savedAt, sections, skipped);
+    }
+}
@@ -0,0 +1,31 @@
+package com.kakao.kakao_test.snapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 재시작 시 이어서 쓰고 싶은 메모리 상태
+ * - 구현한 빈은 StateSnapshotManager 가 주기적으로 파일에 저장하고, 기동 시(트래픽 받기 전) 복원
+ * - 섹션마다 버전을 두어 포맷이 바뀌면 이전 스냅샷의 해당 섹션만 건너뜀 (빈 상태로 시작)
+ * - 복원은 다른 스레드가 상태를 만지기 전에 한 번만 호출됨
+ */
+public interface SnapshotParticipant {
+
+    /**
+     * 파일 안의 섹션 이름 (바꾸면 이전 스냅샷을 못 읽음)
+     */
+    String snapshotName();
+
+    /**
+     * 섹션 포맷 버전 (쓰는 형식을 바꿀 때 올릴 것)
+     */
+    int snapshotVersion();
+
+    void writeSnapshot(DataOutputStream out) throws IOException;
+
+    /**
+     * @param savedAtMillis 스냅샷을 쓴 시각 (오래된 항목은 구현체가 버림)
+     */
+    void restoreSnapshot(DataInputStream in, long savedAtMillis) throws IOException;
+}
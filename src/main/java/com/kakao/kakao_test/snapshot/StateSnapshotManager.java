@@ -0,0 +1,183 @@
+package com.kakao.kakao_test.snapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 메모리 모니터링 상태 스냅샷 (웜 스타트)
+ * - SnapshotParticipant 빈들의 상태를 주기적으로 로컬 파일 1개에 저장 (버전 있는 바이너리, 임시 파일 + rename 으로 원자적 교체)
+ * - 기동 시 웹 서버가 요청을 받기 전에 복원 -> 배포 직후에도 쿨타임/Health 통계/이상 탐지 기준선/중복 제거 ID 가 이어짐
+ * - 종료 시(웹 서버가 멈춘 뒤) 마지막으로 한 번 더 저장
+ * - max-age-seconds 보다 오래된 스냅샷은 복원하지 않음 (오래 꺼져 있었다면 예전 상태가 오히려 오탐 원인)
+ * - SSE 세션처럼 연결 자체인 상태는 대상 아님 (클라이언트가 다시 연결)
+ * - 클러스터 모드에서 소유하지 않게 된 서버의 상태는 첫 재분배 때 forget 으로 정리됨
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StateSnapshotManager implements SmartLifecycle {
+
+    // 웹 서버(DEFAULT_PHASE - 1024)보다 먼저 시작 = 요청을 받기 전에 복원, 더 늦게 멈춤 = 수신이 끝난 뒤 저장
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 2048;
+
+    private final List<SnapshotParticipant> participants;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${snapshot.path:./data/snapshot/state.bin}")
+    private String path;
+
+    @Value("${snapshot.max-age-seconds:900}")
+    private long maxAgeSeconds;
+
+    private final AtomicLong lastSavedBytes = new AtomicLong();
+    private volatile boolean running;
+    private volatile String startMode = "disabled";   // restored / cold / disabled
+
+    @Override
+    public void start() {
+        if (enabled) {
+            startMode = restore() ? "restored" : "cold";
+            meterRegistry.gauge("snapshot.last_saved.bytes", lastSavedBytes);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (running && enabled) {
+            save();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Scheduled(fixedDelayString = "${snapshot.interval-ms:60000}", initialDelayString = "${snapshot.interval-ms:60000}")
+    public void scheduledSave() {
+        if (enabled && running) {
+            save();
+        }
+    }
+
+    /**
+     * JVM 시작부터 요청을 받을 수 있을 때까지 걸린 시간 (스냅샷 복원 여부를 태그로 구분해 배포 간 비교)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordTimeToReady() {
+        long timeToReadyMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        TimeGauge.builder("app.startup.time_to_ready", () -> timeToReadyMs, TimeUnit.MILLISECONDS)
+                .tag("snapshot", startMode)
+                .register(meterRegistry);
+        log.info("🚀 요청 수신 준비 완료: {}ms (스냅샷: {})", timeToReadyMs, startMode);
+    }
+
+    /**
+     * 전체 참여자 상태를 파일에 저장 (참여자 1개가 실패해도 나머지는 저장)
+     */
+    public void save() {
+        long start = System.nanoTime();
+        List<SnapshotFile.Section> sections = new ArrayList<>(participants.size());
+        for (SnapshotParticipant p : participants) {
+            try {
+                ByteArrayOutputStream buf = new ByteArrayOutputStream(4 * 1024);
+                try (DataOutputStream out = new DataOutputStream(buf)) {
+                    p.writeSnapshot(out);
+                }
+                sections.add(new SnapshotFile.Section(p.snapshotName(), p.snapshotVersion(), buf.toByteArray()));
+            } catch (Exception e) {
+                log.warn("⚠️ 스냅샷 섹션 저장 실패 ({}): {}", p.snapshotName(), e.getMessage());
+            }
+        }
+
+        try {
+            long bytes = SnapshotFile.write(Path.of(path), System.currentTimeMillis(), sections);
+            lastSavedBytes.set(bytes);
+            meterRegistry.timer("snapshot.save.duration").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.debug("💾 상태 스냅샷 저장: {} bytes, 섹션 {}개", bytes, sections.size());
+        } catch (Exception e) {
+            meterRegistry.counter("snapshot.save.failures").increment();
+            log.warn("⚠️ 상태 스냅샷 저장 실패 ({}): {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * @return 하나 이상의 섹션을 복원했으면 true
+     */
+    boolean restore() {
+        long start = System.nanoTime();
+        SnapshotFile.Contents contents;
+        try {
+            contents = SnapshotFile.read(Path.of(path));
+        } catch (Exception e) {
+            log.warn("⚠️ 상태 스냅샷 읽기 실패, 빈 상태로 시작 ({}): {}", path, e.getMessage());
+            return false;
+        }
+        if (contents == null) {
+            log.info("💾 상태 스냅샷 없음, 빈 상태로 시작 ({})", path);
+            return false;
+        }
+
+        long ageMs = System.currentTimeMillis() - contents.savedAtMillis();
+        if (ageMs > maxAgeSeconds * 1000) {
+            log.info("💾 상태 스냅샷이 너무 오래됨 ({}초 전), 빈 상태로 시작", ageMs / 1000);
+            return false;
+        }
+
+        Map<String, SnapshotParticipant> byName = participants.stream()
+                .collect(Collectors.toMap(SnapshotParticipant::snapshotName, Function.identity(), (a, b) -> a));
+        int restored = 0;
+        int skipped = contents.skipped();
+        for (SnapshotFile.Section section : contents.sections()) {
+            SnapshotParticipant p = byName.get(section.name());
+            if (p == null || p.snapshotVersion() != section.version()) {
+                skipped++;
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(section.payload()))) {
+                p.restoreSnapshot(in, contents.savedAtMillis());
+                restored++;
+            } catch (Exception e) {
+                skipped++;
+                log.warn("⚠️ 스냅샷 섹션 복원 실패, 해당 상태는 빈 상태로 시작 ({}): {}", section.name(), e.getMessage());
+            }
+        }
+
+        meterRegistry.timer("snapshot.restore.duration").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("💾 상태 스냅샷 복원: 섹션 {}개 (건너뜀 {}개, {}초 전 저장, {}ms)",
+                restored, skipped, ageMs / 1000, (System.nanoTime() - start) / 1_000_000);
+        return restored > 0;
+    }
+}
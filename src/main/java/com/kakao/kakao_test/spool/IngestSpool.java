@@ -0,0 +1,278 @@
+package com.kakao.kakao_test.spool;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.kakao_test.dto.HealthIngestDto;
+import com.kakao.kakao_test.dto.IngestResultDto;
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.dto.MetricIngestDto;
+import com.kakao.kakao_test.exception.IngestBackpressureException;
+import com.kakao.kakao_test.exception.NotFoundException;
+import com.kakao.kakao_test.ingest.CompactIngestCodec;
+import com.kakao.kakao_test.ingest.IngestQuotaManager;
+import com.kakao.kakao_test.monitor.ForwarderWatchdog;
+import com.kakao.kakao_test.service.HealthService;
+import com.kakao.kakao_test.service.LogService;
+import com.kakao.kakao_test.service.MetricService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * 수신 write-ahead 스풀 (ingest.spool.enabled=true)
+ * - 한도 검사와 토큰 확인을 통과한 요청을 로컬 스풀 파일에 추가(fsync 묶음 처리)한 뒤 바로 응답
+ * - 스풀은 서버 이름 해시로 partitions 개로 나누고, 파티션마다 drainer 스레드 1개가 받은 순서대로 기존 서비스
+ *   (LogService / MetricService / HealthService)로 DB 에 반영 -> 서버별 순서는 유지하면서 서버끼리는 병렬
+ * - DB 가 느리거나 죽어 있어도 수신 응답 시간은 디스크 쓰기 시간 -> forwarder 는 재전송/유실 없이 계속 전송
+ * - DB 오류는 반영이 될 때까지 재시도 (지수 백오프), 서버 삭제/잘못된 요청은 버리고 집계 (SpoolDrainer)
+ * - 대기량이 max-bytes 를 넘으면 503 + Retry-After 로 수신을 멈춤 (디스크가 무한정 차지 않도록)
+ * - 재시작 시 남은 스풀부터 이어서 반영, 이미 반영된 레코드가 다시 들어가도 배치/이벤트 ID 중복 제거로 걸러짐
+ *   (partitions 를 줄였을 때 남은 파티션 디렉터리도 읽기 전용으로 끝까지 반영)
+ * - 토큰 / 웹훅은 파일에 남기지 않음: 반영 시 토큰은 IngestQuotaManager 캐시, 웹훅은 마지막으로 받은 값
+ * - 노드 로컬 파일이므로 클러스터 모드에서 소유 노드가 바뀌어도 이 노드가 받은 분량은 이 노드가 반영
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IngestSpool {
+
+    private static final String PARTITION_PREFIX = "p";
+
+    private final LogService logService;
+    private final MetricService metricService;
+    private final HealthService healthService;
+    private final IngestQuotaManager ingestQuotaManager;
+    private final ForwarderWatchdog forwarderWatchdog;
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Value("${ingest.spool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ingest.spool.dir:./data/spool}")
+    private String dir;
+
+    @Value("${ingest.spool.partitions:4}")
+    private int partitions;
+
+    @Value("${ingest.spool.segment-bytes:16777216}")
+    private long segmentBytes;
+
+    @Value("${ingest.spool.fsync:true}")
+    private boolean fsync;
+
+    @Value("${ingest.spool.max-bytes:1073741824}")
+    private long maxBytes;
+
+    @Value("${ingest.spool.retry-after-seconds:10}")
+    private long retryAfterSeconds;
+
+    @Value("${ingest.spool.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${ingest.spool.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${ingest.spool.position-save-interval-ms:1000}")
+    private long positionSaveIntervalMs;
+
+    // 앞의 partitions 개만 쓰기 대상, 나머지는 이전 설정에서 남은 읽기 전용 파티션
+    private final List<SpoolDrainer> drainers = new ArrayList<>();
+
+    private Timer appendTimer;
+    private Timer fsyncTimer;
+    private DistributionSummary fsyncBatch;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) return;
+        if (partitions < 1) {
+            throw new IllegalStateException("ingest.spool.partitions 는 1 이상이어야 합니다: " + partitions);
+        }
+        appendTimer = meterRegistry.timer("ingest.spool.append");
+        fsyncTimer = meterRegistry.timer("ingest.spool.fsync");
+        fsyncBatch = DistributionSummary.builder("ingest.spool.fsync.batch")
+                .description("fsync 1회에 함께 반영된 레코드 수")
+                .register(meterRegistry);
+
+        Path root = Path.of(dir).toAbsolutePath();
+        Files.createDirectories(root);
+        int existing = existingPartitions(root);
+        for (int i = 0; i < Math.max(partitions, existing); i++) {
+            drainers.add(drainer(root.resolve(PARTITION_PREFIX + i), "ingest-spool-drainer-" + i));
+        }
+
+        Gauge.builder("ingest.spool.pending.bytes", this, s -> s.sum(SpoolLog::pendingBytes)).register(meterRegistry);
+        Gauge.builder("ingest.spool.pending.records", this, s -> s.sum(SpoolLog::pendingRecords)).register(meterRegistry);
+        Gauge.builder("ingest.spool.segments", this, s -> s.sum(SpoolLog::segmentCount)).register(meterRegistry);
+        Gauge.builder("ingest.spool.corrupt", this, s -> s.sum(SpoolLog::corruptSkipped)).register(meterRegistry);
+        Gauge.builder("ingest.spool.oldest.age", this, IngestSpool::oldestAgeSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        drainers.forEach(SpoolDrainer::start);
+        log.info("📥 수신 스풀 사용: {} (파티션 {}개, 대기 {}건 / {} bytes, fsync {})",
+                root, partitions, (long) sum(SpoolLog::pendingRecords), (long) sum(SpoolLog::pendingBytes), fsync);
+    }
+
+    @PreDestroy
+    void close() {
+        if (drainers.isEmpty()) return;
+        drainers.forEach(SpoolDrainer::stop);
+        for (SpoolDrainer d : drainers) {
+            try {
+                d.spoolLog().close();
+            } catch (IOException e) {
+                log.warn("⚠️ 수신 스풀 닫기 실패: {}", e.getMessage());
+            }
+        }
+        log.info("📥 수신 스풀 종료 (반영 대기 {}건은 다음 기동 시 반영)", (long) sum(SpoolLog::pendingRecords));
+    }
+
+    /**
+     * 스풀로 받을 요청인지 (꺼져 있거나, 모르는 서버 / 틀린 토큰이면 false -> 기존 경로에서 404 / 401)
+     */
+    public boolean accepts(String serverName, String token) {
+        return enabled && token != null && ingestQuotaManager.authenticated(serverName, token);
+    }
+
+    public IngestResultDto appendLogs(String serverName, String discordWebhookUrl, String batchId,
+                                      List<LogEventDto> events) {
+        if (events == null || events.isEmpty()) {
+            return new IngestResultDto(serverName, 0, "수신할 로그가 없습니다.");
+        }
+        append(SpoolRecord.Kind.LOGS, serverName, discordWebhookUrl, batchId, CompactIngestCodec.encodeLogs(events));
+        return new IngestResultDto(serverName, events.size(), "수신 완료 (저장 대기)");
+    }
+
+    public IngestResultDto appendMetrics(String serverName, String discordWebhookUrl, String batchId,
+                                         List<MetricIngestDto> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            return new IngestResultDto(serverName, 0, "수신할 메트릭이 없습니다.");
+        }
+        metricService.checkBatchSize(dtos.size());
+        append(SpoolRecord.Kind.METRICS, serverName, discordWebhookUrl, batchId, json(dtos));
+        return new IngestResultDto(serverName, dtos.size(), "수신 완료 (저장 대기)");
+    }
+
+    public IngestResultDto appendHealth(String serverName, String discordWebhookUrl, HealthIngestDto dto) {
+        append(SpoolRecord.Kind.HEALTH, serverName, discordWebhookUrl, null, json(dto));
+        return new IngestResultDto(serverName, 1, "수신 완료 (저장 대기)");
+    }
+
+    private void append(SpoolRecord.Kind kind, String serverName, String discordWebhookUrl,
+                        String batchId, byte[] payload) {
+        if (sum(SpoolLog::pendingBytes) >= maxBytes) {
+            meterRegistry.counter("ingest.spool.rejected", "type", kind.tag()).increment();
+            throw new IngestBackpressureException(
+                    "수신 대기량이 한도(" + maxBytes + " bytes)를 넘었습니다. 잠시 후 다시 보내주세요.", retryAfterSeconds);
+        }
+
+        SpoolDrainer partition = drainers.get(Math.floorMod(serverName.hashCode(), partitions));
+        long start = System.nanoTime();
+        try {
+            partition.spoolLog().append(kind, serverName, batchId, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("수신 스풀 쓰기 실패: " + serverName, e);
+        }
+        appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("ingest.spool.appended", "type", kind.tag()).increment();
+
+        // DB 반영이 밀려도 forwarder 침묵 알림이 나가지 않도록 수신 시점에 갱신 (웹훅도 여기서 기억 -> 반영 시 사용)
+        forwarderWatchdog.touch(serverName, discordWebhookUrl);
+        partition.wake();
+    }
+
+    // ===================== drainer =====================
+
+    private SpoolDrainer drainer(Path partitionDir, String name) throws IOException {
+        SpoolLog spoolLog = new SpoolLog(partitionDir, segmentBytes, fsync, (nanos, records) -> {
+            fsyncTimer.record(nanos, TimeUnit.NANOSECONDS);
+            fsyncBatch.record(records);
+        });
+        return new SpoolDrainer(name, spoolLog, this::replay, meterRegistry,
+                maxBackoffMs, maxAttempts, positionSaveIntervalMs, Thread::sleep);
+    }
+
+    // 반영 시점의 토큰으로 서비스 호출 (스풀에 넣을 때 이미 인증됨, 그 사이 토큰이 바뀌어도 받은 요청은 반영)
+    private void replay(SpoolRecord r) {
+        String token = ingestQuotaManager.currentToken(r.serverName());
+        if (token == null) {
+            throw new NotFoundException("서버를 찾을 수 없습니다: " + r.serverName());
+        }
+        String webhook = forwarderWatchdog.webhookUrl(r.serverName());
+        try {
+            switch (r.kind()) {
+                case LOGS -> logService.ingestLogs(r.serverName(), token, webhook, r.batchId(),
+                        CompactIngestCodec.decodeLogs(r.payload()));
+                case METRICS -> metricService.saveMetrics(r.serverName(),
+                        objectMapper.readValue(r.payload(), new TypeReference<List<MetricIngestDto>>() {}),
+                        token, webhook, r.batchId());
+                case HEALTH -> healthService.saveHealth(r.serverName(),
+                        objectMapper.readValue(r.payload(), HealthIngestDto.class), token, webhook);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("스풀 레코드 해석 실패 (seq " + r.seq() + ")", e);
+        }
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("스풀 레코드 직렬화 실패", e);
+        }
+    }
+
+    // 이전 실행에서 만든 파티션 디렉터리 수 (p0, p1, ... 중 가장 큰 번호 + 1)
+    private static int existingPartitions(Path root) throws IOException {
+        int count = 0;
+        try (Stream<Path> children = Files.list(root)) {
+            for (Path p : children.filter(Files::isDirectory).toList()) {
+                String name = p.getFileName().toString();
+                if (!name.startsWith(PARTITION_PREFIX)) continue;
+                try {
+                    count = Math.max(count, Integer.parseInt(name.substring(PARTITION_PREFIX.length())) + 1);
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return count;
+    }
+
+    private double sum(ToDoubleFunction<SpoolLog> metric) {
+        double total = 0;
+        for (SpoolDrainer d : drainers) total += metric.applyAsDouble(d.spoolLog());
+        return total;
+    }
+
+    private double oldestAgeSeconds() {
+        long oldest = 0;
+        for (SpoolDrainer d : drainers) {
+            long head = d.headAppendedAt();
+            if (head != 0 && (oldest == 0 || head < oldest)) oldest = head;
+        }
+        return oldest == 0 ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+}
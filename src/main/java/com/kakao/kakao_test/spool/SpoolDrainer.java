@@ -0,0 +1,191 @@
+package com.kakao.kakao_test.spool;
+
+import com.kakao.kakao_test.exception.BadRequestException;
+import com.kakao.kakao_test.exception.NotFoundException;
+import com.kakao.kakao_test.exception.UnauthorizedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.TransactionException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 스풀 파티션 1개를 받은 순서대로 DB 에 반영하는 drainer (파티션당 스레드 1개)
+ * - DB 오류(DataAccessException / TransactionException): 반영될 때까지 같은 레코드를 지수 백오프로 재시도 (버리지 않음)
+ * - 서버 삭제 / 토큰 변경 / 잘못된 요청: 다시 해도 같은 결과라 바로 버림 (reason=rejected)
+ * - 그 외 오류: max-attempts 번까지 재시도 후 버림 (reason=failed)
+ * - 두 재시도 횟수는 따로 셈 (DB 장애가 길었다고 다른 오류의 재시도 기회가 줄지 않도록)
+ */
+@Slf4j
+final class SpoolDrainer implements Runnable {
+
+    static final long INITIAL_BACKOFF_MS = 100;
+
+    /**
+     * 레코드 1건 반영 (서비스 호출)
+     */
+    interface Replayer {
+        void replay(SpoolRecord record);
+    }
+
+    interface Sleeper {
+        void sleep(long ms) throws InterruptedException;
+    }
+
+    private final String name;
+    private final SpoolLog spoolLog;
+    private final Replayer replayer;
+    private final MeterRegistry meterRegistry;
+    private final long maxBackoffMs;
+    private final int maxAttempts;
+    private final long positionSaveIntervalMs;
+    private final Sleeper sleeper;
+    private final Timer replayTimer;
+
+    private volatile Thread thread;
+    private volatile boolean running;
+    private volatile long headAppendedAt;   // 반영 대기 중인 가장 오래된 레코드의 수신 시각 (0 = 대기 없음)
+
+    private int dbAttempts;
+    private int failedAttempts;
+    private long backoffMs;
+    private long lastSaved = System.currentTimeMillis();
+
+    SpoolDrainer(String name, SpoolLog spoolLog, Replayer replayer, MeterRegistry meterRegistry,
+                 long maxBackoffMs, int maxAttempts, long positionSaveIntervalMs, Sleeper sleeper) {
+        this.name = name;
+        this.spoolLog = spoolLog;
+        this.replayer = replayer;
+        this.meterRegistry = meterRegistry;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxAttempts = maxAttempts;
+        this.positionSaveIntervalMs = positionSaveIntervalMs;
+        this.sleeper = sleeper;
+        this.replayTimer = meterRegistry.timer("ingest.spool.replay");
+    }
+
+    void start() {
+        running = true;
+        Thread t = new Thread(this, name);
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    void stop() {
+        running = false;
+        Thread t = thread;
+        if (t == null) return;
+        t.interrupt();
+        try {
+            t.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 새 레코드가 들어왔음을 알림
+    void wake() {
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    SpoolLog spoolLog() {
+        return spoolLog;
+    }
+
+    long headAppendedAt() {
+        return headAppendedAt;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                if (!drainOne()) {
+                    savePositionIfDue();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.error("🚨 수신 스풀 읽기 실패 ({}): {}", name, e.getMessage());
+                try {
+                    sleeper.sleep(1_000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 맨 앞 레코드 1건 처리 시도
+     * @return 대기 중인 레코드가 있었으면 true (재시도 대기로 끝난 경우 포함)
+     */
+    boolean drainOne() throws IOException, InterruptedException {
+        SpoolRecord record = spoolLog.peek();
+        if (record == null) {
+            headAppendedAt = 0;
+            return false;
+        }
+        headAppendedAt = record.appendedAt();
+
+        try {
+            long start = System.nanoTime();
+            replayer.replay(record);
+            replayTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("ingest.spool.drained", "type", record.kind().tag()).increment();
+        } catch (UnauthorizedException | NotFoundException | BadRequestException | IllegalArgumentException
+                 | SecurityException e) {
+            // 스풀에 넣은 뒤 서버가 삭제됐거나 토큰이 바뀐 경우 -> 다시 해도 같은 결과
+            drop(record, "rejected", e);
+        } catch (DataAccessException | TransactionException e) {
+            // DB 장애: 반영될 때까지 같은 레코드를 재시도 (순서 유지)
+            backoffMs = backoffMs == 0 ? INITIAL_BACKOFF_MS : Math.min(maxBackoffMs, backoffMs * 2);
+            if (dbAttempts++ == 0) {
+                log.warn("⚠️ 수신 스풀 DB 반영 실패, 재시도 중 ({}, 대기 {}건): {}",
+                        name, spoolLog.pendingRecords(), e.getMessage());
+            }
+            meterRegistry.counter("ingest.spool.replay.failures", "reason", "db").increment();
+            sleeper.sleep(backoffMs);
+            return true;
+        } catch (RuntimeException e) {
+            if (++failedAttempts < maxAttempts) {
+                meterRegistry.counter("ingest.spool.replay.failures", "reason", "error").increment();
+                sleeper.sleep(Math.min(maxBackoffMs, INITIAL_BACKOFF_MS << failedAttempts));
+                return true;
+            }
+            drop(record, "failed", e);
+        }
+
+        if (dbAttempts > 0) {
+            log.info("✅ 수신 스풀 DB 반영 재개 ({}, 대기 {}건)", name, spoolLog.pendingRecords());
+        }
+        dbAttempts = 0;
+        failedAttempts = 0;
+        backoffMs = 0;
+        spoolLog.ack();
+        savePositionIfDue();
+        return true;
+    }
+
+    private void savePositionIfDue() throws IOException {
+        if (System.currentTimeMillis() - lastSaved >= positionSaveIntervalMs) {
+            spoolLog.savePosition();
+            lastSaved = System.currentTimeMillis();
+        }
+    }
+
+    private void drop(SpoolRecord r, String reason, Exception e) {
+        meterRegistry.counter("ingest.spool.dropped", "type", r.kind().tag(), "reason", reason).increment();
+        log.warn("⚠️ 수신 스풀 레코드 버림 ({}, 서버: {}, 종류: {}, seq: {}): {}",
+                name, r.serverName(), r.kind().tag(), r.seq(), e.getMessage());
+    }
+}
@@ -0,0 +1,397 @@
+package com.kakao.kakao_test.spool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 수신 write-ahead 스풀 파일 (디렉터리 1개, 순번 이름의 세그먼트 파일들)
+ * - 레코드: [본문 길이 int][crc32c(본문) int][본문]
+ * - 세그먼트 파일 이름 = 첫 레코드 순번, segment-bytes 를 넘으면 다음 세그먼트 (재시작 후에는 항상 새 세그먼트부터)
+ * - fsync 는 모아서 한 번: 동시에 쓴 요청들은 앞선 요청의 fsync 에 같이 포함됨 (group commit)
+ * - 읽기 위치는 drain.pos 에 기록, 다 읽은 세그먼트는 삭제
+ * - 재시작 시 마지막 세그먼트의 잘리거나 깨진 꼬리는 잘라냄 (ack 받지 못한 요청 = forwarder 가 재전송)
+ * - 쓰기는 여러 스레드, 읽기(peek/ack)는 drainer 스레드 하나만 (파티션마다 SpoolLog 1개 + drainer 1개)
+ */
+@Slf4j
+final class SpoolLog implements Closeable {
+
+    static final String SUFFIX = ".spool";
+    private static final String POSITION_FILE = "drain.pos";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * fsync 1회 완료 (걸린 시간, 함께 반영된 레코드 수)
+     */
+    interface SyncObserver {
+        void synced(long nanos, long records);
+    }
+
+    // drainer 가 읽어도 되는 범위 (쓰기가 끝난 레코드까지)
+    private record Tail(long segment, long size) {}
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final SyncObserver observer;
+    private final NavigableSet<Long> segments = new ConcurrentSkipListSet<>();
+
+    // 쓰기 (writeLock)
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private FileChannel writer;
+    private long writerSegment = -1;
+    private long writerSize;
+    private long nextSeq = 1;
+    private long writtenSeq;
+    private volatile Tail tail = new Tail(-1, 0);
+
+    // fsync
+    private final Object syncLock = new Object();
+    private final AtomicLong durableSeq = new AtomicLong();
+
+    // 읽기 (drainer 스레드 전용)
+    private FileChannel reader;
+    private long readSegment = -1;
+    private long readOffset;
+    private long peekedEnd = -1;
+
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicLong pendingRecords = new AtomicLong();
+    private final AtomicLong corruptSkipped = new AtomicLong();
+
+    SpoolLog(Path dir, long segmentBytes, boolean fsync, SyncObserver observer) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.observer = observer;
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : files.toList()) {
+                String name = p.getFileName().toString();
+                if (name.endsWith(SUFFIX)) {
+                    segments.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("알 수 없는 스풀 파일: " + dir, e);
+        }
+        recover();
+    }
+
+    /**
+     * 레코드 1건 추가 (fsync 켜져 있으면 디스크에 반영된 뒤 반환)
+     * @return 레코드 순번
+     */
+    long append(SpoolRecord.Kind kind, String serverName, String batchId, byte[] payload) throws IOException {
+        long seq;
+        writeLock.lock();
+        try {
+            seq = nextSeq;
+            byte[] body = new SpoolRecord(seq, System.currentTimeMillis(), kind, serverName, batchId, payload).encode();
+            ByteBuffer frame = frame(body);
+            int frameBytes = frame.remaining();
+            if (writer == null || (writerSize > 0 && writerSize + frameBytes > segmentBytes)) {
+                roll(seq);
+            }
+            try {
+                while (frame.hasRemaining()) writer.write(frame);
+            } catch (IOException e) {
+                writer.truncate(writerSize); // 반쯤 쓴 레코드 제거 (디스크 부족 등)
+                throw e;
+            }
+            nextSeq++;
+            writerSize += frameBytes;
+            writtenSeq = seq;
+            pendingBytes.addAndGet(frameBytes);
+            pendingRecords.incrementAndGet();
+            tail = new Tail(writerSegment, writerSize);
+        } finally {
+            writeLock.unlock();
+        }
+
+        if (fsync) syncUpTo(seq);
+        return seq;
+    }
+
+    /**
+     * 다음에 반영할 레코드 (없으면 null). ack 전까지는 같은 레코드를 다시 반환
+     */
+    SpoolRecord peek() throws IOException {
+        while (true) {
+            if (readSegment < 0) {
+                if (segments.isEmpty()) return null;
+                readSegment = segments.first();
+                readOffset = 0;
+            }
+            Tail t = tail;
+            boolean active = t.segment() == readSegment;
+            if (reader == null) {
+                reader = FileChannel.open(path(readSegment), StandardOpenOption.READ);
+            }
+            long limit = active ? t.size() : reader.size();
+
+            if (readOffset + HEADER_BYTES <= limit) {
+                ByteBuffer header = readFully(reader, readOffset, HEADER_BYTES);
+                int length = header.getInt();
+                int crc = header.getInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES || readOffset + HEADER_BYTES + length > limit) {
+                    skipCorrupt(limit, "길이 이상");
+                    continue;
+                }
+                byte[] body = readFully(reader, readOffset + HEADER_BYTES, length).array();
+                if (crc32c(body) != crc) {
+                    skipCorrupt(limit, "crc 불일치");
+                    continue;
+                }
+                peekedEnd = readOffset + HEADER_BYTES + length;
+                return SpoolRecord.decode(new DataInputStream(new ByteArrayInputStream(body)));
+            }
+            if (active) return null;
+
+            // 이 세그먼트는 다 읽음 -> 삭제 후 다음 세그먼트
+            Long next = segments.higher(readSegment);
+            if (next == null) return null; // 재시작 후 아직 새 세그먼트가 없음
+            pendingBytes.addAndGet(-(limit - readOffset));
+            closeReader();
+            Files.deleteIfExists(path(readSegment));
+            segments.remove(readSegment);
+            readSegment = next;
+            readOffset = 0;
+            savePosition();
+        }
+    }
+
+    /**
+     * 마지막으로 peek 한 레코드를 반영 완료로 표시
+     */
+    void ack() {
+        if (peekedEnd < 0) return;
+        pendingBytes.addAndGet(-(peekedEnd - readOffset));
+        pendingRecords.updateAndGet(n -> Math.max(0, n - 1));
+        readOffset = peekedEnd;
+        peekedEnd = -1;
+    }
+
+    /**
+     * 읽기 위치 저장 (재시작 시 여기부터, 그 사이 반영된 레코드는 중복 제거로 걸러짐)
+     */
+    void savePosition() throws IOException {
+        if (readSegment < 0) return;
+        Path tmp = dir.resolve(POSITION_FILE + ".tmp");
+        Files.write(tmp, ByteBuffer.allocate(16).putLong(readSegment).putLong(readOffset).array());
+        Files.move(tmp, dir.resolve(POSITION_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    long pendingBytes() {
+        return Math.max(0, pendingBytes.get());
+    }
+
+    long pendingRecords() {
+        return pendingRecords.get();
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    long corruptSkipped() {
+        return corruptSkipped.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (writer != null) {
+                if (fsync) writer.force(false);
+                writer.close();
+                writer = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        closeReader();
+        savePosition();
+    }
+
+    // ===================== 내부 =====================
+
+    private void syncUpTo(long seq) throws IOException {
+        while (durableSeq.get() < seq) {
+            synchronized (syncLock) {
+                if (durableSeq.get() >= seq) return; // 앞선 fsync 에 같이 포함됨
+                FileChannel channel;
+                long upTo;
+                writeLock.lock();
+                try {
+                    channel = writer;
+                    upTo = writtenSeq;
+                } finally {
+                    writeLock.unlock();
+                }
+                long before = durableSeq.get();
+                long start = System.nanoTime();
+                try {
+                    channel.force(false);
+                } catch (ClosedChannelException e) {
+                    continue; // 그 사이 세그먼트가 넘어감 (이전 세그먼트는 roll 에서 fsync 됨)
+                }
+                durableSeq.accumulateAndGet(upTo, Math::max);
+                observer.synced(System.nanoTime() - start, upTo - before);
+            }
+        }
+    }
+
+    private void roll(long firstSeq) throws IOException {
+        if (writer != null) {
+            if (fsync) writer.force(false);
+            writer.close();
+            durableSeq.accumulateAndGet(firstSeq - 1, Math::max);
+        }
+        writer = FileChannel.open(path(firstSeq), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        if (fsync) syncDirectory();
+        segments.add(firstSeq);
+        writerSegment = firstSeq;
+        writerSize = 0;
+    }
+
+    /**
+     * 재시작 시 읽기 위치 복원, 대기량 계산, 마지막 세그먼트의 깨진 꼬리 정리
+     */
+    private void recover() throws IOException {
+        long[] position = readPosition();
+        if (position != null && segments.contains(position[0])) {
+            readSegment = position[0];
+            readOffset = position[1];
+            // 읽기 위치 이전 세그먼트는 반영이 끝났는데 삭제 전에 멈춘 것
+            for (long s : List.copyOf(segments.headSet(readSegment, false))) {
+                Files.deleteIfExists(path(s));
+                segments.remove(s);
+            }
+        }
+        if (segments.isEmpty()) return;
+
+        long lastSegment = segments.last();
+        long lastSeq = 0;
+        for (long s : List.copyOf(segments)) {
+            boolean last = s == lastSegment;
+            long from = s == readSegment ? readOffset : 0;
+            try (FileChannel ch = FileChannel.open(path(s), last
+                    ? new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE}
+                    : new StandardOpenOption[]{StandardOpenOption.READ})) {
+                long size = ch.size();
+                long offset = 0;
+                while (offset + HEADER_BYTES <= size) {
+                    ByteBuffer header = readFully(ch, offset, HEADER_BYTES);
+                    int length = header.getInt();
+                    int crc = header.getInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES || offset + HEADER_BYTES + length > size) break;
+                    if (last) {
+                        // 마지막 세그먼트만 본문까지 검사 (그 외는 drainer 가 읽을 때 검사)
+                        byte[] body = readFully(ch, offset + HEADER_BYTES, length).array();
+                        if (crc32c(body) != crc) break;
+                        lastSeq = SpoolRecord.seqOf(body);
+                    }
+                    if (offset >= from) {
+                        pendingBytes.addAndGet(HEADER_BYTES + length);
+                        pendingRecords.incrementAndGet();
+                    }
+                    offset += HEADER_BYTES + length;
+                }
+                if (last && offset < size) {
+                    log.warn("⚠️ 스풀 마지막 세그먼트의 불완전한 꼬리 {} bytes 정리 ({})", size - offset, path(s).getFileName());
+                    ch.truncate(offset);
+                    if (readSegment == s && readOffset > offset) readOffset = offset;
+                }
+                if (last && offset == 0) {
+                    // 빈 세그먼트는 같은 이름으로 새로 만들 수 있도록 삭제
+                    Files.deleteIfExists(path(s));
+                    segments.remove(s);
+                    if (readSegment == s) readSegment = -1;
+                }
+            }
+        }
+        nextSeq = Math.max(lastSeq + 1, lastSegment);
+        if (segments.isEmpty()) return;
+        if (readSegment < 0) {
+            readSegment = segments.first();
+            readOffset = 0;
+        }
+    }
+
+    private void skipCorrupt(long limit, String reason) throws IOException {
+        corruptSkipped.incrementAndGet();
+        log.error("🚨 스풀 세그먼트 손상 ({}, offset {}): {} -> 세그먼트 나머지 {} bytes 건너뜀",
+                path(readSegment).getFileName(), readOffset, reason, limit - readOffset);
+        pendingBytes.addAndGet(-(limit - readOffset));
+        readOffset = limit;
+        peekedEnd = -1;
+    }
+
+    private long[] readPosition() throws IOException {
+        Path file = dir.resolve(POSITION_FILE);
+        if (!Files.exists(file)) return null;
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length != 16) return null;
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        return new long[]{buf.getLong(), buf.getLong()};
+    }
+
+    private void closeReader() throws IOException {
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+    }
+
+    // 새 세그먼트 파일이 디렉터리 항목까지 디스크에 남도록 (지원하지 않는 OS 는 무시)
+    private void syncDirectory() {
+        try (FileChannel d = FileChannel.open(dir, StandardOpenOption.READ)) {
+            d.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private Path path(long segment) {
+        return dir.resolve(String.format("%020d%s", segment, SUFFIX));
+    }
+
+    private static ByteBuffer frame(byte[] body) {
+        return ByteBuffer.allocate(HEADER_BYTES + body.length)
+                .putInt(body.length).putInt(crc32c(body)).put(body)
+                .flip();
+    }
+
+    private static ByteBuffer readFully(FileChannel ch, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position()) < 0) throw new EOFException();
+        }
+        return buf.flip();
+    }
+
+    private static int crc32c(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,54 @@
+package com.kakao.kakao_test.spool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 스풀에 쌓인 수신 요청 1건 (컨트롤러가 받은 그대로, 한도 적용 후)
+ * - payload: logs 는 CompactIngestCodec 인코딩, metrics / health 는 수신한 DTO 의 JSON (둘 다 손실 없음)
+ * - 토큰 / 디스코드 웹훅 같은 비밀값은 저장하지 않음 (인증은 스풀에 넣기 전에 끝남, 웹훅은 반영 시점의 값을 씀)
+ */
+record SpoolRecord(long seq, long appendedAt, Kind kind, String serverName, String batchId, byte[] payload) {
+
+    enum Kind {
+        LOGS, METRICS, HEALTH;
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64 + payload.length);
+        try (DataOutputStream out = new DataOutputStream(buf)) {
+            out.writeLong(seq);
+            out.writeLong(appendedAt);
+            out.writeByte(kind.ordinal());
+            out.writeUTF(serverName);
+            out.writeUTF(batchId == null ? "" : batchId);
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+        return buf.toByteArray();
+    }
+
+    static SpoolRecord decode(DataInputStream in) throws IOException {
+        long seq = in.readLong();
+        long appendedAt = in.readLong();
+        Kind kind = Kind.values()[in.readUnsignedByte()];
+        String serverName = in.readUTF();
+        String batchId = in.readUTF();
+        byte[] payload = new byte[in.readInt()];
+        in.readFully(payload);
+        return new SpoolRecord(seq, appendedAt, kind, serverName, batchId.isEmpty() ? null : batchId, payload);
+    }
+
+    // 본문 앞의 seq 만 읽음 (복구 시 다음 번호 계산용)
+    static long seqOf(byte[] body) {
+        long seq = 0;
+        for (int i = 0; i < 8; i++) seq = (seq << 8) | (body[i] & 0xff);
+        return seq;
+    }
+}
@@ -0,0 +1,87 @@
+package db.migration;
+
+import com.kakao.kakao_test.ingest.LogLineClassifier;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * error_context 의 fingerprint 를 새 규칙(첫 줄 + 예외 클래스 + 가장 위 프레임 메서드)으로 다시 계산
+ * - 여러 줄(스택트레이스) 메시지로 캡처된 행만 키가 바뀜 (한 줄 메시지는 이전 규칙과 결과가 같음)
+ * - 정규화 규칙을 SQL 로 옮기면 어긋날 수 있어 수신 시와 같은 LogLineClassifier.fingerprint 로 계산
+ * - 새 키가 이미 있으면 최근에 캡처된 쪽의 전후 로그를 남기고 captures 는 합침
+ */
+public class V3__rekey_error_context_fingerprint extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection conn = context.getConnection();
+
+        List<Row> rows = new ArrayList<>();
+        // 서버 x 에러 그룹 수만큼이라 전부 읽어 여러 줄인 행만 고름 (줄바꿈 LIKE 는 DB 마다 문법이 달라서)
+        try (PreparedStatement ps = conn.prepareStatement(
+                "select id, server_name, fingerprint, message, captures, captured_at from error_context");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows.add(new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5),
+                        rs.getTimestamp(6)));
+            }
+        }
+
+        for (Row row : rows) {
+            if (row.message == null || row.message.indexOf('\n') < 0) continue;
+            String fingerprint = LogLineClassifier.fingerprint(row.message);
+            if (fingerprint.equals(row.fingerprint)) continue;
+
+            Row existing = find(conn, row.serverName, fingerprint);
+            if (existing == null) {
+                update(conn, "update error_context set fingerprint = ? where id = ?", fingerprint, row.id);
+            } else if (newer(existing, row)) {
+                update(conn, "update error_context set captures = captures + ? where id = ?", row.captures, existing.id);
+                update(conn, "delete from error_context where id = ?", row.id);
+            } else {
+                update(conn, "delete from error_context where id = ?", existing.id);
+                update(conn, "update error_context set fingerprint = ?, captures = captures + ? where id = ?",
+                        fingerprint, existing.captures, row.id);
+            }
+        }
+    }
+
+    private static Row find(Connection conn, String serverName, String fingerprint) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "select id, server_name, fingerprint, message, captures, captured_at from error_context "
+                        + "where server_name = ? and fingerprint = ?")) {
+            ps.setString(1, serverName);
+            ps.setString(2, fingerprint);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                return new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5),
+                        rs.getTimestamp(6));
+            }
+        }
+    }
+
+    private static boolean newer(Row a, Row b) {
+        if (a.capturedAt == null) return false;
+        return b.capturedAt == null || !a.capturedAt.before(b.capturedAt);
+    }
+
+    private static void update(Connection conn, String sql, Object... args) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private record Row(long id, String serverName, String fingerprint, String message, int captures,
+                       Timestamp capturedAt) {}
+}
@@ -0,0 +1,58 @@
+-- 기준 스키마 = 이 저장소가 Flyway 도입 전 ddl-auto: update 로 만들던 테이블 그대로 (target_server / server_log / server_metric / server_health_event)
+-- 기존 DB 는 spring.flyway.baseline-on-migrate 로 이 버전이 적용된 것으로 표시되고, 새 DB 에서만 실행됨
+-- 그래서 이 파일에는 이후 추가된 컬럼/테이블을 넣지 않음 -> V2 부터 기존 DB 에도 똑같이 적용
+-- 이후 스키마 변경은 새 V 파일로 추가 (엔티티만 바꾸면 기동 시 validate 에서 실패)
+
+create table target_server (
+    id                      bigint       not null auto_increment,
+    server_name             varchar(255) not null,
+    mcp_token               varchar(255) not null,
+    heart_beat              datetime(6),
+    last_health_status      varchar(255),
+    last_health_http_status integer,
+    last_health_latency_ms  bigint,
+    primary key (id),
+    constraint uk_target_server_name unique (server_name),
+    constraint uk_target_server_token unique (mcp_token)
+) engine = InnoDB default charset = utf8mb4;
+
+create table server_log (
+    id          bigint not null auto_increment,
+    server_id   bigint not null,
+    level       varchar(255),
+    message     longtext,
+    occurred_at datetime(6),
+    created_at  datetime(6),
+    updated_at  datetime(6),
+    primary key (id),
+    constraint fk_server_log_server foreign key (server_id) references target_server (id)
+) engine = InnoDB default charset = utf8mb4;
+
+create index idx_log_server_time on server_log (server_id, occurred_at);
+create index idx_log_level on server_log (server_id, level, occurred_at);
+
+create table server_metric (
+    id             bigint not null auto_increment,
+    server_id      bigint not null,
+    cpu_usage      double,
+    memory_used_mb double,
+    memory_max_mb  double,
+    captured_at    datetime(6),
+    primary key (id),
+    constraint fk_server_metric_server foreign key (server_id) references target_server (id)
+) engine = InnoDB default charset = utf8mb4;
+
+create index idx_metric_server_time on server_metric (server_id, captured_at);
+
+create table server_health_event (
+    id          bigint       not null auto_increment,
+    server_name varchar(255) not null,
+    ts          bigint       not null,
+    status      varchar(255) not null,
+    latency_ms  bigint       not null,
+    http_status integer      not null,
+    message     varchar(500),
+    primary key (id)
+) engine = InnoDB default charset = utf8mb4;
+
+create index idx_health_server_ts on server_health_event (server_name, ts);
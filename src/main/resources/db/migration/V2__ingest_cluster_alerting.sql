@@ -0,0 +1,73 @@
+-- 수집 중복 제거 / 수신 한도 / 클러스터 / 에러 컨텍스트 / 알림 규칙 / 레벨별 로그 수
+-- 기준(V1) 이후 엔티티에 추가된 컬럼과 테이블 (기존 DB 는 V1 baseline 후 이 파일부터 적용)
+
+-- 재전송 중복 제거용 이벤트 ID (같은 서버 안에서 유일, 기존 행은 null)
+alter table server_log add column event_id varchar(64);
+alter table server_log add column exception_class varchar(255);
+alter table server_log
+    add constraint uk_log_server_event unique (server_id, event_id);
+
+alter table server_metric add column event_id varchar(64);
+alter table server_metric
+    add constraint uk_metric_server_event unique (server_id, event_id);
+
+-- 서버별 수신 한도 (null 이면 ingest.quota.* 기본값)
+alter table target_server add column quota_events_per_sec integer;
+alter table target_server add column quota_bytes_per_sec bigint;
+alter table target_server add column quota_burst_seconds integer;
+alter table target_server add column quota_overflow_policy enum ('REJECT','SAMPLE','KEEP_SEVERE');
+
+create table cluster_node (
+    node_id           varchar(64)  not null,
+    advertise_url     varchar(255) not null,
+    started_at        datetime(6)  not null,
+    last_heartbeat_at datetime(6)  not null,
+    primary key (node_id)
+) engine = InnoDB default charset = utf8mb4;
+
+create table error_context (
+    id            bigint       not null auto_increment,
+    server_name   varchar(255) not null,
+    fingerprint   varchar(200) not null,
+    level         varchar(20),
+    message       text,
+    occurred_at   datetime(6),
+    context_lines text,
+    captures      integer      not null,
+    captured_at   datetime(6),
+    primary key (id),
+    constraint uk_error_context_group unique (server_name, fingerprint)
+) engine = InnoDB default charset = utf8mb4;
+
+create table alert_rule (
+    id               bigint       not null auto_increment,
+    server_name      varchar(255) not null,
+    name             varchar(100) not null,
+    type             enum ('METRIC_THRESHOLD','ERROR_RATE','EXCEPTION_PATTERN','HEALTH_DOWN') not null,
+    metric           enum ('CPU','MEMORY'),
+    threshold        double       not null,
+    window_seconds   integer      not null,
+    min_count        integer      not null,
+    pattern          varchar(500),
+    cooldown_seconds integer      not null,
+    enabled          bit          not null,
+    created_at       datetime(6),
+    updated_at       datetime(6),
+    primary key (id)
+) engine = InnoDB default charset = utf8mb4;
+
+create index idx_alert_rule_server on alert_rule (server_name);
+
+create table log_level_count (
+    id           bigint       not null auto_increment,
+    server_name  varchar(255) not null,
+    resolution   enum ('MINUTE','HOUR') not null,
+    bucket_start datetime(6)  not null,
+    debug_count  bigint       not null,
+    info_count   bigint       not null,
+    warn_count   bigint       not null,
+    error_count  bigint       not null,
+    other_count  bigint       not null,
+    primary key (id),
+    constraint uk_log_level_count_bucket unique (server_name, resolution, bucket_start)
+) engine = InnoDB default charset = utf8mb4;
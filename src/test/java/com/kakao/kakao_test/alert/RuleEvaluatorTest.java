@@ -0,0 +1,66 @@
+package com.kakao.kakao_test.alert;
+
+import com.kakao.kakao_test.domain.AlertMetric;
+import com.kakao.kakao_test.domain.AlertRule;
+import com.kakao.kakao_test.domain.AlertRuleType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleEvaluatorTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void 슬라이딩_윈도우는_구간이_지난_값을_빼고_합계를_유지한다() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+
+        counter.add(T0, 3);
+        counter.add(T0 + 30_000, 2);
+        assertThat(counter.sum(T0 + 59_000)).isEqualTo(5);
+        assertThat(counter.sum(T0 + 61_000)).isEqualTo(2);
+        assertThat(counter.sum(T0 + 200_000)).isZero();
+    }
+
+    @Test
+    void 메트릭_임계치는_지정한_시간_이상_계속_넘어야_알림() {
+        MetricThresholdEvaluator cpu = new MetricThresholdEvaluator(rule(AlertRuleType.METRIC_THRESHOLD)
+                .metric(AlertMetric.CPU).threshold(80).windowSeconds(60).cooldownSeconds(600).build());
+
+        assertThat(cpu.onMetric(T0, T0, 95, 10)).isNull();
+        assertThat(cpu.onMetric(T0, T0 + 30_000, 50, 10)).isNull();          // 중간에 내려오면 초기화
+        assertThat(cpu.onMetric(T0, T0 + 40_000, 90, 10)).isNull();
+        assertThat(cpu.onMetric(T0, T0 + 90_000, 91, 10)).isNull();
+        assertThat(cpu.onMetric(T0, T0 + 100_000, 92, 10)).contains("CPU 92.0%");
+    }
+
+    @Test
+    void 에러_비율은_최소_줄_수를_넘긴_뒤에만_평가하고_쿨타임_동안은_다시_울리지_않는다() {
+        ErrorRateEvaluator rate = new ErrorRateEvaluator(rule(AlertRuleType.ERROR_RATE)
+                .threshold(10).windowSeconds(60).minCount(20).cooldownSeconds(300).build());
+
+        assertThat(rate.onLogs(T0, 5, 5, "boom")).isNull();                  // 5줄 중 5줄이지만 최소 20줄 미만
+        assertThat(rate.onLogs(T0 + 1_000, 95, 0, null)).isNull();           // 5 / 100 = 5%
+        assertThat(rate.onLogs(T0 + 2_000, 20, 10, "boom")).contains("ERROR 15건 / 전체 120줄");
+        assertThat(rate.onLogs(T0 + 3_000, 10, 10, "boom")).isNull();        // 쿨타임
+        assertThat(rate.onLogs(T0 + 400_000, 20, 20, "boom")).isNotNull();   // 쿨타임 이후 (이전 구간은 만료)
+    }
+
+    @Test
+    void health_는_연속_DOWN_횟수를_세고_UP_이면_초기화한다() {
+        HealthDownEvaluator health = new HealthDownEvaluator(rule(AlertRuleType.HEALTH_DOWN)
+                .minCount(3).cooldownSeconds(0).build());
+
+        assertThat(health.onHealth(T0, "DOWN")).isNull();
+        assertThat(health.onHealth(T0, "DOWN")).isNull();
+        assertThat(health.onHealth(T0, "UP")).isNull();
+        assertThat(health.onHealth(T0, "DOWN")).isNull();
+        assertThat(health.onHealth(T0, "UNKNOWN")).isNull();
+        assertThat(health.onHealth(T0, "DOWN")).isNull();
+        assertThat(health.onHealth(T0, "DOWN")).contains("3회 연속 DOWN");
+    }
+
+    private AlertRule.AlertRuleBuilder rule(AlertRuleType type) {
+        return AlertRule.builder().serverName("demo").name(type.name()).type(type).enabled(true);
+    }
+}
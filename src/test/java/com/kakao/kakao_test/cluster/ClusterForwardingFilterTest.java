@@ -0,0 +1,149 @@
+package com.kakao.kakao_test.cluster;
+
+import com.kakao.kakao_test.http.OutboundHttp;
+import com.kakao.kakao_test.http.OutboundHttpFixture;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 로컬 가짜 소유 노드로 전달 / 503 / 직접 처리 경로 검증
+ */
+class ClusterForwardingFilterTest {
+
+    private static final String SERVER = "demo";
+    private static final String PATH = "/api/servers/" + SERVER + "/ingest/logs";
+
+    private final ClusterMembership clusterMembership = mock(ClusterMembership.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger hits = new AtomicInteger();
+    private HttpServer owner;
+    private OutboundHttp outboundHttp;
+    private ClusterForwardingFilter filter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        owner = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        owner.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            byte[] body = "{\"error\":\"TOO_MANY_REQUESTS\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(429, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        owner.start();
+
+        when(clusterMembership.isEnabled()).thenReturn(true);
+        when(clusterMembership.nodeId()).thenReturn("node-a");
+        when(clusterMembership.ownerOf(SERVER)).thenReturn("node-b");
+
+        outboundHttp = OutboundHttpFixture.create(meterRegistry, Map.of("failureThreshold", 2));
+        filter = new ClusterForwardingFilter(clusterMembership, outboundHttp, meterRegistry);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 5L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        owner.stop(0);
+    }
+
+    @Test
+    void 소유_노드의_429_는_그대로_전달하고_서킷을_열지_않는다() throws Exception {
+        when(clusterMembership.urlOf("node-b")).thenReturn("http://127.0.0.1:" + owner.getAddress().getPort());
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(ingestRequest(), response, chain);
+
+            assertThat(response.getStatus()).isEqualTo(429);
+            assertThat(response.getContentAsString()).contains("TOO_MANY_REQUESTS");
+            assertThat(chain.getRequest()).isNull(); // 직접 처리하지 않음
+        }
+        assertThat(hits).hasValue(5);
+        // 외부 API 용 클라이언트와 자리/서킷을 나눔
+        assertThat(meterRegistry.get("http.client.upstream.circuit_state").gauge().value()).isZero();
+    }
+
+    @Test
+    void 소유_노드에_연결하지_못하면_직접_처리하지_않고_503_을_돌려준다() throws Exception {
+        int closedPort = owner.getAddress().getPort();
+        owner.stop(0);
+        when(clusterMembership.urlOf("node-b")).thenReturn("http://127.0.0.1:" + closedPort);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(ingestRequest(), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("5");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("cluster.requests.forwarded").tag("outcome", "unavailable").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void 소유_노드_주소를_모르면_읽은_본문을_다시_읽을_수_있게_넘겨_직접_처리한다() throws Exception {
+        when(clusterMembership.urlOf("node-b")).thenReturn(null);
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(ingestRequest(), new MockHttpServletResponse(), chain);
+
+        HttpServletRequest passed = (HttpServletRequest) chain.getRequest();
+        assertThat(passed).isNotNull();
+        assertThat(StreamUtils.copyToString(passed.getInputStream(), StandardCharsets.UTF_8)).isEqualTo("[]");
+
+        // 비동기 읽기(ReadListener)도 같은 본문
+        ServletInputStream in = passed.getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] done = new boolean[1];
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (in.isReady() && !in.isFinished()) read.write(in.read());
+            }
+
+            @Override
+            public void onAllDataRead() {
+                done[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+        assertThat(done[0]).isTrue();
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+    private static MockHttpServletRequest ingestRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", PATH);
+        request.setContentType("application/json");
+        request.addHeader("X-MCP-TOKEN", "token");
+        request.setContent("[]".getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,57 @@
+package com.kakao.kakao_test.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int SERVERS = 10_000;
+
+    @Test
+    void 서버가_노드들에_고르게_나뉜다() {
+        ConsistentHashRing ring = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SERVERS; i++) {
+            counts.merge(ring.ownerOf("server-" + i), 1, Integer::sum);
+        }
+
+        assertThat(counts).hasSize(3);
+        // 이상적인 몫(1/3)에서 ±20% 이내
+        assertThat(counts.values()).allSatisfy(c -> assertThat(c).isBetween(2_666, 4_000));
+    }
+
+    @Test
+    void 노드가_추가되면_새_노드_몫만_옮겨간다() {
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing after = ConsistentHashRing.of(List.of("node-c", "node-a", "node-b", "node-d"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < SERVERS; i++) {
+            String server = "server-" + i;
+            String oldOwner = before.ownerOf(server);
+            String newOwner = after.ownerOf(server);
+            if (!oldOwner.equals(newOwner)) {
+                moved++;
+                assertThat(newOwner).isEqualTo("node-d");
+            }
+        }
+        // 이상적으로는 1/4
+        assertThat(moved).isBetween(1_500, 3_500);
+    }
+
+    @Test
+    void 노드_순서와_무관하게_같은_링이_만들어진다() {
+        ConsistentHashRing ring1 = ConsistentHashRing.of(List.of("node-a", "node-b"), 64);
+        ConsistentHashRing ring2 = ConsistentHashRing.of(List.of("node-b", "node-a"), 64);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(ring1.ownerOf("server-" + i)).isEqualTo(ring2.ownerOf("server-" + i));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.kakao.kakao_test.config;
+
+import com.kakao.kakao_test.ingest.LogLineClassifier;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * db/migration 이 기존 운영 DB(ddl-auto 로 만든 Flyway 도입 전 스키마)와 새 DB 에서 같은 결과를 내는지 확인
+ * - 기존 DB 는 application.yml 과 같은 설정(baseline-on-migrate, baseline-version 1)으로 V1 을 건너뜀
+ */
+class FlywayMigrationTest {
+
+    @Test
+    void 기존_DB_는_V1_을_건너뛰고_이후_변경이_모두_적용된다() {
+        DataSource legacy = h2("flyway-legacy");
+        new ResourceDatabasePopulator(new ClassPathResource("db/legacy/ddl-auto-baseline.sql")).execute(legacy);
+        JdbcTemplate jdbc = new JdbcTemplate(legacy);
+        jdbc.update("insert into target_server (server_name, mcp_token) values ('demo', 'token')");
+        jdbc.update("insert into server_log (server_id, level, message) values (1, 'ERROR', 'before migration')");
+
+        Flyway flyway = flyway(legacy);
+        flyway.migrate();
+
+        List<String> applied = Arrays.stream(flyway.info().applied()).map(MigrationInfo::getVersion)
+                .map(Object::toString).toList();
+        assertThat(applied).contains("1", "2");
+        assertThat(flyway.info().applied()[0].getType().isBaseline()).isTrue();
+
+        // 기존 행은 그대로, 이후 추가된 컬럼 / 유일키 / 테이블 사용 가능
+        assertThat(jdbc.queryForObject("select message from server_log where id = 1", String.class))
+                .isEqualTo("before migration");
+        jdbc.update("insert into server_log (server_id, level, message, event_id) values (1, 'INFO', 'a', 'e-1')");
+        assertThatThrownBy(() ->
+                jdbc.update("insert into server_log (server_id, level, message, event_id) values (1, 'INFO', 'b', 'e-1')"))
+                .isInstanceOf(DuplicateKeyException.class);
+        jdbc.update("update target_server set quota_overflow_policy = 'KEEP_SEVERE' where id = 1");
+        assertThat(jdbc.queryForObject("select count(*) from log_level_count", Integer.class)).isZero();
+    }
+
+    @Test
+    void 기존_DB_와_새_DB_의_컬럼_구성이_같다() {
+        DataSource legacy = h2("flyway-legacy-columns");
+        new ResourceDatabasePopulator(new ClassPathResource("db/legacy/ddl-auto-baseline.sql")).execute(legacy);
+        flyway(legacy).migrate();
+
+        DataSource fresh = h2("flyway-fresh");
+        flyway(fresh).migrate();
+
+        assertThat(columns(legacy)).isEqualTo(columns(fresh));
+    }
+
+    @Test
+    void V3_는_스택트레이스로_캡처된_에러_컨텍스트를_새_fingerprint_로_옮긴다() {
+        DataSource dataSource = h2("flyway-rekey");
+        flyway(dataSource, "2").migrate();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        String trace = "Request failed\njava.lang.IllegalStateException: boom\n\tat com.demo.Worker.run(Worker.java:42)";
+        String merged = "Job failed\njava.io.IOException: disk\n\tat com.demo.Job.flush(Job.java:7)";
+        insertContext(jdbc, "demo", "Request failed", trace, 2, "2026-01-01 00:00:00");
+        insertContext(jdbc, "demo", "timeout after # ms", "timeout after 30 ms", 1, "2026-01-01 00:00:00");
+        // 새 키로 이미 다시 캡처된 그룹 (더 최근) + 이전 키로 남은 행
+        insertContext(jdbc, "demo", "Job failed", merged, 3, "2026-01-01 00:00:00");
+        insertContext(jdbc, "demo", LogLineClassifier.fingerprint(merged), merged, 1, "2026-01-02 00:00:00");
+
+        flyway(dataSource, null).migrate();
+
+        assertThat(jdbc.queryForList("select fingerprint from error_context order by fingerprint", String.class))
+                .containsExactly(LogLineClassifier.fingerprint(merged), LogLineClassifier.fingerprint(trace),
+                        "timeout after # ms");
+        assertThat(jdbc.queryForObject("select captures from error_context where fingerprint = ?", Integer.class,
+                LogLineClassifier.fingerprint(merged))).isEqualTo(4);
+        assertThat(jdbc.queryForObject("select captured_at from error_context where fingerprint = ?", String.class,
+                LogLineClassifier.fingerprint(merged))).startsWith("2026-01-02");
+    }
+
+    private static void insertContext(JdbcTemplate jdbc, String server, String fingerprint, String message,
+                                      int captures, String capturedAt) {
+        jdbc.update("""
+                insert into error_context (server_name, fingerprint, level, message, captures, captured_at)
+                values (?, ?, 'ERROR', ?, ?, ?)
+                """, server, fingerprint, message, captures, Timestamp.valueOf(capturedAt));
+    }
+
+    private static Flyway flyway(DataSource dataSource) {
+        return flyway(dataSource, null);
+    }
+
+    private static Flyway flyway(DataSource dataSource, String target) {
+        var config = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1");
+        if (target != null) config.target(target);
+        return config.load();
+    }
+
+    // flyway_schema_history 를 뺀 테이블.컬럼 목록 (타입 표기는 DDL 작성 방식에 따라 달라서 이름만 비교)
+    private static List<String> columns(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForList("""
+                select lower(table_name) || '.' || lower(column_name)
+                from information_schema.columns
+                where table_schema = 'PUBLIC' and lower(table_name) <> 'flyway_schema_history'
+                order by 1
+                """, String.class);
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,32 @@
+package com.kakao.kakao_test.config;
+
+import com.kakao.kakao_test.controller.IngestController;
+import com.kakao.kakao_test.mcp.ServerDoctorMcpTools;
+import com.kakao.kakao_test.service.DiscordNotificationService;
+import com.kakao.kakao_test.service.LlmClientService;
+import com.kakao.kakao_test.snapshot.StateSnapshotManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupConfigTest {
+
+    private final LazyInitializationExcludeFilter filter = StartupConfig.eagerUnlessDeferrable();
+
+    @Test
+    void 수집_모니터링_MCP_도구_빈은_지연_생성하지_않는다() {
+        assertThat(filter.isExcluded("ingestController", null, IngestController.class)).isTrue();
+        assertThat(filter.isExcluded("stateSnapshotManager", null, StateSnapshotManager.class)).isTrue();
+        assertThat(filter.isExcluded("discordNotificationService", null, DiscordNotificationService.class)).isTrue();
+        assertThat(filter.isExcluded("serverDoctorMcpTools", null, ServerDoctorMcpTools.class)).isTrue();
+        assertThat(filter.isExcluded("unknown", null, null)).isTrue();
+    }
+
+    @Test
+    void LLM_진단과_springdoc_빈은_첫_요청_때_생성한다() {
+        assertThat(filter.isExcluded("llmClientService", null, LlmClientService.class)).isFalse();
+        assertThat(filter.isExcluded("openApiConfig", null, OpenApiConfig.class)).isFalse();
+        assertThat(StartupConfig.isDeferrable(io.swagger.v3.oas.models.OpenAPI.class)).isTrue();
+    }
+}
@@ -0,0 +1,78 @@
+package com.kakao.kakao_test.config.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * H2 두 개를 primary / replica 로 두고 라우팅 확인
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicBoolean replicaUsable = new AtomicBoolean(true);
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        DataSource replica = h2("replica");
+
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, replicaUsable::get));
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(routing);
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(txManager);
+    }
+
+    @Test
+    void 읽기전용_트랜잭션은_replica_쓰기는_primary() {
+        assertThat(readOnlyTx.<String>execute(s -> whoAmI())).isEqualTo("replica");
+        assertThat(writeTx.<String>execute(s -> whoAmI())).isEqualTo("primary");
+        assertThat(whoAmI()).isEqualTo("primary"); // 트랜잭션 밖
+    }
+
+    @Test
+    void PrimaryRead_가_걸리면_읽기전용이어도_primary() {
+        ReadRouting.enterPrimary();
+        try {
+            assertThat(readOnlyTx.<String>execute(s -> whoAmI())).isEqualTo("primary");
+        } finally {
+            ReadRouting.exitPrimary();
+        }
+        assertThat(readOnlyTx.<String>execute(s -> whoAmI())).isEqualTo("replica");
+    }
+
+    @Test
+    void replica_가_지연되면_primary_로_우회() {
+        replicaUsable.set(false);
+        assertThat(readOnlyTx.<String>execute(s -> whoAmI())).isEqualTo("primary");
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node_info", String.class);
+    }
+
+    private DataSource h2(String name) {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate init = new JdbcTemplate(ds);
+        init.execute("CREATE TABLE IF NOT EXISTS node_info (name VARCHAR(20))");
+        init.execute("DELETE FROM node_info");
+        init.update("INSERT INTO node_info (name) VALUES (?)", name);
+        return ds;
+    }
+}
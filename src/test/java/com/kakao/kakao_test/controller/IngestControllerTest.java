@@ -0,0 +1,116 @@
+package com.kakao.kakao_test.controller;
+
+import com.kakao.kakao_test.dto.IngestResultDto;
+import com.kakao.kakao_test.dto.MetricIngestDto;
+import com.kakao.kakao_test.exception.BadRequestException;
+import com.kakao.kakao_test.exception.GlobalExceptionHandler;
+import com.kakao.kakao_test.ingest.IngestQuotaManager;
+import com.kakao.kakao_test.service.HealthService;
+import com.kakao.kakao_test.service.LogService;
+import com.kakao.kakao_test.service.MetricService;
+import com.kakao.kakao_test.spool.IngestSpool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class IngestControllerTest {
+
+    private final MetricService metricService = mock(MetricService.class);
+    private final HealthService healthService = mock(HealthService.class);
+    private final IngestQuotaManager ingestQuotaManager = mock(IngestQuotaManager.class);
+    private final IngestSpool ingestSpool = mock(IngestSpool.class);
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        IngestController controller = new IngestController(metricService, mock(LogService.class), healthService,
+                ingestQuotaManager, ingestSpool);
+        mvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        when(metricService.getMaxBatchSize()).thenReturn(3);
+        doThrow(new BadRequestException("한 번에 보낼 수 있는 메트릭은 최대 3개입니다."))
+                .when(metricService).checkBatchSize(intThat(n -> n > 3));
+        when(ingestQuotaManager.admitMetrics(anyString(), anyString(), anyList()))
+                .thenAnswer(inv -> inv.getArgument(2));
+        when(metricService.saveMetrics(anyString(), anyList(), anyString(), any(), any()))
+                .thenAnswer(inv -> new IngestResultDto("demo", inv.<List<?>>getArgument(1).size(), "저장 완료"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void NDJSON_배치는_빈_줄을_건너뛰고_배치_ID_와_함께_저장한다() throws Exception {
+        mvc.perform(post("/api/servers/demo/ingest/metrics/batch")
+                        .contentType("application/x-ndjson")
+                        .header("X-MCP-TOKEN", "token")
+                        .header("X-BATCH-ID", "batch-1")
+                        .content("{\"eventId\":\"a\"}\r\n\n{\"eventId\":\"b\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.serverName").value("demo"))
+                .andExpect(jsonPath("$.acceptedCount").value(2));
+
+        ArgumentCaptor<List<MetricIngestDto>> saved = ArgumentCaptor.forClass(List.class);
+        verify(metricService).saveMetrics(eq("demo"), saved.capture(), eq("token"), isNull(), eq("batch-1"));
+        assertThat(saved.getValue()).extracting(MetricIngestDto::getEventId).containsExactly("a", "b");
+    }
+
+    @Test
+    void NDJSON_파싱_오류와_배치_크기_초과는_한도를_쓰기_전에_400() throws Exception {
+        mvc.perform(post("/api/servers/demo/ingest/metrics/batch")
+                        .contentType("application/x-ndjson")
+                        .header("X-MCP-TOKEN", "token")
+                        .content("{\"eventId\":\"a\"}\n{oops\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("2번째 줄")));
+
+        mvc.perform(post("/api/servers/demo/ingest/metrics/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-MCP-TOKEN", "token")
+                        .content("[{},{},{},{}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"));
+
+        verifyNoInteractions(ingestQuotaManager);
+    }
+
+    @Test
+    void 단건_메트릭과_health_도_배치와_같은_응답_형태() throws Exception {
+        mvc.perform(post("/api/servers/demo/ingest/metrics")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-MCP-TOKEN", "token")
+                        .content("{\"eventId\":\"a\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.serverName").value("demo"))
+                .andExpect(jsonPath("$.acceptedCount").value(1));
+
+        mvc.perform(post("/api/servers/demo/ingest/health")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-MCP-TOKEN", "token")
+                        .content("{\"ts\":1,\"status\":\"UP\",\"latencyMs\":12,\"httpStatus\":200}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.serverName").value("demo"))
+                .andExpect(jsonPath("$.acceptedCount").value(1));
+        verify(healthService).saveHealth(eq("demo"), any(), eq("token"), isNull());
+    }
+}
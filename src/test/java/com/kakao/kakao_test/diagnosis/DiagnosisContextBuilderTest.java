@@ -0,0 +1,79 @@
+package com.kakao.kakao_test.diagnosis;
+
+import com.kakao.kakao_test.dto.ErrorGroupDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiagnosisContextBuilderTest {
+
+    private final DiagnosisContextBuilder builder = new DiagnosisContextBuilder();
+
+    @Test
+    void 예산이_빠듯하면_점수가_높은_조각부터_채우고_원래_순서로_돌려준다() {
+        // 40글자 = 10토큰 + 구분자 1토큰
+        ContextItem low = item("low", 1.0, 0);
+        ContextItem high = item("high", 3.0, 1);
+        ContextItem mid = item("mid", 2.0, 2);
+
+        DiagnosisContextBuilder.Packed packed = builder.pack(List.of(low, high, mid), 23);
+
+        assertThat(packed.items()).containsExactly(high, mid);
+        assertThat(packed.omittedCount()).isEqualTo(1);
+        assertThat(packed.usedTokens()).isEqualTo(22);
+    }
+
+    @Test
+    void 남은_예산이_충분하면_큰_조각을_잘라서라도_넣는다() {
+        ContextItem small = new ContextItem(DiagnosisContextBuilder.SECTION_ERRORS, "x".repeat(80), 9.0, 0);
+        String stackTrace = "a".repeat(1_000); // 250토큰
+        ContextItem big = new ContextItem(DiagnosisContextBuilder.SECTION_ERRORS, stackTrace, 5.0, 1);
+
+        DiagnosisContextBuilder.Packed packed = builder.pack(List.of(small, big), 120);
+
+        assertThat(packed.items()).hasSize(2);
+        String cut = packed.items().get(1).text();
+        assertThat(cut).endsWith("... (생략됨) ...");
+        assertThat(stackTrace).startsWith(cut.substring(0, cut.indexOf('\n')));
+        assertThat(packed.usedTokens()).isLessThanOrEqualTo(120);
+        assertThat(packed.omittedCount()).isZero();
+
+        // 남은 예산이 너무 적으면 자르지 않고 뺌
+        DiagnosisContextBuilder.Packed tight = builder.pack(List.of(small, big), 20);
+        assertThat(tight.items()).isEmpty();
+        assertThat(tight.omittedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void 후보가_없으면_빈_컨텍스트를_돌려준다() {
+        DiagnosisContextBuilder.Packed empty = builder.pack(List.of(), 100);
+        assertThat(empty.items()).isEmpty();
+        assertThat(empty.usedTokens()).isZero();
+
+        DiagnosisContextBuilder.Packed errors = builder.buildErrorLogContext(List.of(), 100);
+        assertThat(errors.texts(DiagnosisContextBuilder.SECTION_ERRORS)).isEmpty();
+        assertThat(errors.joined(DiagnosisContextBuilder.SECTION_METRICS, "\n")).isEmpty();
+    }
+
+    @Test
+    void 메트릭_요약은_예산과_무관하게_가장_먼저_들어간다() {
+        LocalDateTime now = LocalDateTime.now();
+        ErrorGroupDto error = new ErrorGroupDto("fp", "ERROR", "java.lang.IllegalStateException: boom", 3,
+                now.minusMinutes(5), now, List.of());
+
+        DiagnosisContextBuilder.Packed packed = builder.buildDiagnosisContext(
+                "CPU 평균 40%", List.of(error), List.of(), List.of(), 5);
+
+        assertThat(packed.joined(DiagnosisContextBuilder.SECTION_METRICS, "\n")).isEqualTo("CPU 평균 40%");
+        assertThat(packed.texts(DiagnosisContextBuilder.SECTION_ERRORS)).isEmpty();
+        assertThat(packed.omittedCount()).isEqualTo(1);
+    }
+
+    private static ContextItem item(String name, double score, long order) {
+        return new ContextItem(DiagnosisContextBuilder.SECTION_ERRORS, name + "a".repeat(40 - name.length()),
+                score, order);
+    }
+}
@@ -0,0 +1,33 @@
+package com.kakao.kakao_test.diagnosis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenEstimatorTest {
+
+    @Test
+    void 영문은_4글자당_1토큰_한글과_기호는_더_크게_잡는다() {
+        assertThat(TokenEstimator.estimate(null)).isZero();
+        assertThat(TokenEstimator.estimate("")).isZero();
+        assertThat(TokenEstimator.estimate("abcd")).isEqualTo(1);
+        assertThat(TokenEstimator.estimate("abcde")).isEqualTo(2); // 올림
+        assertThat(TokenEstimator.estimate("에러")).isEqualTo(2);
+        assertThat(TokenEstimator.estimate("{}")).isEqualTo(1);
+    }
+
+    @Test
+    void 자른_결과는_예산을_넘지_않고_surrogate_pair_를_가르지_않는다() {
+        String text = "abcd".repeat(10) + "에러 발생";
+        String cut = TokenEstimator.truncate(text, 11);
+        assertThat(TokenEstimator.estimate(cut)).isLessThanOrEqualTo(11);
+        assertThat(text).startsWith(cut);
+
+        assertThat(TokenEstimator.truncate(text, 100)).isEqualTo(text);
+        assertThat(TokenEstimator.truncate(text, 0)).isEmpty();
+        assertThat(TokenEstimator.truncate(null, 10)).isEmpty();
+
+        // 이모지 1개 = char 2개 (각 1토큰) -> 앞쪽 반만 들어가는 예산이면 반쪽을 남기지 않고 버림
+        assertThat(TokenEstimator.truncate("a🚨", 2)).isEqualTo("a");
+    }
+}
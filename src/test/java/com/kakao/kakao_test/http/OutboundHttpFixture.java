@@ -0,0 +1,39 @@
+package com.kakao.kakao_test.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 스프링 컨텍스트 없이 OutboundHttp 생성 (application.yml 기본값 + 테스트별 변경값)
+ */
+public final class OutboundHttpFixture {
+
+    private OutboundHttpFixture() {
+    }
+
+    public static OutboundHttp create(MeterRegistry meterRegistry) {
+        return create(meterRegistry, Map.of());
+    }
+
+    public static OutboundHttp create(MeterRegistry meterRegistry, Map<String, Object> overrides) {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("connectTimeoutMs", 3000L);
+        settings.put("readTimeoutMs", 60000L);
+        settings.put("maxConcurrentPerHost", 16);
+        settings.put("acquireTimeoutMs", 500L);
+        settings.put("failureThreshold", 5);
+        settings.put("openSeconds", 30L);
+        settings.put("maxTrackedHosts", 64);
+        settings.put("peerReadTimeoutMs", 10000L);
+        settings.put("peerMaxConcurrent", 64);
+        settings.putAll(overrides);
+
+        OutboundHttp outboundHttp = new OutboundHttp(meterRegistry);
+        settings.forEach((field, value) -> ReflectionTestUtils.setField(outboundHttp, field, value));
+        outboundHttp.init();
+        return outboundHttp;
+    }
+}
@@ -0,0 +1,148 @@
+package com.kakao.kakao_test.http;
+
+import com.kakao.kakao_test.exception.UpstreamUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 로컬 가짜 upstream 으로 타임아웃 / bulkhead / 서킷 브레이커 검증
+ */
+class OutboundHttpTest {
+
+    private HttpServer upstream;
+    private String baseUrl;
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.setExecutor(Executors.newCachedThreadPool());
+        upstream.createContext("/fail", exchange -> {
+            hits.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        upstream.createContext("/slow", exchange -> {
+            hits.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        upstream.createContext("/api/webhooks/", exchange -> {
+            hits.incrementAndGet();
+            if (exchange.getRequestURI().getPath().startsWith("/api/webhooks/1/")) {
+                exchange.getResponseHeaders().set("Retry-After", "30");
+                exchange.sendResponseHeaders(429, -1);
+            } else {
+                exchange.sendResponseHeaders(204, -1);
+            }
+            exchange.close();
+        });
+        upstream.start();
+        baseUrl = "http://127.0.0.1:" + upstream.getAddress().getPort();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        upstream.stop(0);
+    }
+
+    @Test
+    void 연속_실패하면_서킷이_열려_요청을_보내지_않는다() {
+        OutboundHttp http = OutboundHttpFixture.create(meterRegistry, Map.of("failureThreshold", 3));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> http.restClient().get().uri(baseUrl + "/fail").retrieve().toBodilessEntity())
+                    .isInstanceOf(HttpServerErrorException.class);
+        }
+        assertThatThrownBy(() -> http.restClient().get().uri(baseUrl + "/fail").retrieve().toBodilessEntity())
+                .isInstanceOf(UpstreamUnavailableException.class);
+
+        assertThat(hits).hasValue(3);
+        assertThat(meterRegistry.get("http.client.upstream.circuit_state").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("http.client.upstream.rejected").tag("reason", "circuit_open")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void 호출량_제한_429_는_서킷을_열지_않고_그_웹훅만_Retry_After_동안_보내지_않는다() {
+        OutboundHttp http = OutboundHttpFixture.create(meterRegistry, Map.of("failureThreshold", 1));
+
+        assertThatThrownBy(() -> http.restClient().post().uri(baseUrl + "/api/webhooks/1/token-a").retrieve().toBodilessEntity())
+                .isInstanceOf(HttpClientErrorException.TooManyRequests.class);
+        // 같은 웹훅은 Retry-After 동안 보내지 않음 (메시지 수정 경로 포함)
+        assertThatThrownBy(() -> http.restClient().patch().uri(baseUrl + "/api/webhooks/1/token-a/messages/9").retrieve().toBodilessEntity())
+                .isInstanceOf(UpstreamUnavailableException.class);
+        // 같은 호스트의 다른 웹훅은 영향 없음
+        assertThat(http.restClient().post().uri(baseUrl + "/api/webhooks/2/token-b").retrieve().toBodilessEntity()
+                .getStatusCode().value()).isEqualTo(204);
+
+        assertThat(hits).hasValue(2);
+        assertThat(meterRegistry.get("http.client.upstream.circuit_state").tag("route", "webhooks/1").gauge().value())
+                .isZero();
+        assertThat(meterRegistry.get("http.client.upstream.rejected").tag("reason", "retry_after")
+                .counter().count()).isEqualTo(1.0);
+        // 웹훅 토큰은 메트릭 태그에 남기지 않음
+        assertThat(meterRegistry.getMeters()).allSatisfy(m -> assertThat(m.getId().getTags().toString()).doesNotContain("token-"));
+    }
+
+    @Test
+    void 동시_호출_한도를_넘으면_기다리지_않고_거절한다() throws Exception {
+        OutboundHttp http = OutboundHttpFixture.create(meterRegistry,
+                Map.of("maxConcurrentPerHost", 1, "acquireTimeoutMs", 50L));
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> first = executor.submit(() ->
+                    http.restClient().get().uri(baseUrl + "/slow").retrieve().toBodilessEntity());
+            while (hits.get() == 0) Thread.sleep(10);
+
+            assertThatThrownBy(() -> http.restClient().get().uri(baseUrl + "/slow").retrieve().toBodilessEntity())
+                    .isInstanceOf(UpstreamUnavailableException.class);
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        }
+
+        // 첫 호출이 끝나면 자리가 반납됨
+        assertThat(meterRegistry.get("http.client.upstream.in_flight").gauge().value()).isZero();
+        assertThat(http.restClient().get().uri(baseUrl + "/slow").retrieve().toBodilessEntity()
+                .getStatusCode().value()).isEqualTo(204);
+    }
+
+    @Test
+    void 응답이_늦으면_읽기_타임아웃으로_실패한다() {
+        OutboundHttp http = OutboundHttpFixture.create(meterRegistry, Map.of("readTimeoutMs", 200L));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> http.restClient().get().uri(baseUrl + "/slow").retrieve().toBodilessEntity())
+                .isInstanceOf(ResourceAccessException.class);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(3_000);
+        assertThat(meterRegistry.get("http.client.upstream").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,186 @@
+package com.kakao.kakao_test.ingest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.kakao_test.dto.HealthIngestDto;
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.dto.MetricIngestDto;
+import com.kakao.kakao_test.exception.BadRequestException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class CompactIngestCodecTest {
+
+    private static final String[] LEVELS = {"INFO", "INFO", "INFO", "WARN", "ERROR"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void 로그_배치를_인코딩_후_디코딩하면_원래_값과_같다() {
+        List<LogEventDto> events = sampleLogs(100);
+
+        List<LogEventDto> decoded = CompactIngestCodec.decodeLogs(CompactIngestCodec.encodeLogs(events));
+
+        assertThat(decoded).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(events);
+        // 같은 레벨은 같은 인스턴스를 공유
+        assertThat(decoded.get(0).getLevel()).isSameAs(decoded.get(1).getLevel());
+    }
+
+    @Test
+    void 메트릭과_Health_도_왕복_변환된다() {
+        List<MetricIngestDto> samples = sampleMetrics(10);
+        samples.get(3).setTs(null);
+        samples.get(4).setData(null);
+
+        List<MetricIngestDto> decoded = CompactIngestCodec.decodeMetrics(CompactIngestCodec.encodeMetrics(samples));
+
+        assertThat(decoded).hasSize(10);
+        assertThat(decoded.get(3).getTs()).isNull();
+        assertThat(decoded.get(4).getData()).isNull();
+        assertThat(decoded.get(5).getTs()).isEqualTo(samples.get(5).getTs());
+        assertThat(decoded.get(5).getEventId()).isEqualTo(samples.get(5).getEventId());
+        assertThat(decoded.get(5).getData().getMemoryUsed()).isEqualTo(samples.get(5).getData().getMemoryUsed());
+        assertThat(decoded.get(5).getData().getCpuUsage()).isEqualTo(samples.get(5).getData().getCpuUsage());
+
+        HealthIngestDto health = new HealthIngestDto(1_700_000_000_000L, "DOWN", 1532, 503, "upstream timeout");
+        assertThat(CompactIngestCodec.decodeHealth(CompactIngestCodec.encodeHealth(health))).isEqualTo(health);
+    }
+
+    @Test
+    void CPU_와_메모리_비율은_JSON_과_같은_값으로_복원되고_이전_float32_포맷도_읽는다() {
+        MetricIngestDto sample = sampleMetrics(1).getFirst();
+        sample.getData().setCpuUsage(0.123456789012);
+        sample.getData().setMemoryPercent(87.65432109876);
+        sample.getData().setMemoryUsed(1_234_567.6);
+
+        MetricIngestDto.MetricData decoded = CompactIngestCodec.decodeMetrics(
+                CompactIngestCodec.encodeMetrics(List.of(sample))).getFirst().getData();
+
+        assertThat(decoded.getCpuUsage()).isEqualTo(0.123456789012);
+        assertThat(decoded.getMemoryPercent()).isEqualTo(87.65432109876);
+        assertThat(decoded.getMemoryUsed()).isEqualTo(1_234_568); // byte 단위 반올림
+
+        // 버전 1: 'S' 'D' 1 METRICS, 샘플 1개, flags=DATA, cpu f32, memUsed, memMax, memPercent f32
+        ByteBuffer v1 = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN)
+                .put((byte) 'S').put((byte) 'D').put((byte) 1).put((byte) 2)
+                .put((byte) 1).put((byte) 2)
+                .putFloat(0.123456789012f).put((byte) 100).put((byte) 120).putFloat(87.65432109876f);
+        MetricIngestDto.MetricData legacy = CompactIngestCodec.decodeMetrics(
+                Arrays.copyOf(v1.array(), v1.position())).getFirst().getData();
+
+        // float32 는 유효숫자 약 7자리 -> 상대 오차 2^-24 이내
+        assertThat(legacy.getCpuUsage()).isCloseTo(0.123456789012, within(0.123456789012 * 0x1p-24));
+        assertThat(legacy.getMemoryPercent()).isCloseTo(87.65432109876, within(87.65432109876 * 0x1p-24));
+        assertThat(legacy.getMemoryMax()).isEqualTo(120);
+    }
+
+    @Test
+    void 잘린_본문이나_다른_종류의_본문은_400() {
+        byte[] logs = CompactIngestCodec.encodeLogs(sampleLogs(5));
+
+        assertThatThrownBy(() -> CompactIngestCodec.decodeLogs(Arrays.copyOf(logs, logs.length - 3)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CompactIngestCodec.decodeMetrics(logs))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    /**
+     * JSON 대비 전송 크기 / 서버 디코딩 CPU 비교 (1k 이벤트 기준)
+     * ./gradlew benchmark 로만 실행
+     */
+    @Test
+    @Tag("benchmark")
+    void JSON_대비_전송량과_디코딩_CPU_비교() throws Exception {
+        List<LogEventDto> logs = sampleLogs(1_000);
+        List<MetricIngestDto> metrics = sampleMetrics(1_000);
+
+        byte[] logsJson = objectMapper.writeValueAsBytes(logs);
+        byte[] logsCompact = CompactIngestCodec.encodeLogs(logs);
+        byte[] metricsJson = objectMapper.writeValueAsBytes(metrics);
+        byte[] metricsCompact = CompactIngestCodec.encodeMetrics(metrics);
+
+        TypeReference<List<LogEventDto>> logType = new TypeReference<>() {};
+        TypeReference<List<MetricIngestDto>> metricType = new TypeReference<>() {};
+
+        long logsJsonCpu = cpuNanosPer(() -> objectMapper.readValue(logsJson, logType));
+        long logsCompactCpu = cpuNanosPer(() -> CompactIngestCodec.decodeLogs(logsCompact));
+        long metricsJsonCpu = cpuNanosPer(() -> objectMapper.readValue(metricsJson, metricType));
+        long metricsCompactCpu = cpuNanosPer(() -> CompactIngestCodec.decodeMetrics(metricsCompact));
+
+        System.out.printf("""
+                [compact ingest benchmark - 1k events]
+                logs    : JSON %,d B / %,d us CPU  vs  compact %,d B / %,d us CPU
+                metrics : JSON %,d B / %,d us CPU  vs  compact %,d B / %,d us CPU
+                """,
+                logsJson.length, logsJsonCpu / 1_000, logsCompact.length, logsCompactCpu / 1_000,
+                metricsJson.length, metricsJsonCpu / 1_000, metricsCompact.length, metricsCompactCpu / 1_000);
+
+        assertThat(logsCompact.length).isLessThan(logsJson.length);
+        assertThat(metricsCompact.length).isLessThan(metricsJson.length);
+    }
+
+    // 워밍업 후 반복 실행한 현재 스레드 CPU 시간의 1회 평균
+    private long cpuNanosPer(ThrowingRunnable task) throws Exception {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 2_000; i++) task.run();
+
+        int iterations = 2_000;
+        long start = mx.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) task.run();
+        return (mx.getCurrentThreadCpuTime() - start) / iterations;
+    }
+
+    private List<LogEventDto> sampleLogs(int n) {
+        List<LogEventDto> events = new ArrayList<>(n);
+        long ts = 1_700_000_000_000L;
+        for (int i = 0; i < n; i++) {
+            ts += 3 + (i % 17);
+            String level = LEVELS[i % LEVELS.length];
+            String message = "ERROR".equals(level)
+                    ? "java.lang.IllegalStateException: order " + i + " not found\n\tat com.demo.OrderService.get(OrderService.java:42)"
+                    : "GET /api/orders/" + i + " 200 " + (i % 90) + "ms";
+            events.add(new LogEventDto(ts, level, message, "evt-" + i));
+        }
+        return events;
+    }
+
+    private List<MetricIngestDto> sampleMetrics(int n) {
+        List<MetricIngestDto> samples = new ArrayList<>(n);
+        long ts = 1_700_000_000_000L;
+        for (int i = 0; i < n; i++) {
+            MetricIngestDto.MetricData data = new MetricIngestDto.MetricData();
+            data.setCpuUsage(0.2 + (i % 10) / 100.0);
+            data.setMemoryUsed(512L * 1024 * 1024 + i * 4096L);
+            data.setMemoryMax(2048L * 1024 * 1024);
+            data.setMemoryPercent(data.getMemoryUsed() / data.getMemoryMax() * 100.0);
+
+            MetricIngestDto dto = new MetricIngestDto();
+            dto.setServerName("demo-server");
+            dto.setType("METRIC");
+            dto.setTs(ts += 10_000);
+            dto.setData(data);
+            dto.setEventId("m-" + i);
+            samples.add(dto);
+        }
+        return samples;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
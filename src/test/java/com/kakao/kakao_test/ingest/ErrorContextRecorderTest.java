@@ -0,0 +1,71 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.repository.ErrorContextRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ErrorContextRecorderTest {
+
+    private final ErrorContextRepository repository = mock(ErrorContextRepository.class);
+    private ErrorContextRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new ErrorContextRecorder(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(recorder, "enabled", true);
+        ReflectionTestUtils.setField(recorder, "beforeLines", 2);
+        ReflectionTestUtils.setField(recorder, "afterLines", 2);
+        ReflectionTestUtils.setField(recorder, "afterWaitMs", 0L);
+        ReflectionTestUtils.setField(recorder, "recaptureIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(recorder, "maxPendingPerServer", 8);
+    }
+
+    @Test
+    void 배치가_나뉘어도_에러_직전과_직후_로그를_함께_저장한다() {
+        recorder.record("demo", List.of(log("INFO", "step 1"), log("INFO", "step 2"), log("INFO", "step 3"),
+                log("ERROR", "Order 42 not found")));
+        verify(repository, never()).upsert(anyString(), anyString(), any(), any(), any(), any(), any());
+
+        recorder.record("demo", List.of(log("INFO", "retrying"), log("INFO", "gave up"), log("INFO", "next")));
+
+        ArgumentCaptor<String> lines = ArgumentCaptor.forClass(String.class);
+        verify(repository).upsert(eq("demo"), eq("Order # not found"), eq("ERROR"), eq("Order 42 not found"),
+                any(), lines.capture(), any());
+        assertThat(lines.getValue().lines().map(l -> l.substring(15)).toList())
+                .containsExactly("INFO step 2", "INFO step 3", "ERROR Order 42 not found", "INFO retrying", "INFO gave up");
+        assertThat(lines.getValue().lines().toList().get(2)).startsWith("▶ ");
+    }
+
+    @Test
+    void 같은_에러가_연달아_오면_한_번만_캡처하고_뒤쪽_로그가_없으면_시간이_지나_저장한다() {
+        List<LogEventDto> burst = new ArrayList<>();
+        for (int i = 0; i < 50; i++) burst.add(log("ERROR", "timeout after " + i + "ms"));
+        recorder.record("demo", burst);
+        verify(repository, times(1)).upsert(anyString(), anyString(), any(), any(), any(), any(), any());
+
+        recorder.record("demo", List.of(log("ERROR", "disk full")));
+        recorder.flushExpired();
+
+        verify(repository).upsert(eq("demo"), eq("disk full"), any(), any(), any(), any(), any());
+    }
+
+    private LogEventDto log(String level, String message) {
+        return new LogEventDto(1_700_000_000_000L, level, message, null);
+    }
+}
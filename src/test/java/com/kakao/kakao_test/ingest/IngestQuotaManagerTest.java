@@ -0,0 +1,137 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.domain.QuotaOverflowPolicy;
+import com.kakao.kakao_test.domain.TargetServer;
+import com.kakao.kakao_test.exception.NotFoundException;
+import com.kakao.kakao_test.exception.QuotaExceededException;
+import com.kakao.kakao_test.monitor.ForwarderWatchdog;
+import com.kakao.kakao_test.repository.TargetServerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngestQuotaManagerTest {
+
+    private static final String SERVER = "demo-server";
+    private static final String TOKEN = "token";
+    private static final Predicate<String> SEVERE = s -> s.startsWith("ERROR");
+
+    private final TargetServerRepository targetServerRepository = mock(TargetServerRepository.class);
+    private TargetServer server;
+    private IngestQuotaManager quotaManager;
+
+    @BeforeEach
+    void setUp() {
+        server = new TargetServer(SERVER, TOKEN);
+        when(targetServerRepository.findByServerName(SERVER)).thenReturn(Optional.of(server));
+
+        quotaManager = new IngestQuotaManager(targetServerRepository, new SimpleMeterRegistry(),
+                mock(ForwarderWatchdog.class));
+        ReflectionTestUtils.setField(quotaManager, "defaultEventsPerSec", 10L);
+        ReflectionTestUtils.setField(quotaManager, "defaultBytesPerSec", 0L);
+        ReflectionTestUtils.setField(quotaManager, "defaultBurstSeconds", 1);
+        ReflectionTestUtils.setField(quotaManager, "defaultOverflowPolicy", QuotaOverflowPolicy.KEEP_SEVERE);
+        ReflectionTestUtils.setField(quotaManager, "refreshSeconds", 60L);
+        ReflectionTestUtils.setField(quotaManager, "metricSamplesPerSec", 5L);
+        ReflectionTestUtils.setField(quotaManager, "unknownServerCacheSeconds", 60L);
+    }
+
+    @Test
+    void REJECT_정책이면_한도를_넘는_배치는_429() {
+        server.updateQuota(null, null, null, QuotaOverflowPolicy.REJECT);
+
+        assertThat(admit(TOKEN, events(10, 0))).hasSize(10);
+        assertThatThrownBy(() -> admit(TOKEN, events(5, 0)))
+                .isInstanceOfSatisfying(QuotaExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+        assertThat(quotaManager.usage(SERVER).usage().rejectedBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void KEEP_SEVERE_정책이면_한도를_넘은_뒤에는_ERROR_만_남긴다() {
+        admit(TOKEN, events(10, 0));
+
+        List<String> kept = admit(TOKEN, events(8, 2));
+
+        assertThat(kept).allMatch(SEVERE).hasSize(2);
+        assertThat(quotaManager.usage(SERVER).usage().droppedEvents()).isEqualTo(8);
+    }
+
+    @Test
+    void 토큰이_틀린_요청은_한도를_소비하지_않는다() {
+        assertThat(admit("wrong", events(100, 0))).hasSize(100); // 서비스에서 401
+
+        assertThat(admit(TOKEN, events(10, 0))).hasSize(10);
+    }
+
+    @Test
+    void 로그가_한도를_모두_써도_메트릭은_별도_한도로_받는다() {
+        admit(TOKEN, events(100, 0));
+
+        assertThat(quotaManager.admitMetrics(SERVER, TOKEN, List.of("cpu", "memory"))).hasSize(2);
+        assertThat(quotaManager.admitMetrics(SERVER, TOKEN, List.of("a", "b", "c", "d", "e"))).hasSize(3);
+        assertThat(quotaManager.usage(SERVER).usage().droppedMetricSamples()).isEqualTo(2);
+    }
+
+    @Test
+    void 등록되지_않은_서버는_캐시해서_DB_를_다시_조회하지_않는다() {
+        when(targetServerRepository.findByServerName("ghost")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> quotaManager.admit("ghost", TOKEN, events(1, 0), String::length, SEVERE))
+                    .isInstanceOf(NotFoundException.class);
+        }
+        verify(targetServerRepository, times(1)).findByServerName("ghost");
+
+        // 등록되면 캐시를 지우고 다시 조회
+        when(targetServerRepository.findByServerName("ghost")).thenReturn(Optional.of(new TargetServer("ghost", TOKEN)));
+        quotaManager.invalidate("ghost");
+        assertThat(quotaManager.admit("ghost", TOKEN, events(1, 0), String::length, SEVERE)).hasSize(1);
+    }
+
+    @Test
+    void 토큰을_바꾸면_캐시를_지워서_이전_토큰은_바로_거부한다() {
+        assertThat(quotaManager.authenticated(SERVER, TOKEN)).isTrue();
+
+        server.rotateToken("rotated");
+        quotaManager.invalidate(SERVER);
+
+        assertThat(quotaManager.authenticated(SERVER, TOKEN)).isFalse();
+        assertThat(quotaManager.authenticated(SERVER, "rotated")).isTrue();
+    }
+
+    @Test
+    void 샘플링은_ERROR_를_먼저_채우고_나머지는_고르게_뽑는다() {
+        List<String> events = events(18, 2);
+
+        List<String> sampled = IngestQuotaManager.sample(events, SEVERE, 5);
+
+        assertThat(sampled).hasSize(5).containsAll(events.stream().filter(SEVERE).toList());
+        assertThat(sampled).containsSubsequence("INFO 0", "INFO 6", "INFO 12");
+    }
+
+    private List<String> admit(String token, List<String> events) {
+        return quotaManager.admit(SERVER, token, events, String::length, SEVERE);
+    }
+
+    // INFO 이벤트 뒤에 ERROR 이벤트
+    private List<String> events(int info, int error) {
+        List<String> events = new ArrayList<>();
+        for (int i = 0; i < info; i++) events.add("INFO " + i);
+        for (int i = 0; i < error; i++) events.add("ERROR " + i);
+        return events;
+    }
+}
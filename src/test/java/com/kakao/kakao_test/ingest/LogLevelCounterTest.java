@@ -0,0 +1,85 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.domain.LogCountResolution;
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.repository.LogLevelCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LogLevelCounterTest {
+
+    private final LogLevelCountRepository repository = mock(LogLevelCountRepository.class);
+    private LogLevelCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new LogLevelCounter(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(counter, "enabled", true);
+    }
+
+    @Test
+    void 이벤트_시각_기준으로_분_단위_레벨별_수를_센다() {
+        long now = System.currentTimeMillis();
+        counter.record("demo", List.of(
+                log(now - 120_000, "ERROR"),
+                log(now - 120_000, "FATAL"),
+                log(now - 120_000, "INFO"),
+                log(now, "WARNING"),
+                log(now, "ERROR")));
+
+        long[] errors = counter.series("demo", "ERROR", LogCountResolution.MINUTE, 3);
+        long[] all = counter.series("demo", "ALL", LogCountResolution.MINUTE, 3);
+
+        assertThat(errors).containsExactly(2, 0, 1);
+        assertThat(all).containsExactly(3, 0, 2);
+    }
+
+    @Test
+    void 최근_15분에_에러가_몰리면_증가_중으로_본다() {
+        long now = System.currentTimeMillis();
+        List<LogEventDto> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) events.add(log(now - 40 * 60_000L, "ERROR"));   // 직전 45분: 3건
+        for (int i = 0; i < 2; i++) events.add(log(now - 5 * 3_600_000L, "ERROR")); // 몇 시간 전: 2건
+        for (int i = 0; i < 12; i++) events.add(log(now - 60_000L, "ERROR"));       // 최근 15분: 12건
+        counter.record("demo", events);
+
+        ErrorTrend trend = counter.errorTrend("demo");
+
+        assertThat(trend.direction()).isEqualTo(ErrorTrend.Direction.GROWING);
+        assertThat(trend.last24h()).isEqualTo(17);
+    }
+
+    @Test
+    void 바뀐_구간의_증가분만_한_번씩_DB_에_더한다() {
+        long now = System.currentTimeMillis();
+        counter.record("demo", List.of(log(now, "ERROR"), log(now, "INFO")));
+
+        counter.flush();
+        counter.flush();
+
+        verify(repository, times(1)).addCounts(eq("demo"), eq("MINUTE"), any(LocalDateTime.class),
+                eq(0L), eq(1L), eq(0L), eq(1L), eq(0L));
+        verify(repository, times(1)).addCounts(eq("demo"), eq("HOUR"), any(LocalDateTime.class),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verify(repository, never()).deleteExpired(any(), any());
+    }
+
+    private LogEventDto log(long ts, String level) {
+        return new LogEventDto(ts, level, "msg", null);
+    }
+}
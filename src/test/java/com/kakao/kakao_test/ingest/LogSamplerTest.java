@@ -0,0 +1,100 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.dto.LogEventDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplerTest {
+
+    private static final long MINUTE_START = 1_700_000_040_000L; // 분 경계
+
+    private LogSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        sampler = new LogSampler(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sampler, "enabled", true);
+        ReflectionTestUtils.setField(sampler, "contextLines", 3);
+        ReflectionTestUtils.setField(sampler, "keepFirstPerMinute", 20);
+        ReflectionTestUtils.setField(sampler, "targetPerMinute", 60);
+        ReflectionTestUtils.setField(sampler, "summaryGraceMs", 5_000L);
+        sampler.registerMetrics();
+    }
+
+    @Test
+    void 에러와_예외_줄_그리고_직전_context_는_항상_저장한다() {
+        List<LogEventDto> events = new ArrayList<>();
+        long ts = MINUTE_START;
+        for (int i = 0; i < 500; i++) events.add(log(ts++, "INFO", "GET /api/orders/" + i + " 200"));
+        events.add(log(ts++, "INFO", "retry failed: java.net.SocketTimeoutException: Read timed out"));
+        for (int i = 0; i < 500; i++) events.add(log(ts++, "INFO", "GET /api/items/" + i + " 200"));
+        events.add(log(ts, "ERROR", "Order 42 not found"));
+
+        List<LogEventDto> kept = sampler.sample("demo", events);
+
+        assertThat(kept).extracting(LogEventDto::getMessage)
+                .contains("retry failed: java.net.SocketTimeoutException: Read timed out", "Order 42 not found")
+                .containsSubsequence("GET /api/items/497 200", "GET /api/items/498 200", "GET /api/items/499 200",
+                        "Order 42 not found");
+    }
+
+    @Test
+    void 시끄러운_서버의_일반_로그는_10분의_1_이하로_줄고_분당_요약이_남는다() {
+        int total = 0;
+        int kept = 0;
+        List<LogEventDto> all = new ArrayList<>();
+        for (int minute = 0; minute < 5; minute++) {
+            List<LogEventDto> batch = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                batch.add(log(MINUTE_START + minute * 60_000L + i * 25L, "INFO", "heartbeat ok " + i));
+            }
+            total += batch.size();
+            List<LogEventDto> result = sampler.sample("noisy", batch);
+            kept += result.size();
+            all.addAll(result);
+        }
+
+        assertThat(kept).isLessThan(total / 10);
+        assertThat(all).filteredOn(e -> e.getMessage().startsWith("📊 [sampled")).hasSize(4); // 마지막 분은 다음 수신 때
+        assertThat(all).noneMatch(e -> LogLineClassifier.isErrorLike(e.getLevel(), e.getMessage()));
+    }
+
+    @Test
+    void 다음_배치가_없어도_끝난_분의_요약을_주기적으로_꺼낸다() {
+        List<LogEventDto> batch = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) batch.add(log(MINUTE_START + i * 25L, "INFO", "heartbeat ok " + i));
+        sampler.sample("noisy", batch);
+        long minuteEnd = MINUTE_START + 60_000L;
+
+        assertThat(sampler.drainFinishedSummaries(minuteEnd + 4_999)).isEmpty(); // 늦게 오는 로그를 기다림
+        Map<String, LogEventDto> drained = sampler.drainFinishedSummaries(minuteEnd + 5_000);
+        assertThat(drained).containsOnlyKeys("noisy");
+        assertThat(drained.get("noisy").getMessage()).startsWith("📊 [sampled").contains("INFO 2,000줄 중");
+        assertThat(drained.get("noisy").getTs()).isEqualTo(minuteEnd - 1);
+        assertThat(sampler.drainFinishedSummaries(minuteEnd + 20_000)).isEmpty();
+
+        // 다음 분의 배치가 와도 같은 요약을 다시 넣지 않음
+        assertThat(sampler.sample("noisy", List.of(log(minuteEnd + 30_000, "INFO", "next"))))
+                .extracting(LogEventDto::getMessage).containsExactly("next");
+    }
+
+    @Test
+    void 조용한_서버는_전부_저장한다() {
+        List<LogEventDto> events = new ArrayList<>();
+        for (int i = 0; i < 15; i++) events.add(log(MINUTE_START + i * 1_000L, "INFO", "tick " + i));
+
+        assertThat(sampler.sample("quiet", events)).hasSize(15);
+    }
+
+    private LogEventDto log(long ts, String level, String message) {
+        return new LogEventDto(ts, level, message, null);
+    }
+}
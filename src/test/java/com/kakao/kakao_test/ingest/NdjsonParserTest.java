@@ -0,0 +1,52 @@
+package com.kakao.kakao_test.ingest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.kakao_test.dto.MetricIngestDto;
+import com.kakao.kakao_test.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NdjsonParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void 빈_줄과_CRLF_는_건너뛴다() {
+        String body = "\n{\"eventId\":\"a\"}\r\n   \r\n{\"eventId\":\"b\",\"extra\":1}\n\n";
+
+        List<MetricIngestDto> dtos = NdjsonParser.parse(body, MetricIngestDto.class, objectMapper, 10);
+
+        assertThat(dtos).extracting(MetricIngestDto::getEventId).containsExactly("a", "b");
+        assertThat(NdjsonParser.parse("", MetricIngestDto.class, objectMapper, 10)).isEmpty();
+        assertThat(NdjsonParser.parse(null, MetricIngestDto.class, objectMapper, 10)).isEmpty();
+    }
+
+    @Test
+    void 잘못된_줄은_빈_줄을_포함한_줄_번호와_함께_거절한다() {
+        String body = "{\"eventId\":\"a\"}\n\n{\"eventId\":\n";
+
+        assertThatThrownBy(() -> NdjsonParser.parse(body, MetricIngestDto.class, objectMapper, 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("3번째 줄");
+        assertThatThrownBy(() -> NdjsonParser.parse("null\n", MetricIngestDto.class, objectMapper, 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("1번째 줄");
+    }
+
+    @Test
+    void 최대_줄_수를_넘으면_나머지를_파싱하지_않고_거절한다() {
+        // 한도 뒤의 줄은 깨져 있어도 파싱 오류가 아니라 한도 초과로 끝남
+        String body = "{}\n{}\n\n{}\n{broken";
+
+        assertThat(NdjsonParser.parse("{}\n{}\n\n{}\n", MetricIngestDto.class, objectMapper, 3)).hasSize(3);
+        assertThatThrownBy(() -> NdjsonParser.parse(body, MetricIngestDto.class, objectMapper, 3))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("최대 3줄");
+    }
+}
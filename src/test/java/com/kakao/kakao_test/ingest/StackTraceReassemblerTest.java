@@ -0,0 +1,75 @@
+package com.kakao.kakao_test.ingest;
+
+import com.kakao.kakao_test.dto.LogEventDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StackTraceReassemblerTest {
+
+    private static final long TS = 1_700_000_000_000L;
+
+    private StackTraceReassembler reassembler;
+
+    @BeforeEach
+    void setUp() {
+        reassembler = new StackTraceReassembler(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(reassembler, "enabled", true);
+        ReflectionTestUtils.setField(reassembler, "maxLines", 200);
+        ReflectionTestUtils.setField(reassembler, "carrySeconds", 30L);
+        reassembler.registerMetrics();
+    }
+
+    @Test
+    void 한_줄씩_온_스택트레이스를_예외_이벤트_1건으로_합친다() {
+        List<LogEventDto> events = List.of(
+                log("INFO", "GET /api/orders/42", "e1"),
+                log("ERROR", "c.k.OrderService - order failed", "e2"),
+                log("ERROR", "java.lang.IllegalStateException: stock is negative", "e3"),
+                log("ERROR", "\tat com.kakao.order.OrderService.reserve(OrderService.java:88)", "e4"),
+                log("ERROR", "\tat com.kakao.order.OrderController.create(OrderController.java:31)", "e5"),
+                log("ERROR", "Caused by: java.sql.SQLException: Deadlock found", "e6"),
+                log("ERROR", "\tat com.mysql.cj.jdbc.ClientPreparedStatement.execute(ClientPreparedStatement.java:370)", "e7"),
+                log("ERROR", "\t... 12 more", "e8"),
+                log("INFO", "GET /api/orders/43", "e9"));
+
+        List<LogEventDto> result = reassembler.reassemble("demo", events);
+
+        assertThat(result).extracting(LogEventDto::getEventId).containsExactly("e1", "e2", "e9");
+        StackTrace trace = StackTrace.parse(result.get(1).getMessage());
+        assertThat(trace.exceptionClass()).isEqualTo("java.lang.IllegalStateException");
+        assertThat(trace.exceptionMessage()).isEqualTo("stock is negative");
+        assertThat(trace.rootCauseClass()).isEqualTo("java.sql.SQLException");
+        assertThat(trace.topFrames()).hasSize(2);
+        assertThat(trace.topMethod()).isEqualTo("com.kakao.order.OrderService.reserve");
+    }
+
+    @Test
+    void 배치_경계에서_끊긴_스택트레이스는_직전_머리줄에_이어_붙인다() {
+        reassembler.reassemble("demo", List.of(
+                log("ERROR", "c.k.PayService - payment failed", "p1"),
+                log("ERROR", "java.net.SocketTimeoutException: Read timed out", "p2"),
+                log("ERROR", "\tat com.kakao.pay.PgClient.call(PgClient.java:40)", "p3")));
+
+        List<LogEventDto> next = reassembler.reassemble("demo", List.of(
+                log("ERROR", "\tat com.kakao.pay.PayService.pay(PayService.java:17)", "p4"),
+                log("INFO", "GET /health", "p5")));
+
+        assertThat(next).hasSize(2);
+        assertThat(next.getFirst().getEventId()).isEqualTo("p4");
+        assertThat(next.getFirst().getMessage())
+                .startsWith("c.k.PayService - payment failed\njava.net.SocketTimeoutException: Read timed out\n")
+                .endsWith("PayService.pay(PayService.java:17)");
+        assertThat(LogLineClassifier.fingerprint(next.getFirst().getMessage()))
+                .contains("java.net.SocketTimeoutException");
+    }
+
+    private LogEventDto log(String level, String message, String eventId) {
+        return new LogEventDto(TS, level, message, eventId);
+    }
+}
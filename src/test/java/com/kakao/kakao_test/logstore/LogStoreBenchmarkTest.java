@@ -0,0 +1,122 @@
+package com.kakao.kakao_test.logstore;
+
+import com.kakao.kakao_test.domain.ServerLog;
+import com.kakao.kakao_test.domain.TargetServer;
+import com.kakao.kakao_test.repository.TargetServerRepository;
+import com.kakao.kakao_test.repository.projection.LogLine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MySQL(server_log) 저장소 vs 로컬 세그먼트 저장소의 수신 처리량 / 최신 로그 조회 지연 비교
+ * - MySQL 쪽은 H2(MySQL 모드)로 대신하므로 절대값보다 같은 조건에서의 비율을 볼 것
+ * ./gradlew benchmark 로만 실행
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:logstore-bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "openai.api-key=test"
+})
+class LogStoreBenchmarkTest {
+
+    private static final int BATCHES = 200;
+    private static final int BATCH_SIZE = 500;
+    private static final int READS = 500;
+
+    @Autowired
+    private TargetServerRepository targetServerRepository;
+    @Autowired
+    private JpaLogStore jpaLogStore;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path segmentDir;
+
+    @Test
+    void 수신_처리량과_최신_로그_조회_지연() throws Exception {
+        TargetServer jpaServer = targetServerRepository.save(new TargetServer("bench-jpa", "token"));
+        TargetServer segmentServer = targetServerRepository.save(new TargetServer("bench-segment", "token"));
+        SegmentLogStore segmentLogStore = segmentStore();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long jpaWriteNanos = write(jpaServer, batch -> tx.execute(s -> jpaLogStore.append(batch)));
+        long segmentWriteNanos = write(segmentServer, segmentLogStore::append);
+
+        long jpaReadNanos = read(() -> jpaLogStore.findRecentLines("bench-jpa", 100));
+        long segmentReadNanos = read(() -> segmentLogStore.findRecentLines("bench-segment", 100));
+
+        int rows = BATCHES * BATCH_SIZE;
+        System.out.printf("""
+                [log store benchmark - %,d rows]
+                ingest  : mysql(h2) %,.0f rows/s  vs  segment %,.0f rows/s
+                recent  : mysql(h2) %,d us/call   vs  segment %,d us/call
+                """,
+                rows,
+                rows / (jpaWriteNanos / 1e9), rows / (segmentWriteNanos / 1e9),
+                jpaReadNanos / 1_000, segmentReadNanos / 1_000);
+
+        List<LogLine> fromJpa = jpaLogStore.findRecentLines("bench-jpa", 100);
+        List<LogLine> fromSegment = segmentLogStore.findRecentLines("bench-segment", 100);
+        assertThat(fromSegment).hasSize(100);
+        assertThat(fromSegment).extracting(LogLine::message).isEqualTo(fromJpa.stream().map(LogLine::message).toList());
+        segmentLogStore.close();
+    }
+
+    private SegmentLogStore segmentStore() throws Exception {
+        SegmentLogStore store = new SegmentLogStore(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "dir", segmentDir.toString());
+        ReflectionTestUtils.setField(store, "rollMinutes", 60L);
+        ReflectionTestUtils.setField(store, "maxSegmentBytes", 64L * 1024 * 1024);
+        ReflectionTestUtils.setField(store, "blockBytes", 64 * 1024);
+        ReflectionTestUtils.setField(store, "retentionHours", 72L);
+        ReflectionTestUtils.setField(store, "fsync", false);
+        store.init();
+        return store;
+    }
+
+    private long write(TargetServer server, Consumer<List<ServerLog>> append) {
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        long elapsed = 0;
+        for (int b = 0; b < BATCHES; b++) {
+            List<ServerLog> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                int n = b * BATCH_SIZE + i;
+                batch.add(new ServerLog(server, n % 50 == 0 ? "ERROR" : "INFO",
+                        "GET /api/orders/" + n + " 200 " + (n % 90) + "ms user=" + (n % 1000),
+                        base.plusNanos(n * 1_000_000L), "e-" + n));
+            }
+            long start = System.nanoTime();
+            append.accept(batch);
+            elapsed += System.nanoTime() - start;
+        }
+        return elapsed;
+    }
+
+    // 워밍업 후 1회 평균 (ns)
+    private long read(Supplier<List<LogLine>> query) {
+        for (int i = 0; i < READS; i++) query.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < READS; i++) query.get();
+        return (System.nanoTime() - start) / READS;
+    }
+}
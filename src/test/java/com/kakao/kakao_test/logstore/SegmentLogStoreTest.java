@@ -0,0 +1,165 @@
+package com.kakao.kakao_test.logstore;
+
+import com.kakao.kakao_test.domain.ServerLog;
+import com.kakao.kakao_test.domain.TargetServer;
+import com.kakao.kakao_test.repository.projection.LogLine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentLogStoreTest {
+
+    private static final TargetServer SERVER = new TargetServer("demo", "token");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void 크기_상한을_넘으면_새_세그먼트로_넘어가고_여러_세그먼트에서_최신순으로_읽는다() throws IOException {
+        SegmentLogStore store = store(60, 1, 72);
+        LocalDateTime base = LocalDateTime.now().minusMinutes(10);
+        for (int i = 0; i < 4; i++) {
+            store.append(List.of(log("m" + i, base.plusSeconds(i))));
+        }
+
+        assertThat(dataFiles()).hasSize(4);
+        assertThat(messages(store.findRecentLines("demo", 3))).containsExactly("m3", "m2", "m1");
+        store.close();
+    }
+
+    @Test
+    void 깨진_블록과_덜_쓰인_꼬리는_건너뛰고_나머지를_읽는다() throws IOException {
+        SegmentLogStore writer = store(60, 64L * 1024 * 1024, 72);
+        LocalDateTime base = LocalDateTime.now().minusMinutes(10);
+        for (int i = 0; i < 3; i++) {
+            writer.append(List.of(log("m" + i, base.plusSeconds(i))));
+        }
+        writer.close();
+
+        Path data = dataFiles().getFirst();
+        long start = Long.parseLong(data.getFileName().toString().replace(LogSegment.DATA_SUFFIX, ""));
+        Path index = data.resolveSibling(start + LogSegment.INDEX_SUFFIX);
+        List<LogSegment.IndexEntry> blocks = LogSegment.existing(data.getParent(), start).readIndex();
+
+        // 가운데 블록 본문 1바이트 변조 -> crc 불일치
+        flipByte(data, blocks.get(1).offset() + LogBlock.HEADER_BYTES + 1);
+        // 데이터를 다 쓰기 전에 죽은 블록 (인덱스는 있는데 데이터 파일이 짧음) + 덜 쓰인 인덱스 항목
+        long end = Files.size(data);
+        appendBytes(index, ByteBuffer.allocate(LogSegment.INDEX_ENTRY_BYTES)
+                .putLong(0).putLong(Long.MAX_VALUE).putLong(end).putInt(100).putInt(1).flip());
+        appendBytes(index, ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5}));
+
+        SegmentLogStore reader = store(60, 64L * 1024 * 1024, 72);
+        assertThat(messages(reader.findRecentLines("demo", 10))).containsExactly("m2", "m0");
+        reader.close();
+    }
+
+    @Test
+    void 보관_기간이_지난_세그먼트만_지우고_쓰는_중인_세그먼트는_남긴다() throws IOException {
+        SegmentLogStore store = store(60, 1, 1);
+        LocalDateTime base = LocalDateTime.now().minusMinutes(10);
+        store.append(List.of(log("old", base)));
+        store.append(List.of(log("new", base.plusSeconds(1)))); // 크기 상한 1 -> 새 세그먼트(쓰는 중)
+
+        FileTime twoHoursAgo = FileTime.fromMillis(System.currentTimeMillis() - 2 * 3_600_000L);
+        for (Path p : dataFiles()) Files.setLastModifiedTime(p, twoHoursAgo);
+        // 재시작 후 아직 열지 않은 서버 디렉터리
+        Path idle = Files.createDirectories(dir.resolve("idle"));
+        Files.setLastModifiedTime(Files.writeString(idle.resolve("1.seg"), "x"), twoHoursAgo);
+
+        store.deleteExpired();
+
+        assertThat(dataFiles()).hasSize(1);
+        assertThat(messages(store.findRecentLines("demo", 10))).containsExactly("new");
+        try (Stream<Path> files = Files.list(idle)) {
+            assertThat(files).isEmpty();
+        }
+        store.close();
+    }
+
+    @Test
+    void 최신_세그먼트만으로_limit_이_차면_이전_세그먼트는_읽지_않는다() throws IOException {
+        SegmentLogStore store = store(0, 64L * 1024 * 1024, 72); // roll-minutes 0 -> append 마다 새 세그먼트
+        LocalDateTime now = LocalDateTime.now();
+        // 이전 세그먼트에 발생 시각이 크게 어긋난(미래) 로그
+        store.append(List.of(log("skewed", now.plusHours(1))));
+        store.append(IntStream.range(0, 3).mapToObj(i -> log("r" + i, now.plusMinutes(1).plusSeconds(i))).toList());
+
+        // 최신 세그먼트의 3줄이 모두 그 세그먼트 시작 이후 -> 이전 세그먼트까지 내려가지 않음
+        assertThat(messages(store.findRecentLines("demo", 3))).containsExactly("r2", "r1", "r0");
+        // limit 이 남으면 이전 세그먼트도 읽음
+        assertThat(messages(store.findRecentLines("demo", 4))).containsExactly("skewed", "r2", "r1", "r0");
+        store.close();
+    }
+
+    @Test
+    void 읽는_도중_지워진_세그먼트는_건너뛴다() throws IOException {
+        SegmentLogStore store = store(60, 1, 72);
+        LocalDateTime base = LocalDateTime.now().minusMinutes(10);
+        store.append(List.of(log("gone", base)));
+        store.append(List.of(log("kept", base.plusSeconds(1))));
+
+        // deleteExpired 가 인덱스를 읽은 뒤 데이터 파일을 지운 상황
+        Files.delete(dataFiles().getFirst());
+
+        assertThat(messages(store.findRecentLines("demo", 10))).containsExactly("kept");
+        store.close();
+    }
+
+    private SegmentLogStore store(long rollMinutes, long maxSegmentBytes, long retentionHours) throws IOException {
+        SegmentLogStore store = new SegmentLogStore(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "dir", dir.toString());
+        ReflectionTestUtils.setField(store, "rollMinutes", rollMinutes);
+        ReflectionTestUtils.setField(store, "maxSegmentBytes", maxSegmentBytes);
+        ReflectionTestUtils.setField(store, "blockBytes", 64 * 1024);
+        ReflectionTestUtils.setField(store, "retentionHours", retentionHours);
+        ReflectionTestUtils.setField(store, "fsync", false);
+        store.init();
+        return store;
+    }
+
+    private static ServerLog log(String message, LocalDateTime occurredAt) {
+        return new ServerLog(SERVER, "INFO", message, occurredAt, null);
+    }
+
+    private static List<String> messages(List<LogLine> lines) {
+        return lines.stream().map(LogLine::message).toList();
+    }
+
+    // 시작 시각 순 데이터 파일
+    private List<Path> dataFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir.resolve("demo"))) {
+            return files.filter(p -> p.toString().endsWith(LogSegment.DATA_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 0xFF)).rewind();
+            ch.write(b, position);
+        }
+    }
+
+    private static void appendBytes(Path file, ByteBuffer bytes) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ch.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.kakao.kakao_test.mcp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springaicommunity.mcp.annotation.McpTool;
+import org.springaicommunity.mcp.annotation.McpToolParam;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class McpToolDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeTools fakeTools = new FakeTools();
+    private McpToolDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new McpToolDispatcher(null, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "maxConcurrentPerTool", 8);
+        ReflectionTestUtils.setField(dispatcher, "acquireTimeoutMs", 20L);
+        ReflectionTestUtils.setField(dispatcher, "toolLimits", "test-slow=1");
+        dispatcher.register(fakeTools);
+    }
+
+    @Test
+    void 도구_정의와_입력_스키마를_메서드에서_만든다() {
+        McpToolDispatcher.ToolDefinition echo = dispatcher.definitions().stream()
+                .filter(d -> d.name().equals("test-echo")).findFirst().orElseThrow();
+
+        assertThat(echo.description()).isEqualTo("echo");
+        assertThat(echo.inputSchema()).containsEntry("required", List.of("serverName"));
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> properties = (Map<String, Map<String, Object>>) echo.inputSchema().get("properties");
+        assertThat(properties).containsOnlyKeys("serverName", "limit");
+        assertThat(properties.get("limit")).containsEntry("type", "integer");
+    }
+
+    @Test
+    void 인자를_파라미터_타입으로_바인딩하고_누락되면_isError_로_돌려준다() {
+        assertThat(dispatcher.call("test-echo", Map.of("serverName", "demo", "limit", "3"), "test"))
+                .isEqualTo(new McpToolDispatcher.ToolResult("demo:3", false));
+        assertThat(dispatcher.call("test-echo", Map.of("serverName", "demo"), "test"))
+                .isEqualTo(new McpToolDispatcher.ToolResult("demo:null", false));
+
+        McpToolDispatcher.ToolResult missing = dispatcher.call("test-echo", Map.of("limit", 3), "test");
+        assertThat(missing.error()).isTrue();
+        assertThat(missing.text()).contains("serverName");
+
+        assertThat(dispatcher.call("nope", Map.of(), "test").error()).isTrue();
+    }
+
+    @Test
+    void 동시_실행_한도를_넘으면_기다리지_않고_거절한다() throws Exception {
+        CompletableFuture<McpToolDispatcher.ToolResult> first =
+                CompletableFuture.supplyAsync(() -> dispatcher.call("test-slow", Map.of(), "test"));
+        assertThat(fakeTools.entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+        McpToolDispatcher.ToolResult second = dispatcher.call("test-slow", Map.of(), "test");
+        fakeTools.release.countDown();
+
+        assertThat(second.error()).isTrue();
+        assertThat(first.get(1, TimeUnit.SECONDS).error()).isFalse();
+        assertThat(meterRegistry.get("mcp.tool.calls").tags("tool", "test-slow", "outcome", "rejected").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("mcp.tool.in_flight").tag("tool", "test-slow").gauge().value()).isZero();
+    }
+
+    static class FakeTools {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @McpTool(name = "test-echo", description = "echo")
+        public String echo(@McpToolParam(description = "서버 이름") String serverName,
+                           @McpToolParam(description = "개수", required = false) Integer limit) {
+            return serverName + ":" + limit;
+        }
+
+        @McpTool(name = "test-slow", description = "slow")
+        public String slow() throws InterruptedException {
+            entered.countDown();
+            release.await(1, TimeUnit.SECONDS);
+            return "done";
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.kakao.kakao_test.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kakao.kakao_test.monitor.HealthStateTracker;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MCP 전송 방식별 도구 호출 처리량 / 지연 (Streamable HTTP /mcp vs legacy SSE)
+ * - 로컬 서버(RANDOM_PORT) + H2 로만 실행 (외부 접속 없음), 두 방식 모두 McpToolDispatcher 를 거침
+ * - 도구는 DB 조회 없는 get_health_status (메모리 상태) -> 전송 방식 자체의 비용 비교
+ * ./gradlew benchmark 로만 실행
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:mcp-bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "openai.api-key=test",
+        "mcp.dispatch.max-concurrent-per-tool=64"
+})
+class McpTransportBenchmarkTest {
+
+    private static final int CLIENTS = 16;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASURE = Duration.ofSeconds(10);
+    private static final String SERVER_NAME = "bench";
+
+    @Value("${local.server.port}")
+    private int port;
+    @Autowired
+    private HealthStateTracker healthStateTracker;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void 전송_방식별_도구_호출_처리량과_p99() throws Exception {
+        healthStateTracker.seed(SERVER_NAME, System.currentTimeMillis(), "UP", 12, 200);
+
+        Result streamable = run(StreamableClient::new);
+        Result legacy = run(LegacySseClient::new);
+
+        System.out.printf("""
+                [mcp transport benchmark - %d clients, %ds]
+                streamable(/mcp)  : %,8.0f calls/s  p50 %,6d us  p99 %,6d us  errors %d
+                legacy-sse        : %,8.0f calls/s  p50 %,6d us  p99 %,6d us  errors %d
+                """,
+                CLIENTS, MEASURE.toSeconds(),
+                streamable.callsPerSecond(), streamable.p50Micros(), streamable.p99Micros(), streamable.errors,
+                legacy.callsPerSecond(), legacy.p50Micros(), legacy.p99Micros(), legacy.errors);
+
+        assertThat(streamable.errors).isZero();
+        assertThat(legacy.errors).isZero();
+    }
+
+    private Result run(ClientFactory factory) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(CLIENTS);
+        AtomicLong errors = new AtomicLong();
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+            long measureEnd = warmupEnd + MEASURE.toNanos();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(workers.submit(() -> {
+                    try (Client client = factory.create()) {
+                        long[] samples = new long[1024];
+                        int n = 0;
+                        long now;
+                        while ((now = System.nanoTime()) < measureEnd) {
+                            boolean ok = client.callTool();
+                            long elapsed = System.nanoTime() - now;
+                            if (now < warmupEnd) continue;
+                            if (!ok) errors.incrementAndGet();
+                            if (n == samples.length) samples = Arrays.copyOf(samples, n * 2);
+                            samples[n++] = elapsed;
+                        }
+                        return Arrays.copyOf(samples, n);
+                    }
+                }));
+            }
+
+            List<long[]> perClient = new ArrayList<>();
+            for (Future<long[]> f : futures) perClient.add(f.get());
+            long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(all, errors.get());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private String callToolBody(long id, String toolName) throws Exception {
+        return objectMapper.writeValueAsString(Map.of(
+                "jsonrpc", "2.0",
+                "id", id,
+                "method", "tools/call",
+                "params", Map.of("name", toolName, "arguments", Map.of("serverName", SERVER_NAME))
+        ));
+    }
+
+    private static boolean succeeded(JsonNode response) {
+        JsonNode result = response.path("result");
+        return !result.isMissingNode() && !result.path("isError").asBoolean(false);
+    }
+
+    private interface Client extends AutoCloseable {
+        boolean callTool() throws Exception;
+
+        @Override
+        default void close() {
+        }
+    }
+
+    private interface ClientFactory {
+        Client create() throws Exception;
+    }
+
+    /**
+     * Streamable HTTP (STATELESS): 요청 1번 = JSON-RPC 1건, 응답 본문에 결과
+     */
+    private class StreamableClient implements Client {
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public boolean callTool() throws Exception {
+            String body = callToolBody(ids.incrementAndGet(), "ServerDoctor-get_health_status");
+            HttpResponse<String> res = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/mcp"))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json, text/event-stream")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            return res.statusCode() == 200 && succeeded(objectMapper.readTree(res.body()));
+        }
+    }
+
+    /**
+     * legacy SSE: 세션 연결 1개를 유지하고 /legacy/messages 로 요청, 결과는 SSE 스트림으로 수신
+     */
+    private class LegacySseClient implements Client {
+        private final AtomicLong ids = new AtomicLong();
+        private final Map<Long, CompletableFuture<JsonNode>> pending = new ConcurrentHashMap<>();
+        private final CompletableFuture<String> endpoint = new CompletableFuture<>();
+        private final CompletableFuture<HttpResponse<Void>> stream;
+
+        LegacySseClient() throws Exception {
+            stream = http.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/legacy/sse"))
+                    .header("Accept", "text/event-stream")
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.fromLineSubscriber(new Flow.Subscriber<String>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(String line) {
+                    if (!line.startsWith("data:")) return;
+                    String data = line.substring(5).trim();
+                    if (data.startsWith("messages?sessionId=")) {
+                        endpoint.complete(data);
+                        return;
+                    }
+                    try {
+                        JsonNode message = objectMapper.readTree(data);
+                        CompletableFuture<JsonNode> f = pending.remove(message.path("id").asLong());
+                        if (f != null) f.complete(message);
+                    } catch (Exception ignored) {
+                        // progress 알림 등 응답이 아닌 메시지
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    endpoint.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            }));
+            endpoint.get(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public boolean callTool() throws Exception {
+            long id = ids.incrementAndGet();
+            CompletableFuture<JsonNode> response = new CompletableFuture<>();
+            pending.put(id, response);
+            String body = callToolBody(id, "ServerDoctor_get_health_status");
+            HttpResponse<Void> res = http.send(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/legacy/" + endpoint.get()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            if (res.statusCode() != 202) {
+                pending.remove(id);
+                return false;
+            }
+            return succeeded(response.get(5, TimeUnit.SECONDS));
+        }
+
+        @Override
+        public void close() {
+            stream.cancel(true);
+        }
+    }
+
+    private record Result(long[] sortedNanos, long errors) {
+
+        double callsPerSecond() {
+            return sortedNanos.length / (double) MEASURE.toSeconds();
+        }
+
+        long p50Micros() {
+            return percentile(0.50) / 1_000;
+        }
+
+        long p99Micros() {
+            return percentile(0.99) / 1_000;
+        }
+
+        private long percentile(double p) {
+            if (sortedNanos.length == 0) return 0;
+            return sortedNanos[Math.min(sortedNanos.length - 1, (int) Math.ceil(p * sortedNanos.length) - 1)];
+        }
+    }
+}
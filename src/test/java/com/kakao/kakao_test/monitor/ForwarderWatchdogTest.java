@@ -0,0 +1,91 @@
+package com.kakao.kakao_test.monitor;
+
+import com.kakao.kakao_test.service.DiscordNotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ForwarderWatchdogTest {
+
+    private static final String WEBHOOK = "https://discord.com/api/webhooks/1/token";
+
+    private final DiscordNotificationService discord = mock(DiscordNotificationService.class);
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private ForwarderWatchdog watchdog;
+
+    @BeforeEach
+    void setUp() {
+        watchdog = new ForwarderWatchdog(discord, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(watchdog, "silentSeconds", 60);
+        ReflectionTestUtils.setField(watchdog, "clock", (LongSupplier) now::get);
+    }
+
+    @Test
+    void 마지막_수신_후_silent_seconds_가_지나면_한_번만_알린다() {
+        watchdog.touch("demo", WEBHOOK);
+
+        at(59_000);
+        verify(discord, never()).sendErrorAlert(any(), anyString(), anyString());
+
+        at(1_000);
+        verify(discord).sendErrorAlert(eq(WEBHOOK), eq("demo"), contains("60초"));
+
+        at(600_000); // 계속 조용해도 다시 수신되기 전까지는 한 번만
+        verify(discord, times(1)).sendErrorAlert(any(), anyString(), anyString());
+    }
+
+    @Test
+    void 마감_전에_수신이_있으면_마감을_미루고_그_시각부터_다시_센다() {
+        watchdog.touch("demo", WEBHOOK);
+        now.addAndGet(30_000);
+        watchdog.touch("demo", null); // 웹훅 헤더 없는 수신은 이전 웹훅 유지
+
+        at(30_000); // 처음 마감(60초) -> 그 사이 수신이 있어 90초로 재예약
+        verify(discord, never()).sendErrorAlert(any(), anyString(), anyString());
+
+        at(30_000);
+        verify(discord).sendErrorAlert(eq(WEBHOOK), eq("demo"), anyString());
+    }
+
+    @Test
+    void 침묵_후_수신이_재개되면_다시_감시한다() {
+        watchdog.touch("demo", WEBHOOK);
+        at(60_000);
+
+        now.addAndGet(10_000);
+        watchdog.touch("demo", WEBHOOK); // forwarder 재시작
+        at(59_000);
+        verify(discord, times(1)).sendErrorAlert(any(), anyString(), anyString());
+
+        at(1_000);
+        verify(discord, times(2)).sendErrorAlert(eq(WEBHOOK), eq("demo"), anyString());
+    }
+
+    @Test
+    void 감시_해제된_서버는_알리지_않는다() {
+        watchdog.touch("demo", WEBHOOK);
+        watchdog.forget("demo");
+
+        at(120_000);
+        verify(discord, never()).sendErrorAlert(any(), anyString(), anyString());
+    }
+
+    // 시각을 앞으로 돌린 뒤 마감 확인
+    private void at(long elapsedMs) {
+        now.addAndGet(elapsedMs);
+        watchdog.checkDeadlines();
+    }
+}
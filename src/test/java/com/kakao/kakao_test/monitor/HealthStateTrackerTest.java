@@ -0,0 +1,124 @@
+package com.kakao.kakao_test.monitor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static com.kakao.kakao_test.monitor.HealthStateTracker.PersistReason.COMPACT;
+import static com.kakao.kakao_test.monitor.HealthStateTracker.PersistReason.NONE;
+import static com.kakao.kakao_test.monitor.HealthStateTracker.PersistReason.TRANSITION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HealthStateTrackerTest {
+
+    private HealthStateTracker tracker;
+    private long ts;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new HealthStateTracker();
+        ReflectionTestUtils.setField(tracker, "maxWindowMinutes", 60);
+        ReflectionTestUtils.setField(tracker, "compactIntervalSeconds", 300);
+        ReflectionTestUtils.setField(tracker, "latencyBandMarginPercent", 20);
+        ReflectionTestUtils.setField(tracker, "latencyBandConfirmProbes", 3);
+        ts = System.currentTimeMillis() - 60_000;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void 가동률과_latency_백분위수를_버킷_상한으로_계산한다() {
+        for (int i = 0; i < 9; i++) probe("UP", 40);
+        probe("DOWN", 2_500);
+
+        HealthStateTracker.Snapshot snap = tracker.snapshot("demo", 60);
+
+        assertThat(snap.probes()).isEqualTo(10);
+        assertThat(snap.uptimePercent()).isEqualTo(90.0);
+        assertThat(snap.p50LatencyMs()).isEqualTo(50);    // 40ms -> 50ms 버킷
+        assertThat(snap.p99LatencyMs()).isEqualTo(3_000); // 10번째(2500ms) -> 3000ms 버킷
+        assertThat(snap.status()).isEqualTo("DOWN");
+        assertThat(tracker.snapshot("unknown", 60)).isNull();
+    }
+
+    @Test
+    void 경계_근처에서_출렁이는_latency_는_상태_변화로_저장하지_않는다() {
+        assertThat(probe("UP", 90)).isEqualTo(TRANSITION); // 첫 probe
+
+        // 연속 3회가 되기 전에 원래 구간으로 돌아오면 무시
+        assertThat(probe("UP", 110)).isEqualTo(NONE);
+        assertThat(probe("UP", 120)).isEqualTo(NONE);
+        assertThat(probe("UP", 95)).isEqualTo(NONE);
+        assertThat(probe("UP", 110)).isEqualTo(NONE);
+        assertThat(probe("UP", 110)).isEqualTo(NONE);
+        assertThat(probe("UP", 110)).isEqualTo(TRANSITION); // FAST -> NORMAL 확정
+
+        // 빨라지는 쪽은 하한(100ms)보다 20% 아래(80ms 미만)여야 FAST 후보
+        for (int i = 0; i < 5; i++) assertThat(probe("UP", 95)).isEqualTo(NONE);
+        assertThat(probe("UP", 70)).isEqualTo(NONE);
+        assertThat(probe("UP", 70)).isEqualTo(NONE);
+        assertThat(probe("UP", 70)).isEqualTo(TRANSITION);
+
+        // UP/DOWN 변화는 바로 저장
+        assertThat(probe("DOWN", 70)).isEqualTo(TRANSITION);
+    }
+
+    @Test
+    void 저장이_롤백되면_다음_probe_에서_같은_상태_변화를_다시_저장한다() {
+        probe("UP", 50);
+
+        TransactionSynchronizationManager.initSynchronization();
+        HealthStateTracker.Observation down = tracker.observe("demo", ts += 1_000, "DOWN", 50, 503);
+        assertThat(down.reason()).isEqualTo(TRANSITION);
+        complete(false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        HealthStateTracker.Observation retried = tracker.observe("demo", ts += 1_000, "DOWN", 50, 503);
+        assertThat(retried.reason()).isEqualTo(TRANSITION);
+        assertThat(retried.previousStatus()).isEqualTo("UP");
+        complete(true);
+
+        assertThat(probe("DOWN", 50)).isEqualTo(NONE);
+    }
+
+    @Test
+    void 압축_샘플은_마지막_저장_이후의_probe_만_센다() {
+        probe("UP", 50);
+        probe("UP", 50);
+        probe("DOWN", 50); // 상태 변화 저장 -> 누적 초기화
+        probe("DOWN", 50);
+
+        ts += 300_000;
+        HealthStateTracker.Observation compact = tracker.observe("demo", ts, "DOWN", 50, 503);
+
+        assertThat(compact.reason()).isEqualTo(COMPACT);
+        assertThat(compact.compactedProbes()).isEqualTo(2);
+        assertThat(compact.compactedUptimePercent()).isZero();
+    }
+
+    private HealthStateTracker.PersistReason probe(String status, long latencyMs) {
+        ts += 1_000;
+        return tracker.observe("demo", ts, status, latencyMs, "UP".equals(status) ? 200 : 503).reason();
+    }
+
+    // 트랜잭션 매니저 대신 등록된 synchronization 을 직접 완료시킴
+    private static void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization s : synchronizations) {
+            if (committed) s.afterCommit();
+            s.afterCompletion(committed ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.kakao.kakao_test.monitor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestDeduplicatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IngestDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        deduplicator = new IngestDeduplicator(meterRegistry);
+        ReflectionTestUtils.setField(deduplicator, "windowSeconds", 600);
+        ReflectionTestUtils.setField(deduplicator, "maxIdsPerGeneration", 65536);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void 롤백된_트랜잭션에서_본_ID_는_재전송_때_다시_받는다() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(deduplicator.firstSeen("demo", "batch", "b-1")).isTrue();
+        assertThat(deduplicator.firstSeen("demo", "batch", "b-1")).isFalse(); // 같은 트랜잭션 안의 중복
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(deduplicator.firstSeen("demo", "batch", "b-1")).isTrue();
+    }
+
+    @Test
+    void 커밋_전에는_다른_요청이_중복으로_버려지지_않고_커밋_후에는_걸러진다() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(deduplicator.firstSeen("demo", "log", "e-1")).isTrue();
+
+        // 진행 중인 트랜잭션의 ID 는 다른 요청에 보이지 않음 (원래 요청이 롤백돼도 재전송이 살아남도록)
+        boolean concurrentRetry = CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                return deduplicator.firstSeen("demo", "log", "e-1");
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).get();
+        assertThat(concurrentRetry).isTrue();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(deduplicator.firstSeen("demo", "log", "e-1")).isFalse();
+        assertThat(meterRegistry.get("ingest.duplicates.dropped").tag("type", "log").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void 세대가_두_번_바뀌면_예전_ID_를_잊는다() {
+        ReflectionTestUtils.setField(deduplicator, "maxIdsPerGeneration", 2);
+
+        assertThat(deduplicator.firstSeen("demo", "log", "a")).isTrue();
+        assertThat(deduplicator.firstSeen("demo", "log", "b")).isTrue();
+        assertThat(deduplicator.firstSeen("demo", "log", "c")).isTrue();  // 가득 차서 교체: 이전 {a, b}, 현재 {c}
+        assertThat(deduplicator.firstSeen("demo", "log", "a")).isFalse(); // 이전 세대에 남아 있음
+        assertThat(deduplicator.firstSeen("demo", "log", "d")).isTrue();
+        assertThat(deduplicator.firstSeen("demo", "log", "e")).isTrue();  // 다시 교체: 이전 {c, d}, 현재 {e}
+
+        assertThat(deduplicator.firstSeen("demo", "log", "c")).isFalse();
+        assertThat(deduplicator.firstSeen("demo", "log", "a")).isTrue();
+        assertThat(deduplicator.firstSeen("other", "log", "e")).isTrue(); // 서버별로 따로 기억
+    }
+
+    // 트랜잭션 매니저 대신 등록된 synchronization 을 직접 완료시킴
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+}
@@ -0,0 +1,79 @@
+package com.kakao.kakao_test.monitor;
+
+import com.kakao.kakao_test.dto.IngestTraceDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestTracerTest {
+
+    private IngestTracer tracer;
+
+    @BeforeEach
+    void setUp() {
+        tracer = new IngestTracer();
+        ReflectionTestUtils.setField(tracer, "sampleRate", 0.0);
+        ReflectionTestUtils.setField(tracer, "slowThresholdMs", 10L);
+        ReflectionTestUtils.setField(tracer, "bufferSize", 3);
+        tracer.init();
+    }
+
+    @Test
+    void 단계_구간을_순서대로_기록하고_중첩_호출은_바깥_trace_로_합친다() {
+        assertThat(tracer.begin("logs", "demo")).isTrue();
+        tracer.mark("server_lookup");
+        assertThat(tracer.begin("logs", "demo")).isFalse(); // 서비스 안에서 다시 불린 경우
+        tracer.mark("db_insert");
+        tracer.end("error");
+
+        List<IngestTraceDto> traces = tracer.recent(10);
+        assertThat(traces).hasSize(1);
+        assertThat(traces.getFirst().outcome()).isEqualTo("error");
+        assertThat(traces.getFirst().stages()).extracting(IngestTraceDto.Stage::name)
+                .containsExactly("server_lookup", "db_insert", "commit");
+
+        tracer.mark("ignored"); // 추적 중이 아니면 무시
+        tracer.end("success");
+        assertThat(tracer.recent(10)).hasSize(1);
+    }
+
+    @Test
+    void 빠른_성공은_샘플링하고_느리거나_실패한_요청은_항상_남긴다() throws InterruptedException {
+        trace("metrics", "fast", "success", 0);
+        trace("metrics", "failed", "error", 0);
+        trace("logs", "slow", "success", 20);
+
+        assertThat(tracer.recent(10)).extracting(IngestTraceDto::serverName).containsExactly("slow", "failed");
+        assertThat(tracer.slowest(10, "logs")).extracting(IngestTraceDto::serverName).containsExactly("slow");
+        assertThat(tracer.slowest(1, null)).extracting(IngestTraceDto::serverName).containsExactly("slow");
+    }
+
+    @Test
+    void 링버퍼가_차면_가장_오래된_trace_부터_덮어쓴다() throws InterruptedException {
+        for (int i = 0; i < 5; i++) trace("health", "s" + i, "error", 0);
+
+        assertThat(tracer.recent(10)).extracting(IngestTraceDto::serverName).containsExactly("s4", "s3", "s2");
+        assertThat(tracer.recent(2)).hasSize(2);
+    }
+
+    @Test
+    void 단계가_상한을_넘으면_마지막_구간에_합산한다() {
+        tracer.begin("logs", "demo");
+        for (int i = 0; i < 20; i++) tracer.mark("stage-" + i);
+        tracer.end("error");
+
+        List<IngestTraceDto.Stage> stages = tracer.recent(1).getFirst().stages();
+        assertThat(stages).hasSize(16);
+        assertThat(stages.getLast().name()).isEqualTo("stage-15");
+    }
+
+    private void trace(String pipeline, String serverName, String outcome, long sleepMs) throws InterruptedException {
+        tracer.begin(pipeline, serverName);
+        if (sleepMs > 0) Thread.sleep(sleepMs);
+        tracer.end(outcome);
+    }
+}
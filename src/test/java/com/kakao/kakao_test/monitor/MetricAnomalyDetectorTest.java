@@ -0,0 +1,68 @@
+package com.kakao.kakao_test.monitor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricAnomalyDetectorTest {
+
+    private MetricAnomalyDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new MetricAnomalyDetector();
+        ReflectionTestUtils.setField(detector, "alpha", 0.1);
+        ReflectionTestUtils.setField(detector, "spikeSigma", 3.0);
+        ReflectionTestUtils.setField(detector, "spikeMinPercent", 50.0);
+        ReflectionTestUtils.setField(detector, "saturationCpuPercent", 80.0);
+        ReflectionTestUtils.setField(detector, "saturationMemPercent", 90.0);
+        ReflectionTestUtils.setField(detector, "saturationSamples", 6);
+        ReflectionTestUtils.setField(detector, "leakWindow", 60);
+        ReflectionTestUtils.setField(detector, "leakMinSlopePerMin", 0.5);
+        ReflectionTestUtils.setField(detector, "leakMinR2", 0.7);
+    }
+
+    @Test
+    void 단발성_급상승은_SPIKE_로만_감지하고_포화로_보지_않는다() {
+        List<MetricAnomaly> found = new ArrayList<>();
+        long ts = 0;
+        for (int i = 0; i < 30; i++) {
+            found.addAll(detector.observe("demo", ts += 10_000, 20 + (i % 3), 40));
+        }
+        found.addAll(detector.observe("demo", ts += 10_000, 95, 40));
+        found.addAll(detector.observe("demo", ts + 10_000, 20, 40));
+
+        assertThat(found).extracting(MetricAnomaly::type).containsExactly(MetricAnomaly.Type.SPIKE);
+    }
+
+    @Test
+    void 임계치_이상이_지속되면_구간당_한번_SATURATION() {
+        List<MetricAnomaly> found = new ArrayList<>();
+        long ts = 0;
+        for (int i = 0; i < 20; i++) {
+            found.addAll(detector.observe("demo", ts += 10_000, 90, 40));
+        }
+
+        assertThat(found).extracting(MetricAnomaly::type)
+                .containsOnlyOnce(MetricAnomaly.Type.SATURATION);
+    }
+
+    @Test
+    void 임계치_아래에서_서서히_증가하는_메모리는_LEAK_으로_감지() {
+        List<MetricAnomaly> found = new ArrayList<>();
+        long ts = 0;
+        double mem = 40;
+        for (int i = 0; i < 120; i++) {
+            mem += 0.2; // 10초마다 0.2%p -> 분당 1.2%p
+            found.addAll(detector.observe("demo", ts += 10_000, 20, mem + (i % 2) * 0.1));
+        }
+
+        assertThat(found).extracting(MetricAnomaly::type).containsOnlyOnce(MetricAnomaly.Type.LEAK);
+        assertThat(detector.recentAnomalies("demo")).isNotEmpty();
+    }
+}
@@ -0,0 +1,71 @@
+package com.kakao.kakao_test.repository;
+
+import com.kakao.kakao_test.domain.ServerLog;
+import com.kakao.kakao_test.domain.ServerMetric;
+import com.kakao.kakao_test.domain.TargetServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 메모리 중복 제거가 비어 있을 때(재시작 직후, 스풀 재생) 같은 배치를 다시 저장하면 DB 에서 걸러지고 0건으로 집계되는지
+ */
+class BulkRepositoryDuplicateTest {
+
+    private JdbcTemplate jdbc;
+    private TargetServer server;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("insert into target_server (server_name, mcp_token) values ('demo', 'token')");
+
+        server = new TargetServer("demo", "token");
+        ReflectionTestUtils.setField(server, "id", jdbc.queryForObject("select id from target_server", Long.class));
+    }
+
+    @Test
+    void 같은_메트릭_배치를_다시_보내면_0건을_반환한다() {
+        ServerMetricBulkRepositoryImpl repository = new ServerMetricBulkRepositoryImpl(jdbc, new SimpleMeterRegistry());
+        List<ServerMetric> batch = List.of(metric("m-1"), metric("m-2"), metric(null));
+
+        assertThat(repository.bulkInsert(batch)).isEqualTo(3);
+        assertThat(repository.bulkInsert(List.of(metric("m-1"), metric("m-2")))).isZero();
+        // 일부만 새 이벤트 + 같은 배치 안의 반복
+        assertThat(repository.bulkInsert(List.of(metric("m-2"), metric("m-3"), metric("m-3")))).isEqualTo(1);
+
+        assertThat(jdbc.queryForObject("select count(*) from server_metric", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void 같은_로그_배치를_다시_보내면_0건을_반환한다() {
+        ServerLogBulkRepositoryImpl repository = new ServerLogBulkRepositoryImpl(jdbc, new SimpleMeterRegistry());
+        List<ServerLog> batch = List.of(log("e-1"), log("e-2"));
+
+        assertThat(repository.bulkInsert(batch)).isEqualTo(2);
+        assertThat(repository.bulkInsert(batch)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from server_log", Integer.class)).isEqualTo(2);
+    }
+
+    private ServerMetric metric(String eventId) {
+        return new ServerMetric(server, 10.0, 512.0, 1024.0, LocalDateTime.now(), eventId);
+    }
+
+    private ServerLog log(String eventId) {
+        return new ServerLog(server, "INFO", "message " + eventId, LocalDateTime.now(), eventId);
+    }
+}
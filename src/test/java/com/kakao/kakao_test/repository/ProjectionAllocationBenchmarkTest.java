@@ -0,0 +1,107 @@
+package com.kakao.kakao_test.repository;
+
+import com.kakao.kakao_test.domain.ServerLog;
+import com.kakao.kakao_test.domain.ServerMetric;
+import com.kakao.kakao_test.domain.TargetServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 엔티티 조회 vs projection 조회의 호출 1회당 힙 할당량 비교
+ * - H2(MySQL 모드) 에 로그 100개 / 메트릭 50개를 넣고 분석 서비스가 쓰는 조회를 반복
+ * ./gradlew benchmark 로만 실행
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:projection-bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "openai.api-key=test"
+})
+class ProjectionAllocationBenchmarkTest {
+
+    private static final String SERVER = "bench-server";
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    private TargetServerRepository targetServerRepository;
+    @Autowired
+    private ServerLogRepository serverLogRepository;
+    @Autowired
+    private ServerMetricRepository serverMetricRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void 엔티티_조회_대비_projection_조회의_호출당_할당량() {
+        seed();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // 기존: 서버 엔티티 조회 -> 엔티티 목록 (영속성 컨텍스트 스냅샷 포함)
+        long logsEntity = allocatedBytesPer(() -> readOnly.execute(s ->
+                serverLogRepository.findTop100ByServerOrderByOccurredAtDesc(
+                        targetServerRepository.getByServerName(SERVER))));
+        long metricsEntity = allocatedBytesPer(() -> readOnly.execute(s ->
+                serverMetricRepository.findTop50ByServerOrderByCapturedAtDesc(
+                        targetServerRepository.getByServerName(SERVER))));
+
+        // 변경: 서버 이름으로 바로 필요한 컬럼만
+        long logsProjection = allocatedBytesPer(() -> readOnly.execute(s ->
+                serverLogRepository.findRecentLines(SERVER, Limit.of(100))));
+        long metricsProjection = allocatedBytesPer(() -> readOnly.execute(s ->
+                serverMetricRepository.findRecentSamples(SERVER, Limit.of(50))));
+
+        System.out.printf("""
+                [projection allocation benchmark - bytes/call]
+                logs    (100) : entity %,d B  vs  projection %,d B
+                metrics (50)  : entity %,d B  vs  projection %,d B
+                """, logsEntity, logsProjection, metricsEntity, metricsProjection);
+
+        assertThat(logsProjection).isLessThan(logsEntity);
+        assertThat(metricsProjection).isLessThan(metricsEntity);
+    }
+
+    private void seed() {
+        TargetServer server = targetServerRepository.save(new TargetServer(SERVER, "token"));
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+
+        List<ServerLog> logs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            logs.add(new ServerLog(server, i % 10 == 0 ? "ERROR" : "INFO",
+                    "GET /api/orders/" + i + " 200 " + (i % 90) + "ms", base.plusSeconds(i), "l-" + i));
+        }
+        serverLogRepository.saveAll(logs);
+
+        List<ServerMetric> metrics = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            metrics.add(new ServerMetric(server, 20.0 + i % 30, 512.0 + i, 2048.0, base.plusSeconds(i * 10L), "m-" + i));
+        }
+        serverMetricRepository.saveAll(metrics);
+    }
+
+    // 워밍업 후 현재 스레드가 할당한 바이트의 1회 평균
+    private long allocatedBytesPer(Supplier<?> query) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < ITERATIONS; i++) query.get();
+
+        long threadId = Thread.currentThread().threadId();
+        long start = mx.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) query.get();
+        return (mx.getThreadAllocatedBytes(threadId) - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,106 @@
+package com.kakao.kakao_test.service;
+
+import com.kakao.kakao_test.http.OutboundHttpFixture;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 가짜 디스코드 웹훅 (POST ?wait=true 로 생성, PATCH /messages/{id} 로 수정)으로 스트리밍 전송 검증
+ */
+class DiscordStreamTest {
+
+    private static final Pattern CONTENT = Pattern.compile("\"content\"\\s*:\\s*\"(.*)\"");
+
+    private HttpServer discord;
+    private String webhookUrl;
+    private final Map<Integer, String> messages = new TreeMap<>(); // id -> 현재 내용
+    private final AtomicInteger failingEdits = new AtomicInteger();
+    private DiscordNotificationService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        discord = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        discord.createContext("/api/webhooks/9/token", this::handle);
+        discord.start();
+        webhookUrl = "http://127.0.0.1:" + discord.getAddress().getPort() + "/api/webhooks/9/token";
+        service = new DiscordNotificationService(OutboundHttpFixture.create(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        discord.stop(0);
+    }
+
+    @Test
+    void 넘김_시점의_수정이_실패해도_전체_리포트가_순서대로_전달된다() {
+        String first = "a".repeat(1_000);
+        String second = "b".repeat(1_500);
+
+        DiscordNotificationService.DiscordStream stream = service.openStream(webhookUrl, null);
+        stream.append(first);               // 첫 메시지 생성
+        failingEdits.set(1);
+        stream.append(second);              // 1900자 넘김 -> 첫 메시지 확정 수정이 실패
+        stream.complete();                  // 밀린 수정 재시도 후 나머지를 새 메시지로
+
+        assertThat(String.join("", messages.values())).isEqualTo(first + second);
+        assertThat(messages.values()).allMatch(m -> m.length() <= 1_900);
+    }
+
+    @Test
+    void 재시도도_실패하면_남은_내용을_분할_전송으로_보낸다() {
+        String first = "a".repeat(1_000);
+        String second = "b".repeat(1_500);
+
+        DiscordNotificationService.DiscordStream stream = service.openStream(webhookUrl, null);
+        stream.append(first);
+        failingEdits.set(2);
+        stream.append(second);
+        stream.complete();
+
+        // 첫 메시지는 수정 전 내용 그대로, 확정 못 한 1900자 + 나머지는 새 메시지로
+        assertThat(messages.values()).containsExactly(first, (first + second).substring(0, 1_900),
+                (first + second).substring(1_900));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Matcher m = CONTENT.matcher(body);
+        String content = m.find() ? m.group(1) : "";
+        String path = exchange.getRequestURI().getPath();
+        synchronized (messages) {
+            if ("PATCH".equals(exchange.getRequestMethod())) {
+                if (failingEdits.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                    return;
+                }
+                messages.put(Integer.parseInt(path.substring(path.lastIndexOf('/') + 1)), content);
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+                return;
+            }
+            int id = messages.size() + 1;
+            messages.put(id, content);
+            byte[] res = ("{\"id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, res.length);
+            exchange.getResponseBody().write(res);
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.kakao.kakao_test.service;
+
+import com.kakao.kakao_test.alert.AlertRuleEngine;
+import com.kakao.kakao_test.diagnosis.DiagnosisContextBuilder;
+import com.kakao.kakao_test.domain.TargetServer;
+import com.kakao.kakao_test.dto.IngestResultDto;
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.dto.MetricIngestDto;
+import com.kakao.kakao_test.ingest.ErrorContextRecorder;
+import com.kakao.kakao_test.ingest.LogLevelCounter;
+import com.kakao.kakao_test.ingest.LogSampler;
+import com.kakao.kakao_test.ingest.StackTraceReassembler;
+import com.kakao.kakao_test.logstore.LogStore;
+import com.kakao.kakao_test.monitor.ForwarderWatchdog;
+import com.kakao.kakao_test.monitor.IngestDeduplicator;
+import com.kakao.kakao_test.monitor.IngestTracer;
+import com.kakao.kakao_test.monitor.MetricAnomalyDetector;
+import com.kakao.kakao_test.repository.ErrorContextRepository;
+import com.kakao.kakao_test.repository.ServerLogBulkRepositoryImpl;
+import com.kakao.kakao_test.repository.ServerMetricBulkRepositoryImpl;
+import com.kakao.kakao_test.repository.ServerMetricRepository;
+import com.kakao.kakao_test.repository.TargetServerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 재시작(메모리 중복 제거가 빈 상태) 후 같은 배치가 다시 오면 DB 유니크 키에서 걸러지고,
+ * 집계 / 이상 탐지 / 알림이 한 번 더 일어나지 않는지 (스풀 재생도 같은 경로)
+ */
+class IngestReplayTest {
+
+    private final TargetServerRepository targetServerRepository = mock(TargetServerRepository.class);
+    private final IngestTracer ingestTracer = mock(IngestTracer.class);
+    private final AlertRuleEngine alertRuleEngine = mock(AlertRuleEngine.class);
+    private JdbcTemplate jdbc;
+    private TargetServer server;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:replay-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("insert into target_server (server_name, mcp_token) values ('demo', 'token')");
+
+        server = new TargetServer("demo", "token");
+        ReflectionTestUtils.setField(server, "id", jdbc.queryForObject("select id from target_server", Long.class));
+        when(targetServerRepository.getByServerName("demo")).thenReturn(server);
+    }
+
+    @Test
+    void 재시작_후_같은_메트릭_배치는_저장_0건이고_이상_탐지에_다시_넣지_않는다() {
+        ServerMetricBulkRepositoryImpl bulk = new ServerMetricBulkRepositoryImpl(jdbc, new SimpleMeterRegistry());
+        ServerMetricRepository serverMetricRepository = mock(ServerMetricRepository.class);
+        when(serverMetricRepository.bulkInsert(any())).thenAnswer(inv -> bulk.bulkInsert(inv.getArgument(0)));
+        MetricAnomalyDetector anomalyDetector = mock(MetricAnomalyDetector.class);
+        when(anomalyDetector.observe(anyString(), anyLong(), anyDouble(), anyDouble())).thenReturn(List.of());
+
+        List<MetricIngestDto> batch = List.of(metric("m-1", 1_000L), metric("m-2", 2_000L));
+        assertThat(metricService(serverMetricRepository, anomalyDetector, new IngestDeduplicator(new SimpleMeterRegistry()))
+                .saveMetrics("demo", batch, "token", null, "b-1").getAcceptedCount()).isEqualTo(2);
+
+        IngestDeduplicator restarted = new IngestDeduplicator(new SimpleMeterRegistry());
+        IngestResultDto replay = metricService(serverMetricRepository, anomalyDetector, restarted)
+                .saveMetrics("demo", batch, "token", null, "b-1");
+
+        assertThat(replay.getAcceptedCount()).isZero();
+        verify(anomalyDetector, times(2)).observe(anyString(), anyLong(), anyDouble(), anyDouble());
+        verify(alertRuleEngine, times(1)).onMetrics(eq("demo"), any(), any());
+        assertThat(jdbc.queryForObject("select count(*) from server_metric", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void 재시작_후_같은_로그_배치는_레벨_집계와_알림_규칙_평가를_다시_하지_않는다() {
+        ServerLogBulkRepositoryImpl bulk = new ServerLogBulkRepositoryImpl(jdbc, new SimpleMeterRegistry());
+        LogStore logStore = mock(LogStore.class);
+        when(logStore.append(any())).thenAnswer(inv -> bulk.bulkInsert(inv.getArgument(0)));
+        LogLevelCounter logLevelCounter = mock(LogLevelCounter.class);
+
+        List<LogEventDto> batch = List.of(new LogEventDto(1_000L, "INFO", "started", "e-1"),
+                new LogEventDto(2_000L, "ERROR", "Order 42 not found", "e-2"));
+        assertThat(logService(logStore, logLevelCounter, new IngestDeduplicator(new SimpleMeterRegistry()))
+                .ingestLogs("demo", "token", null, "b-1", batch).getAcceptedCount()).isEqualTo(2);
+
+        IngestDeduplicator restarted = new IngestDeduplicator(new SimpleMeterRegistry());
+        IngestResultDto replay = logService(logStore, logLevelCounter, restarted)
+                .ingestLogs("demo", "token", null, "b-1", batch);
+
+        assertThat(replay.getAcceptedCount()).isZero();
+        verify(logLevelCounter, times(1)).record(eq("demo"), any());
+        verify(alertRuleEngine, times(1)).onLogs(eq("demo"), any(), any());
+        assertThat(jdbc.queryForObject("select count(*) from server_log", Integer.class)).isEqualTo(2);
+    }
+
+    private MetricService metricService(ServerMetricRepository serverMetricRepository,
+                                        MetricAnomalyDetector anomalyDetector, IngestDeduplicator deduplicator) {
+        MetricService service = new MetricService(targetServerRepository, serverMetricRepository,
+                mock(DiscordNotificationService.class), mock(ServerHeartbeatService.class), anomalyDetector,
+                alertRuleEngine, mock(ForwarderWatchdog.class), dedup(deduplicator), ingestTracer);
+        ReflectionTestUtils.setField(service, "maxBatchSize", 1000);
+        return service;
+    }
+
+    private LogService logService(LogStore logStore, LogLevelCounter logLevelCounter, IngestDeduplicator deduplicator) {
+        StackTraceReassembler reassembler = mock(StackTraceReassembler.class);
+        when(reassembler.reassemble(any(), any())).thenAnswer(inv -> inv.getArgument(1));
+        LogSampler sampler = mock(LogSampler.class);
+        when(sampler.sample(any(), any())).thenAnswer(inv -> inv.getArgument(1));
+        return new LogService(targetServerRepository, logStore, alertRuleEngine, mock(ServerHeartbeatService.class),
+                mock(DiagnosisContextBuilder.class), mock(ForwarderWatchdog.class), dedup(deduplicator), ingestTracer,
+                sampler, reassembler, mock(ErrorContextRecorder.class), logLevelCounter,
+                mock(ErrorContextRepository.class));
+    }
+
+    private static IngestDeduplicator dedup(IngestDeduplicator deduplicator) {
+        ReflectionTestUtils.setField(deduplicator, "windowSeconds", 600);
+        ReflectionTestUtils.setField(deduplicator, "maxIdsPerGeneration", 65536);
+        return deduplicator;
+    }
+
+    private static MetricIngestDto metric(String eventId, long ts) {
+        MetricIngestDto.MetricData data = new MetricIngestDto.MetricData();
+        data.setCpuUsage(0.2);
+        data.setMemoryUsed(512L * 1024 * 1024);
+        data.setMemoryMax(1024L * 1024 * 1024);
+        data.setMemoryPercent(50.0);
+        MetricIngestDto dto = new MetricIngestDto();
+        dto.setType("METRIC");
+        dto.setTs(ts);
+        dto.setData(data);
+        dto.setEventId(eventId);
+        return dto;
+    }
+}
@@ -0,0 +1,80 @@
+package com.kakao.kakao_test.service;
+
+import com.kakao.kakao_test.http.OutboundHttpFixture;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 가짜 OpenAI 스트리밍 서버로 analyzeStream 검증
+ */
+class LlmClientServiceStreamTest {
+
+    private HttpServer fakeOpenAi;
+    private SimpleMeterRegistry meterRegistry;
+    private LlmClientService llmClientService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fakeOpenAi = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        fakeOpenAi.createContext("/v1/chat/completions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (String token : List.of("서버", " 상태", "는 정상")) {
+                    String line = "data: {\"choices\":[{\"delta\":{\"content\":\"" + token + "\"}}]}\n\n";
+                    out.write(line.getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+                out.write("data: {\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}\n\n".getBytes(StandardCharsets.UTF_8));
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        fakeOpenAi.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        llmClientService = new LlmClientService(meterRegistry, OutboundHttpFixture.create(meterRegistry));
+        ReflectionTestUtils.setField(llmClientService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(llmClientService, "baseUrl",
+                "http://127.0.0.1:" + fakeOpenAi.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        fakeOpenAi.stop(0);
+    }
+
+    @Test
+    void 토큰을_받는_즉시_전달하고_TTFT를_기록한다() {
+        List<String> deltas = new ArrayList<>();
+
+        String result = llmClientService.analyzeStream("system", "user", deltas::add);
+
+        assertThat(deltas).containsExactly("서버", " 상태", "는 정상");
+        assertThat(result).isEqualTo("서버 상태는 정상");
+        assertThat(meterRegistry.get("llm.stream.time_to_first_token").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void 연결_실패시_실패_메시지를_전달한다() {
+        fakeOpenAi.stop(0);
+        List<String> deltas = new ArrayList<>();
+
+        String result = llmClientService.analyzeStream("system", "user", deltas::add);
+
+        assertThat(result).startsWith("AI 분석 서버 연결 실패");
+        assertThat(deltas).hasSize(1);
+    }
+}
@@ -0,0 +1,157 @@
+package com.kakao.kakao_test.snapshot;
+
+import com.kakao.kakao_test.alert.AlertRuleEngine;
+import com.kakao.kakao_test.dto.LogEventDto;
+import com.kakao.kakao_test.monitor.MetricAnomaly;
+import com.kakao.kakao_test.monitor.MetricAnomalyDetector;
+import com.kakao.kakao_test.repository.AlertRuleRepository;
+import com.kakao.kakao_test.repository.TargetServerRepository;
+import com.kakao.kakao_test.service.DiscordNotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StateSnapshotManagerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void 저장한_이상_탐지_기준선이_재시작_후에도_이어진다() {
+        MetricAnomalyDetector before = detector();
+        long ts = 0;
+        for (int i = 0; i < 30; i++) {
+            before.observe("demo", ts += 10_000, 20 + (i % 3), 40);
+        }
+        manager(List.of(before)).save();
+
+        MetricAnomalyDetector after = detector();
+        assertThat(manager(List.of(after)).restore()).isTrue();
+
+        // 워밍업 없이 바로 급상승 판정
+        List<MetricAnomaly> found = after.observe("demo", ts + 10_000, 95, 40);
+        assertThat(found).extracting(MetricAnomaly::type).containsExactly(MetricAnomaly.Type.SPIKE);
+        assertThat(after.trackedServers()).containsExactly("demo");
+    }
+
+    @Test
+    void 알림_쿨타임이_재시작_후에도_이어진다() {
+        DiscordNotificationService discord = mock(DiscordNotificationService.class);
+        AlertRuleEngine before = alertRuleEngine(discord);
+        assertThat(before.onLogs("demo", null, errorLog())).isEqualTo(1);
+        manager(List.of(before)).save();
+
+        AlertRuleEngine after = alertRuleEngine(discord);
+        assertThat(manager(List.of(after)).restore()).isTrue();
+
+        // 기본 규칙(쿨타임 600초) 안이므로 다시 울리지 않음
+        assertThat(after.onLogs("demo", null, errorLog())).isZero();
+        assertThat(alertRuleEngine(discord).onLogs("demo", null, errorLog())).isEqualTo(1); // 복원하지 않으면 울림
+        verify(discord, times(2)).sendRuleAlert(any(), eq("demo"), any(), any());
+    }
+
+    @Test
+    void 깨진_섹션과_버전이_다른_섹션만_건너뛴다() throws IOException {
+        manager(List.of(new Counter("a", 1, 7), new Counter("b", 1, 8), new Counter("c", 1, 9))).save();
+
+        // 마지막 섹션 본문 1바이트 손상
+        Path file = dir.resolve("state.bin");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x7f;
+        Files.write(file, bytes);
+
+        Counter a = new Counter("a", 1, 0);
+        Counter b = new Counter("b", 2, 0);
+        Counter c = new Counter("c", 1, 0);
+        assertThat(manager(List.of(a, b, c)).restore()).isTrue();
+
+        assertThat(a.value).isEqualTo(7);
+        assertThat(b.value).isZero();
+        assertThat(c.value).isZero();
+    }
+
+    private StateSnapshotManager manager(List<SnapshotParticipant> participants) {
+        StateSnapshotManager manager = new StateSnapshotManager(participants, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "path", dir.resolve("state.bin").toString());
+        ReflectionTestUtils.setField(manager, "maxAgeSeconds", 900L);
+        return manager;
+    }
+
+    private static AlertRuleEngine alertRuleEngine(DiscordNotificationService discord) {
+        AlertRuleRepository alertRuleRepository = mock(AlertRuleRepository.class);
+        when(alertRuleRepository.findByServerNameAndEnabledTrue("demo")).thenReturn(List.of());
+        AlertRuleEngine engine = new AlertRuleEngine(alertRuleRepository, mock(TargetServerRepository.class),
+                discord, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "refreshSeconds", 60L);
+        ReflectionTestUtils.setField(engine, "defaultErrorLog", true);
+        ReflectionTestUtils.setField(engine, "defaultCooldownSeconds", 600);
+        return engine;
+    }
+
+    private static List<LogEventDto> errorLog() {
+        return List.of(new LogEventDto(System.currentTimeMillis(), "ERROR", "java.lang.IllegalStateException: boom", null));
+    }
+
+    private static MetricAnomalyDetector detector() {
+        MetricAnomalyDetector detector = new MetricAnomalyDetector();
+        ReflectionTestUtils.setField(detector, "alpha", 0.1);
+        ReflectionTestUtils.setField(detector, "spikeSigma", 3.0);
+        ReflectionTestUtils.setField(detector, "spikeMinPercent", 50.0);
+        ReflectionTestUtils.setField(detector, "saturationCpuPercent", 80.0);
+        ReflectionTestUtils.setField(detector, "saturationMemPercent", 90.0);
+        ReflectionTestUtils.setField(detector, "saturationSamples", 6);
+        ReflectionTestUtils.setField(detector, "leakWindow", 60);
+        ReflectionTestUtils.setField(detector, "leakMinSlopePerMin", 0.5);
+        ReflectionTestUtils.setField(detector, "leakMinR2", 0.7);
+        return detector;
+    }
+
+    private static class Counter implements SnapshotParticipant {
+        private final String name;
+        private final int version;
+        private long value;
+
+        Counter(String name, int version, long value) {
+            this.name = name;
+            this.version = version;
+            this.value = value;
+        }
+
+        @Override
+        public String snapshotName() {
+            return name;
+        }
+
+        @Override
+        public int snapshotVersion() {
+            return version;
+        }
+
+        @Override
+        public void writeSnapshot(DataOutputStream out) throws IOException {
+            out.writeLong(value);
+        }
+
+        @Override
+        public void restoreSnapshot(DataInputStream in, long savedAtMillis) throws IOException {
+            value = in.readLong();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.kakao.kakao_test.spool;
+
+import com.kakao.kakao_test.exception.UnauthorizedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpoolDrainerTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> replayed = new ArrayList<>();
+    private final List<Long> sleeps = new ArrayList<>();
+    // batchId -> 남은 실패 (앞에서부터 던짐)
+    private final Map<String, List<RuntimeException>> failures = new HashMap<>();
+    private SpoolLog spoolLog;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        spoolLog = new SpoolLog(dir, 1024 * 1024, false, (nanos, records) -> { });
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        spoolLog.close();
+    }
+
+    @Test
+    void 받은_순서대로_반영한다() throws Exception {
+        for (int i = 0; i < 5; i++) append("batch-" + i);
+
+        drainAll(drainer(3));
+
+        assertThat(replayed).containsExactly("batch-0", "batch-1", "batch-2", "batch-3", "batch-4");
+        assertThat(spoolLog.pendingRecords()).isZero();
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    void DB_오류는_버리지_않고_지수_백오프로_같은_레코드를_재시도한다() throws Exception {
+        append("batch-0");
+        append("batch-1");
+        failures.put("batch-0", new ArrayList<>(List.of(dbDown(), dbDown(), dbDown(), dbDown())));
+
+        drainAll(drainer(2)); // DB 오류는 max-attempts 와 무관
+
+        assertThat(sleeps).containsExactly(100L, 200L, 400L, 400L); // max-backoff-ms 에서 멈춤
+        assertThat(replayed).containsExactly("batch-0", "batch-1");
+        assertThat(dropped("rejected") + dropped("failed")).isZero();
+    }
+
+    @Test
+    void 다시_해도_같은_결과인_오류는_바로_버리고_그_외_오류는_max_attempts_후_버린다() throws Exception {
+        append("unauthorized");
+        append("broken");
+        append("ok");
+        failures.put("unauthorized", new ArrayList<>(List.of(new UnauthorizedException("토큰이 유효하지 않습니다."))));
+        failures.put("broken", new ArrayList<>(List.of(
+                new IllegalStateException("1"), new IllegalStateException("2"), new IllegalStateException("3"))));
+
+        drainAll(drainer(3));
+
+        assertThat(replayed).containsExactly("ok");
+        assertThat(sleeps).containsExactly(200L, 400L); // broken 만 재시도, unauthorized 는 대기 없이 버림
+        assertThat(dropped("rejected")).isEqualTo(1);
+        assertThat(dropped("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void DB_오류_재시도는_다른_오류의_재시도_횟수를_깎지_않는다() throws Exception {
+        append("batch-0");
+        failures.put("batch-0", new ArrayList<>(List.of(
+                dbDown(), dbDown(), dbDown(), new IllegalStateException("일시 오류"))));
+
+        drainAll(drainer(2));
+
+        assertThat(replayed).containsExactly("batch-0");
+        assertThat(dropped("failed")).isZero();
+    }
+
+    private SpoolDrainer drainer(int maxAttempts) {
+        SpoolDrainer.Replayer replayer = record -> {
+            List<RuntimeException> pending = failures.get(record.batchId());
+            if (pending != null && !pending.isEmpty()) throw pending.remove(0);
+            replayed.add(record.batchId());
+        };
+        return new SpoolDrainer("test", spoolLog, replayer, meterRegistry, 400, maxAttempts, 0, sleeps::add);
+    }
+
+    private static void drainAll(SpoolDrainer drainer) throws Exception {
+        for (int i = 0; i < 100 && drainer.drainOne(); i++) {
+        }
+    }
+
+    private void append(String batchId) throws IOException {
+        spoolLog.append(SpoolRecord.Kind.LOGS, "demo", batchId, new byte[8]);
+    }
+
+    private double dropped(String reason) {
+        Counter counter = meterRegistry.find("ingest.spool.dropped").tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static DataAccessResourceFailureException dbDown() {
+        return new DataAccessResourceFailureException("DB 연결 실패");
+    }
+}
@@ -0,0 +1,101 @@
+package com.kakao.kakao_test.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpoolLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void 받은_순서대로_반영하고_다_읽은_세그먼트는_삭제한다() throws IOException {
+        SpoolLog spool = open(256);
+        for (int i = 0; i < 20; i++) append(spool, "batch-" + i);
+        assertThat(spool.segmentCount()).isGreaterThan(1);
+
+        List<String> drained = drain(spool, 20);
+
+        assertThat(drained).containsExactlyElementsOf(batches(0, 20));
+        assertThat(spool.pendingRecords()).isZero();
+        assertThat(spool.pendingBytes()).isZero();
+        assertThat(spool.segmentCount()).isEqualTo(1); // 쓰는 중인 세그먼트만 남음
+        spool.close();
+    }
+
+    @Test
+    void 재시작하면_반영하지_못한_레코드부터_이어서_읽고_잘린_꼬리는_버린다() throws IOException {
+        SpoolLog spool = open(1024 * 1024);
+        for (int i = 0; i < 10; i++) append(spool, "batch-" + i);
+        drain(spool, 4);
+        spool.close();
+
+        // 쓰다가 죽은 것처럼 마지막 세그먼트 끝에 불완전한 레코드
+        Path last;
+        try (Stream<Path> files = Files.list(dir)) {
+            last = files.filter(p -> p.toString().endsWith(SpoolLog.SUFFIX)).max(Path::compareTo).orElseThrow();
+        }
+        try (FileChannel ch = FileChannel.open(last, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ch.write(ByteBuffer.allocate(12).putInt(500).putInt(0).putInt(7).flip());
+        }
+
+        SpoolLog reopened = open(1024 * 1024);
+        assertThat(reopened.pendingRecords()).isEqualTo(6);
+        append(reopened, "batch-10");
+
+        assertThat(drain(reopened, 7)).containsExactlyElementsOf(batches(4, 11));
+        assertThat(reopened.peek()).isNull();
+        reopened.close();
+    }
+
+    @Test
+    void ack_하지_않으면_같은_레코드를_다시_돌려준다() throws IOException {
+        SpoolLog spool = open(1024 * 1024);
+        append(spool, "batch-0");
+        append(spool, "batch-1");
+
+        assertThat(spool.peek().batchId()).isEqualTo("batch-0");
+        assertThat(spool.peek().batchId()).isEqualTo("batch-0");
+        spool.ack();
+        assertThat(spool.peek().batchId()).isEqualTo("batch-1");
+        spool.close();
+    }
+
+    private SpoolLog open(long segmentBytes) throws IOException {
+        return new SpoolLog(dir, segmentBytes, true, (nanos, records) -> { });
+    }
+
+    private static void append(SpoolLog spool, String batchId) throws IOException {
+        spool.append(SpoolRecord.Kind.LOGS, "demo", batchId, new byte[40]);
+    }
+
+    private static List<String> drain(SpoolLog spool, int n) throws IOException {
+        List<String> drained = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            SpoolRecord r = spool.peek();
+            if (r == null) break;
+            drained.add(r.batchId());
+            spool.ack();
+        }
+        spool.savePosition();
+        return drained;
+    }
+
+    private static List<String> batches(int from, int to) {
+        List<String> ids = new ArrayList<>();
+        for (int i = from; i < to; i++) ids.add("batch-" + i);
+        return ids;
+    }
+}
@@ -0,0 +1,13 @@
+-- Flyway 도입 전 운영 DB 스키마 (ddl-auto: update 가 기준 엔티티로 만든 DDL 그대로, 제약 이름은 Hibernate 자동 생성)
+create table server_health_event (http_status integer not null, id bigint not null auto_increment, latency_ms bigint not null, ts bigint not null, message varchar(500), server_name varchar(255) not null, status varchar(255) not null, primary key (id)) engine=InnoDB;
+create table server_log (created_at datetime(6), id bigint not null auto_increment, occurred_at datetime(6), server_id bigint not null, updated_at datetime(6), level varchar(255), message LONGTEXT, primary key (id)) engine=InnoDB;
+create table server_metric (cpu_usage float(53), memory_max_mb float(53), memory_used_mb float(53), captured_at datetime(6), id bigint not null auto_increment, server_id bigint not null, primary key (id)) engine=InnoDB;
+create table target_server (last_health_http_status integer, heart_beat datetime(6), id bigint not null auto_increment, last_health_latency_ms bigint, last_health_status varchar(255), mcp_token varchar(255) not null, server_name varchar(255) not null, primary key (id)) engine=InnoDB;
+create index idx_health_server_ts on server_health_event (server_name, ts);
+create index idx_log_server_time on server_log (server_id, occurred_at);
+create index idx_log_level on server_log (server_id, level, occurred_at);
+create index idx_metric_server_time on server_metric (server_id, captured_at);
+alter table target_server add constraint UK6i1hx2d3xlwp2ye3g8ul5tu1k unique (mcp_token);
+alter table target_server add constraint UKq4m1a6qjwbrnxiiifa8lcqmbe unique (server_name);
+alter table server_log add constraint FK4a8oqa0oavfw4pmgmt4jwjbs1 foreign key (server_id) references target_server (id);
+alter table server_metric add constraint FKl3kkw5ylxdn8ib9uy84nxb8lv foreign key (server_id) references target_server (id);